@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link InterpreterBase#getAttribute} over beans, maps and lists.
+ * <p>The node passed is the one the interpreter would use so the executor caching
+ * behaves as it does during script evaluation. The mixed kind alternates a bean and a map
+ * on the same node, a polymorphic call site.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttributeBenchmark {
+    /**
+     * A simple bean.
+     */
+    public static class Bean {
+        private final int value;
+
+        public Bean(final int v) {
+            value = v;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * The per-thread interpreter; interpreters are not meant to be shared.
+     */
+    @State(Scope.Thread)
+    public static class Session {
+        /** The interpreter. */
+        Interpreter interpreter;
+
+        /** The evaluation count, selects the receiver. */
+        int count;
+
+        @Setup
+        public void setup(final AttributeBenchmark bench) {
+            final Engine jexl = bench.jexl;
+            final JexlContext context = new MapContext();
+            interpreter = jexl.createInterpreter(context, null, jexl.evalOptions(context));
+        }
+    }
+
+    /** The receiver kind. */
+    @Param({"bean", "map", "list", "mixed"})
+    public String kind;
+
+    /** The engine. */
+    private Engine jexl;
+
+    /** The receivers, evaluated in turn. */
+    private Object[] objects;
+
+    /** The attribute. */
+    private Object attribute;
+
+    /** The node. */
+    private JexlNode node;
+
+    @Setup
+    public void setup() {
+        jexl = (Engine) Benchmarks.builder().create();
+        final String src;
+        switch (kind) {
+            case "map": {
+                final Map<String, Object> map = new HashMap<>();
+                for (int i = 0; i < 16; ++i) {
+                    map.put("key" + i, i);
+                }
+                map.put("value", 42);
+                objects = new Object[]{map};
+                attribute = "value";
+                src = "map.value";
+                break;
+            }
+            case "list": {
+                final List<Object> list = new ArrayList<>();
+                for (int i = 0; i < 16; ++i) {
+                    list.add(i);
+                }
+                objects = new Object[]{list};
+                attribute = 1;
+                src = "list[1]";
+                break;
+            }
+            case "mixed": {
+                final Map<String, Object> map = new HashMap<>();
+                map.put("value", 42);
+                objects = new Object[]{new Bean(42), map};
+                attribute = "value";
+                src = "item.value";
+                break;
+            }
+            default:
+                objects = new Object[]{new Bean(42)};
+                attribute = "value";
+                src = "bean.value";
+                break;
+        }
+        node = Benchmarks.lastLeaf((Script) jexl.createScript(src));
+    }
+
+    private Object get(final Session session) {
+        final Object object = objects[session.count++ % objects.length];
+        return session.interpreter.getAttribute(object, attribute, node);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object getAttributeSingle(final Session session) {
+        return get(session);
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public Object getAttributeContended(final Session session) {
+        return get(session);
+    }
+}
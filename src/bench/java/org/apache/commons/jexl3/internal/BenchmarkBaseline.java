@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Compares a JMH JSON result file against a stored baseline.
+ * <p>Results are matched by benchmark name, parameters and thread count. A result is deemed a regression
+ * when its score is worse than the baseline score by more than the tolerance ratio; the direction of
+ * "worse" depends on the mode (lower is better for time modes, higher is better for throughput).</p>
+ * <p>Usage: {@code BenchmarkBaseline <result.json> <baseline.json> [tolerance] [save] [fail]}</p>
+ * <ul>
+ *   <li>tolerance: the accepted relative degradation, defaults to 0.10</li>
+ *   <li>save: when true, the result file replaces the baseline after comparison</li>
+ *   <li>fail: when true, regressions make the program exit with status 1</li>
+ * </ul>
+ * <p>When no baseline exists, the comparison is skipped; use save to record one.</p>
+ */
+public final class BenchmarkBaseline {
+    /** The default tolerance. */
+    static final double TOLERANCE = 0.10;
+
+    /**
+     * A benchmark score.
+     */
+    static final class Score {
+        /** The JMH mode. */
+        final String mode;
+        /** The score. */
+        final double value;
+        /** The score error. */
+        final double error;
+        /** The unit. */
+        final String unit;
+
+        Score(final String mode, final double value, final double error, final String unit) {
+            this.mode = mode;
+            this.value = value;
+            this.error = error;
+            this.unit = unit;
+        }
+
+        /**
+         * @return true if higher scores are better for this mode
+         */
+        boolean isThroughput() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    /**
+     * Reads a JMH JSON result file.
+     *
+     * @param path the file path
+     * @return the scores keyed by benchmark, threads and parameters
+     * @throws IOException if reading fails
+     */
+    static Map<String, Score> read(final Path path) throws IOException {
+        final Map<String, Score> scores = new TreeMap<>();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            final JsonArray results = JsonParser.parseReader(reader).getAsJsonArray();
+            for (final JsonElement element : results) {
+                final JsonObject result = element.getAsJsonObject();
+                final StringBuilder key = new StringBuilder(result.get("benchmark").getAsString());
+                key.append(":t").append(result.get("threads").getAsInt());
+                final JsonObject params = result.getAsJsonObject("params");
+                if (params != null) {
+                    final Map<String, String> sorted = new TreeMap<>();
+                    params.entrySet().forEach(e -> sorted.put(e.getKey(), e.getValue().getAsString()));
+                    sorted.forEach((k, v) -> key.append(':').append(k).append('=').append(v));
+                }
+                final JsonObject metric = result.getAsJsonObject("primaryMetric");
+                final JsonElement error = metric.get("scoreError");
+                scores.put(key.toString(), new Score(
+                        result.get("mode").getAsString(),
+                        metric.get("score").getAsDouble(),
+                        error == null || !error.isJsonPrimitive() ? 0d : parseError(error.getAsString()),
+                        metric.get("scoreUnit").getAsString()));
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Parses a score error, JMH reports "NaN" when it could not be computed.
+     *
+     * @param str the error string
+     * @return the error value, 0 if not a number
+     */
+    private static double parseError(final String str) {
+        try {
+            final double d = Double.parseDouble(str);
+            return Double.isNaN(d) ? 0d : d;
+        } catch (final NumberFormatException xnumber) {
+            return 0d;
+        }
+    }
+
+    /**
+     * Compares results to a baseline.
+     *
+     * @param baseline the baseline scores
+     * @param results the result scores
+     * @param tolerance the accepted relative degradation
+     * @return the number of regressions
+     */
+    static int compare(final Map<String, Score> baseline, final Map<String, Score> results, final double tolerance) {
+        int regressions = 0;
+        for (final Map.Entry<String, Score> entry : results.entrySet()) {
+            final String key = entry.getKey();
+            final Score current = entry.getValue();
+            final Score base = baseline.get(key);
+            if (base == null || !base.mode.equals(current.mode) || !base.unit.equals(current.unit)) {
+                System.out.printf(Locale.ROOT, "NEW        %-100s %12.3f %s%n", key, current.value, current.unit);
+                continue;
+            }
+            // relative change, positive when worse
+            final double delta = base.value == 0d
+                ? 0d
+                : (current.isThroughput() ? base.value - current.value : current.value - base.value) / base.value;
+            // changes within the measurement errors are noise
+            final boolean noise = Math.abs(current.value - base.value) <= base.error + current.error;
+            final String status;
+            if (delta > tolerance && !noise) {
+                regressions += 1;
+                status = "REGRESSION";
+            } else if (-delta > tolerance && !noise) {
+                status = "IMPROVED";
+            } else {
+                status = "OK";
+            }
+            System.out.printf(Locale.ROOT, "%-10s %-100s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    status, key, base.value, current.value, current.unit, 100d * delta);
+        }
+        for (final String key : baseline.keySet()) {
+            if (!results.containsKey(key)) {
+                System.out.printf(Locale.ROOT, "MISSING    %s%n", key);
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Compares a result file to the baseline.
+     *
+     * @param args the result file, the baseline file, the tolerance, the save and the fail flags
+     * @throws IOException if reading or writing files fails
+     */
+    public static void main(final String... args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BenchmarkBaseline <result.json> <baseline.json> [tolerance] [save] [fail]");
+            System.exit(2);
+        }
+        final Path result = Paths.get(args[0]);
+        final Path baseline = Paths.get(args[1]);
+        final double tolerance = args.length > 2 && !args[2].isEmpty() ? Double.parseDouble(args[2]) : TOLERANCE;
+        final boolean save = args.length > 3 && Boolean.parseBoolean(args[3]);
+        final boolean fail = args.length > 4 && Boolean.parseBoolean(args[4]);
+        if (!Files.exists(result)) {
+            System.err.println("no benchmark result " + result);
+            System.exit(2);
+        }
+        int regressions = 0;
+        if (Files.exists(baseline)) {
+            regressions = compare(read(baseline), read(result), tolerance);
+            System.out.printf(Locale.ROOT, "%d regression(s) beyond %.0f%% against %s%n", regressions, 100d * tolerance, baseline);
+        } else {
+            System.out.println("no baseline " + baseline + ", comparison skipped");
+        }
+        if (save) {
+            final Path parent = baseline.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("baseline saved to " + baseline);
+        }
+        if (fail && regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private BenchmarkBaseline() {
+        // no instances
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.apache.commons.jexl3.parser.JexlNode;
+
+/**
+ * Shared helpers for the JMH benchmark suites.
+ * <p>Benchmarks live in the internal package so they can target engine internals
+ * (parse, getAttribute, operator overload resolution) directly.</p>
+ * <p>Each suite declares a single-threaded and a contended variant; the contended variant
+ * uses a fixed thread count so results stay comparable with a stored baseline.</p>
+ */
+final class Benchmarks {
+    /** The number of threads used by contended variants. */
+    static final int CONTENDED = 4;
+
+    /** The script cache size; a cache also enables executor caching in nodes. */
+    static final int CACHE = 256;
+
+    /**
+     * Creates a builder with the settings shared by all suites.
+     * <p>The benchmark beans are in a JEXL package, denied by the default permissions.</p>
+     *
+     * @return the builder configured with benchmark defaults
+     */
+    static JexlBuilder builder() {
+        return new JexlBuilder()
+            .strict(true)
+            .silent(false)
+            .safe(false)
+            .cache(CACHE)
+            .permissions(JexlPermissions.UNRESTRICTED);
+    }
+
+    /**
+     * Finds the node a script evaluates last, following the last child down to a leaf.
+     * <p>For {@code a.b} this is the identifier access, for {@code a[1]} the index literal.</p>
+     *
+     * @param script the script
+     * @return the leaf node
+     */
+    static JexlNode lastLeaf(final Script script) {
+        JexlNode node = script.script;
+        while (node.jjtGetNumChildren() > 0) {
+            node = node.jjtGetChild(node.jjtGetNumChildren() - 1);
+        }
+        return node;
+    }
+
+    /**
+     * Finds the first child node of a script, the top expression in a one-liner.
+     *
+     * @param script the script
+     * @return the node
+     */
+    static JexlNode firstChild(final Script script) {
+        return script.script.jjtGetChild(0);
+    }
+
+    private Benchmarks() {
+        // no instances
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.IndexedContext;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlFeatures;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.MapContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a script reading and writing global variables through a map or an indexed context.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextBenchmark {
+    /** The script, only uses global variables. */
+    static final String GLOBALS = "total = 0; for (i = 0; i < count; ++i) { total += price * quantity - discount; } total";
+
+    /** The context kind. */
+    @Param({"map", "indexed"})
+    public String kind;
+
+    /** The script. */
+    private JexlScript script;
+
+    /** The layout shared by indexed contexts. */
+    private final IndexedContext.Layout layout = new IndexedContext.Layout("price", "quantity", "discount", "count");
+
+    @Setup
+    public void setup() {
+        script = Benchmarks.builder().features(new JexlFeatures()).create().createScript(GLOBALS);
+    }
+
+    /**
+     * @return a new context with the script inputs
+     */
+    private JexlContext context() {
+        final JexlContext ctxt = "map".equals(kind) ? new MapContext() : new IndexedContext(layout);
+        ctxt.set("price", 12);
+        ctxt.set("quantity", 3);
+        ctxt.set("discount", 1);
+        ctxt.set("count", 100);
+        return ctxt;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object executeSingle() {
+        return script.execute(context());
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public Object executeContended() {
+        return script.execute(context());
+    }
+}
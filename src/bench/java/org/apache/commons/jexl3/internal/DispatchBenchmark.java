@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the interpreter dispatch of operators with an arithmetic that declares no overload.
+ * <p>Operands are small integers whose results are cached boxes, so the evaluation itself should not allocate;
+ * run with the GC profiler ({@code -prof gc}) and read {@code gc.alloc.rate.norm}, expected to be 0 B/op.
+ * Adding {@code -jvmArgsAppend -XX:-DoEscapeAnalysis} shows the allocations the code performs when the
+ * compiler can not elide them.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+    /**
+     * The per-thread interpreter; interpreters are not meant to be shared.
+     */
+    @State(Scope.Thread)
+    public static class Session {
+        /** The interpreter. */
+        Interpreter interpreter;
+
+        @Setup
+        public void setup(final DispatchBenchmark bench) {
+            final Engine jexl = bench.jexl;
+            interpreter = jexl.createInterpreter(bench.context, null, jexl.evalOptions(bench.context));
+        }
+    }
+
+    /** The operator expression. */
+    @Param({"x + y", "x < y", "x == y", "-x", "!b"})
+    public String expression;
+
+    /** The engine. */
+    private Engine jexl;
+
+    /** The context. */
+    private JexlContext context;
+
+    /** The operator node. */
+    private JexlNode node;
+
+    @Setup
+    public void setup() {
+        jexl = (Engine) Benchmarks.builder().create();
+        context = new MapContext();
+        context.set("x", 3);
+        context.set("y", 4);
+        context.set("b", false);
+        node = Benchmarks.firstChild((Script) jexl.createScript(expression));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object dispatchSingle(final Session session) {
+        return node.jjtAccept(session.interpreter, null);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlScript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a foreach loop summing the elements of a million elements array, range or list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ForEachBenchmark {
+    /** The number of elements. */
+    @Param({"1000000"})
+    public int size;
+
+    /** The iterated kind. */
+    @Param({"int[]", "long[]", "double[]", "Integer[]", "range", "list"})
+    public String kind;
+
+    /** The script. */
+    private JexlScript script;
+
+    /** The iterated value. */
+    private Object values;
+
+    @Setup
+    public void setup() {
+        final JexlEngine jexl = Benchmarks.builder().create();
+        script = jexl.createScript("var s = 0; for (var x : xs) { s += x; } s", "xs");
+        switch (kind) {
+            case "int[]": {
+                final int[] a = new int[size];
+                for (int i = 0; i < size; ++i) {
+                    a[i] = i;
+                }
+                values = a;
+                break;
+            }
+            case "long[]": {
+                final long[] a = new long[size];
+                for (int i = 0; i < size; ++i) {
+                    a[i] = i;
+                }
+                values = a;
+                break;
+            }
+            case "double[]": {
+                final double[] a = new double[size];
+                for (int i = 0; i < size; ++i) {
+                    a[i] = i;
+                }
+                values = a;
+                break;
+            }
+            case "Integer[]": {
+                final Integer[] a = new Integer[size];
+                for (int i = 0; i < size; ++i) {
+                    a[i] = i;
+                }
+                values = a;
+                break;
+            }
+            case "range":
+                values = IntegerRange.create(0, size - 1);
+                break;
+            default: {
+                final List<Integer> l = new ArrayList<>(size);
+                for (int i = 0; i < size; ++i) {
+                    l.add(i);
+                }
+                values = l;
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object sumSingle() {
+        return script.execute(null, values);
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public Object sumContended() {
+        return script.execute(null, values);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.MapContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures script execution through the {@link Interpreter}.
+ * <p>The scripts are parsed once; the measured cost is interpretation only.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InterpreterBenchmark {
+    /** Arithmetic heavy: operators over context variables. */
+    static final String ARITHMETIC =
+        "(x + y) * 3 - x / (y + 1) + x % 7 - (x * x - y * y) / (x + y + 1) + (x > y ? x - y : y - x)";
+    /** Loop heavy: a range iteration with a local accumulator. */
+    static final String LOOP =
+        "var s = 0; for (var i : 0..999) { if (i % 2 == 0) { s += i; } else { s -= 1; } } s";
+    /** Lambda heavy: higher order calls of a local closure. */
+    static final String LAMBDA =
+        "var f = (a, b) -> a + b; var g = (h, v) -> h(v, 1); var s = 0; for (var i : 0..99) { s = g(f, s) + f(i, x); } s";
+    /** Control flow heavy: continue, break and early returns from a local closure. */
+    static final String FLOW =
+        "var f = (v) -> { if (v % 3 == 0) { return 0; } return v; }; var s = 0;"
+        + " for (var i : 0..999) { if (i % 2 == 0) { continue; } if (i > 900) { break; } s += f(i); } s";
+
+    /** The script kind. */
+    @Param({"arithmetic", "loop", "lambda", "flow"})
+    public String kind;
+
+    /** The script. */
+    private JexlScript script;
+
+    /** The shared, read-only, context. */
+    private JexlContext context;
+
+    @Setup
+    public void setup() {
+        final String src;
+        switch (kind) {
+            case "loop": src = LOOP; break;
+            case "lambda": src = LAMBDA; break;
+            case "flow": src = FLOW; break;
+            default: src = ARITHMETIC; break;
+        }
+        script = Benchmarks.builder().create().createScript(src);
+        final MapContext ctxt = new MapContext();
+        ctxt.set("x", 42);
+        ctxt.set("y", 17);
+        context = ctxt;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object executeSingle() {
+        return script.execute(context);
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public Object executeContended() {
+        return script.execute(context);
+    }
+}
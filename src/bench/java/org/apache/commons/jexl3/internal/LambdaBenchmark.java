@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.MapContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures higher-order scripts calling small lambdas for each element of a collection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LambdaBenchmark {
+    /** A lambda called in a loop. */
+    static final String EACH = "var f = (x)-> x * 2 + 1; var s = 0; for (var i : items) s += f(i); s";
+
+    /** A reduce function taking a lambda as argument. */
+    static final String REDUCE = "function reduce(c, f, z) { var r = z; for (var e : c) r = f(r, e); r }\n"
+        + "reduce(items, (a, b)-> a + b * b, 0)";
+
+    /** A composed function, the lambda calls other lambdas. */
+    static final String COMPOSE = "var compose = (f, g)-> (x-> f(g(x)));\n"
+        + "var h = compose(x-> x + 1, x-> x * 3); var s = 0; for (var i : items) s += h(i); s";
+
+    /** The script kind. */
+    @Param({"each", "reduce", "compose"})
+    public String kind;
+
+    /** The number of elements. */
+    @Param({"1000"})
+    public int size;
+
+    /** The script. */
+    private JexlScript script;
+
+    /** The context. */
+    private JexlContext context;
+
+    @Setup
+    public void setup() {
+        final String src = "each".equals(kind) ? EACH : "reduce".equals(kind) ? REDUCE : COMPOSE;
+        script = Benchmarks.builder().create().createScript(src);
+        final List<Integer> items = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            items.add(i);
+        }
+        context = new MapContext();
+        context.set("items", items);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object executeSingle() {
+        return script.execute(context);
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public Object executeContended() {
+        return script.execute(context);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlScript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the '=~' operator against a constant literal of thousands of codes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MembershipBenchmark {
+    /** The number of codes. */
+    @Param({"10", "1000", "5000"})
+    public int size;
+
+    /** The literal kind. */
+    @Param({"array", "set"})
+    public String kind;
+
+    /** The script. */
+    private JexlScript script;
+
+    /** The looked up code, absent from the literal. */
+    private String code;
+
+    @Setup
+    public void setup() {
+        final StringBuilder strb = new StringBuilder("x =~ ");
+        strb.append("set".equals(kind) ? '{' : '[');
+        for (int i = 0; i < size; ++i) {
+            if (i > 0) {
+                strb.append(", ");
+            }
+            strb.append("'C").append(i).append('\'');
+        }
+        strb.append("set".equals(kind) ? '}' : ']');
+        final JexlEngine jexl = Benchmarks.builder().create();
+        script = jexl.createScript(strb.toString(), "x");
+        code = "C" + size;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object matchSingle() {
+        return script.execute(null, code);
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public Object matchContended() {
+        return script.execute(null, code);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlOperator;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Operator#tryOverload}.
+ * <p>With the plain arithmetic, the overload is never found and the call measures the fail-fast path
+ * every binary operator pays; with the overloaded arithmetic, the call resolves to a user method.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OperatorBenchmark {
+    /**
+     * A 2D point.
+     */
+    public static class Point {
+        final int x;
+        final int y;
+
+        public Point(final int x, final int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    /**
+     * An arithmetic overloading add for points.
+     */
+    public static class PointArithmetic extends JexlArithmetic {
+        public PointArithmetic(final boolean strict) {
+            super(strict);
+        }
+
+        public Point add(final Point lhs, final Point rhs) {
+            return new Point(lhs.x + rhs.x, lhs.y + rhs.y);
+        }
+    }
+
+    /** Whether the arithmetic overloads the operator. */
+    @Param({"false", "true"})
+    public boolean overloaded;
+
+    /** The operator. */
+    private Operator operator;
+
+    /** The node. */
+    private JexlNode node;
+
+    /** The left operand. */
+    private Object lhs;
+
+    /** The right operand. */
+    private Object rhs;
+
+    @Setup
+    public void setup() {
+        final JexlArithmetic arithmetic = overloaded ? new PointArithmetic(true) : new JexlArithmetic(true);
+        final Engine jexl = (Engine) Benchmarks.builder().arithmetic(arithmetic).create();
+        operator = (Operator) jexl.getUberspect().getOperator(arithmetic);
+        node = Benchmarks.firstChild((Script) jexl.createScript("x + y"));
+        lhs = overloaded ? new Point(1, 2) : (Object) 1;
+        rhs = overloaded ? new Point(3, 4) : (Object) 2;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object tryOverloadSingle() {
+        return operator.tryOverload(node, JexlOperator.ADD, lhs, rhs);
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public Object tryOverloadContended() {
+        return operator.tryOverload(node, JexlOperator.ADD, lhs, rhs);
+    }
+}
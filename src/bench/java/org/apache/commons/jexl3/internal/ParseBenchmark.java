@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Engine#parse}.
+ * <p>The engine is shared by all threads; with the cache disabled, every call goes through the parser
+ * which makes the contended variant exercise the engine parser sharing.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+    /** A script exercising most of the grammar. */
+    private static final String SCRIPT =
+        "var total = 0;\n"
+        + "for (var i : 0..(n - 1)) {\n"
+        + "  if (i % 3 == 0) { total += i * 2; } else if (i =~ [1, 2, 5]) { continue; } else { total -= 1; }\n"
+        + "}\n"
+        + "var f = (x, y) -> { x.size() > y ? x[0] : y };\n"
+        + "var m = { 'a' : 1, 'b' : [1, 2, 3], 'c' : { 'd' : total } };\n"
+        + "return f([m.a, m.b[1], m.c.d], 2) + `total is ${total}`.length();\n";
+
+    /** The script cache size, 0 disables the cache. */
+    @Param({"0", "256"})
+    public int cache;
+
+    /** The engine. */
+    private Engine jexl;
+
+    @Setup
+    public void setup() {
+        jexl = (Engine) Benchmarks.builder().cache(cache).create();
+    }
+
+    private ASTJexlScript parse() {
+        return jexl.parse(null, jexl.scriptFeatures, SCRIPT, null);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ASTJexlScript parseSingle() {
+        return parse();
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public ASTJexlScript parseContended() {
+        return parse();
+    }
+}
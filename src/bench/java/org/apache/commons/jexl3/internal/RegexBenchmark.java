@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlScript;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures matching strings against regular expressions held as strings, as read from configuration.
+ * <p>A cache size of 0 compiles the expression on each match.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RegexBenchmark {
+    /** The regular expressions. */
+    static final String[] REGEXES = {
+        "abc.*", ".*456", "[a-z]+\\d{3}", "(foo|bar|baz)-\\w+", "^\\s*#.*$", "[A-Z]{2}-\\d{4,6}",
+        "\\d{4}-\\d{2}-\\d{2}", "[^@]+@[^@]+\\.[a-z]{2,}"
+    };
+
+    /** The matched values. */
+    static final String[] VALUES = { "abc456", "bar-quux", "FR-12345", "2024-01-31", "jexl@apache.org" };
+
+    /** The compiled regular expressions cache size. */
+    @Param({"0", "256"})
+    public int regexCache;
+
+    /** The script. */
+    private JexlScript script;
+
+    @Setup
+    public void setup() {
+        script = Benchmarks.builder().regexCache(regexCache).create().createScript("str =~ match", "str", "match");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int matchSingle() {
+        return match();
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public int matchContended() {
+        return match();
+    }
+
+    /**
+     * @return the number of matches
+     */
+    private int match() {
+        int count = 0;
+        for (final String value : VALUES) {
+            for (final String regex : REGEXES) {
+                if (Boolean.TRUE.equals(script.execute(null, value, regex))) {
+                    count += 1;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlFeatures;
+import org.apache.commons.jexl3.JexlOptions;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.MapContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a tiny script with pragmas executed repeatedly, through the script or a session.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionBenchmark {
+    /** The script, a tiny expression with options and imports pragmas. */
+    static final String TINY = "#pragma jexl.options '+strict -safe +lexical'\n"
+        + "#pragma jexl.import java.lang\n"
+        + "x * rate + y";
+
+    /**
+     * A context carrying its own options, as applications setting per-evaluation options do.
+     */
+    private static final class OptionsContext extends MapContext implements JexlContext.OptionsHandle {
+        /** The options. */
+        private final JexlOptions options = new JexlOptions();
+
+        @Override
+        public JexlOptions getEngineOptions() {
+            return options;
+        }
+    }
+
+    /** The script. */
+    private JexlScript script;
+
+    /** The context. */
+    private JexlContext context;
+
+    /** The session. */
+    private JexlScript.Session session;
+
+    @Setup
+    public void setup() {
+        final JexlEngine jexl = Benchmarks.builder().features(new JexlFeatures()).create();
+        script = jexl.createScript(TINY, "x", "y");
+        final JexlContext ctxt = new OptionsContext();
+        ctxt.set("rate", 3);
+        context = ctxt;
+        session = script.session(context);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object executeSingle() {
+        return script.execute(context, 2, 5);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object sessionSingle() {
+        return session.execute(2, 5);
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public Object executeContended() {
+        return script.execute(context, 2, 5);
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public Object sessionContended() {
+        return session.execute(2, 5);
+    }
+}
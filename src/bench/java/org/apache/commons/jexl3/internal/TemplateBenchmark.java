@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JxltEngine;
+import org.apache.commons.jexl3.MapContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link TemplateScript#evaluate} rendering a table, as characters or as bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateBenchmark {
+    /** The template, one table row per element. */
+    static final String TEMPLATE =
+        "<table>\n"
+        + "$$ for (var row : rows) {\n"
+        + "<tr><td>${row.name}</td><td>${row.value}</td><td>${row.value * 2}</td></tr>\n"
+        + "$$ }\n"
+        + "</table>\n";
+
+    /** The number of rows. */
+    @Param({"100"})
+    public int rows;
+
+    /** The template. */
+    private JxltEngine.Template template;
+
+    /** The context. */
+    private JexlContext context;
+
+    /** The engine charset. */
+    private Charset charset;
+
+    @Setup
+    public void setup() {
+        final Engine jexl = (Engine) Benchmarks.builder().create();
+        charset = jexl.getCharset();
+        final JxltEngine jxlt = jexl.createJxltEngine();
+        template = jxlt.createTemplate(TEMPLATE);
+        final List<Map<String, Object>> data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; ++i) {
+            final Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", "row" + i);
+            row.put("value", i);
+            data.add(row);
+        }
+        final MapContext ctxt = new MapContext();
+        ctxt.set("rows", data);
+        context = ctxt;
+    }
+
+    private String evaluate() {
+        final StringWriter writer = new StringWriter();
+        template.evaluate(context, writer);
+        return writer.toString();
+    }
+
+    private byte[] encodeWriter() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(out, charset)) {
+            template.evaluate(context, writer);
+        } catch (final IOException xio) {
+            throw new UncheckedIOException(xio);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] encodeStream() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.evaluateBytes(context, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String evaluateSingle() {
+        return evaluate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] encodeWriterSingle() {
+        return encodeWriter();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] encodeStreamSingle() {
+        return encodeStream();
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public String evaluateContended() {
+        return evaluate();
+    }
+}
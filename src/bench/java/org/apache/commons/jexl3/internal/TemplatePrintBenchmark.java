@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JxltEngine;
+import org.apache.commons.jexl3.MapContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a template printing numbers, booleans and characters in a large table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplatePrintBenchmark {
+    /** The template, one table row per element, all printed values but the name are not strings. */
+    static final String TEMPLATE =
+        "<table>\n"
+        + "$$ for (var row : rows) {\n"
+        + "<tr><td>${row.id}</td><td>${row.name}</td><td>${row.price}</td>"
+        + "<td>${row.quantity}</td><td>${row.stock}</td><td>${row.grade}</td></tr>\n"
+        + "$$ }\n"
+        + "</table>\n";
+
+    /** The number of rows. */
+    @Param({"10000"})
+    public int rows;
+
+    /** The writer kind, a writer without print methods or a print writer. */
+    @Param({"string", "print"})
+    public String writer;
+
+    /** The template. */
+    private JxltEngine.Template template;
+
+    /** The context. */
+    private JexlContext context;
+
+    @Setup
+    public void setup() {
+        final JxltEngine jxlt = Benchmarks.builder().create().createJxltEngine();
+        template = jxlt.createTemplate(TEMPLATE);
+        final List<Map<String, Object>> data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; ++i) {
+            final Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", i);
+            row.put("name", "item" + i);
+            row.put("price", i * 0.25d);
+            row.put("quantity", 1000L * i);
+            row.put("stock", i % 3 == 0);
+            row.put("grade", (char) ('A' + i % 5));
+            data.add(row);
+        }
+        final MapContext ctxt = new MapContext();
+        ctxt.set("rows", data);
+        context = ctxt;
+    }
+
+    private String evaluate() {
+        final StringWriter out = new StringWriter(rows * 100);
+        final Writer w = "print".equals(writer) ? new PrintWriter(out) : out;
+        template.evaluate(context, w);
+        return out.toString();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String evaluateSingle() {
+        return evaluate();
+    }
+
+    @Benchmark
+    @Threads(Benchmarks.CONTENDED)
+    public String evaluateContended() {
+        return evaluate();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal.introspection;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.introspection.JexlMethod;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.apache.commons.jexl3.introspection.JexlPropertyGet;
+import org.apache.commons.jexl3.introspection.JexlPropertySet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-call cost of the executors against reflective invocation.
+ * <p>The executors are called through {@code tryInvoke} as the interpreter does once
+ * it has cached them on a node; the reflective baselines call the same methods through
+ * {@link Method#invoke}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutorBenchmark {
+    /**
+     * A simple bean.
+     */
+    public static class Bean {
+        private int value = 42;
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(final int v) {
+            value = v;
+        }
+
+        public int add(final int x, final int y) {
+            return x + y;
+        }
+    }
+
+    /** The receiver. */
+    private Bean bean;
+    /** The boxed setter argument. */
+    private Integer value;
+    /** The boxed call arguments. */
+    private Object[] args;
+    /** The getter executor. */
+    private JexlPropertyGet getter;
+    /** The setter executor. */
+    private JexlPropertySet setter;
+    /** The method executor. */
+    private JexlMethod adder;
+    /** The getter invoker. */
+    private Invoker getInvoker;
+    /** The setter invoker. */
+    private Invoker setInvoker;
+    /** The method invoker. */
+    private Invoker addInvoker;
+    /** The reflective getter. */
+    private Method getMethod;
+    /** The reflective setter. */
+    private Method setMethod;
+    /** The reflective method. */
+    private Method addMethod;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        final Uberspect uberspect = new Uberspect(null, null, JexlPermissions.UNRESTRICTED);
+        bean = new Bean();
+        value = 42;
+        args = new Object[]{20, 22};
+        getter = uberspect.getPropertyGet(bean, "value");
+        setter = uberspect.getPropertySet(bean, "value", value);
+        adder = uberspect.getMethod(bean, "add", args);
+        getMethod = Bean.class.getMethod("getValue");
+        setMethod = Bean.class.getMethod("setValue", int.class);
+        addMethod = Bean.class.getMethod("add", int.class, int.class);
+        getInvoker = Invoker.create(getMethod);
+        setInvoker = Invoker.create(setMethod);
+        addInvoker = Invoker.create(addMethod);
+    }
+
+    @Benchmark
+    public Object getExecutor() {
+        return getter.tryInvoke(bean, "value");
+    }
+
+    @Benchmark
+    public Object getInvoker() throws Exception {
+        return getInvoker.get(bean);
+    }
+
+    @Benchmark
+    public Object getReflect() throws Exception {
+        return getMethod.invoke(bean);
+    }
+
+    @Benchmark
+    public Object setExecutor() {
+        return setter.tryInvoke(bean, "value", value);
+    }
+
+    @Benchmark
+    public Object setInvoker() throws Exception {
+        return setInvoker.set(bean, value);
+    }
+
+    @Benchmark
+    public Object setReflect() throws Exception {
+        return setMethod.invoke(bean, value);
+    }
+
+    @Benchmark
+    public Object callExecutor() {
+        return adder.tryInvoke("add", bean, args);
+    }
+
+    @Benchmark
+    public Object callInvoker() throws Exception {
+        return addInvoker.invoke(bean, args);
+    }
+
+    @Benchmark
+    public Object callReflect() throws Exception {
+        return addMethod.invoke(bean, args);
+    }
+}
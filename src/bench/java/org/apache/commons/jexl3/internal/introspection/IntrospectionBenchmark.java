@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal.introspection;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cold introspection of a set of common classes by a new introspector, eager or lazy.
+ * <p>Each class is used the way scripts typically use it, through a handful of methods and properties.
+ * The retained memory of the introspector can be estimated with the GC profiler ({@code -prof gc}):
+ * {@code gc.alloc.rate.norm} bounds what the introspector keeps.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntrospectionBenchmark {
+    /** The classes. */
+    static final Class<?>[] CLASSES = {
+        String.class, StringBuilder.class, Integer.class, Long.class, Double.class, BigDecimal.class,
+        BigInteger.class, HashMap.class, LinkedHashMap.class, TreeMap.class, ConcurrentHashMap.class,
+        ArrayList.class, HashSet.class, Date.class, LocalDate.class, Optional.class
+    };
+
+    /** The method names scripts use. */
+    static final String[] METHODS = { "size", "get", "put", "add", "length", "toString", "equals", "isEmpty" };
+
+    /** The logger. */
+    private static final Log LOG = LogFactory.getLog(IntrospectionBenchmark.class);
+
+    /** Whether introspection is lazy. */
+    @Param({"eager", "lazy"})
+    public String mode;
+
+    @Benchmark
+    @Threads(1)
+    public Introspector introspect() {
+        final Introspector introspector = new Introspector(LOG, null, JexlPermissions.RESTRICTED, "lazy".equals(mode));
+        for (final Class<?> clazz : CLASSES) {
+            for (final String method : METHODS) {
+                introspector.getMethods(clazz, method);
+            }
+            introspector.getField(clazz, "value");
+        }
+        return introspector;
+    }
+}
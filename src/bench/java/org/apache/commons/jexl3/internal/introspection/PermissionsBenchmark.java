@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal.introspection;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the permission checks the introspector performs on the {@link JexlPermissions#RESTRICTED} set.
+ * <p>Every public member of a set of common classes is checked, once through its declaring class and once
+ * through the concrete class, the way a class map is built; a few denied classes are mixed in.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionsBenchmark {
+    /** The permissions. */
+    private final JexlPermissions permissions = JexlPermissions.RESTRICTED;
+    /** The classes. */
+    private Class<?>[] classes;
+    /** The methods of each class. */
+    private Method[][] methods;
+    /** The fields of each class. */
+    private Field[][] fields;
+    /** The constructors of each class. */
+    private Constructor<?>[][] ctors;
+
+    @Setup
+    public void setup() {
+        final List<Class<?>> all = new ArrayList<>(Arrays.asList(IntrospectionBenchmark.CLASSES));
+        all.add(File.class);
+        all.add(FileWriter.class);
+        all.add(Thread.class);
+        all.add(ClassLoader.class);
+        classes = all.toArray(new Class<?>[0]);
+        methods = new Method[classes.length][];
+        fields = new Field[classes.length][];
+        ctors = new Constructor<?>[classes.length][];
+        for (int c = 0; c < classes.length; ++c) {
+            methods[c] = classes[c].getMethods();
+            fields[c] = classes[c].getFields();
+            ctors[c] = classes[c].getConstructors();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int allow() {
+        int allowed = 0;
+        for (int c = 0; c < classes.length; ++c) {
+            final Class<?> clazz = classes[c];
+            if (permissions.allow(clazz)) {
+                allowed += 1;
+            }
+            for (final Method method : methods[c]) {
+                if (permissions.allow(method) && permissions.allow(clazz, method)) {
+                    allowed += 1;
+                }
+            }
+            for (final Field field : fields[c]) {
+                if (permissions.allow(clazz, field)) {
+                    allowed += 1;
+                }
+            }
+            for (final Constructor<?> ctor : ctors[c]) {
+                if (permissions.allow(ctor)) {
+                    allowed += 1;
+                }
+            }
+        }
+        return allowed;
+    }
+}
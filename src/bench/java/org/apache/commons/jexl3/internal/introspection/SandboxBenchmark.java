@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal.introspection;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.jexl3.introspection.JexlSandbox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the sandbox checks an uberspect performs on an inheritable sandbox.
+ * <p>The {@code copy} mode is the plain copy of the sandbox, the {@code snapshot} mode is the snapshot
+ * uberspects use.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SandboxBenchmark {
+    /** The property and method names. */
+    static final String[] NAMES = { "size", "get", "put", "add", "isEmpty", "foo" };
+
+    /** The sandbox kind. */
+    @Param({"copy", "snapshot"})
+    public String mode;
+
+    /** The sandbox. */
+    private JexlSandbox sandbox;
+
+    @Setup
+    public void setup() {
+        final JexlSandbox base = new JexlSandbox(false, true);
+        base.allow(Collection.class.getName()).execute("size", "add", "isEmpty");
+        base.allow(List.class.getName()).execute("size", "get", "add", "isEmpty");
+        base.allow(Map.class.getName()).execute("size", "get", "put", "isEmpty");
+        sandbox = "copy".equals(mode) ? base.copy() : base.snapshot();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int check() {
+        int allowed = 0;
+        for (final Class<?> clazz : IntrospectionBenchmark.CLASSES) {
+            for (final String name : NAMES) {
+                if (sandbox.execute(clazz, name) != null) {
+                    allowed += 1;
+                }
+                if (sandbox.read(clazz, name) != null) {
+                    allowed += 1;
+                }
+            }
+        }
+        return allowed;
+    }
+}
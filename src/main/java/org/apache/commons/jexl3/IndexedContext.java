@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A context storing variables in an array of slots.
+ * <p>The interpreter resolves the slot of each global variable of a script once and then accesses its value by
+ * slot, sparing the name lookups a map based context performs on each access.
+ * The mapping from names to slots is held by a {@link Layout} that can be shared by many contexts; a new
+ * variable set by name gets a new slot in the layout.</p>
+ * <p>As with {@link MapContext}, an instance is not meant to be modified concurrently; layouts are thread-safe.</p>
+ *
+ * @since 3.7.1
+ */
+public class IndexedContext implements JexlContext, JexlContext.Indexed {
+    /**
+     * A mapping from variable names to slots.
+     * <p>A slot is allocated on first request and never changes afterwards.</p>
+     */
+    public static final class Layout {
+        /** The slots by name. */
+        private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+
+        /** The names by slot. */
+        private volatile String[] names = {};
+
+        /**
+         * Creates a layout.
+         *
+         * @param names The names of the variables to allocate slots for, in order
+         */
+        public Layout(final String... names) {
+            for (final String name : names) {
+                slot(name);
+            }
+        }
+
+        /**
+         * Finds the slot of a variable.
+         *
+         * @param name The variable name
+         * @return The slot or -1 if none was allocated
+         */
+        public int find(final String name) {
+            final Integer slot = name == null ? null : slots.get(name);
+            return slot == null ? -1 : slot;
+        }
+
+        /**
+         * Gets the slot of a variable, allocating one if needed.
+         *
+         * @param name The variable name, not null
+         * @return The slot
+         */
+        public int slot(final String name) {
+            final Integer slot = slots.get(name);
+            if (slot != null) {
+                return slot;
+            }
+            synchronized (this) {
+                return slots.computeIfAbsent(name, n -> {
+                    final String[] all = Arrays.copyOf(names, names.length + 1);
+                    all[all.length - 1] = n;
+                    names = all;
+                    return all.length - 1;
+                });
+            }
+        }
+
+        /**
+         * Gets the name of the variable held by a slot.
+         *
+         * @param slot The slot
+         * @return The variable name
+         */
+        public String getName(final int slot) {
+            return names[slot];
+        }
+
+        /**
+         * @return The number of allocated slots
+         */
+        public int size() {
+            return names.length;
+        }
+    }
+
+    /** The marker of an undefined variable. */
+    private static final Object UNDEFINED = new Object();
+
+    /** The layout. */
+    private final Layout layout;
+
+    /** The values by slot. */
+    private Object[] values;
+
+    /**
+     * Creates a context with its own layout.
+     */
+    public IndexedContext() {
+        this(new Layout());
+    }
+
+    /**
+     * Creates a context.
+     *
+     * @param layout The layout, possibly shared with other contexts
+     */
+    public IndexedContext(final Layout layout) {
+        this.layout = layout;
+        this.values = new Object[layout.size()];
+        Arrays.fill(values, UNDEFINED);
+    }
+
+    /**
+     * Clears all variables.
+     */
+    public void clear() {
+        Arrays.fill(values, UNDEFINED);
+    }
+
+    @Override
+    public Object get(final int slot) {
+        if (slot < values.length) {
+            final Object value = values[slot];
+            return value != UNDEFINED ? value : null;
+        }
+        return null;
+    }
+
+    @Override
+    public Object get(final String name) {
+        final int slot = layout.find(name);
+        return slot >= 0 ? get(slot) : null;
+    }
+
+    @Override
+    public Layout getLayout() {
+        return layout;
+    }
+
+    @Override
+    public boolean has(final int slot) {
+        return slot < values.length && values[slot] != UNDEFINED;
+    }
+
+    @Override
+    public boolean has(final String name) {
+        final int slot = layout.find(name);
+        return slot >= 0 && has(slot);
+    }
+
+    @Override
+    public void set(final int slot, final Object value) {
+        if (slot >= values.length) {
+            final int length = values.length;
+            values = Arrays.copyOf(values, Math.max(slot + 1, layout.size()));
+            Arrays.fill(values, length, values.length, UNDEFINED);
+        }
+        values[slot] = value;
+    }
+
+    @Override
+    public void set(final String name, final Object value) {
+        set(layout.slot(name), value);
+    }
+
+    @Override
+    public int find(final String name) {
+        return layout.find(name);
+    }
+
+    @Override
+    public int slot(final String name) {
+        return layout.slot(name);
+    }
+}
@@ -289,6 +289,9 @@ public class JexlArithmetic {
      */
     private final boolean compare321 = computeCompare321(this);
 
+    /** The compiled regular expressions cache, may be null. */
+    private volatile JexlCache<String, Pattern> patterns;
+
     /**
      * Creates a JexlArithmetic.
      * <p>If you derive your own arithmetic, implement the
@@ -594,7 +597,7 @@ public class JexlArithmetic {
             return ((java.util.regex.Pattern) container).matcher(value.toString()).matches();
         }
         if (container instanceof CharSequence) {
-            return value.toString().matches(container.toString());
+            return toPattern(container.toString()).matcher(value.toString()).matches();
         }
         // try contains on map key
         if (container instanceof Map<?, ?>) {
@@ -723,6 +726,63 @@ public class JexlArithmetic {
         return new JexlArithmetic(astrict, bigdContext, bigdScale);
     }
 
+    /**
+     * Shares the state of this arithmetic that does not depend on options with a derived instance.
+     *
+     * @param derived The arithmetic created with options
+     * @return The derived arithmetic
+     */
+    private JexlArithmetic derive(final JexlArithmetic derived) {
+        if (derived != this && derived.patterns == null) {
+            derived.patterns = patterns;
+        }
+        return derived;
+    }
+
+    /**
+     * Gets the compiled regular expressions cache.
+     *
+     * @return The cache, null if patterns are compiled on each match
+     * @since 3.7.1
+     */
+    public JexlCache<String, Pattern> getPatternCache() {
+        return patterns;
+    }
+
+    /**
+     * Sets the compiled regular expressions cache.
+     * <p>Matching a string against a regular expression held as a string, as in {@code x =~ 'abc.*'},
+     * uses this cache to avoid compiling the expression on each evaluation. The engine sets it from
+     * {@link JexlBuilder#regexCache(int)} when none is set; instances created with options share it.</p>
+     *
+     * @param cache The cache, null to compile patterns on each match
+     * @since 3.7.1
+     */
+    public void setPatternCache(final JexlCache<String, Pattern> cache) {
+        this.patterns = cache;
+    }
+
+    /**
+     * Gets the compiled pattern of a regular expression.
+     *
+     * @param regex The regular expression
+     * @return The pattern
+     * @throws java.util.regex.PatternSyntaxException if the expression is invalid
+     * @since 3.7.1
+     */
+    protected Pattern toPattern(final String regex) {
+        final JexlCache<String, Pattern> cache = patterns;
+        if (cache == null) {
+            return Pattern.compile(regex);
+        }
+        Pattern pattern = cache.get(regex);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            cache.put(regex, pattern);
+        }
+        return pattern;
+    }
+
     /**
      * Decrements argument by 1.
      *
@@ -1674,7 +1734,7 @@ public class JexlArithmetic {
             if (strict != isStrict()
                 || bigdScale != getMathScale()
                 || bigdContext != getMathContext()) {
-                return createWithOptions(strict, bigdContext, bigdScale);
+                return derive(createWithOptions(strict, bigdContext, bigdScale));
             }
         }
         return this;
@@ -1701,7 +1761,7 @@ public class JexlArithmetic {
             if (ostrict != isStrict()
                 || bigdScale != getMathScale()
                 || bigdContext != getMathContext()) {
-                return createWithOptions(ostrict, bigdContext, bigdScale);
+                return derive(createWithOptions(ostrict, bigdContext, bigdScale));
             }
         }
         return this;
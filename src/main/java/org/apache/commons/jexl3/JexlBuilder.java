@@ -122,9 +122,18 @@ public class JexlBuilder {
      */
     private static JexlFeatures FEATURES = secureFeatures();
 
+    /**
+     * The default number of executions before a script is compiled.
+     * <p>Static but modifiable via {@link #setDefaultCompileThreshold(int)}.</p>
+     */
+    private static int COMPILE_THRESHOLD = -1;
+
     /** The default maximum expression length to hit the expression cache. */
     protected static final int CACHE_THRESHOLD = 64;
 
+    /** The default compiled regular expressions cache size. */
+    protected static final int REGEX_CACHE = 256;
+
     /**
      * Sets the default permissions.
      *
@@ -146,6 +155,19 @@ public class JexlBuilder {
         FEATURES = features == null ? secureFeatures() : features;
     }
 
+    /**
+     * Sets the default number of executions before a script is compiled, used when creating a new builder.
+     * <p>A value of 0 makes compilation the default execution mode; a negative value restores the default,
+     * scripts being interpreted.</p>
+     *
+     * @param count the number of executions
+     * @see #compileThreshold(int)
+     * @since 3.7.1
+     */
+    public static void setDefaultCompileThreshold(final int count) {
+        COMPILE_THRESHOLD = Math.max(-1, count);
+    }
+
     /**
      * Sets the default option flags used when creating a new engine.
      * <p>Delegates to {@link JexlOptions#setDefaultFlags(String...)}; see that method for the
@@ -222,12 +244,27 @@ public class JexlBuilder {
    /** The parser class factory. */
    private Supplier<JexlScriptParser> parserFactory;
 
+    /** The maximum number of idle parsers kept for reuse, -1 is the number of processors. */
+    private int parserPool = -1;
+
+    /** The number of executions before a script is compiled, negative disables compilation. */
+    private int compileThreshold = COMPILE_THRESHOLD;
+
+    /** Whether constant sub-expressions are folded when parsing. */
+    private boolean constantFolding;
+
+    /** Whether classes are introspected member by member on first request. */
+    private boolean lazyIntrospection;
+
     /** The stack overflow limit. */
     private int stackOverflow = Integer.MAX_VALUE;
 
     /** The maximum expression length to hit the expression cache. */
     private int cacheThreshold = CACHE_THRESHOLD;
 
+    /** The compiled regular expressions cache size. */
+    private int regexCache = REGEX_CACHE;
+
     /** The charset. */
     private Charset charset = Charset.defaultCharset();
 
@@ -358,6 +395,9 @@ public class JexlBuilder {
 
     /**
      * Sets the expression-cache factory the engine will use.
+     * <p>The default factory creates soft-referenced, synchronized, LRU caches;
+     * {@code FrequencyCache::new} creates caches with lock-free reads and a scan-resistant,
+     * frequency-based, eviction policy better suited to highly concurrent usage.</p>
      *
      * @param factory The function to produce a cache.
      * @return this builder
@@ -367,6 +407,33 @@ public class JexlBuilder {
       return this;
     }
 
+    /**
+     * Gets the compiled regular expressions cache size the engine will use.
+     *
+     * @return The cache size
+     * @since 3.7.1
+     */
+    public int regexCache() {
+        return regexCache;
+    }
+
+    /**
+     * Sets the compiled regular expressions cache size the engine will use.
+     * <p>Matching a string against a regular expression held as a string, as in {@code x =~ 'abc.*'},
+     * compiles that expression; the engine keeps up to {@code size} compiled expressions in a cache created by
+     * the {@link #cacheFactory(IntFunction) cache factory} and sets it on its arithmetic, unless the arithmetic
+     * already has a cache, as when it is shared by several engines.
+     * The default size is 256.</p>
+     *
+     * @param size if not strictly positive, no cache is used
+     * @return this builder
+     * @since 3.7.1
+     */
+    public JexlBuilder regexCache(final int size) {
+        this.regexCache = size;
+        return this;
+    }
+
   /**
    * Gets the Jexl script parser factory the engine will use.
    *
@@ -389,6 +456,118 @@ public class JexlBuilder {
       return this;
     }
 
+    /**
+     * Gets the maximum number of idle parsers the engine keeps for reuse.
+     *
+     * @return The parser pool size
+     * @since 3.7.1
+     */
+    public int parserPool() {
+        return parserPool < 0 ? Runtime.getRuntime().availableProcessors() : parserPool;
+    }
+
+    /**
+     * Sets the maximum number of idle parsers the engine keeps for reuse.
+     * <p>Concurrent parses each use their own parser; once done, parsers are kept in a bounded pool
+     * and reused by later parses instead of being recreated. The default is the number of available processors;
+     * 0 disables reuse, every parse creating its own parser.</p>
+     *
+     * @param size the pool size, a negative value resets to the default
+     * @return this builder
+     * @since 3.7.1
+     */
+    public JexlBuilder parserPool(final int size) {
+        this.parserPool = size;
+        return this;
+    }
+
+    /**
+     * Gets the number of executions after which a script is compiled.
+     *
+     * @return The compile threshold, negative if compilation is disabled
+     * @since 3.7.1
+     */
+    public int compileThreshold() {
+        return compileThreshold;
+    }
+
+    /**
+     * Sets the number of executions after which a script is compiled.
+     * <p>Once a script has been executed that many times, it is translated into a tree of specialized
+     * evaluators that replaces the interpreter for its later executions. Constructs the compiler does not
+     * handle keep being interpreted; a script that can not be compiled keeps running in the interpreter.
+     * Executions are counted per parsed tree; scripts created from the same source hitting the engine
+     * cache share their count and compiled form.
+     * The compiled scripts are reported by {@link JexlEngine#getCompiledScripts()}.</p>
+     * <p>The default is -1, compilation is disabled, unless changed through
+     * {@link #setDefaultCompileThreshold(int)}; 0 is the compiled execution mode where scripts
+     * are compiled upon their first execution.</p>
+     *
+     * @param count the number of executions, a negative value disables compilation
+     * @return this builder
+     * @since 3.7.1
+     */
+    public JexlBuilder compileThreshold(final int count) {
+        this.compileThreshold = count;
+        return this;
+    }
+
+    /**
+     * Gets whether constant sub-expressions are folded when parsing.
+     *
+     * @return true if constant folding is enabled
+     * @since 3.7.1
+     */
+    public boolean constantFolding() {
+        return constantFolding;
+    }
+
+    /**
+     * Sets whether constant sub-expressions are folded when parsing.
+     * <p>When enabled, arithmetic, comparisons and string concatenations whose operands are all literals
+     * are evaluated once after parsing and replaced by their result; the elements of constant array, set
+     * and map literals are also pre-computed. Only the operators the engine arithmetic
+     * does not override or overload are folded so that evaluation yields the same results.
+     * A side effect is that the parsed text of scripts reflects the folded expressions.</p>
+     * <p>The default is false.</p>
+     *
+     * @param flag true to enable constant folding
+     * @return this builder
+     * @since 3.7.1
+     */
+    public JexlBuilder constantFolding(final boolean flag) {
+        this.constantFolding = flag;
+        return this;
+    }
+
+    /**
+     * Gets whether classes are introspected member by member on first request.
+     *
+     * @return true if introspection is lazy
+     * @since 3.7.1
+     */
+    public boolean lazyIntrospection() {
+        return lazyIntrospection;
+    }
+
+    /**
+     * Sets whether classes are introspected member by member on first request.
+     * <p>By default, the first use of a class introspects and checks permissions of all its public methods and
+     * fields. When lazy, methods are introspected and permission-checked by name the first time a script uses that
+     * name and fields the first time they are accessed; classes with many members that scripts seldom use
+     * cost less time and memory.</p>
+     * <p>This is only used when the builder creates the uberspect, not when one is set.
+     * The default is false.</p>
+     *
+     * @param flag true to introspect lazily
+     * @return this builder
+     * @since 3.7.1
+     */
+    public JexlBuilder lazyIntrospection(final boolean flag) {
+        this.lazyIntrospection = flag;
+        return this;
+    }
+
     /**
      * Gets the maximum length for an expression to be cached.
      *
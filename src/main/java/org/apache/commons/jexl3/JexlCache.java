@@ -53,6 +53,39 @@ public interface JexlCache<K, V> {
         return Collections.emptyList();
     }
 
+    /**
+     * Sets the listener notified when entries leave this cache.
+     * <p>Explicit clearing does not notify the listener.</p>
+     *
+     * @param listener The listener, null to remove it
+     * @return true if this cache supports listeners, false otherwise
+     * @since 3.7.1
+     */
+    default boolean setEvictionListener(final EvictionListener<? super K, ? super V> listener) {
+        return false;
+    }
+
+    /**
+     * Gets this cache statistics.
+     *
+     * @return The statistics or null if this cache does not collect them
+     * @since 3.7.1
+     */
+    default Statistics statistics() {
+        return null;
+    }
+
+    /**
+     * Records the time spent creating a value after a cache miss.
+     * <p>Called by the engine after parsing a script or expression that will be put in this cache.</p>
+     *
+     * @param nanos The load duration in nanoseconds
+     * @since 3.7.1
+     */
+    default void recordLoad(final long nanos) {
+        // nothing to record by default
+    }
+
     /**
      * Gets a value from this cache.
      *
@@ -77,6 +110,108 @@ public interface JexlCache<K, V> {
      */
     int size();
 
+    /**
+     * A listener notified when entries leave a cache.
+     *
+     * @param <K> source
+     * @param <V> script or template
+     * @since 3.7.1
+     */
+    @FunctionalInterface
+    interface EvictionListener<K, V> {
+
+        /**
+         * Called when an entry is evicted to make room for another or is not admitted in the cache.
+         *
+         * @param key   The entry key
+         * @param value The entry value
+         */
+        void evicted(K key, V value);
+
+        /**
+         * Called when the garbage collector reclaimed the cache entries.
+         * <p>This only occurs with caches held through soft or weak references.</p>
+         *
+         * @param count The (estimated) number of entries lost
+         */
+        default void collected(final int count) {
+            // nothing by default
+        }
+    }
+
+    /**
+     * Cache statistics.
+     * <p>Counters are cumulative since the cache creation; clearing the cache does not reset them.</p>
+     *
+     * @since 3.7.1
+     */
+    interface Statistics {
+
+        /**
+         * Gets the number of times a lookup found a value.
+         *
+         * @return The hit count
+         */
+        long hitCount();
+
+        /**
+         * Gets the number of times a lookup did not find a value.
+         *
+         * @return The miss count
+         */
+        long missCount();
+
+        /**
+         * Gets the number of entries evicted or not admitted.
+         * <p>Entries reclaimed by the garbage collector are counted separately.</p>
+         *
+         * @return The eviction count
+         */
+        long evictionCount();
+
+        /**
+         * Gets the number of times the garbage collector reclaimed the cache.
+         *
+         * @return The collection count
+         */
+        long collectionCount();
+
+        /**
+         * Gets the number of values created after a miss.
+         *
+         * @return The load count
+         */
+        long loadCount();
+
+        /**
+         * Gets the total time spent creating values after a miss.
+         *
+         * @return The load time in nanoseconds
+         */
+        long loadTime();
+
+        /**
+         * Gets the ratio of hits to lookups.
+         *
+         * @return The hit rate, 1 if no lookup occurred
+         */
+        default double hitRate() {
+            final long hits = hitCount();
+            final long requests = hits + missCount();
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+
+        /**
+         * Gets the average time spent creating a value after a miss.
+         *
+         * @return The average load time in nanoseconds, 0 if no load occurred
+         */
+        default double averageLoadTime() {
+            final long loads = loadCount();
+            return loads == 0 ? 0.0 : (double) loadTime() / loads;
+        }
+    }
+
     /**
      * A cached reference.
      */
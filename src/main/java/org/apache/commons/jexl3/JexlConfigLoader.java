@@ -64,6 +64,7 @@ import org.apache.commons.jexl3.introspection.JexlUberspect;
  * debug: true          # include source location in exceptions
  * cache: 512           # expression cache size (entries)
  * cacheThreshold: 64   # max expression length cached
+ * regexCache: 256      # compiled regular expressions cache size
  * stackOverflow: 512   # max recursion depth
  * collectMode: 1       # variable collection mode (0=off, 1=on)
  * charset: UTF-8       # source charset for script text
@@ -415,6 +416,7 @@ public final class JexlConfigLoader {
             case "debug":               builder.debug(parseBool(value)); break;
             case "cache":               builder.cache(parseInt(value)); break;
             case "cacheThreshold":      builder.cacheThreshold(parseInt(value)); break;
+            case "regexCache":          builder.regexCache(parseInt(value)); break;
             case "stackOverflow":       builder.stackOverflow(parseInt(value)); break;
             case "collectMode":         builder.collectMode(parseInt(value)); break;
             case "charset":             builder.charset(Charset.forName(value)); break;
@@ -167,6 +167,72 @@ public interface JexlContext {
         Object resolveNamespace(String name);
     }
 
+    /**
+     * A marker interface of the JexlContext that stores variables in indexed slots.
+     * <p>
+     * The interpreter resolves the slot of a global variable once per variable node and layout, through
+     * {@link #slot(String)}, and then reads and writes its value by slot. The layout identifies the mapping
+     * from names to slots; contexts that return the same layout must resolve names to the same slots.
+     * Name based access, through {@link JexlContext#get(String)} and the like, must remain consistent with
+     * slot based access.
+     * </p>
+     *
+     * @see IndexedContext
+     * @since 3.7.1
+     */
+    interface Indexed {
+
+        /**
+         * Gets the layout of this context.
+         *
+         * @return The object identifying the mapping from names to slots, not null
+         */
+        Object getLayout();
+
+        /**
+         * Finds the slot of a variable without allocating one.
+         * <p>Reading a variable uses this method so that names that are only read do not grow the layout.</p>
+         *
+         * @param name The variable name
+         * @return The slot or -1 if the variable has no slot
+         */
+        default int find(final String name) {
+            return -1;
+        }
+
+        /**
+         * Resolves the slot of a variable, allocating one if needed.
+         *
+         * @param name The variable name
+         * @return The slot or -1 if the variable is only accessible by name
+         */
+        int slot(String name);
+
+        /**
+         * Gets the value of a variable by slot.
+         *
+         * @param slot The variable slot
+         * @return The value
+         */
+        Object get(int slot);
+
+        /**
+         * Checks whether a variable is defined by slot.
+         *
+         * @param slot The variable slot
+         * @return true if it exists, false otherwise
+         */
+        boolean has(int slot);
+
+        /**
+         * Sets the value of a variable by slot.
+         *
+         * @param slot The variable slot
+         * @param value The variable value
+         */
+        void set(int slot, Object value);
+    }
+
     /**
      * A marker interface of the JexlContext that exposes runtime evaluation options.
      *
@@ -25,6 +25,10 @@ import java.math.MathContext;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import org.apache.commons.jexl3.introspection.JexlUberspect;
@@ -250,6 +254,86 @@ public abstract class JexlEngine {
      */
     public abstract void clearCache();
 
+    /**
+     * Gets the expression cache statistics.
+     *
+     * @return The statistics, null if there is no cache or it does not collect statistics
+     * @since 3.7.1
+     */
+    public JexlCache.Statistics getCacheStatistics() {
+        return null;
+    }
+
+    /**
+     * Sets the listener notified when entries leave the expression cache.
+     * <p>Keys are the cached sources, their string representation is the source text.</p>
+     *
+     * @param listener The listener, null to remove it
+     * @return true if the cache exists and supports listeners, false otherwise
+     * @since 3.7.1
+     */
+    public boolean setCacheEvictionListener(final JexlCache.EvictionListener<Object, Object> listener) {
+        return false;
+    }
+
+    /**
+     * Creates a cache using this engine cache factory.
+     * <p>Caches created this way are cleared along with the expression cache by {@link #clearCache()}.</p>
+     *
+     * @param <K> The cache key type
+     * @param <V> The cache value type
+     * @param capacity The cache capacity
+     * @return The cache, null if capacity is not strictly positive or this engine does not create caches
+     * @see JexlBuilder#cacheFactory(java.util.function.IntFunction)
+     * @since 3.7.1
+     */
+    public <K, V> JexlCache<K, V> newCache(final int capacity) {
+        return null;
+    }
+
+    /**
+     * Gets the scripts that were compiled.
+     * <p>Only the compiled scripts still in use are reported.</p>
+     *
+     * @return The compiled scripts, empty if compilation is disabled
+     * @see JexlBuilder#compileThreshold(int)
+     * @since 3.7.1
+     */
+    public List<JexlScript> getCompiledScripts() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Writes scripts to an archive file that {@link #readArchive(Path)} can load without parsing.
+     * <p>Expressions and scripts are stored with their source, parameters, info and syntax tree.
+     * A script whose tree can not be archived is stored as source only.</p>
+     *
+     * @param path    The archive file
+     * @param scripts The scripts keyed by name
+     * @throws IOException if the archive can not be written
+     * @throws UnsupportedOperationException if this engine does not support archives
+     * @since 3.7.1
+     */
+    public void writeArchive(final Path path, final Map<String, ? extends JexlScript> scripts) throws IOException {
+        throw new UnsupportedOperationException("archive");
+    }
+
+    /**
+     * Reads scripts from an archive file written by {@link #writeArchive(Path, Map)}.
+     * <p>Scripts are restored from their stored syntax trees when the archive was written by the same
+     * released JEXL version, with the same syntax tree layout and engine features; otherwise, they are
+     * parsed from their sources.</p>
+     *
+     * @param path The archive file
+     * @return The scripts keyed by name, in archive order
+     * @throws IOException if the archive can not be read
+     * @throws UnsupportedOperationException if this engine does not support archives
+     * @since 3.7.1
+     */
+    public Map<String, JexlScript> readArchive(final Path path) throws IOException {
+        throw new UnsupportedOperationException("archive");
+    }
+
     /**
      * Creates an JexlExpression from a String containing valid JEXL syntax.
      * This method parses the expression which must contain either a reference or an expression.
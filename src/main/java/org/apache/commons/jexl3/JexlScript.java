@@ -39,6 +39,35 @@ import java.util.concurrent.Callable;
  */
 public interface JexlScript {
 
+    /**
+     * A script bound to a context and evaluation options, executed repeatedly with different arguments.
+     *
+     * <p>The evaluation options - including those set by the script pragmas - are computed once when the
+     * session is created; later changes to the context options are not seen by the session.</p>
+     * <p>A session can be executed concurrently as long as its context allows it.</p>
+     *
+     * @since 3.7.1
+     */
+    interface Session {
+        /**
+         * Executes the script with arguments.
+         *
+         * @param args The script arguments
+         * @return The script evaluation result
+         */
+        Object execute(Object... args);
+
+        /**
+         * @return The context this session is bound to
+         */
+        JexlContext getContext();
+
+        /**
+         * @return The script this session executes
+         */
+        JexlScript getScript();
+    }
+
      /**
      * Creates a Callable from this script.
      *
@@ -161,4 +190,20 @@ public interface JexlScript {
      * @since 2.1
      */
     Set<List<String>> getVariables();
+
+    /**
+     * Creates a session binding this script to a context.
+     *
+     * <p>The options and pragmas are processed once; executing the session only binds the arguments
+     * which is cheaper than repeated calls to {@link #execute(JexlContext, Object...)}.</p>
+     *
+     * @param context The context
+     * @return The session
+     * @since 3.7.1
+     */
+    default Session session(final JexlContext context) {
+        throw new UnsupportedOperationException(
+                "This script implementation does not support sessions. "
+                + "Override this method to provide support.");
+    }
 }
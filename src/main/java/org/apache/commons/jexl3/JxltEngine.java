@@ -17,9 +17,11 @@
 
 package org.apache.commons.jexl3;
 
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -278,6 +280,64 @@ public abstract class JxltEngine {
          */
         void evaluate(JexlContext context, Writer writer, Object... args);
 
+        /**
+         * Evaluates this template, encoding its output with the engine charset.
+         * <p>Verbatim template text is encoded once; only the values of expressions are encoded when evaluating.
+         * The stream is flushed but not closed.</p>
+         *
+         * @param context The context to use during evaluation
+         * @param out The stream to use for output
+         * @since 3.7.1
+         */
+        default void evaluateBytes(final JexlContext context, final OutputStream out) {
+            evaluateBytes(context, out, (Object[]) null);
+        }
+
+        /**
+         * Evaluates this template, encoding its output with the engine charset.
+         * <p>Verbatim template text is encoded once; only the values of expressions are encoded when evaluating.
+         * The stream is flushed but not closed.</p>
+         *
+         * @param context The context to use during evaluation
+         * @param out The stream to use for output
+         * @param args The arguments
+         * @since 3.7.1
+         */
+        default void evaluateBytes(final JexlContext context, final OutputStream out, final Object... args) {
+            throw new UnsupportedOperationException(
+                    "This template implementation does not support byte output. "
+                    + "Override this method to provide support.");
+        }
+
+        /**
+         * Evaluates this template, encoding its output with the engine charset into a buffer.
+         * <p>The output is written from the buffer position; evaluation fails if the output exceeds
+         * the buffer remaining capacity.</p>
+         *
+         * @param context The context to use during evaluation
+         * @param buffer The buffer to use for output
+         * @since 3.7.1
+         */
+        default void evaluateBytes(final JexlContext context, final ByteBuffer buffer) {
+            evaluateBytes(context, buffer, (Object[]) null);
+        }
+
+        /**
+         * Evaluates this template, encoding its output with the engine charset into a buffer.
+         * <p>The output is written from the buffer position; evaluation fails if the output exceeds
+         * the buffer remaining capacity.</p>
+         *
+         * @param context The context to use during evaluation
+         * @param buffer The buffer to use for output
+         * @param args The arguments
+         * @since 3.7.1
+         */
+        default void evaluateBytes(final JexlContext context, final ByteBuffer buffer, final Object... args) {
+            throw new UnsupportedOperationException(
+                    "This template implementation does not support byte output. "
+                    + "Override this method to provide support.");
+        }
+
         /**
          * Gets the list of parameters expected by this template.
          *
@@ -328,11 +388,72 @@ public abstract class JxltEngine {
         }
     }
 
+    /**
+     * A formatter converting the values templates print to text.
+     * <p>The formatter is called for each printed value, including null values; returning null lets the
+     * template print the value as it would without formatter.</p>
+     *
+     * @since 3.7.1
+     */
+    @FunctionalInterface
+    public interface Formatter {
+        /**
+         * Formats a printed value.
+         *
+         * @param value The value to print
+         * @return The text to print or null to print the value as usual
+         */
+        CharSequence format(Object value);
+    }
+
     /**
      * Clears the cache.
      */
     public abstract void clearCache();
 
+    /**
+     * Gets the expression cache statistics.
+     *
+     * @return The statistics, null if there is no cache or it does not collect statistics
+     * @since 3.7.1
+     */
+    public JexlCache.Statistics getCacheStatistics() {
+        return null;
+    }
+
+    /**
+     * Gets the formatter used by templates to print values.
+     *
+     * @return The formatter, null if none
+     * @since 3.7.1
+     */
+    public Formatter getFormatter() {
+        return null;
+    }
+
+    /**
+     * Sets the listener notified when entries leave the expression cache.
+     * <p>Keys are the cached sources, their string representation is the source text.</p>
+     *
+     * @param listener The listener, null to remove it
+     * @return true if the cache exists and supports listeners, false otherwise
+     * @since 3.7.1
+     */
+    public boolean setCacheEvictionListener(final JexlCache.EvictionListener<Object, Object> listener) {
+        return false;
+    }
+
+    /**
+     * Sets the formatter used by templates to print values.
+     *
+     * @param formatter The formatter, null to remove it
+     * @return true if this engine supports formatters, false otherwise
+     * @since 3.7.1
+     */
+    public boolean setFormatter(final Formatter formatter) {
+        return false;
+    }
+
     /**
      * Creates a {@link Expression} from an expression string.
      * Uses and fills up the expression cache if any.
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.jexl3.JexlCache;
+
+/**
+ * The cache statistics counters.
+ * <p>Counters are {@link LongAdder}s so that recording does not contend between threads.</p>
+ */
+public final class CacheStatistics implements JexlCache.Statistics {
+    /** The hit count. */
+    private final LongAdder hits = new LongAdder();
+    /** The miss count. */
+    private final LongAdder misses = new LongAdder();
+    /** The eviction count. */
+    private final LongAdder evictions = new LongAdder();
+    /** The collection count. */
+    private final LongAdder collections = new LongAdder();
+    /** The load count. */
+    private final LongAdder loads = new LongAdder();
+    /** The load time. */
+    private final LongAdder loadTime = new LongAdder();
+
+    /**
+     * Records a lookup.
+     *
+     * @param hit whether the lookup found a value
+     */
+    public void lookup(final boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+
+    /**
+     * Records an eviction.
+     */
+    public void evicted() {
+        evictions.increment();
+    }
+
+    /**
+     * Records a collection of the cache by the GC.
+     */
+    public void collected() {
+        collections.increment();
+    }
+
+    /**
+     * Records a load.
+     *
+     * @param nanos the load duration
+     */
+    public void loaded(final long nanos) {
+        loads.increment();
+        loadTime.add(nanos);
+    }
+
+    @Override
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long missCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long collectionCount() {
+        return collections.sum();
+    }
+
+    @Override
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    @Override
+    public long loadTime() {
+        return loadTime.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hitCount()
+            + ", misses=" + missCount()
+            + ", evictions=" + evictionCount()
+            + ", collections=" + collectionCount()
+            + ", loads=" + loadCount()
+            + ", loadTime=" + loadTime() + "ns";
+    }
+}
@@ -18,6 +18,7 @@ package org.apache.commons.jexl3.internal;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlOptions;
@@ -34,6 +35,15 @@ public class Closure extends Script {
     /** The options. */
     protected final JexlOptions options;
 
+    /** The options these were copied from, used to recognize a caller evaluating with the same options. */
+    private final JexlOptions origin;
+
+    /** Whether calls can recycle frames, the lambda not letting its frame escape. */
+    private final boolean recyclable;
+
+    /** The lexical frame - and its frame - recycled between calls that do not overlap, null if none is available. */
+    private final AtomicReference<LexicalFrame> spare;
+
     /**
      * Creates a closure.
      *
@@ -45,6 +55,9 @@ public class Closure extends Script {
         frame = lambda.createFrame(theCaller.frame);
         final JexlOptions callerOptions = theCaller.options;
         options = callerOptions != null ? callerOptions.copy() :  null;
+        origin = callerOptions;
+        recyclable = frame != null && !lambda.isFrameEscaping();
+        spare = recyclable ? new AtomicReference<>() : null;
     }
 
     /**
@@ -60,10 +73,55 @@ public class Closure extends Script {
                 ? script.createFrame(args)
                 : sf.assign(args);
         JexlOptions closureOptions = null;
+        JexlOptions closureOrigin = null;
         if (base instanceof Closure) {
             closureOptions = ((Closure) base).options;
+            closureOrigin = ((Closure) base).origin;
         }
         options = closureOptions != null ? closureOptions.copy() :  null;
+        origin = closureOrigin;
+        recyclable = frame != null
+            && script instanceof ASTJexlLambda
+            && !((ASTJexlLambda) script).isFrameEscaping();
+        spare = recyclable ? new AtomicReference<>() : null;
+    }
+
+    /**
+     * Calls this closure from an interpreter, the caller evaluating a lambda call.
+     * <p>When this closure options are those of the caller, the callee interpreter shares the caller
+     * prepared state (arithmetic, operators, resolvers) instead of deriving it again. When the lambda does
+     * not let its frame escape, frames are recycled between calls that do not overlap; recursive or concurrent
+     * calls use new frames.</p>
+     *
+     * @param caller The calling interpreter
+     * @param args The arguments
+     * @return The evaluation result
+     */
+    Object call(final Interpreter caller, final Object[] args) {
+        final JexlOptions callerOptions = caller.options;
+        if (getClass() != Closure.class
+            || caller.getClass() != Interpreter.class
+            || callerOptions != options && (callerOptions != origin || callerOptions.isSharedInstance())) {
+            return execute(caller.context, args);
+        }
+        if (!recyclable) {
+            final Frame local = frame != null ? frame.assign(args) : null;
+            return new Interpreter(caller, local).runClosure(this);
+        }
+        LexicalFrame lexical = spare.getAndSet(null);
+        final Frame local;
+        if (lexical != null) {
+            local = lexical.getFrame().reassign(frame, args);
+        } else {
+            local = frame.assign(args);
+            lexical = new LexicalFrame(local, null);
+        }
+        try {
+            return new Interpreter(caller, local).runClosure(this, lexical);
+        } finally {
+            local.clear();
+            spare.set(lexical);
+        }
     }
 
     @Override
@@ -157,4 +215,14 @@ public class Closure extends Script {
         return hash;
     }
 
+    @Override
+    public Session session(final JexlContext context) {
+        return new Session(context, options) {
+            @Override
+            public Object execute(final Object... args) {
+                final Frame local = frame != null ? frame.assign(args) : null;
+                return createInterpreter(local).runClosure(Closure.this);
+            }
+        };
+    }
 }
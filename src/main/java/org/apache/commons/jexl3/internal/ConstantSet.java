@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.internal.introspection.ArrayListWrapper;
+
+/**
+ * The hashed elements of a constant array or set literal, right operand of '=~' or '!~'.
+ * <p>
+ * The literal is evaluated once and its elements copied into a hash set cached in the operator node;
+ * membership then costs a lookup instead of a scan. Elements are compared with {@link Object#equals},
+ * as {@link JexlArithmetic#contains} does through {@link Collection#contains}, so results are unchanged.
+ * </p>
+ * <p>Only used when the arithmetic neither overloads nor overrides the contains operator.</p>
+ */
+final class ConstantSet {
+    /** Whether an arithmetic class evaluates contains as JexlArithmetic does. */
+    private static final ClassValue<Boolean> DEFAULT_CONTAINS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            for (Class<?> clazz = type; clazz != JexlArithmetic.class; clazz = clazz.getSuperclass()) {
+                try {
+                    clazz.getDeclaredMethod("contains", Object.class, Object.class);
+                    return false;
+                } catch (final NoSuchMethodException xany) {
+                    // not declared here
+                }
+                try {
+                    clazz.getDeclaredMethod("collectionContains", Object.class, Object.class);
+                    return false;
+                } catch (final NoSuchMethodException xany) {
+                    // not declared here
+                }
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Checks whether an arithmetic evaluates contains as JexlArithmetic does.
+     *
+     * @param arithmetic the arithmetic
+     * @return true if contains is not overridden
+     */
+    static boolean isDefault(final JexlArithmetic arithmetic) {
+        return DEFAULT_CONTAINS.get(arithmetic.getClass());
+    }
+
+    /**
+     * Creates the hashed elements of an evaluated literal.
+     * <p>Only arrays and the JDK collections literals are built with are considered, the contains
+     * method of any other collection may not be based on equals.</p>
+     *
+     * @param literal the literal value
+     * @return the hashed elements or null if the value is not a known array or collection
+     */
+    static ConstantSet of(final Object literal) {
+        if (literal != null && literal.getClass().isArray()) {
+            return new ConstantSet(new ArrayListWrapper(literal));
+        }
+        final Class<?> clazz = literal != null ? literal.getClass() : null;
+        if (clazz == ArrayList.class || clazz == HashSet.class || clazz == LinkedHashSet.class) {
+            return new ConstantSet((Collection<?>) literal);
+        }
+        return null;
+    }
+
+    /** The elements. */
+    private final Set<Object> elements;
+
+    /**
+     * Creates an instance.
+     *
+     * @param collection the literal elements
+     */
+    private ConstantSet(final Collection<?> collection) {
+        elements = new HashSet<>(collection);
+    }
+
+    /**
+     * Checks whether a value belongs to the literal, as {@link JexlArithmetic#contains} would.
+     *
+     * @param value the value
+     * @return true if the value - or all elements of an array or collection value - are elements
+     */
+    boolean contains(final Object value) {
+        if (value == null) {
+            // as in arithmetic, a non-null container never contains null
+            return false;
+        }
+        if (value instanceof Collection<?>) {
+            return elements.containsAll((Collection<?>) value);
+        }
+        if (value.getClass().isArray()) {
+            return elements.containsAll(new ArrayListWrapper(value));
+        }
+        return elements.contains(value);
+    }
+}
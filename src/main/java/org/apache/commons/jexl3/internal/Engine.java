@@ -21,7 +21,10 @@ import static org.apache.commons.jexl3.parser.JexlParser.PRAGMA_JEXLNS;
 import static org.apache.commons.jexl3.parser.JexlParser.PRAGMA_MODULE;
 import static org.apache.commons.jexl3.parser.JexlParser.PRAGMA_OPTIONS;
 
+import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -31,7 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.WeakHashMap;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
@@ -61,6 +64,7 @@ import org.apache.commons.jexl3.parser.ASTJexlScript;
 import org.apache.commons.jexl3.parser.ASTMethodNode;
 import org.apache.commons.jexl3.parser.ASTNumberLiteral;
 import org.apache.commons.jexl3.parser.ASTStringLiteral;
+import org.apache.commons.jexl3.parser.ConstantFolder;
 import org.apache.commons.jexl3.parser.JexlNode;
 import org.apache.commons.jexl3.parser.JexlScriptParser;
 import org.apache.commons.jexl3.parser.Parser;
@@ -220,6 +224,26 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
         return new Uberspect(logger, strategy, permissions);
     }
 
+    /**
+     * Gets an instance of Uberspect, the default instance unless introspection is lazy.
+     *
+     * @param logger The logger to use for the underlying Uberspect
+     * @param strategy The property resolver strategy
+     * @param permissions The introspection permissions
+     * @param lazy Whether classes are introspected member by member on first request
+     * @return Uberspect the uberspector instance.
+     * @since 3.7.1
+     */
+    public static Uberspect getUberspect(
+            final Log logger,
+            final JexlUberspect.ResolverStrategy strategy,
+            final JexlPermissions permissions,
+            final boolean lazy) {
+        return lazy
+            ? new Uberspect(logger, strategy, permissions, true)
+            : getUberspect(logger, strategy, permissions);
+    }
+
     /**
      * Solves an optional option.
      *
@@ -311,15 +335,33 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
     protected final Supplier<JexlScriptParser> parserFactory;
 
     /**
-     * The atomic parsing flag; true whilst parsing.
+     * The pool of {@link Parser}s; each parse acquires a parser from the pool and releases it
+     * once done, idle parsers being reused across parses and threads.
      */
-    protected final AtomicBoolean parsing = new AtomicBoolean();
+    final ParserPool parsers;
 
     /**
-     * The {@link Parser}; when parsing expressions, this engine uses the parser if it
-     * is not already in use otherwise it will create a new temporary one.
+     * The number of executions after which a script is compiled, negative if disabled.
      */
-    protected final JexlScriptParser parser;
+    final int compileThreshold;
+
+    /**
+     * Whether foreach loops may read arrays and ranges by index.
+     * <p>Only when the iterators come from the built-in {@link Uberspect}, maybe sandboxed;
+     * a custom uberspect may wrap, filter or audit iterations.</p>
+     */
+    final boolean indexedLoops;
+
+    /**
+     * The constant folding pass, null if disabled.
+     */
+    private final ConstantFolder folder;
+
+    /**
+     * The compiled scripts, weakly referenced and keyed by their tree (by identity).
+     */
+    private final Map<ASTJexlScript, WeakReference<JexlScript>> compiledScripts =
+        Collections.synchronizedMap(new WeakHashMap<>());
 
     /**
      * The expression max length to hit the cache.
@@ -362,7 +404,7 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
     public Engine(final JexlBuilder conf) {
         // core properties:
         final JexlUberspect uber = conf.uberspect() == null
-            ? getUberspect(conf.logger(), conf.strategy(), conf.permissions())
+            ? getUberspect(conf.logger(), conf.strategy(), conf.permissions(), conf.lazyIntrospection())
             : conf.uberspect();
         if (uber == null) {
             throw new IllegalArgumentException("uberspect cannot be null");
@@ -381,6 +423,7 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
         if (loader != null) {
             uber.setClassLoader(loader);
         }
+        this.indexedLoops = uber.getClass() == Uberspect.class;
         final JexlSandbox sandbox = conf.sandbox();
         if (sandbox == null) {
             this.uberspect = uber;
@@ -410,10 +453,16 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
         this.metaCache = new MetaCache(factory == null ? SoftCache::new : factory);
         this.cache = metaCache.createCache(conf.cache());
         this.cacheThreshold = conf.cacheThreshold();
+        // the arithmetic may be shared or come with its own cache, never replace it
+        if (arithmetic.getPatternCache() == null) {
+            arithmetic.setPatternCache(metaCache.createCache(conf.regexCache()));
+        }
         this.parserFactory = conf.parserFactory() == null ?
                () -> new Parser(new StringProvider(";"))
                 : conf.parserFactory();
-        this.parser = parserFactory.get();
+        this.parsers = new ParserPool(parserFactory, conf.parserPool());
+        this.compileThreshold = conf.compileThreshold();
+        this.folder = conf.constantFolding() ? new ConstantFolder(arithmetic) : null;
     }
 
     @Override
@@ -427,6 +476,72 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
         return cache;
     }
 
+    @Override
+    public JexlCache.Statistics getCacheStatistics() {
+        return cache != null ? cache.statistics() : null;
+    }
+
+    @Override
+    public boolean setCacheEvictionListener(final JexlCache.EvictionListener<Object, Object> listener) {
+        return cache != null && cache.setEvictionListener(listener);
+    }
+
+    @Override
+    public <K, V> JexlCache<K, V> newCache(final int capacity) {
+        return metaCache.createCache(capacity);
+    }
+
+    @Override
+    public List<JexlScript> getCompiledScripts() {
+        final List<JexlScript> scripts = new ArrayList<>();
+        synchronized (compiledScripts) {
+            for (final WeakReference<JexlScript> ref : compiledScripts.values()) {
+                final JexlScript script = ref.get();
+                if (script != null) {
+                    scripts.add(script);
+                }
+            }
+        }
+        return scripts;
+    }
+
+    /**
+     * Compiles a script that was executed often enough.
+     *
+     * @param script the script
+     * @return the compiled script or {@link ScriptCompiler#INTERPRETED} if it can not be compiled
+     */
+    ScriptCompiler.Evaluator compile(final Script script) {
+        ScriptCompiler.Evaluator code;
+        // the nodes left to the interpreter, only collected for the debug log
+        final List<JexlNode> interpreted = logger.isDebugEnabled() ? new ArrayList<>() : null;
+        try {
+            code = ScriptCompiler.compile(script.script, interpreted);
+        } catch (final RuntimeException xany) {
+            logger.debug("unable to compile script, interpreting", xany);
+            code = null;
+        }
+        if (code == null) {
+            return ScriptCompiler.INTERPRETED;
+        }
+        compiledScripts.put(script.script, new WeakReference<>(script));
+        if (interpreted != null) {
+            logger.debug("compiled script " + script.getInfo()
+                + " (" + ScriptCompiler.coverage(script.script, interpreted) + "): " + script.getSourceText());
+        }
+        return code;
+    }
+
+    @Override
+    public void writeArchive(final Path path, final Map<String, ? extends JexlScript> scripts) throws IOException {
+        new ScriptArchive(this).write(path, scripts);
+    }
+
+    @Override
+    public Map<String, JexlScript> readArchive(final Path path) throws IOException {
+        return new ScriptArchive(this).read(path);
+    }
+
     @Override
     public Script createExpression(final JexlInfo info, final String expression) {
         return createScript(expressionFeatures, info, expression);
@@ -843,22 +958,20 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
         final JexlEngine se = putThreadEngine(this);
         ASTJexlScript script;
         try {
-            // if parser not in use...
-            if (parsing.compareAndSet(false, true)) {
-                synchronized (parsing) {
-                    try {
-                        // let's parse
-                        script = parser.parse(ninfo, features, src, scope);
-                    } finally {
-                        // no longer in use
-                        parsing.set(false);
-                    }
-                }
-            } else {
-                // ...otherwise parser was in use, create a new temporary one
-                script = parserFactory.get().parse(ninfo, features, src, scope);
+            final long start = source != null ? System.nanoTime() : 0L;
+            // use an idle parser or create one
+            final JexlScriptParser parser = parsers.acquire();
+            final JexlScriptParser previous = parsers.activate(parser);
+            try {
+                script = parser.parse(ninfo, features, src, scope);
+            } finally {
+                parsers.activate(previous);
+                // make it available to others
+                parsers.release(parser);
             }
+            optimize(script);
             if (source != null) {
+                cache.recordLoad(System.nanoTime() - start);
                 cache.put(source, script);
             }
         } finally {
@@ -868,6 +981,19 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
         return script;
     }
 
+    /**
+     * Optimizes a parsed tree.
+     *
+     * @param script the tree
+     * @return the tree
+     */
+    private ASTJexlScript optimize(final ASTJexlScript script) {
+        if (folder != null) {
+            folder.fold(script);
+        }
+        return script;
+    }
+
     /**
      * Parses a Jexl expression or script.
      *
@@ -878,8 +1004,19 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
      * @return The parsed tree
      */
     protected ASTJexlScript jxltParse(final JexlInfo info, final boolean expr, final String src, final Scope scope) {
-        synchronized(parsing) {
-            return parser.jxltParse(info, expr ? this.expressionFeatures : this.scriptFeatures, src, scope);
+        final JexlFeatures features = expr ? this.expressionFeatures : this.scriptFeatures;
+        // an interpolation parsed whilst parsing a script must see its variables
+        final JexlScriptParser active = parsers.active();
+        if (active != null) {
+            return optimize(active.jxltParse(info, features, src, scope));
+        }
+        final JexlScriptParser parser = parsers.acquire();
+        parsers.activate(parser);
+        try {
+            return optimize(parser.jxltParse(info, features, src, scope));
+        } finally {
+            parsers.activate(null);
+            parsers.release(parser);
         }
     }
 
@@ -956,6 +1093,49 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
         }
     }
 
+    /**
+     * The script pragmas that do not depend on the evaluation context, parsed once.
+     */
+    private static final class PragmaDigest {
+        /** The jexl.options flags, null if none. */
+        private final String[] flags;
+        /** The jexl.import packages, null if none. */
+        private final Set<String> imports;
+
+        /**
+         * Creates a digest.
+         *
+         * @param pragmas the script pragmas
+         */
+        PragmaDigest(final Map<String, Object> pragmas) {
+            final Object options = pragmas.get(PRAGMA_OPTIONS);
+            flags = options instanceof String ? options.toString().split(" ") : null;
+            final Set<String> is = new LinkedHashSet<>();
+            withValueSet(pragmas.get(PRAGMA_IMPORT), o -> {
+                if (o instanceof String) {
+                    is.add(o.toString());
+                }
+            });
+            imports = is.isEmpty() ? null : Collections.unmodifiableSet(is);
+        }
+    }
+
+    /**
+     * Gets the digest of a script pragmas, computing it on first call.
+     *
+     * @param script the script
+     * @return the digest
+     */
+    private static PragmaDigest digestPragmas(final ASTJexlScript script) {
+        final Object digest = script.getPragmaDigest();
+        if (digest instanceof PragmaDigest) {
+            return (PragmaDigest) digest;
+        }
+        final PragmaDigest computed = new PragmaDigest(script.getPragmas());
+        script.setPragmaDigest(computed);
+        return computed;
+    }
+
     /**
      * Processes a script pragmas.
      * <p>Only called from options(...)
@@ -971,26 +1151,20 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
                     context instanceof JexlContext.PragmaProcessor
                             ? (JexlContext.PragmaProcessor) context
                             : null;
+            final PragmaDigest digest = digestPragmas(script);
             Map<String, Object> ns = null;
             for (final Map.Entry<String, Object> pragma : pragmas.entrySet()) {
                 final String key = pragma.getKey();
                 final Object value = pragma.getValue();
                 if (PRAGMA_OPTIONS.equals(key)) {
-                    if (value instanceof String) {
-                        // jexl.options
-                        final String[] vs = value.toString().split(" ");
-                        opts.setFlags(vs);
+                    // jexl.options
+                    if (digest.flags != null) {
+                        opts.setFlags(digest.flags);
                     }
                 }  else if (PRAGMA_IMPORT.equals(key)) {
                     // jexl.import, may use a set
-                    final Set<String> is = new LinkedHashSet<>();
-                    withValueSet(value, o -> {
-                        if (o instanceof String) {
-                            is.add(o.toString());
-                        }
-                    });
-                    if (!is.isEmpty()) {
-                        opts.setImports(is);
+                    if (digest.imports != null) {
+                        opts.setImports(digest.imports);
                     }
                 } else if (key.startsWith(PRAGMA_JEXLNS)) {
                     if (ns == null)  {
@@ -1137,7 +1311,7 @@ public class Engine extends JexlEngine implements JexlUberspect.ConstantResolver
      * @param value The value or the set
      * @param consumer The consumer of values
      */
-    private void withValueSet(final Object value, final Consumer<Object> consumer) {
+    private static void withValueSet(final Object value, final Consumer<Object> consumer) {
         final Set<?> values = value instanceof Set<?>
                 ? (Set<?>) value
                 : Collections.singleton(value);
@@ -33,7 +33,7 @@ public class Frame {
     protected final Object[] stack;
 
     /** Number of curried parameters. */
-    private final int curried;
+    private int curried;
 
     /**
      * Creates a new frame.
@@ -61,20 +61,54 @@ public class Frame {
      */
     Frame assign(final Object... values) {
         if (stack != null) {
-            final int nparm = scope.getArgCount();
             final Object[] copy = stack.clone();
-            int ncopy = 0;
-            if (values != null && values.length > 0) {
-                ncopy = Math.min(nparm - curried, Math.min(nparm, values.length));
-                System.arraycopy(values, 0, copy, curried, ncopy);
-            }
-            // unbound parameters are defined as null
-            Arrays.fill(copy, curried + ncopy, nparm, null);
-            return newFrame(scope, copy, curried + ncopy);
+            return newFrame(scope, copy, bind(copy, curried, values));
         }
         return this;
     }
 
+    /**
+     * Assign values to this frame after copying the stack of another frame of the same scope.
+     * <p>This is the recycling version of {@link #assign(Object...)}; the source frame is
+     * left untouched and this frame is returned instead of a new instance.</p>
+     *
+     * @param src The frame to copy
+     * @param values The values
+     * @return this frame
+     */
+    Frame reassign(final Frame src, final Object... values) {
+        System.arraycopy(src.stack, 0, stack, 0, stack.length);
+        curried = bind(stack, src.curried, values);
+        return this;
+    }
+
+    /**
+     * Clears this frame stack so it does not retain values.
+     */
+    void clear() {
+        Arrays.fill(stack, null);
+    }
+
+    /**
+     * Binds values to the parameters of a stack.
+     *
+     * @param copy The stack
+     * @param c The number of curried parameters
+     * @param values The values
+     * @return The number of curried parameters after binding
+     */
+    private int bind(final Object[] copy, final int c, final Object[] values) {
+        final int nparm = scope.getArgCount();
+        int ncopy = 0;
+        if (values != null && values.length > 0) {
+            ncopy = Math.min(nparm - c, Math.min(nparm, values.length));
+            System.arraycopy(values, 0, copy, c, ncopy);
+        }
+        // unbound parameters are defined as null
+        Arrays.fill(copy, c + ncopy, nparm, null);
+        return c + ncopy;
+    }
+
     /**
      * Creates a new from of this frame&quot;s class.
      *
@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.jexl3.JexlCache;
+
+/**
+ * A concurrent, frequency-aware, cache.
+ * <p>
+ *   Reads are lock-free: a lookup is a {@link ConcurrentHashMap#get} followed by a frequency
+ *   increment in a compact count-min sketch. Only insertions and evictions are serialized.
+ * </p>
+ * <p>
+ *   The eviction policy is scan-resistant, in the spirit of TinyLFU. The sketch estimates how often
+ *   each key was requested, whether it was cached or not. When the cache is full, a victim is chosen
+ *   as the least frequent among a few randomly sampled entries and the candidate is only admitted if it
+ *   was requested more often than that victim. A burst of one-off expressions thus does not flush the
+ *   hot working set. The sketch counters are periodically halved so that frequencies age.
+ * </p>
+ * <p>
+ *   A candidate that is not admitted counts as an eviction and is notified to the eviction listener.
+ * </p>
+ * <p>
+ *   Unlike {@link SoftCache}, entries are strongly referenced; the cache is bounded by its capacity only.
+ *   It is selected through {@code new JexlBuilder().cacheFactory(FrequencyCache::new)}.
+ * </p>
+ *
+ * @param <K> The cache key entry type
+ * @param <V> The cache key value type
+ */
+public class FrequencyCache<K, V> implements JexlCache<K, V> {
+    /** The number of sampled entries when seeking a victim. */
+    private static final int SAMPLES = 8;
+
+    /** The maximum value of a sketch counter. */
+    private static final int MAX_FREQUENCY = 15;
+
+    /** The sketch hash seeds, one per row. */
+    private static final int[] SEEDS = { 0x97cb3127, 0xab7e3c2d, 0xc3d4b5f1, 0x2f9ae8c5 };
+
+    /**
+     * A cache entry, knows its slot in the sampling array.
+     *
+     * @param <K> The key type
+     * @param <V> The value type
+     */
+    private static final class Entry<K, V> {
+        /** The key. */
+        private final K key;
+        /** The value. */
+        private volatile V value;
+        /** The slot index, only accessed under the cache lock. */
+        private int slot;
+
+        Entry(final K key, final V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The cache capacity.
+     */
+    protected final int capacity;
+
+    /** The entries. */
+    private final ConcurrentHashMap<K, Entry<K, V>> map;
+
+    /** The entries as an array to allow random sampling, only accessed under lock. */
+    private final Entry<K, V>[] slots;
+
+    /** The number of used slots. */
+    private int count;
+
+    /** The frequency sketch, 4-bit counters packed in ints. */
+    private final int[] sketch;
+
+    /** The mask to index the sketch. */
+    private final int mask;
+
+    /** The number of increments before counters are halved. */
+    private final int sampleSize;
+
+    /** The number of increments since last aging; racy by design. */
+    private int additions;
+
+    /** The statistics. */
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    /** The eviction listener. */
+    private volatile EvictionListener<? super K, ? super V> listener;
+
+    /**
+     * Creates a new instance of a frequency cache.
+     *
+     * @param theSize The cache size
+     */
+    @SuppressWarnings("unchecked")
+    public FrequencyCache(final int theSize) {
+        capacity = Math.max(1, theSize);
+        map = new ConcurrentHashMap<>(capacity + (capacity >> 1));
+        slots = new Entry[capacity];
+        // the sketch holds 8 counters per int, 32 counters per entry
+        final int width = Integer.highestOneBit(Math.max(4 * capacity, 16) - 1) << 1;
+        sketch = new int[width];
+        mask = width - 1;
+        sampleSize = 10 * capacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        synchronized (this) {
+            map.clear();
+            for (int i = 0; i < count; ++i) {
+                slots[i] = null;
+            }
+            count = 0;
+            for (int i = 0; i < sketch.length; ++i) {
+                sketch[i] = 0;
+            }
+            additions = 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Map.Entry<K, V>> entries() {
+        final List<Map.Entry<K, V>> entries = new ArrayList<>(map.size());
+        for (final Entry<K, V> entry : map.values()) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.key, entry.value));
+        }
+        return entries;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V get(final K key) {
+        increment(key);
+        final Entry<K, V> entry = map.get(key);
+        final V value = entry != null ? entry.value : null;
+        statistics.lookup(value != null);
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public V put(final K key, final V script) {
+        increment(key);
+        final K evictedKey;
+        final V evictedValue;
+        synchronized (this) {
+            final Entry<K, V> previous = map.get(key);
+            if (previous != null) {
+                final V value = previous.value;
+                previous.value = script;
+                return value;
+            }
+            if (count >= capacity) {
+                final Entry<K, V> victim = sample();
+                // admit only if requested more often than the victim
+                if (frequency(key) <= frequency(victim.key)) {
+                    evictedKey = key;
+                    evictedValue = script;
+                } else {
+                    remove(victim);
+                    evictedKey = victim.key;
+                    evictedValue = victim.value;
+                }
+            } else {
+                evictedKey = null;
+                evictedValue = null;
+            }
+            if (evictedKey != key) {
+                final Entry<K, V> entry = new Entry<>(key, script);
+                entry.slot = count;
+                slots[count++] = entry;
+                map.put(key, entry);
+            }
+        }
+        // notify outside the lock
+        if (evictedKey != null) {
+            statistics.evicted();
+            final EvictionListener<? super K, ? super V> l = listener;
+            if (l != null) {
+                l.evicted(evictedKey, evictedValue);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordLoad(final long nanos) {
+        statistics.loaded(nanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean setEvictionListener(final EvictionListener<? super K, ? super V> evictionListener) {
+        listener = evictionListener;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Statistics statistics() {
+        return statistics;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Removes an entry, must be called under lock.
+     *
+     * @param entry the entry
+     */
+    private void remove(final Entry<K, V> entry) {
+        map.remove(entry.key);
+        final int last = --count;
+        final Entry<K, V> moved = slots[last];
+        slots[last] = null;
+        if (moved != entry) {
+            moved.slot = entry.slot;
+            slots[entry.slot] = moved;
+        }
+    }
+
+    /**
+     * Finds the least frequent entry among a few randomly sampled ones, must be called under lock.
+     *
+     * @return the victim entry
+     */
+    private Entry<K, V> sample() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        Entry<K, V> victim = null;
+        int lowest = Integer.MAX_VALUE;
+        for (int s = 0; s < SAMPLES && lowest > 0; ++s) {
+            final Entry<K, V> entry = slots[random.nextInt(count)];
+            final int f = frequency(entry.key);
+            if (f < lowest) {
+                lowest = f;
+                victim = entry;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Computes a row hash.
+     *
+     * @param hash the key hash
+     * @param row the sketch row
+     * @return the row hash
+     */
+    private static int rehash(final int hash, final int row) {
+        int h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 16;
+        return h;
+    }
+
+    /**
+     * Computes the bit offset of a row counter in a sketch word.
+     * <p>Each row uses its own pair of nibbles so rows never share a counter.</p>
+     *
+     * @param h the row hash
+     * @param row the sketch row
+     * @return the counter offset
+     */
+    private static int offset(final int h, final int row) {
+        return ((row << 1) + (h >>> 31)) << 2;
+    }
+
+    /**
+     * Spreads a key hash code.
+     *
+     * @param key the key
+     * @return the spread hash
+     */
+    private static int spread(final Object key) {
+        final int h = key.hashCode();
+        return h ^ h >>> 16;
+    }
+
+    /**
+     * Estimates the number of times a key was requested.
+     *
+     * @param key the key
+     * @return the frequency, between 0 and 15
+     */
+    int frequency(final K key) {
+        final int hash = spread(key);
+        int frequency = MAX_FREQUENCY;
+        for (int row = 0; row < SEEDS.length; ++row) {
+            final int h = rehash(hash, row);
+            frequency = Math.min(frequency, sketch[h & mask] >>> offset(h, row) & MAX_FREQUENCY);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the frequency of a key.
+     * <p>Counters are 4-bit nibbles packed in plain ints updated without synchronization; a lost update only
+     * slightly skews an estimate. Saturated counters are not written to which keeps hot keys from contending
+     * on the same memory.</p>
+     *
+     * @param key the key
+     */
+    private void increment(final K key) {
+        final int hash = spread(key);
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; ++row) {
+            final int h = rehash(hash, row);
+            final int i = h & mask;
+            final int offset = offset(h, row);
+            final int word = sketch[i];
+            if ((word >>> offset & MAX_FREQUENCY) < MAX_FREQUENCY) {
+                sketch[i] = word + (1 << offset);
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            age();
+        }
+    }
+
+    /**
+     * Halves all the sketch counters so that older accesses weigh less.
+     */
+    private void age() {
+        additions = 0;
+        for (int i = 0; i < sketch.length; ++i) {
+            sketch[i] = sketch[i] >>> 1 & 0x77777777;
+        }
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.Arrays;
+
+import org.apache.commons.jexl3.JexlCache;
+import org.apache.commons.jexl3.JexlOperator;
+import org.apache.commons.jexl3.parser.JexlNode;
+
+/**
+ * A bounded polymorphic inline cache, stored in a call site node value.
+ * <p>
+ * Property accesses, method calls, constructor calls and operator overloads cache the executor they resolved
+ * in their node. A site that sees different receiver or argument classes, such as {@code item.price} over
+ * a list of beans and maps, would replace its executor on every class change and re-resolve it through the
+ * uberspect. The inline cache keeps one entry per distinct set of operand classes instead: the receiver class
+ * followed by the argument classes. An entry target is an executor or, for operators, the operator that was
+ * found to have no overload for these classes.
+ * </p>
+ * <p>
+ * A site holds at most {@link #SIZE} entries; when a site needs more, it turns megamorphic and evicts its
+ * oldest entry for each new one, keeping the most recently resolved sets of operand classes. A warm-up burst
+ * of classes thus does not degrade a site whose type mix has since settled. Clearing the node cache, as
+ * done when the uberspect version changes, resets the site.
+ * </p>
+ * <p>
+ * Instances are immutable; adding an entry creates a new cache that replaces the previous one in the node.
+ * Concurrent updates may lose an entry which will be resolved again.
+ * </p>
+ *
+ * @since 3.7.1
+ */
+public final class InlineCache implements JexlNode.Funcall {
+    /**
+     * The state of a call site.
+     */
+    public enum State {
+        /** The site has not been evaluated or its resolution is not cacheable. */
+        UNINITIALIZED,
+        /** The site has seen one set of operand classes. */
+        MONOMORPHIC,
+        /** The site has seen a few sets of operand classes. */
+        POLYMORPHIC,
+        /** The site has seen too many sets of operand classes and only keeps the most recent ones. */
+        MEGAMORPHIC
+    }
+
+    /** The maximum number of entries before a site turns megamorphic. */
+    public static final int SIZE = 4;
+
+    /** The empty cache. */
+    private static final InlineCache EMPTY = new InlineCache(new Class<?>[0][], new Object[0], false);
+
+    /**
+     * Computes a key from operands.
+     *
+     * @param operands the operands
+     * @return the operand classes
+     */
+    static Class<?>[] key(final Object... operands) {
+        final Class<?>[] key = new Class<?>[operands.length];
+        for (int i = 0; i < operands.length; ++i) {
+            key[i] = classOf(operands[i]);
+        }
+        return key;
+    }
+
+    /**
+     * Computes a key from a receiver and arguments.
+     *
+     * @param receiver the receiver
+     * @param args the arguments
+     * @return the receiver class followed by the argument classes
+     */
+    static Class<?>[] key(final Object receiver, final Object[] args) {
+        final int argc = args == null ? 0 : args.length;
+        final Class<?>[] key = new Class<?>[argc + 1];
+        key[0] = classOf(receiver);
+        for (int i = 0; i < argc; ++i) {
+            key[i + 1] = classOf(args[i]);
+        }
+        return key;
+    }
+
+    /**
+     * Caches a target in a site.
+     *
+     * @param node the site
+     * @param key the target operand classes
+     * @param target the target
+     */
+    static void put(final JexlCache.Reference node, final Class<?>[] key, final Object target) {
+        final Object cached = node.getCache();
+        final InlineCache ic = cached instanceof InlineCache ? (InlineCache) cached : EMPTY;
+        final InlineCache next = ic.with(key, target);
+        if (next != ic) {
+            node.setCache(next);
+        }
+    }
+
+    /**
+     * Gets the state of a site.
+     *
+     * @param node the site
+     * @return the site state
+     */
+    public static State getState(final JexlNode node) {
+        final Object cached = node.jjtGetValue();
+        if (cached instanceof InlineCache) {
+            return ((InlineCache) cached).getState();
+        }
+        return State.UNINITIALIZED;
+    }
+
+    /**
+     * Gets the class of an operand.
+     *
+     * @param operand the operand
+     * @return the class or null if the operand is null
+     */
+    private static Class<?> classOf(final Object operand) {
+        return operand == null ? null : operand.getClass();
+    }
+
+    /** The entry keys. */
+    private final Class<?>[][] keys;
+
+    /** The entry targets. */
+    private final Object[] targets;
+
+    /** Whether entries were evicted. */
+    private final boolean megamorphic;
+
+    /**
+     * Creates a cache.
+     *
+     * @param theKeys the keys
+     * @param theTargets the targets
+     * @param evicted whether entries were evicted
+     */
+    private InlineCache(final Class<?>[][] theKeys, final Object[] theTargets, final boolean evicted) {
+        this.keys = theKeys;
+        this.targets = theTargets;
+        this.megamorphic = evicted;
+    }
+
+    /**
+     * Creates a cache with a target for a key.
+     * <p>An entry with the same key is replaced, otherwise the entry is added, evicting the oldest
+     * entry if the cache is full.</p>
+     *
+     * @param key the operand classes
+     * @param target the target
+     * @return the new cache or this cache if the entry is already present
+     */
+    InlineCache with(final Class<?>[] key, final Object target) {
+        final int size = keys.length;
+        for (int e = 0; e < size; ++e) {
+            if (Arrays.equals(keys[e], key)) {
+                if (targets[e] == target) {
+                    return this;
+                }
+                final Object[] ntargets = targets.clone();
+                ntargets[e] = target;
+                return new InlineCache(keys, ntargets, megamorphic);
+            }
+        }
+        if (size >= SIZE) {
+            // evict the oldest entry
+            final Class<?>[][] nkeys = new Class<?>[SIZE][];
+            final Object[] ntargets = new Object[SIZE];
+            System.arraycopy(keys, size - SIZE + 1, nkeys, 0, SIZE - 1);
+            System.arraycopy(targets, size - SIZE + 1, ntargets, 0, SIZE - 1);
+            nkeys[SIZE - 1] = key;
+            ntargets[SIZE - 1] = target;
+            return new InlineCache(nkeys, ntargets, true);
+        }
+        final Class<?>[][] nkeys = Arrays.copyOf(keys, size + 1);
+        final Object[] ntargets = Arrays.copyOf(targets, size + 1);
+        nkeys[size] = key;
+        ntargets[size] = target;
+        return new InlineCache(nkeys, ntargets, megamorphic);
+    }
+
+    /**
+     * Finds the target for a pair of operands, a property get.
+     *
+     * @param arg0 the receiver
+     * @param arg1 the property
+     * @return the target or null
+     */
+    Object find(final Object arg0, final Object arg1) {
+        final Class<?> c0 = classOf(arg0);
+        final Class<?> c1 = classOf(arg1);
+        for (int e = 0; e < keys.length; ++e) {
+            final Class<?>[] key = keys[e];
+            if (key.length == 2 && key[0] == c0 && key[1] == c1) {
+                return targets[e];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the target for a triple of operands, a property set.
+     *
+     * @param arg0 the receiver
+     * @param arg1 the property
+     * @param arg2 the value
+     * @return the target or null
+     */
+    Object find(final Object arg0, final Object arg1, final Object arg2) {
+        final Class<?> c0 = classOf(arg0);
+        final Class<?> c1 = classOf(arg1);
+        final Class<?> c2 = classOf(arg2);
+        for (int e = 0; e < keys.length; ++e) {
+            final Class<?>[] key = keys[e];
+            if (key.length == 3 && key[0] == c0 && key[1] == c1 && key[2] == c2) {
+                return targets[e];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the target for a receiver and arguments, a method or constructor call.
+     *
+     * @param receiver the receiver
+     * @param args the arguments
+     * @return the target or null
+     */
+    Object find(final Object receiver, final Object[] args) {
+        final Class<?> c0 = classOf(receiver);
+        final int argc = args == null ? 0 : args.length;
+        for (int e = 0; e < keys.length; ++e) {
+            final Class<?>[] key = keys[e];
+            if (key.length == argc + 1 && key[0] == c0 && matches(key, 1, args)) {
+                return targets[e];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the target for operator arguments.
+     *
+     * @param args the arguments
+     * @return the target or null
+     */
+    Object find(final Object[] args) {
+        final int argc = args.length;
+        for (int e = 0; e < keys.length; ++e) {
+            final Class<?>[] key = keys[e];
+            if (key.length == argc && matches(key, 0, args)) {
+                return targets[e];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether a key matches argument classes.
+     *
+     * @param key the key
+     * @param offset the index of the first argument class in the key
+     * @param args the arguments
+     * @return true if all classes are identical
+     */
+    private static boolean matches(final Class<?>[] key, final int offset, final Object[] args) {
+        for (int i = offset; i < key.length; ++i) {
+            if (key[i] != classOf(args[i - offset])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the site state
+     */
+    public State getState() {
+        if (megamorphic) {
+            return State.MEGAMORPHIC;
+        }
+        switch (keys.length) {
+            case 0: return State.UNINITIALIZED;
+            case 1: return State.MONOMORPHIC;
+            default: return State.POLYMORPHIC;
+        }
+    }
+
+    /**
+     * @return the number of cached entries
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder strb = new StringBuilder(getState().toString());
+        for (int e = 0; e < keys.length; ++e) {
+            strb.append(e == 0 ? '{' : ',');
+            strb.append(Arrays.toString(keys[e]));
+            strb.append("->");
+            final Object target = targets[e];
+            strb.append(target instanceof JexlOperator ? "none" : target.getClass().getSimpleName());
+        }
+        if (keys.length > 0) {
+            strb.append('}');
+        }
+        return strb.toString();
+    }
+}
@@ -61,6 +61,9 @@ public class Interpreter extends InterpreterBase {
         /** Tracking whether we processed the annotation. */
         private boolean processed;
 
+        /** The break, continue or return statement that completed the statement, if any. */
+        private JexlNode completed;
+
         /**
          * Simple ctor.
          *
@@ -78,7 +81,13 @@ public class Interpreter extends InterpreterBase {
         public Object call() throws Exception {
             processed = true;
             try {
-                return processAnnotation(stmt, index, data);
+                final Object result = processAnnotation(stmt, index, data);
+                if (result != ABRUPT) {
+                    return result;
+                }
+                // the processor sees an abrupt completion as the exception it used to be
+                completed = completion;
+                return completionException();
             } catch (JexlException.Return | JexlException.Break | JexlException.Continue xreturn) {
                 return xreturn;
             }
@@ -105,6 +114,20 @@ public class Interpreter extends InterpreterBase {
     protected static final ThreadLocal<Interpreter> INTER =
                        new ThreadLocal<>();
 
+    /**
+     * The marker returned by statements that complete abruptly.
+     * <p>A break, continue or return statement records itself as the pending {@link #completion} and
+     * returns this marker; blocks and switches pass it along, loops consume breaks and continues and
+     * the script (or lambda) evaluation consumes returns. No exception is created on these paths;
+     * loops still honor the {@link JexlException.Break} and {@link JexlException.Continue} thrown by Java code.</p>
+     */
+    static final Object ABRUPT = new Object() {
+        @Override
+        public String toString() {
+            return "abrupt";
+        }
+    };
+
     /** Frame height. */
     protected int fp;
 
@@ -114,6 +137,12 @@ public class Interpreter extends InterpreterBase {
     /** Block micro-frames. */
     protected LexicalFrame block;
 
+    /** The pending break, continue or return statement, null if none. */
+    JexlNode completion;
+
+    /** The value of the pending return statement. */
+    Object returned;
+
     /**
      * Creates an interpreter.
      *
@@ -139,6 +168,19 @@ public class Interpreter extends InterpreterBase {
         block = ii.block != null ? new LexicalFrame(ii.block) : null;
     }
 
+    /**
+     * Session constructor.
+     * <p>Creates an interpreter that shares the prepared state of another one but evaluates
+     * with its own frame.</p>
+     *
+     * @param ii The prepared interpreter
+     * @param eFrame The evaluation frame, arguments and local variables
+     */
+    protected Interpreter(final Interpreter ii, final Frame eFrame) {
+        super(ii);
+        frame = eFrame;
+    }
+
     /**
      * Calls a method (or function).
      * <p>
@@ -159,7 +201,20 @@ public class Interpreter extends InterpreterBase {
     protected Object call(final JexlNode node, final Object target, final Object funcNode, final ASTArguments argNode) {
         cancelCheck(node);
         // evaluate the arguments
-        final Object[] argv = visit(argNode, null);
+        return call(node, target, funcNode, visit(argNode, null));
+    }
+
+    /**
+     * Calls a method (or function) with evaluated arguments.
+     *
+     * @param node    The method node
+     * @param target  The target of the method, what it should be invoked upon
+     * @param funcNode The object carrying the method or function or the method identifier
+     * @param argv    The arguments
+     * @return The result of the method invocation
+     * @see #call(JexlNode, Object, Object, ASTArguments)
+     */
+    Object call(final JexlNode node, final Object target, final Object funcNode, final Object[] argv) {
         final String methodName;
         boolean cacheable = cache;
         boolean isavar = false;
@@ -257,6 +312,9 @@ public class Interpreter extends InterpreterBase {
                 // or when a var/symbol or antish var is used as a "function" name
                 if (functor != null) {
                     // lambda, script or jexl method will do
+                    if (functor instanceof Closure) {
+                        return ((Closure) functor).call(this, argv);
+                    }
                     if (functor instanceof JexlScript) {
                         return ((JexlScript) functor).execute(context, argv);
                     }
@@ -417,7 +475,21 @@ public class Interpreter extends InterpreterBase {
      * @param data     The data
      * @return The left hand side
      */
-    protected Object executeAssign(final JexlNode node, final JexlOperator assignop, final Object data) { // CSOFF: MethodLength
+    protected Object executeAssign(final JexlNode node, final JexlOperator assignop, final Object data) {
+        return executeAssign(node, assignop, null, data);
+    }
+
+    /**
+     * Executes an assignment with an optional side effect operator and a compiled value expression.
+     *
+     * @param node     The node
+     * @param assignop The assignment operator or null if simply assignment
+     * @param value    The compiled value expression, null to interpret it
+     * @param data     The data
+     * @return The left hand side
+     */
+    Object executeAssign(final JexlNode node, final JexlOperator assignop, final ScriptCompiler.Evaluator value, // CSOFF: MethodLength
+                         final Object data) {
         cancelCheck(node);
         // left contains the reference to assign to
         final JexlNode left = node.jjtGetChild(0);
@@ -450,7 +522,9 @@ public class Interpreter extends InterpreterBase {
         // 0: determine initial object & property:
         final int last = left.jjtGetNumChildren() - 1;
         // right is the value expression to assign
-       final  Object right = node.jjtGetNumChildren() < 2? null: node.jjtGetChild(1).jjtAccept(this, data);
+        final Object right = node.jjtGetNumChildren() < 2
+            ? null
+            : value != null ? value.eval(this, data) : node.jjtGetChild(1).jjtAccept(this, data);
         // actual value to return, right in most cases
         Object actual = right;
         // a (var?) v = ... expression
@@ -482,16 +556,16 @@ public class Interpreter extends InterpreterBase {
                 final String name = variable.getName();
                 if (last < 0) {
                     if (assignop == null) {
-                        setContextVariable(node, name, right);
+                        setContextVariable(node, variable, right);
                     } else {
                         // go through potential overload
-                        final Object self = context.get(name);
-                        final Consumer<Object> f = r ->  setContextVariable(node, name, r);
+                        final Object self = getContextVariable(variable);
+                        final Consumer<Object> f = r ->  setContextVariable(node, variable, r);
                         actual = operators.tryAssignOverload(node, assignop, f, self, right);
                     }
                     return actual; // 2
                 }
-                object = context.get(name);
+                object = getContextVariable(variable);
                 // top level accesses object, cannot be an antish var
                 if (object != null) {
                     antish = false;
@@ -601,7 +675,31 @@ public class Interpreter extends InterpreterBase {
         return actual;
     }
 
-    private Object forIterator(final ASTForeachStatement node, final Object data) {
+    /**
+     * Executes a foreach statement.
+     * <p>The compiled children, when not null, are indexed as the node children.</p>
+     * @param node the foreach node
+     * @param code the compiled children or null to interpret them
+     * @param data the data
+     * @return the loop result
+     */
+    Object forEach(final ASTForeachStatement node, final ScriptCompiler.Evaluator[] code, final Object data) {
+        return node.getLoopForm() == 0 ? forIterator(node, code, data) : forLoop(node, code, data);
+    }
+
+    /**
+     * Evaluates a child node, compiled or interpreted.
+     * @param node the parent node
+     * @param i the child index
+     * @param code the compiled children or null
+     * @param data the data
+     * @return the child value
+     */
+    private Object accept(final JexlNode node, final int i, final ScriptCompiler.Evaluator[] code, final Object data) {
+        return code != null ? code[i].eval(this, data) : node.jjtGetChild(i).jjtAccept(this, data);
+    }
+
+    private Object forIterator(final ASTForeachStatement node, final ScriptCompiler.Evaluator[] code, final Object data) {
         Object result = null;
         /* first objectNode is the loop variable */
         final ASTReference loopReference = (ASTReference) node.jjtGetChild(0);
@@ -621,7 +719,7 @@ public class Interpreter extends InterpreterBase {
         Object forEach = null;
         try {
             /* second objectNode is the variable to iterate */
-            final Object iterableValue = node.jjtGetChild(1).jjtAccept(this, data);
+            final Object iterableValue = accept(node, 1, code, data);
             // make sure there is a value to iterate upon
             if (iterableValue == null) {
                 return null;
@@ -630,18 +728,27 @@ public class Interpreter extends InterpreterBase {
             final int numChildren = node.jjtGetNumChildren();
             final JexlNode statement = numChildren >= 3 ? node.jjtGetChild(numChildren - 1) : null;
             // get an iterator for the collection/array/etc. via the introspector.
-            forEach = operators.tryOverload(node, JexlOperator.FOR_EACH, iterableValue);
-            final Iterator<?> itemsIterator = forEach instanceof Iterator
-                    ? (Iterator<?>) forEach
-                    : uberspect.getIterator(iterableValue);
-            if (itemsIterator == null) {
-                return null;
+            forEach = tryOverload(node, JexlOperator.FOR_EACH, iterableValue);
+            Iterator<?> itemsIterator = null;
+            LoopElements elements = null;
+            if (forEach instanceof Iterator) {
+                itemsIterator = (Iterator<?>) forEach;
+            } else {
+                // arrays and ranges are indexed directly unless a custom uberspect provides the iterator
+                elements = jexl.indexedLoops ? LoopElements.of(iterableValue) : null;
+                if (elements == null) {
+                    itemsIterator = uberspect.getIterator(iterableValue);
+                    if (itemsIterator == null) {
+                        return null;
+                    }
+                }
             }
-            int cnt = 0;
-            while (itemsIterator.hasNext()) {
+            // the number of symbols the loop defines; more means the statement defined some
+            final int defined = loopSymbol ? 1 : 0;
+            for (int cnt = 0; elements != null ? cnt < elements.size() : itemsIterator.hasNext(); ++cnt) {
                 cancelCheck(node);
                 // reset loop variable
-                if (lexical && cnt++ > 0) {
+                if (lexical && cnt > 0 && locals.getSymbolCount() != defined) {
                     // clean up but remain current
                     block.pop();
                     // unlikely to fail
@@ -650,16 +757,21 @@ public class Interpreter extends InterpreterBase {
                     }
                 }
                 // set loopVariable to value of iterator
-                final Object value = itemsIterator.next();
+                final Object value = elements != null ? elements.get(cnt) : itemsIterator.next();
                 if (symbol < 0) {
-                    setContextVariable(node, loopVariable.getName(), value);
+                    setContextVariable(node, loopVariable, value);
                 } else {
                     frame.set(symbol, value);
                 }
                 if (statement != null) {
                     try {
                         // execute statement
-                        result = statement.jjtAccept(this, data);
+                        final Object outcome = accept(node, numChildren - 1, code, data);
+                        if (outcome != ABRUPT) {
+                            result = outcome;
+                        } else if (exitLoop()) {
+                            break;
+                        }
                     } catch (final JexlException.Break stmtBreak) {
                         break;
                     } catch (final JexlException.Continue stmtContinue) {
@@ -675,10 +787,10 @@ public class Interpreter extends InterpreterBase {
                 block = block.pop();
             }
         }
-        return result;
+        return completion != null ? ABRUPT : result;
     }
 
-    private Object forLoop(final ASTForeachStatement node, final Object data) {
+    private Object forLoop(final ASTForeachStatement node, final ScriptCompiler.Evaluator[] code, final Object data) {
         Object result = null;
         int nc;
         final int form = node.getLoopForm();
@@ -706,12 +818,12 @@ public class Interpreter extends InterpreterBase {
                 locals = null;
             }
             // initialize after eventual creation of local lexical frame
-            init.jjtAccept(this, data);
+            accept(node, 0, code, data);
             // other inits
             for (JexlNode moreAssignment = node.jjtGetChild(nc);
                  moreAssignment instanceof ASTAssignment;
                  moreAssignment = node.jjtGetChild(++nc)) {
-                moreAssignment.jjtAccept(this, data);
+                accept(node, nc, code, data);
             }
         } else {
             locals = null;
@@ -719,19 +831,26 @@ public class Interpreter extends InterpreterBase {
         }
         try {
             // the loop condition
-            final JexlNode predicate = (form & 2) != 0? node.jjtGetChild(nc++) : null;
+            final int p = (form & 2) != 0 ? nc++ : -1;
+            final JexlNode predicate = p >= 0 ? node.jjtGetChild(p) : null;
             // the loop step
-            final JexlNode step = (form & 4) != 0? node.jjtGetChild(nc++) : null;
+            final int s = (form & 4) != 0 ? nc++ : -1;
             // last child is body
             final JexlNode statement = (form & 8) != 0 ? node.jjtGetChild(nc) : null;
+            final int b = nc;
             // while(predicate())...
-            while (predicate == null || testPredicate(predicate, predicate.jjtAccept(this, data))) {
+            while (predicate == null || testPredicate(predicate, accept(node, p, code, data))) {
                 cancelCheck(node);
                 // the body
                 if (statement != null) {
                     try {
                         // execute statement
-                        result = statement.jjtAccept(this, data);
+                        final Object outcome = accept(node, b, code, data);
+                        if (outcome != ABRUPT) {
+                            result = outcome;
+                        } else if (exitLoop()) {
+                            break;
+                        }
                     } catch (final JexlException.Break stmtBreak) {
                         break;
                     } catch (final JexlException.Continue stmtContinue) {
@@ -739,8 +858,8 @@ public class Interpreter extends InterpreterBase {
                     }
                 }
                 // the step
-                if (step != null) {
-                    step.jjtAccept(this, data);
+                if (s >= 0) {
+                    accept(node, s, code, data);
                 }
             }
         } finally {
@@ -749,7 +868,7 @@ public class Interpreter extends InterpreterBase {
                 block = block.pop();
             }
         }
-        return result;
+        return completion != null ? ABRUPT : result;
     }
 
     /**
@@ -763,6 +882,18 @@ public class Interpreter extends InterpreterBase {
      * @throws JexlException if any error occurs during interpretation.
      */
     public Object interpret(final JexlNode node) {
+        return interpret(node, null);
+    }
+
+    /**
+     * Interpret the given script/expression, using its compiled form if any.
+     *
+     * @param node The script or expression to interpret.
+     * @param code The compiled script, null to interpret the node
+     * @return The result of the interpretation.
+     * @throws JexlException if any error occurs during interpretation.
+     */
+    Object interpret(final JexlNode node, final ScriptCompiler.Evaluator code) {
         JexlContext.ThreadLocal tcontext = null;
         JexlEngine tjexl = null;
         Interpreter tinter = null;
@@ -779,7 +910,8 @@ public class Interpreter extends InterpreterBase {
                 throw new JexlException.StackOverflow(node.jexlInfo(), "jexl (" + jexl.stackOverflow + ")", null);
             }
             cancelCheck(node);
-            return arithmetic.controlReturn(node.jjtAccept(this, null));
+            final Object result = code != null ? code.eval(this, null) : node.jjtAccept(this, null);
+            return result == ABRUPT ? consumeReturn() : arithmetic.controlReturn(result);
         } catch (final StackOverflowError xstack) {
             final JexlException xjexl = new JexlException.StackOverflow(node.jexlInfo(), "jvm", xstack);
             if (!isSilent()) {
@@ -873,7 +1005,7 @@ public class Interpreter extends InterpreterBase {
             if (ii.isCancelled()) {
                 Interpreter.this.cancel();
             }
-            return r;
+            return r == ABRUPT ? complete(ii.completion, ii.consumeReturn()) : r;
         }
         // tracking whether we processed the annotation
         final AnnotatedCall jstmt = new AnnotatedCall(stmt, index + 1, data);
@@ -898,6 +1030,14 @@ public class Interpreter extends InterpreterBase {
         }
         // the caller may return a return, break or continue
         if (result instanceof JexlException) {
+            final JexlNode completed = jstmt.completed;
+            if (result instanceof JexlException.Return && completed instanceof ASTReturnStatement) {
+                return complete(completed, ((JexlException.Return) result).getValue());
+            }
+            if (result instanceof JexlException.Break && completed instanceof ASTBreak
+                || result instanceof JexlException.Continue && completed instanceof ASTContinue) {
+                return complete(completed, null);
+            }
             throw (JexlException) result;
         }
         return result;
@@ -960,13 +1100,24 @@ public class Interpreter extends InterpreterBase {
      * @return The closure return value
      */
     protected Object runClosure(final Closure closure) {
+        return runClosure(closure, null);
+    }
+
+    /**
+     * Runs a closure, reusing a lexical frame.
+     *
+     * @param closure The closure
+     * @param lexical The lexical frame to define the arguments in, null to create one
+     * @return The closure return value
+     */
+    Object runClosure(final Closure closure, final LexicalFrame lexical) {
         final ASTJexlScript script = closure.getScript();
         // if empty script, nothing to evaluate
         final int numChildren = script.jjtGetNumChildren();
         if (numChildren == 0) {
             return null;
         }
-        block = new LexicalFrame(frame, block).defineArgs();
+        block = (lexical != null ? lexical : new LexicalFrame(frame, block)).defineArgs();
         try {
             final JexlNode body = script instanceof ASTJexlLambda
                     ? script.jjtGetChild(numChildren - 1)
@@ -977,8 +1128,8 @@ public class Interpreter extends InterpreterBase {
         }
     }
 
-    private boolean testPredicate(final JexlNode node, final Object condition) {
-        final Object predicate = operators.tryOverload(node, JexlOperator.CONDITION, condition);
+    boolean testPredicate(final JexlNode node, final Object condition) {
+        final Object predicate = tryOverload(node, JexlOperator.CONDITION, condition);
         return  arithmetic.testPredicate(predicate != JexlEngine.TRY_FAILED? predicate : condition);
     }
 
@@ -987,7 +1138,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.ADD, left, right);
+            final Object result = tryOverload(node, JexlOperator.ADD, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.add(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), "+ error", xrt);
@@ -1079,6 +1230,16 @@ public class Interpreter extends InterpreterBase {
 
     @Override
     protected Object visit(final ASTArrayLiteral node, final Object data) {
+        // elements pre-computed by constant folding
+        final Object constant = node.jjtGetValue();
+        if (constant instanceof Object[]) {
+            final Object[] elements = (Object[]) constant;
+            final JexlArithmetic.ArrayBuilder ab = arithmetic.arrayBuilder(elements.length, false);
+            for (final Object element : elements) {
+                ab.add(element);
+            }
+            return ab.create(false);
+        }
         final int childCount = node.jjtGetNumChildren();
         final JexlArithmetic.ArrayBuilder ab = arithmetic.arrayBuilder(childCount, node.isExtended());
         boolean extended = false;
@@ -1105,7 +1266,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.AND, left, right);
+            final Object result = tryOverload(node, JexlOperator.AND, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.and(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), "& error", xrt);
@@ -1116,7 +1277,7 @@ public class Interpreter extends InterpreterBase {
     protected Object visit(final ASTBitwiseComplNode node, final Object data) {
         final Object arg = node.jjtGetChild(0).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.COMPLEMENT, arg);
+            final Object result = tryOverload(node, JexlOperator.COMPLEMENT, arg);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.complement(arg);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(node, "~ error", xrt);
@@ -1128,7 +1289,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.OR, left, right);
+            final Object result = tryOverload(node, JexlOperator.OR, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.or(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), "| error", xrt);
@@ -1140,7 +1301,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.XOR, left, right);
+            final Object result = tryOverload(node, JexlOperator.XOR, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.xor(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), "^ error", xrt);
@@ -1163,7 +1324,7 @@ public class Interpreter extends InterpreterBase {
 
     @Override
     protected Object visit(final ASTBreak node, final Object data) {
-        throw new JexlException.Break(node);
+        return complete(node, null);
     }
 
     @Override
@@ -1182,15 +1343,21 @@ public class Interpreter extends InterpreterBase {
 
         try {
             final boolean cacheable = cache;
+            Class<?>[] key = null;
             // attempt to reuse last funcall cached in volatile JexlNode.value
             if (cacheable) {
                 final Object cached = node.jjtGetValue();
-                if (cached instanceof Funcall) {
-                    final Object eval = ((Funcall) cached).tryInvoke(this, null, target, argv);
-                    if (JexlEngine.TRY_FAILED != eval) {
-                        return eval;
+                if (cached instanceof InlineCache) {
+                    final Object ctor = ((InlineCache) cached).find(target, argv);
+                    if (ctor instanceof Funcall) {
+                        final Object eval = ((Funcall) ctor).tryInvoke(this, null, target, argv);
+                        if (JexlEngine.TRY_FAILED != eval) {
+                            return eval;
+                        }
                     }
                 }
+                // before arguments are narrowed
+                key = InlineCache.key(target, argv);
             }
             boolean narrow = false;
             Funcall funcall = null;
@@ -1228,7 +1395,7 @@ public class Interpreter extends InterpreterBase {
                 final Object eval = ctor.invoke(target, argv);
                 // cache executor in volatile JexlNode.value
                 if (funcall != null) {
-                    node.jjtSetValue(funcall);
+                    InlineCache.put(node, key, funcall);
                 }
                 return eval;
             }
@@ -1248,6 +1415,9 @@ public class Interpreter extends InterpreterBase {
         Object result = null;
         for (int i = 0; i < argc; i++) {
             result = node.jjtGetChild(i).jjtAccept(this, data);
+            if (result == ABRUPT) {
+                break;
+            }
         }
         return result;
     }
@@ -1259,7 +1429,7 @@ public class Interpreter extends InterpreterBase {
 
     @Override
     protected Object visit(final ASTContinue node, final Object data) {
-        throw new JexlException.Continue(node);
+        return complete(node, null);
     }
 
     @Override
@@ -1282,7 +1452,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.DIVIDE, left, right);
+            final Object result = tryOverload(node, JexlOperator.DIVIDE, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.divide(left, right);
         } catch (final ArithmeticException xrt) {
             if (!arithmetic.isStrict()) {
@@ -1302,7 +1472,12 @@ public class Interpreter extends InterpreterBase {
             if (nc > 1) {
                 try {
                     // execute statement
-                    result = node.jjtGetChild(0).jjtAccept(this, data);
+                    final Object outcome = node.jjtGetChild(0).jjtAccept(this, data);
+                    if (outcome != ABRUPT) {
+                        result = outcome;
+                    } else if (exitLoop()) {
+                        break;
+                    }
                 } catch (final JexlException.Break stmtBreak) {
                     break;
                 } catch (final JexlException.Continue stmtContinue) {
@@ -1310,7 +1485,7 @@ public class Interpreter extends InterpreterBase {
                 }
             }
         } while (testPredicate(condition, condition.jjtAccept(this, data)));
-        return result;
+        return completion != null ? ABRUPT : result;
     }
 
     @Override
@@ -1326,7 +1501,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.EQ, left, right);
+            final Object result = tryOverload(node, JexlOperator.EQ, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.equals(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), "== error", xrt);
@@ -1338,16 +1513,48 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.EQSTRICT, left, right);
+            final Object result = tryOverload(node, JexlOperator.EQSTRICT, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.strictEquals(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), "=== error", xrt);
         }
     }
 
+    /**
+     * Gets the hashed elements of a constant array or set literal, right operand of '=~' or '!~'.
+     * <p>The elements are computed on first call and cached in the operator node.</p>
+     *
+     * @param node the '=~' or '!~' node
+     * @return the elements or null if the operand is not a constant literal or the operator may be overloaded
+     */
+    ConstantSet constantSet(final JexlNode node) {
+        final Object cached = node.jjtGetValue();
+        if (cached instanceof ConstantSet) {
+            return (ConstantSet) cached;
+        }
+        final JexlNode literal = node.jjtGetChild(1);
+        if (cached != null
+            || !(literal instanceof ASTArrayLiteral || literal instanceof ASTSetLiteral)
+            || !literal.isConstant()
+            || !(operators instanceof Operator)
+            || operators.overloads(JexlOperator.CONTAINS)
+            || !ConstantSet.isDefault(arithmetic)) {
+            return null;
+        }
+        final ConstantSet elements = ConstantSet.of(literal.jjtAccept(this, null));
+        if (elements != null) {
+            node.jjtSetValue(elements);
+        }
+        return elements;
+    }
+
     @Override
     protected Object visit(final ASTERNode node, final Object data) {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
+        final ConstantSet elements = constantSet(node);
+        if (elements != null) {
+            return elements.contains(left);
+        }
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         // note the arguments inversion between 'in'/'matches' and 'contains'
         // if x in y then y contains x
@@ -1373,7 +1580,7 @@ public class Interpreter extends InterpreterBase {
 
     @Override
     protected Object visit(final ASTForeachStatement node, final Object data) {
-        return node.getLoopForm() == 0 ? forIterator(node, data) : forLoop(node, data);
+        return forEach(node, null, data);
     }
 
     @Override
@@ -1390,7 +1597,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.GTE, left, right);
+            final Object result = tryOverload(node, JexlOperator.GTE, left, right);
             return result != JexlEngine.TRY_FAILED
                    ? result
                    : arithmetic.greaterThanOrEqual(left, right);
@@ -1414,7 +1621,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.GT, left, right);
+            final Object result = tryOverload(node, JexlOperator.GT, left, right);
             return result != JexlEngine.TRY_FAILED
                    ? result
                    : arithmetic.greaterThan(left, right);
@@ -1509,6 +1716,9 @@ public class Interpreter extends InterpreterBase {
         for (int i = 0; i < numChildren; i++) {
             final JexlNode child = script.jjtGetChild(i);
             result = child.jjtAccept(this, data);
+            if (result == ABRUPT) {
+                break;
+            }
             cancelCheck(child);
         }
         return result;
@@ -1519,7 +1729,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.LTE, left, right);
+            final Object result = tryOverload(node, JexlOperator.LTE, left, right);
             return result != JexlEngine.TRY_FAILED
                    ? result
                    : arithmetic.lessThanOrEqual(left, right);
@@ -1533,7 +1743,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.LT, left, right);
+            final Object result = tryOverload(node, JexlOperator.LT, left, right);
             return result != JexlEngine.TRY_FAILED
                    ? result
                    : arithmetic.lessThan(left, right);
@@ -1551,6 +1761,16 @@ public class Interpreter extends InterpreterBase {
 
     @Override
     protected Object visit(final ASTMapLiteral node, final Object data) {
+        // entries pre-computed by constant folding, keys and values interleaved
+        final Object constant = node.jjtGetValue();
+        if (constant instanceof Object[]) {
+            final Object[] entries = (Object[]) constant;
+            final JexlArithmetic.MapBuilder mb = arithmetic.mapBuilder(entries.length / 2, false);
+            for (int i = 0; i < entries.length; i += 2) {
+                mb.put(entries[i], entries[i + 1]);
+            }
+            return mb.create();
+        }
         final int childCount = node.jjtGetNumChildren();
         final JexlArithmetic.MapBuilder mb = arithmetic.mapBuilder(childCount, node.isExtended());
         for (int i = 0; i < childCount; i++) {
@@ -1620,7 +1840,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.MOD, left, right);
+            final Object result = tryOverload(node, JexlOperator.MOD, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.mod(left, right);
         } catch (final ArithmeticException xrt) {
             if (!arithmetic.isStrict()) {
@@ -1635,7 +1855,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.MULTIPLY, left, right);
+            final Object result = tryOverload(node, JexlOperator.MULTIPLY, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.multiply(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), "* error", xrt);
@@ -1647,7 +1867,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.EQ, left, right);
+            final Object result = tryOverload(node, JexlOperator.EQ, left, right);
             return result != JexlEngine.TRY_FAILED
                    ? !arithmetic.toBoolean(result)
                    : !arithmetic.equals(left, right);
@@ -1661,7 +1881,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.EQSTRICT, left, right);
+            final Object result = tryOverload(node, JexlOperator.EQSTRICT, left, right);
             return result != JexlEngine.TRY_FAILED
                 ? !arithmetic.toBoolean(result)
                 : !arithmetic.strictEquals(left, right);
@@ -1689,7 +1909,7 @@ public class Interpreter extends InterpreterBase {
     protected Object visit(final ASTNotNode node, final Object data) {
         final Object val = node.jjtGetChild(0).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.NOT, val);
+            final Object result = tryOverload(node, JexlOperator.NOT, val);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.not(val);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(node, "! error", xrt);
@@ -1699,6 +1919,10 @@ public class Interpreter extends InterpreterBase {
     @Override
     protected Object visit(final ASTNRNode node, final Object data) {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
+        final ConstantSet elements = constantSet(node);
+        if (elements != null) {
+            return !elements.contains(left);
+        }
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         // note the arguments inversion between (not) 'in'/'matches' and  (not) 'contains'
         // if x not-in y then y not-contains x
@@ -1891,12 +2115,12 @@ public class Interpreter extends InterpreterBase {
             : null;
         cancelCheck(node);
         final JexlNode parent = node.jjtGetParent();
-        // if return is last child of script, no need to throw
+        // if return is last child of script, no need to complete abruptly
         if (parent instanceof ASTJexlScript &&
             parent.jjtGetChild(parent.jjtGetNumChildren() - 1) == node) {
             return val;
         }
-        throw new JexlException.Return(node, null, val);
+        return complete(node, val);
     }
 
     @Override
@@ -1916,6 +2140,16 @@ public class Interpreter extends InterpreterBase {
 
     @Override
     protected Object visit(final ASTSetLiteral node, final Object data) {
+        // elements pre-computed by constant folding
+        final Object constant = node.jjtGetValue();
+        if (constant instanceof Object[]) {
+            final Object[] elements = (Object[]) constant;
+            final JexlArithmetic.SetBuilder mb = arithmetic.setBuilder(elements.length, false);
+            for (final Object element : elements) {
+                mb.add(element);
+            }
+            return mb.create();
+        }
         final int childCount = node.jjtGetNumChildren();
         final JexlArithmetic.SetBuilder mb = arithmetic.setBuilder(childCount, node.isExtended());
         for (int i = 0; i < childCount; i++) {
@@ -1974,7 +2208,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.SHIFTLEFT, left, right);
+            final Object result = tryOverload(node, JexlOperator.SHIFTLEFT, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.shiftLeft(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), "<< error", xrt);
@@ -1986,7 +2220,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.SHIFTRIGHT, left, right);
+            final Object result = tryOverload(node, JexlOperator.SHIFTRIGHT, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.shiftRight(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), ">> error", xrt);
@@ -1998,7 +2232,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.SHIFTRIGHTU, left, right);
+            final Object result = tryOverload(node, JexlOperator.SHIFTRIGHTU, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.shiftRightUnsigned(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), ">>> error", xrt);
@@ -2026,7 +2260,7 @@ public class Interpreter extends InterpreterBase {
         final Object left = node.jjtGetChild(0).jjtAccept(this, data);
         final Object right = node.jjtGetChild(1).jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.SUBTRACT, left, right);
+            final Object result = tryOverload(node, JexlOperator.SUBTRACT, left, right);
             return result != JexlEngine.TRY_FAILED ? result : arithmetic.subtract(left, right);
         } catch (final ArithmeticException xrt) {
             throw new JexlException(findNullOperand(node, left, right), "- error", xrt);
@@ -2046,7 +2280,12 @@ public class Interpreter extends InterpreterBase {
         final Object value = node.jjtGetChild(0).jjtAccept(this, data);
         final int index = node.switchIndex(value);
         if (index >= 0) {
-          return node.jjtGetChild(index).jjtAccept(this, data);
+          final Object result = node.jjtGetChild(index).jjtAccept(this, data);
+          // an expression can not complete abruptly, a return in a case block must throw
+          if (result == ABRUPT) {
+              throw completionException();
+          }
+          return result;
         }
         if (isStrictEngine()) {
           throw new JexlException(node, "no case in switch expression for: " + value);
@@ -2066,14 +2305,21 @@ public class Interpreter extends InterpreterBase {
             for (int i = index; i < count; ++i) {
                 try {
                     // evaluate the switch body
-                    value = node.jjtGetChild(i).jjtAccept(this, data);
+                    final Object result = node.jjtGetChild(i).jjtAccept(this, data);
+                    if (result != ABRUPT) {
+                        value = result;
+                    } else if (exitLoop()) {
+                        // break out of the switch (or return)
+                        break;
+                    }
+                    // continue to next case
                 } catch (final JexlException.Break xbreak) {
                    break; // break out of the switch
                 } catch (final JexlException.Continue xcontinue) {
                     // continue to next case
                 }
             }
-            return value;
+            return completion != null ? ABRUPT : value;
         }
         if (isStrictEngine()) {
             throw new JexlException(node, "no case in switch statement for: " + value);
@@ -2155,10 +2401,17 @@ public class Interpreter extends InterpreterBase {
         final JexlNode tryBody = node.jjtGetChild(nc++);
         JexlException rethrow = null;
         JexlException flowControl = null;
+        // the break, continue or return that completed a body, suspended while the finally body runs
+        JexlNode flowNode = null;
+        Object flowValue = null;
         Object result = null;
         try {
             // evaluate the try
             result = tryBody.jjtAccept(this, data);
+            if (result == ABRUPT) {
+                flowNode = completion;
+                flowValue = consumeReturn();
+            }
         } catch(JexlException.Return | JexlException.Cancel |
                 JexlException.Break | JexlException.Continue xflow) {
             // flow control exceptions do not trigger the catch clause
@@ -2176,6 +2429,10 @@ public class Interpreter extends InterpreterBase {
                 result = evalCatch(catchVar, catchBody, rethrow, data);
                 // if catch body evaluates, do not rethrow
                 rethrow = null;
+                if (result == ABRUPT) {
+                    flowNode = completion;
+                    flowValue = consumeReturn();
+                }
             } catch (JexlException.Return | JexlException.Cancel |
                      JexlException.Break | JexlException.Continue alterFlow) {
                 flowControl = alterFlow;
@@ -2189,11 +2446,21 @@ public class Interpreter extends InterpreterBase {
         if (node.hasFinallyClause()) {
             final JexlNode finallyBody = node.jjtGetChild(node.jjtGetNumChildren() - 1);
             try {
-                finallyBody.jjtAccept(this, data);
+                if (finallyBody.jjtAccept(this, data) == ABRUPT) {
+                    // potentially swallow previous, even return but not cancel
+                    final JexlNode finallyNode = completion;
+                    final Object finallyValue = consumeReturn();
+                    if (!(flowControl instanceof JexlException.Cancel)) {
+                        flowControl = null;
+                        flowNode = finallyNode;
+                        flowValue = finallyValue;
+                    }
+                }
             } catch (JexlException.Break | JexlException.Continue | JexlException.Return flowException) {
                 // potentially swallow previous, even return but not cancel
                 if (!(flowControl instanceof JexlException.Cancel)) {
                     flowControl = flowException;
+                    flowNode = null;
                 }
             } catch (final JexlException.Cancel cancelException) {
                 // cancel swallows everything
@@ -2207,11 +2474,14 @@ public class Interpreter extends InterpreterBase {
                 rethrow = exception;
             }
         }
-        if (flowControl != null) {
+        if (flowControl != null || flowNode != null) {
             if (thrownByCatch != null && jexl.logger.isDebugEnabled()) {
                 jexl.logger.debug("finally swallowed exception thrown by catch", thrownByCatch);
             }
-            throw flowControl;
+            if (flowControl != null) {
+                throw flowControl;
+            }
+            return complete(flowNode, flowValue);
         }
         if (rethrow != null) {
             throw rethrow;
@@ -2229,7 +2499,7 @@ public class Interpreter extends InterpreterBase {
         final JexlNode valNode = node.jjtGetChild(0);
         final Object val = valNode.jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.NEGATE, val);
+            final Object result = tryOverload(node, JexlOperator.NEGATE, val);
             if (result != JexlEngine.TRY_FAILED) {
                 return result;
             }
@@ -2258,7 +2528,7 @@ public class Interpreter extends InterpreterBase {
         final JexlNode valNode = node.jjtGetChild(0);
         final Object val = valNode.jjtAccept(this, data);
         try {
-            final Object result = operators.tryOverload(node, JexlOperator.POSITIVIZE, val);
+            final Object result = tryOverload(node, JexlOperator.POSITIVIZE, val);
             if (result != JexlEngine.TRY_FAILED) {
                 return result;
             }
@@ -2299,7 +2569,12 @@ public class Interpreter extends InterpreterBase {
             if (node.jjtGetNumChildren() > 1) {
                 try {
                     // execute statement
-                    result = node.jjtGetChild(1).jjtAccept(this, data);
+                    final Object outcome = node.jjtGetChild(1).jjtAccept(this, data);
+                    if (outcome != ABRUPT) {
+                        result = outcome;
+                    } else if (exitLoop()) {
+                        break;
+                    }
                 } catch (final JexlException.Break stmtBreak) {
                     break;
                 } catch (final JexlException.Continue stmtContinue) {
@@ -2307,7 +2582,65 @@ public class Interpreter extends InterpreterBase {
                 }
             }
         }
-        return result;
+        return completion != null ? ABRUPT : result;
+    }
+
+    /**
+     * Completes a statement abruptly.
+     *
+     * @param node The break, continue or return statement
+     * @param value The returned value
+     * @return the {@link #ABRUPT} marker
+     */
+    Object complete(final JexlNode node, final Object value) {
+        completion = node;
+        returned = value;
+        return ABRUPT;
+    }
+
+    /**
+     * Consumes the pending completion of a loop body that completed abruptly.
+     * <p>A break or continue is consumed; a return is left pending for the script to consume.</p>
+     *
+     * @return true if the loop must exit, false if it must continue
+     */
+    boolean exitLoop() {
+        final JexlNode node = completion;
+        if (node instanceof ASTReturnStatement) {
+            return true;
+        }
+        completion = null;
+        return node instanceof ASTBreak;
+    }
+
+    /**
+     * Consumes the pending completion.
+     *
+     * @return the returned value if the completion is a return, null otherwise
+     */
+    Object consumeReturn() {
+        final Object value = returned;
+        completion = null;
+        returned = null;
+        return value;
+    }
+
+    /**
+     * Consumes the pending completion as the exception that signals it.
+     * <p>Used where a completion can not propagate as a marker, through an expression or an annotation processor.</p>
+     *
+     * @return the break, continue or return exception
+     */
+    JexlException completionException() {
+        final JexlNode node = completion;
+        final Object value = consumeReturn();
+        if (node instanceof ASTBreak) {
+            return new JexlException.Break(node);
+        }
+        if (node instanceof ASTContinue) {
+            return new JexlException.Continue(node);
+        }
+        return new JexlException.Return(node, null, value);
     }
 
     /**
@@ -2323,6 +2656,9 @@ public class Interpreter extends InterpreterBase {
         for (int i = 0; i < numChildren; i++) {
             cancelCheck(node);
             result = node.jjtGetChild(i).jjtAccept(this, data);
+            if (result == ABRUPT) {
+                break;
+            }
         }
         return result;
     }
@@ -82,6 +82,9 @@ public abstract class InterpreterBase extends ParserVisitor {
         /** The cacheable funcall if any. */
         Funcall funcall;
 
+        /** The inline cache key of the call site, computed when the cached funcall did not apply. */
+        Class<?>[] key;
+
         /**
          * Dispatcher ctor.
          *
@@ -106,8 +109,8 @@ public abstract class InterpreterBase extends ParserVisitor {
                 // vm cannot be null if xjexl is null
                 final Object eval = vm.invoke(target, argv);
                 // cache executor in volatile JexlNode.value
-                if (funcall != null) {
-                    node.jjtSetValue(funcall);
+                if (funcall != null && key != null) {
+                    InlineCache.put(node, key, funcall);
                 }
                 return eval;
             }
@@ -191,9 +194,17 @@ public abstract class InterpreterBase extends ParserVisitor {
             // attempt to reuse last funcall cached in volatile JexlNode.value (if it was not a variable)
             if (methodName != null && cacheable && ntarget != null) {
                 final Object cached = node.jjtGetValue();
-                if (cached instanceof Funcall) {
-                    return ((Funcall) cached).tryInvoke(InterpreterBase.this, methodName, ntarget, arguments);
+                if (cached instanceof InlineCache) {
+                    final Object target = ((InlineCache) cached).find(ntarget, arguments);
+                    if (target instanceof Funcall) {
+                        final Object eval = ((Funcall) target).tryInvoke(InterpreterBase.this, methodName, ntarget, arguments);
+                        if (JexlEngine.TRY_FAILED != eval) {
+                            return eval;
+                        }
+                    }
                 }
+                // before arguments are narrowed
+                key = InlineCache.key(ntarget, arguments);
             }
             return JexlEngine.TRY_FAILED;
         }
@@ -327,6 +338,9 @@ public abstract class InterpreterBase extends ParserVisitor {
     /** The context to store/retrieve variables. */
     protected final JexlContext context;
 
+    /** The context as an indexed context, null if it is not one. */
+    protected final JexlContext.Indexed indexed;
+
     /** The options. */
     protected final JexlOptions options;
 
@@ -345,6 +359,9 @@ public abstract class InterpreterBase extends ParserVisitor {
     /** The operators evaluation delegate. */
     protected final JexlOperator.Uberspect operators;
 
+    /** The operators delegate if it is the default implementation, null otherwise. */
+    private final Operator dispatcher;
+
     /** The map of 'prefix:function' to object resolving as namespaces. */
     protected final Map<String, Object> functions;
 
@@ -363,6 +380,7 @@ public abstract class InterpreterBase extends ParserVisitor {
         this.logger = jexl.logger;
         this.uberspect = jexl.uberspect;
         this.context = aContext != null ? aContext : JexlEngine.EMPTY_CONTEXT;
+        this.indexed = context instanceof JexlContext.Indexed ? (JexlContext.Indexed) context : null;
         this.cache = engine.cache != null;
         final JexlArithmetic jexla = jexl.arithmetic;
         this.options = opts == null ? engine.evalOptions(aContext) : opts;
@@ -389,6 +407,7 @@ public abstract class InterpreterBase extends ParserVisitor {
             ops = new Operator(uberspect, arithmetic);
         }
         this.operators = ops;
+        this.dispatcher = ops instanceof Operator ? (Operator) ops : null;
         // the import package facility
         this.fqcnSolver = engine.createConstantResolver(options.getImports());
     }
@@ -405,16 +424,47 @@ public abstract class InterpreterBase extends ParserVisitor {
         uberspect = ii.uberspect;
         arithmetic = jexla;
         context = ii.context;
+        indexed = ii.indexed;
         options = ii.options.copy();
         cache = ii.cache;
         ns = ii.ns;
         operators = ii.operators;
+        dispatcher = ii.dispatcher;
         cancelled = ii.cancelled;
         functions = ii.functions;
         functors = ii.functors;
         fqcnSolver = ii.fqcnSolver;
     }
 
+    /**
+     * Session constructor.
+     * <p>Shares the options, arithmetic, operators and resolvers of a prepared interpreter; the cancellation
+     * flag - unless provided by the context - and the dynamically created namespaces are specific to each instance.</p>
+     *
+     * @param ii The prepared interpreter
+     */
+    protected InterpreterBase(final InterpreterBase ii) {
+        jexl = ii.jexl;
+        logger = ii.logger;
+        uberspect = ii.uberspect;
+        arithmetic = ii.arithmetic;
+        context = ii.context;
+        indexed = ii.indexed;
+        options = ii.options;
+        cache = ii.cache;
+        ns = ii.ns;
+        operators = ii.operators;
+        dispatcher = ii.dispatcher;
+        AtomicBoolean acancel = null;
+        if (context instanceof JexlContext.CancellationHandle) {
+            acancel = ((JexlContext.CancellationHandle) context).getCancellation();
+        }
+        cancelled = acancel != null ? acancel : new AtomicBoolean();
+        functions = ii.functions;
+        functors = null;
+        fqcnSolver = ii.fqcnSolver;
+    }
+
     /**
      * Triggered when an annotation processing fails.
      *
@@ -604,6 +654,80 @@ public abstract class InterpreterBase extends ParserVisitor {
         return nargv;
     }
 
+    /**
+     * Checks whether an operator may be overloaded.
+     * <p>With the default operators delegate, this is decided by the overloads the arithmetic class declares;
+     * any operator may be overloaded by a custom delegate.</p>
+     *
+     * @param operator the operator
+     * @return true if an overload may exist, false otherwise
+     */
+    protected boolean isOverloaded(final JexlOperator operator) {
+        return dispatcher == null || dispatcher.isOverloaded(operator);
+    }
+
+    /**
+     * Tries the overload of a unary operator.
+     * <p>When the operator can not be overloaded, only the operand is controlled and no argument array
+     * is allocated.</p>
+     *
+     * @param node the node
+     * @param operator the operator
+     * @param arg the operand
+     * @return the overload result or TRY_FAILED
+     */
+    protected Object tryOverload(final JexlNode node, final JexlOperator operator, final Object arg) {
+        if (isOverloaded(operator)) {
+            return operators.tryOverload(node, operator, arg);
+        }
+        if (arg == null && arithmetic.isStrict(operator)) {
+            throw new JexlArithmetic.NullOperand();
+        }
+        return JexlEngine.TRY_FAILED;
+    }
+
+    /**
+     * Tries the overload of a binary operator.
+     * <p>When the operator can not be overloaded, only the operands are controlled and no argument array
+     * is allocated.</p>
+     *
+     * @param node the node
+     * @param operator the operator
+     * @param left the left operand
+     * @param right the right operand
+     * @return the overload result or TRY_FAILED
+     */
+    protected Object tryOverload(final JexlNode node, final JexlOperator operator, final Object left, final Object right) {
+        if (isOverloaded(operator)) {
+            return operators.tryOverload(node, operator, left, right);
+        }
+        if ((left == null || right == null) && arithmetic.isStrict(operator)) {
+            throw new JexlArithmetic.NullOperand();
+        }
+        return JexlEngine.TRY_FAILED;
+    }
+
+    /**
+     * Tries the overload of a ternary operator, a property or array set.
+     *
+     * @param node the node
+     * @param operator the operator
+     * @param arg0 the first operand
+     * @param arg1 the second operand
+     * @param arg2 the third operand
+     * @return the overload result or TRY_FAILED
+     */
+    protected Object tryOverload(final JexlNode node, final JexlOperator operator,
+                                 final Object arg0, final Object arg1, final Object arg2) {
+        if (isOverloaded(operator)) {
+            return operators.tryOverload(node, operator, arg0, arg1, arg2);
+        }
+        if ((arg0 == null || arg1 == null || arg2 == null) && arithmetic.isStrict(operator)) {
+            throw new JexlArithmetic.NullOperand();
+        }
+        return JexlEngine.TRY_FAILED;
+    }
+
     /**
      * Gets an attribute of an object.
      *
@@ -624,17 +748,20 @@ public abstract class InterpreterBase extends ParserVisitor {
                 // attempt to reuse last executor cached in volatile JexlNode.value
                 if (cache) {
                     final Object cached = node.jjtGetValue();
-                    if (cached instanceof JexlPropertyGet) {
-                        final JexlPropertyGet vg = (JexlPropertyGet) cached;
-                        final Object value = vg.tryInvoke(object, attribute);
-                        if (!vg.tryFailed(value)) {
-                            return value;
+                    if (cached instanceof InlineCache) {
+                        final Object target = ((InlineCache) cached).find(object, attribute);
+                        if (target instanceof JexlPropertyGet) {
+                            final JexlPropertyGet vg = (JexlPropertyGet) target;
+                            final Object value = vg.tryInvoke(object, attribute);
+                            if (!vg.tryFailed(value)) {
+                                return value;
+                            }
                         }
                     }
                 }
                 // try operator overload
                 operator = node.jjtGetParent() instanceof ASTArrayAccess ? JexlOperator.ARRAY_GET : JexlOperator.PROPERTY_GET;
-                final Object result = operators.tryOverload(node, operator, object, attribute);
+                final Object result = tryOverload(node, operator, object, attribute);
                 if (result != JexlEngine.TRY_FAILED) {
                     return result;
                 }
@@ -648,7 +775,7 @@ public abstract class InterpreterBase extends ParserVisitor {
                 final Object value = vg.invoke(object);
                 // cache executor in volatile JexlNode.value
                 if (node != null && cache && vg.isCacheable()) {
-                    node.jjtSetValue(vg);
+                    InlineCache.put(node, InlineCache.key(object, attribute), vg);
                 }
                 return value;
             }
@@ -699,11 +826,12 @@ public abstract class InterpreterBase extends ParserVisitor {
             }
         }
         // consider global
-        final Object value = context.get(name);
+        final int slot = indexed != null ? globalSlot(identifier, false) : -1;
+        final Object value = slot >= 0 ? indexed.get(slot) : context.get(name);
         // is it null ?
         if (value == null) {
             // is it defined ?
-            if (!context.has(name)) {
+            if (slot >= 0 ? !indexed.has(slot) : !context.has(name)) {
                 // not defined, ignore in some cases...
                 final boolean ignore = identifier.jjtGetParent() instanceof ASTReference
                         || isSafe() && (symbol >= 0 || identifier.jjtGetParent() instanceof ASTAssignment);
@@ -717,6 +845,65 @@ public abstract class InterpreterBase extends ParserVisitor {
         return value;
     }
 
+    /**
+     * The slot of a global variable in an indexed context layout.
+     * <p>Cached as the value of the variable node.</p>
+     */
+    private static final class GlobalSlot {
+        /** The layout. */
+        private final Object layout;
+        /** The slot. */
+        private final int slot;
+
+        GlobalSlot(final Object layout, final int slot) {
+            this.layout = layout;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Gets the slot of a global variable in the indexed context.
+     * <p>The slot is resolved once per variable node and context layout. Only assignments allocate slots;
+     * reading a variable that has no slot yet accesses it by name.</p>
+     *
+     * @param identifier The variable node
+     * @param allocate Whether to allocate a slot if the variable has none
+     * @return The slot or -1 if the variable is accessed by name
+     */
+    protected int globalSlot(final ASTIdentifier identifier, final boolean allocate) {
+        final Object layout = indexed.getLayout();
+        final Object cached = identifier.jjtGetValue();
+        if (cached instanceof GlobalSlot) {
+            final GlobalSlot gs = (GlobalSlot) cached;
+            if (gs.layout == layout) {
+                return gs.slot;
+            }
+        }
+        final String name = identifier.getName();
+        final int slot = allocate ? indexed.slot(name) : indexed.find(name);
+        // a slot never changes once allocated; the node value may be used for something else
+        if (slot >= 0 && (cached == null || cached instanceof GlobalSlot)) {
+            identifier.jjtSetValue(new GlobalSlot(layout, slot));
+        }
+        return slot;
+    }
+
+    /**
+     * Gets a global variable value from the context.
+     *
+     * @param identifier The variable node
+     * @return The value
+     */
+    protected Object getContextVariable(final ASTIdentifier identifier) {
+        if (indexed != null) {
+            final int slot = globalSlot(identifier, false);
+            if (slot >= 0) {
+                return indexed.get(slot);
+            }
+        }
+        return context.get(identifier.getName());
+    }
+
     /**
      * Triggered when method, function or constructor invocation fails with an exception.
      *
@@ -997,17 +1184,20 @@ public abstract class InterpreterBase extends ParserVisitor {
                 // attempt to reuse last executor cached in volatile JexlNode.value
                 if (cache) {
                     final Object cached = node.jjtGetValue();
-                    if (cached instanceof JexlPropertySet) {
-                        final JexlPropertySet setter = (JexlPropertySet) cached;
-                        final Object eval = setter.tryInvoke(object, attribute, value);
-                        if (!setter.tryFailed(eval)) {
-                            return;
+                    if (cached instanceof InlineCache) {
+                        final Object target = ((InlineCache) cached).find(object, attribute, value);
+                        if (target instanceof JexlPropertySet) {
+                            final JexlPropertySet setter = (JexlPropertySet) target;
+                            final Object eval = setter.tryInvoke(object, attribute, value);
+                            if (!setter.tryFailed(eval)) {
+                                return;
+                            }
                         }
                     }
                 }
                 // try operator overload
                 operator = node.jjtGetParent() instanceof ASTArrayAccess ? JexlOperator.ARRAY_SET : JexlOperator.PROPERTY_SET;
-                final Object result = operators.tryOverload(node, operator, object, attribute, value);
+                final Object result = tryOverload(node, operator, object, attribute, value);
                 if (result != JexlEngine.TRY_FAILED) {
                     return;
                 }
@@ -1029,7 +1219,7 @@ public abstract class InterpreterBase extends ParserVisitor {
                 // cache executor in volatile JexlNode.value
                 vs.invoke(object, value);
                 if (node != null && cache && vs.isCacheable()) {
-                    node.jjtSetValue(vs);
+                    InlineCache.put(node, InlineCache.key(object, attribute, value), vs);
                 }
                 return;
             }
@@ -1059,15 +1249,44 @@ public abstract class InterpreterBase extends ParserVisitor {
      * @param value The variable value
      */
     protected void setContextVariable(final JexlNode node, final String name, final Object value) {
+        setContextVariable(node, name, -1, value);
+    }
+
+    /**
+     * Sets a variable in the global context.
+     * <p>If interpretation applies lexical shade, the variable must exist (ie
+     * the context has(...) method returns true) otherwise an error occurs.
+     *
+     * @param node The node
+     * @param variable The variable node
+     * @param value The variable value
+     */
+    protected void setContextVariable(final JexlNode node, final ASTIdentifier variable, final Object value) {
+        setContextVariable(node, variable.getName(), indexed != null ? globalSlot(variable, true) : -1, value);
+    }
+
+    /**
+     * Sets a variable in the global context.
+     *
+     * @param node The node
+     * @param name The variable name
+     * @param slot The variable slot in the indexed context, -1 if none
+     * @param value The variable value
+     */
+    private void setContextVariable(final JexlNode node, final String name, final int slot, final Object value) {
         boolean lexical = options.isLexicalShade();
         if (!lexical && node instanceof ASTIdentifier) {
             lexical = ((ASTIdentifier) node).isLexical();
         }
-        if (lexical && !context.has(name)) {
+        if (lexical && !(slot >= 0 ? indexed.has(slot) : context.has(name))) {
             throw new JexlException.Variable(node, name, true);
         }
         try {
-            context.set(name, value);
+            if (slot >= 0) {
+                indexed.set(slot, value);
+            } else {
+                context.set(name, value);
+            }
         } catch (final UnsupportedOperationException xsupport) {
             throw new JexlException(node, "context is readonly", xsupport);
         }
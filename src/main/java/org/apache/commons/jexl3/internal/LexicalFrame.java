@@ -104,6 +104,13 @@ public class LexicalFrame extends LexicalScope {
         return declared;
     }
 
+    /**
+     * @return The script frame
+     */
+    Frame getFrame() {
+        return frame;
+    }
+
     /**
      * Pops back values and lexical frame.
      *
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+/**
+ * Indexed access to the elements a foreach loop iterates over.
+ * <p>
+ * Arrays and ranges are iterated by index with direct element access, avoiding reflection
+ * and iterator objects; other iterables, lists included, use their iterator so that
+ * concurrent modifications are still detected.
+ * </p>
+ * <p>Arrays and ranges are JEXL language primitives iterated regardless of permissions;
+ * they are only indexed when the engine uses the built-in uberspect.</p>
+ */
+abstract class LoopElements {
+    /** Elements of an int array. */
+    private static final class Ints extends LoopElements {
+        /** The array. */
+        private final int[] array;
+
+        Ints(final int[] a) {
+            array = a;
+        }
+
+        @Override
+        int size() {
+            return array.length;
+        }
+
+        @Override
+        Object get(final int index) {
+            return array[index];
+        }
+    }
+
+    /** Elements of a long array. */
+    private static final class Longs extends LoopElements {
+        /** The array. */
+        private final long[] array;
+
+        Longs(final long[] a) {
+            array = a;
+        }
+
+        @Override
+        int size() {
+            return array.length;
+        }
+
+        @Override
+        Object get(final int index) {
+            return array[index];
+        }
+    }
+
+    /** Elements of a double array. */
+    private static final class Doubles extends LoopElements {
+        /** The array. */
+        private final double[] array;
+
+        Doubles(final double[] a) {
+            array = a;
+        }
+
+        @Override
+        int size() {
+            return array.length;
+        }
+
+        @Override
+        Object get(final int index) {
+            return array[index];
+        }
+    }
+
+    /** Elements of an object array. */
+    private static final class References extends LoopElements {
+        /** The array. */
+        private final Object[] array;
+
+        References(final Object[] a) {
+            array = a;
+        }
+
+        @Override
+        int size() {
+            return array.length;
+        }
+
+        @Override
+        Object get(final int index) {
+            return array[index];
+        }
+    }
+
+    /** Elements of an integer range. */
+    private static final class IntegerSteps extends LoopElements {
+        /** The first element. */
+        private final int first;
+
+        /** The step, 1 or -1. */
+        private final int step;
+
+        /** The number of elements. */
+        private final int size;
+
+        IntegerSteps(final int f, final int s, final int n) {
+            first = f;
+            step = s;
+            size = n;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        Object get(final int index) {
+            return first + step * index;
+        }
+    }
+
+    /** Elements of a long range. */
+    private static final class LongSteps extends LoopElements {
+        /** The first element. */
+        private final long first;
+
+        /** The step, 1 or -1. */
+        private final long step;
+
+        /** The number of elements. */
+        private final int size;
+
+        LongSteps(final long f, final long s, final int n) {
+            first = f;
+            step = s;
+            size = n;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        Object get(final int index) {
+            return first + step * index;
+        }
+    }
+
+    /**
+     * Gets indexed access to the elements of an array or range.
+     *
+     * @param iterable the iterated object
+     * @return the elements or null if the object is not an array or range
+     */
+    static LoopElements of(final Object iterable) {
+        if (iterable instanceof Object[]) {
+            return new References((Object[]) iterable);
+        }
+        if (iterable instanceof int[]) {
+            return new Ints((int[]) iterable);
+        }
+        if (iterable instanceof long[]) {
+            return new Longs((long[]) iterable);
+        }
+        if (iterable instanceof double[]) {
+            return new Doubles((double[]) iterable);
+        }
+        final Class<?> clazz = iterable.getClass();
+        if (clazz == IntegerRange.Ascending.class || clazz == IntegerRange.Descending.class) {
+            final IntegerRange range = (IntegerRange) iterable;
+            final long size = (long) range.getMax() - range.getMin() + 1;
+            if (size <= Integer.MAX_VALUE) {
+                return clazz == IntegerRange.Ascending.class
+                    ? new IntegerSteps(range.getMin(), 1, (int) size)
+                    : new IntegerSteps(range.getMax(), -1, (int) size);
+            }
+        } else if (clazz == LongRange.Ascending.class || clazz == LongRange.Descending.class) {
+            final LongRange range = (LongRange) iterable;
+            final long size = range.getMax() - range.getMin() + 1;
+            if (size > 0 && size <= Integer.MAX_VALUE) {
+                return clazz == LongRange.Ascending.class
+                    ? new LongSteps(range.getMin(), 1, (int) size)
+                    : new LongSteps(range.getMax(), -1, (int) size);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of elements
+     */
+    abstract int size();
+
+    /**
+     * Gets an element.
+     *
+     * @param index the element index
+     * @return the element
+     */
+    abstract Object get(int index);
+}
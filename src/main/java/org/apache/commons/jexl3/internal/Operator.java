@@ -27,7 +27,6 @@ import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.jexl3.JexlOperator;
 import org.apache.commons.jexl3.internal.introspection.MethodExecutor;
-import org.apache.commons.jexl3.internal.introspection.MethodKey;
 import org.apache.commons.jexl3.introspection.JexlMethod;
 import org.apache.commons.jexl3.introspection.JexlUberspect;
 import org.apache.commons.jexl3.parser.JexlNode;
@@ -137,6 +136,24 @@ public final class Operator implements JexlOperator.Uberspect {
             : overloads.contains(operator);
     }
 
+    /**
+     * Checks whether {@link #tryOverload} may find an overload for an operator.
+     * <p>The overloads are computed once per arithmetic class; comparison operators may also be
+     * evaluated through an overloaded compare. When this returns false, {@code tryOverload} only controls
+     * null operands and fails; callers may skip it and use the arithmetic directly.</p>
+     *
+     * @param operator the operator
+     * @return true if an overload may exist, false otherwise
+     */
+    public boolean isOverloaded(final JexlOperator operator) {
+        if (delegate != null) {
+            // the legacy delegate may resolve any operator
+            return true;
+        }
+        return overloads.contains(operator)
+            || CMP_OPS.contains(operator) && overloads.contains(JexlOperator.COMPARE);
+    }
+
     /**
      * @return whether caching is enabled in the engine
      */
@@ -528,18 +545,17 @@ public final class Operator implements JexlOperator.Uberspect {
     private Object tryEval(final JexlCache.Reference node, final JexlOperator operator, final Object...args) {
         if (node != null) {
             final Object cached = node.getCache();
-            if (cached instanceof JexlMethod) {
-                // we found a method on previous call; try and reuse it (*1)
-                final JexlMethod me = (JexlMethod) cached;
-                final Object eval = me.tryInvoke(operator.getMethodName(), arithmetic, args);
-                if (!me.tryFailed(eval)) {
-                    return eval;
-                }
-            } else if (cached instanceof MethodKey) {
-                // check for a fail-fast, we tried to find an overload before but could not (*2)
-                final MethodKey cachedKey = (MethodKey) cached;
-                final MethodKey key = new MethodKey(operator.getMethodName(), args);
-                if (key.equals(cachedKey)) {
+            if (cached instanceof InlineCache) {
+                final Object target = ((InlineCache) cached).find(args);
+                if (target instanceof JexlMethod) {
+                    // we found a method on previous call; try and reuse it (*1)
+                    final JexlMethod me = (JexlMethod) target;
+                    final Object eval = me.tryInvoke(operator.getMethodName(), arithmetic, args);
+                    if (!me.tryFailed(eval)) {
+                        return eval;
+                    }
+                } else if (target == operator) {
+                    // fail-fast, we tried to find an overload before but could not (*2)
                     return JexlEngine.TRY_FAILED;
                 }
             }
@@ -554,14 +570,13 @@ public final class Operator implements JexlOperator.Uberspect {
         if (vm != null) {
             final Object result = vm.tryInvoke(operator.getMethodName(), arithmetic, args);
             if (node != null && !vm.tryFailed(result)) {
-                node.setCache(vm);
+                InlineCache.put(node, InlineCache.key(args), vm);
             }
             return result;
         }
         if (node != null) {
             // *2: could not find an overload for this operator and arguments, keep track of the fail
-            final MethodKey key = new MethodKey(operator.getMethodName(), args);
-            node.setCache(key);
+            InlineCache.put(node, InlineCache.key(args), operator);
         }
         return JexlEngine.TRY_FAILED;
     }
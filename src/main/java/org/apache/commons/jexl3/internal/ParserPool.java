@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import org.apache.commons.jexl3.parser.JexlScriptParser;
+
+/**
+ * A bounded, lock-free, pool of parsers.
+ * <p>
+ * Parsers are costly to create (token manager, character stream buffers) but are reusable once a parse is
+ * complete. The pool keeps up to a fixed number of idle parsers in an array of slots; a thread acquires a
+ * parser by emptying a slot and releases it by filling an empty one. Probing starts at a slot derived from the
+ * thread identity so that threads tend to reuse their own parser without contending on the same slot.
+ * </p>
+ * <p>
+ * When no parser is idle, a new one is created; when the pool is full, a released parser is dropped.
+ * A pool of size 0 does not retain any parser.
+ * </p>
+ * <p>
+ * The parser a thread is parsing with is its active parser; template expressions parsed during that
+ * parse (interpolation strings) must use it to resolve the enclosing script variables.
+ * </p>
+ */
+final class ParserPool {
+    /** The parser factory. */
+    private final Supplier<JexlScriptParser> factory;
+    /** The idle parsers. */
+    private final AtomicReferenceArray<JexlScriptParser> slots;
+    /** The parser in use by each thread, if any. */
+    private final ThreadLocal<JexlScriptParser> active = new ThreadLocal<>();
+
+    /**
+     * Creates a pool.
+     *
+     * @param factory the parser factory
+     * @param size the maximum number of idle parsers
+     */
+    ParserPool(final Supplier<JexlScriptParser> factory, final int size) {
+        this.factory = factory;
+        this.slots = new AtomicReferenceArray<>(Math.max(0, size));
+    }
+
+    /**
+     * @return the maximum number of idle parsers
+     */
+    int size() {
+        return slots.length();
+    }
+
+    /**
+     * @return the first slot to probe for the current thread
+     */
+    private int start() {
+        final long id = Thread.currentThread().getId();
+        return (int) ((id ^ id >>> 32) & Integer.MAX_VALUE) % slots.length();
+    }
+
+    /**
+     * Acquires a parser; either an idle one or a new one.
+     *
+     * @return a parser the caller owns until released
+     */
+    JexlScriptParser acquire() {
+        final int length = slots.length();
+        if (length > 0) {
+            final int start = start();
+            for (int i = 0; i < length; ++i) {
+                final int slot = (start + i) % length;
+                if (slots.get(slot) != null) {
+                    final JexlScriptParser parser = slots.getAndSet(slot, null);
+                    if (parser != null) {
+                        return parser;
+                    }
+                }
+            }
+        }
+        return factory.get();
+    }
+
+    /**
+     * Releases a parser, making it available to other parses.
+     *
+     * @param parser the parser
+     */
+    void release(final JexlScriptParser parser) {
+        final int length = slots.length();
+        if (length > 0 && parser != null) {
+            final int start = start();
+            for (int i = 0; i < length; ++i) {
+                if (slots.compareAndSet((start + i) % length, null, parser)) {
+                    return;
+                }
+            }
+        }
+        // pool is full, drop the parser
+    }
+
+    /**
+     * Gets the parser the current thread is parsing with.
+     *
+     * @return the active parser or null if the thread is not parsing
+     */
+    JexlScriptParser active() {
+        return active.get();
+    }
+
+    /**
+     * Sets the parser the current thread is parsing with.
+     *
+     * @param parser the parser, null when done
+     * @return the previously active parser
+     */
+    JexlScriptParser activate(final JexlScriptParser parser) {
+        final JexlScriptParser previous = active.get();
+        if (parser != null) {
+            active.set(parser);
+        } else {
+            active.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * Counts the idle parsers.
+     *
+     * @return the number of parsers available for reuse
+     */
+    int idle() {
+        int count = 0;
+        for (int i = 0; i < slots.length(); ++i) {
+            if (slots.get(i) != null) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+}
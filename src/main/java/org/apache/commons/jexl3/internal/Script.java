@@ -16,6 +16,7 @@
  */
 package org.apache.commons.jexl3.internal;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -29,6 +30,7 @@ import org.apache.commons.jexl3.JexlInfo;
 import org.apache.commons.jexl3.JexlOptions;
 import org.apache.commons.jexl3.JexlScript;
 import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.apache.commons.jexl3.parser.JexlNode;
 
 /**
  * <p>A JexlScript implementation.</p>
@@ -102,6 +104,57 @@ public class Script implements JexlScript, JexlExpression {
         }
     }
 
+    /**
+     * Implements a session, executing this script repeatedly against the same context and options.
+     */
+    public class Session implements JexlScript.Session {
+
+        /** The prepared interpreter, never used for evaluation. */
+        protected final Interpreter prepared;
+
+        /**
+         * The base constructor.
+         *
+         * @param context The context
+         * @param options The options, null to compute them from the context and pragmas
+         */
+        protected Session(final JexlContext context, final JexlOptions options) {
+            this.prepared = Script.this.createInterpreter(context, null, options);
+        }
+
+        /**
+         * Creates an interpreter sharing the session prepared state.
+         *
+         * @param frame The evaluation frame
+         * @return The interpreter
+         */
+        protected Interpreter createInterpreter(final Frame frame) {
+            // derived interpreters may rely on their own construction, let them
+            if (prepared.getClass() != Interpreter.class) {
+                return Script.this.createInterpreter(prepared.context, frame, prepared.options);
+            }
+            return new Interpreter(prepared, frame);
+        }
+
+        @Override
+        public Object execute(final Object... args) {
+            checkCacheVersion();
+            final Frame frame = createFrame(args != null && args.length > 0 ? args : null);
+            final Interpreter interpreter = createInterpreter(frame);
+            return interpreter.interpret(script, compiled(interpreter));
+        }
+
+        @Override
+        public JexlContext getContext() {
+            return prepared.context;
+        }
+
+        @Override
+        public Script getScript() {
+            return Script.this;
+        }
+    }
+
     /**
      * The engine for this expression.
      */
@@ -182,6 +235,32 @@ public class Script implements JexlScript, JexlExpression {
         }
     }
 
+    /**
+     * Gets the compiled form of this script, compiling it once executed often enough.
+     * <p>Executions are counted and the compiled form kept on the tree, shared by all scripts created
+     * from the same source through the engine cache.</p>
+     * <p>Interpreters that are not plain {@link Interpreter} instances may override visits and always
+     * interpret the script.</p>
+     *
+     * @param interpreter The interpreter that will run this script
+     * @return The compiled script or null if the script is to be interpreted
+     */
+    private ScriptCompiler.Evaluator compiled(final Interpreter interpreter) {
+        final int threshold = jexl.compileThreshold;
+        if (threshold < 0 || interpreter.getClass() != Interpreter.class) {
+            return null;
+        }
+        Object code = script.getCompiled();
+        if (code == null) {
+            if (!script.countExecution(threshold)) {
+                return null;
+            }
+            code = jexl.compile(this);
+            script.setCompiled(code);
+        }
+        return code != ScriptCompiler.INTERPRETED ? (ScriptCompiler.Evaluator) code : null;
+    }
+
     /**
      * Creates this script frame for evaluation.
      *
@@ -252,7 +331,7 @@ public class Script implements JexlScript, JexlExpression {
         checkCacheVersion();
         final Frame frame = createFrame(null);
         final Interpreter interpreter = createInterpreter(context, frame);
-        return interpreter.interpret(script);
+        return interpreter.interpret(script, compiled(interpreter));
     }
 
     @Override
@@ -260,7 +339,7 @@ public class Script implements JexlScript, JexlExpression {
         checkCacheVersion();
         final Frame frame = createFrame(args != null && args.length > 0 ? args : null);
         final Interpreter interpreter = createInterpreter(context, frame);
-        return interpreter.interpret(script);
+        return interpreter.interpret(script, compiled(interpreter));
     }
 
     /**
@@ -286,6 +365,36 @@ public class Script implements JexlScript, JexlExpression {
         return script.getFeatures();
     }
 
+    /**
+     * Gets the inline caches of this script call sites.
+     * <p>Property accesses, method and constructor calls and operators cache the executors they resolve in
+     * an {@link InlineCache}; this reports the state of each site, only sites that were evaluated are present.</p>
+     *
+     * @return The map from call site nodes to their caches, in script order
+     * @since 3.7.1
+     */
+    public Map<JexlNode, InlineCache> getInlineCaches() {
+        final Map<JexlNode, InlineCache> sites = new LinkedHashMap<>();
+        collectInlineCaches(script, sites);
+        return sites;
+    }
+
+    /**
+     * Collects the inline caches of a node and its descendants.
+     *
+     * @param node the node
+     * @param sites the map of sites to fill
+     */
+    private static void collectInlineCaches(final JexlNode node, final Map<JexlNode, InlineCache> sites) {
+        final Object value = node.jjtGetValue();
+        if (value instanceof InlineCache) {
+            sites.put(node, (InlineCache) value);
+        }
+        for (int c = 0; c < node.jjtGetNumChildren(); ++c) {
+            collectInlineCaches(node.jjtGetChild(c), sites);
+        }
+    }
+
     /**
      * @return The info
      */
@@ -365,6 +474,11 @@ public class Script implements JexlScript, JexlExpression {
         // CSON: Magic number
     }
 
+    @Override
+    public Session session(final JexlContext context) {
+        return new Session(context, null);
+    }
+
     @Override
     public String toString() {
         CharSequence src = source;
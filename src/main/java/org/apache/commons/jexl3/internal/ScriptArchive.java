@@ -0,0 +1,1076 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.jexl3.JexlCache;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlFeatures;
+import org.apache.commons.jexl3.JexlInfo;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.parser.ASTAnnotation;
+import org.apache.commons.jexl3.parser.ASTArrayAccess;
+import org.apache.commons.jexl3.parser.ASTCaseStatement;
+import org.apache.commons.jexl3.parser.ASTForeachStatement;
+import org.apache.commons.jexl3.parser.ASTIdentifier;
+import org.apache.commons.jexl3.parser.ASTIdentifierAccess;
+import org.apache.commons.jexl3.parser.ASTIdentifierAccessJxlt;
+import org.apache.commons.jexl3.parser.ASTJexlLambda;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.apache.commons.jexl3.parser.ASTJxltLiteral;
+import org.apache.commons.jexl3.parser.ASTNamespaceIdentifier;
+import org.apache.commons.jexl3.parser.ASTNumberLiteral;
+import org.apache.commons.jexl3.parser.ASTQualifiedIdentifier;
+import org.apache.commons.jexl3.parser.ASTRegexLiteral;
+import org.apache.commons.jexl3.parser.ASTStringLiteral;
+import org.apache.commons.jexl3.parser.ASTSwitchStatement;
+import org.apache.commons.jexl3.parser.ASTTryStatement;
+import org.apache.commons.jexl3.parser.ExtensibleNode;
+import org.apache.commons.jexl3.parser.JexlLexicalNode;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.apache.commons.jexl3.parser.NumberParser;
+import org.apache.commons.jexl3.parser.ParserTreeConstants;
+import org.apache.commons.jexl3.parser.SimpleNode;
+
+/**
+ * A persistent archive of parsed scripts.
+ * <p>
+ * An archive stores named scripts as their source and a compact binary form of their syntax tree, including
+ * scopes and symbols, pragmas, features and {@link JexlInfo}. Reading an archive memory-maps the file and
+ * rebuilds the trees without invoking the parser.
+ * </p>
+ * <p>
+ * The archive header records the engine version, a fingerprint of the archived classes layout and the engine
+ * script and expression features; when those do not match the reading engine, every script is parsed from its
+ * source instead. An engine whose version is unknown - not running from a released package - never restores
+ * trees. Each entry also records the field layout of the node classes it uses so that an entry whose tree can
+ * not be restored faithfully is parsed as well. Writing never fails because of a tree: an entry whose tree can not be serialized is stored
+ * as source only.
+ * </p>
+ * <p>
+ * Interpolation strings (JXLT literals) are parsed in the context of their enclosing script; a script that
+ * contains them is stored as source only.
+ * </p>
+ */
+final class ScriptArchive {
+    /** The archive magic number, 'JXAR'. */
+    private static final int MAGIC = 0x4a584152;
+    /** The archive format version. */
+    private static final int FORMAT = 2;
+    /** The engine version, from the package manifest, null if unknown. */
+    static final String VERSION = JexlEngine.class.getPackage().getImplementationVersion();
+    /** The prefix of node class names, followed by the node name. */
+    private static final String NODE_PREFIX = ASTJexlScript.class.getPackage().getName() + ".AST";
+
+    /** Entry kind: script. */
+    private static final byte SCRIPT = 1;
+    /** Entry kind: expression. */
+    private static final byte EXPRESSION = 2;
+
+    // the value tags
+    private static final byte T_NULL = 0;
+    private static final byte T_STRING = 1;
+    private static final byte T_INTEGER = 2;
+    private static final byte T_LONG = 3;
+    private static final byte T_DOUBLE = 4;
+    private static final byte T_FLOAT = 5;
+    private static final byte T_SHORT = 6;
+    private static final byte T_BYTE = 7;
+    private static final byte T_BIGINTEGER = 8;
+    private static final byte T_BIGDECIMAL = 9;
+    private static final byte T_BOOLEAN = 10;
+    private static final byte T_CHARACTER = 11;
+    private static final byte T_LIST = 12;
+    private static final byte T_SET = 13;
+    private static final byte T_MAP = 14;
+    private static final byte T_PATTERN = 15;
+    private static final byte T_CLASS = 16;
+    private static final byte T_BITSET = 17;
+    private static final byte T_FEATURES = 18;
+    private static final byte T_HANDLE = 19;
+    private static final byte T_OBJECT = 20;
+
+    /** The classes of non-node objects whose fields are serialized. */
+    private static final Set<Class<?>> STRUCTS = new LinkedHashSet<>(Arrays.asList(
+        Scope.class, LexicalScope.class, NumberParser.class));
+
+    /**
+     * The archived fields per declaring class.
+     * <p>Every instance field of an archived class - SimpleNode excepted, its members are handled explicitly -
+     * is listed either here or in {@link #RUNTIME_FIELDS}. A class declaring a field listed in neither can not
+     * be archived and the scripts using it are stored as source only.</p>
+     */
+    private static final Map<Class<?>, Set<String>> ARCHIVED_FIELDS = fieldMap(
+        JexlNode.class, "lc",
+        JexlLexicalNode.class, "lexicalScope",
+        ExtensibleNode.class, "constant", "extended",
+        ASTAnnotation.class, "name",
+        ASTArrayAccess.class, "safe",
+        ASTCaseStatement.class, "values",
+        ASTForeachStatement.class, "loopForm",
+        ASTIdentifier.class, "name", "symbol", "flags",
+        ASTIdentifierAccess.class, "name", "identifier",
+        ASTJexlScript.class, "pragmas", "features", "scope",
+        ASTJxltLiteral.class, "literal",
+        ASTNamespaceIdentifier.class, "namespace",
+        ASTNumberLiteral.class, "nlp",
+        ASTQualifiedIdentifier.class, "name",
+        ASTRegexLiteral.class, "literal",
+        ASTStringLiteral.class, "literal",
+        ASTSwitchStatement.class, "isStatement", "cases",
+        ASTTryStatement.class, "tryForm",
+        Scope.class, "parent", "parms", "vars", "namedVariables", "capturedVariables", "lexicalVariables",
+        LexicalScope.class, "count", "symbols", "moreSymbols",
+        NumberParser.class, "literal", "clazz");
+
+    /**
+     * The runtime fields per declaring class, caches recomputed on demand that are never archived.
+     */
+    private static final Map<Class<?>, Set<String>> RUNTIME_FIELDS = fieldMap(
+        ASTIdentifierAccessJxlt.class, "jxltExpression",
+        ASTJexlLambda.class, "escaping",
+        ASTJexlScript.class, "pragmaDigest", "executions", "compiled",
+        ASTJxltLiteral.class, "jxltExpression");
+
+    /**
+     * The serialized fields per class, null if the class declares an unclassified field.
+     */
+    private static final ClassValue<Field[]> FIELDS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(final Class<?> type) {
+            if (!unclassifiedFields(type).isEmpty()) {
+                return null;
+            }
+            final List<Field> fields = new ArrayList<>();
+            for (final Field field : instanceFields(type)) {
+                if (isListed(ARCHIVED_FIELDS, field)) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            fields.sort(Comparator.comparing((Field f) -> f.getDeclaringClass().getName()).thenComparing(Field::getName));
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    /** The fingerprint of the archived classes layout. */
+    private static final String SCHEMA = schema();
+
+    /** The engine. */
+    private final Engine jexl;
+
+    /** The engine version written to and expected in archives, null if unknown. */
+    private final String version;
+
+    /**
+     * Creates an archive handler.
+     *
+     * @param engine the engine used to read or write
+     */
+    ScriptArchive(final Engine engine) {
+        this(engine, VERSION);
+    }
+
+    /**
+     * Creates an archive handler for a given engine version.
+     *
+     * @param engine the engine used to read or write
+     * @param version the engine version, null if unknown
+     */
+    ScriptArchive(final Engine engine, final String version) {
+        this.jexl = engine;
+        this.version = version;
+    }
+
+    /**
+     * Gets the classes that may be archived, every node class and the structures.
+     *
+     * @return the classes
+     */
+    static List<Class<?>> archivedClasses() {
+        final List<Class<?>> classes = new ArrayList<>();
+        for (final String name : ParserTreeConstants.jjtNodeName) {
+            try {
+                classes.add(Class.forName(NODE_PREFIX + name, false, ASTJexlScript.class.getClassLoader()));
+            } catch (final ClassNotFoundException xnotfound) {
+                throw new IllegalStateException("no class for node " + name, xnotfound);
+            }
+        }
+        classes.addAll(STRUCTS);
+        return classes;
+    }
+
+    /**
+     * Computes the fingerprint of the archived classes layout.
+     * <p>It digests the name and field signature of every archived class; an archive written with a
+     * different layout has a different fingerprint.</p>
+     *
+     * @return the fingerprint
+     */
+    private static String schema() {
+        final StringBuilder strb = new StringBuilder();
+        for (final Class<?> clazz : archivedClasses()) {
+            strb.append(clazz.getName()).append('{').append(signature(clazz)).append('}');
+        }
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new BigInteger(1, digest.digest(strb.toString().getBytes(StandardCharsets.UTF_8))).toString(16);
+        } catch (final NoSuchAlgorithmException xalgo) {
+            // every platform provides SHA-256
+            throw new IllegalStateException(xalgo);
+        }
+    }
+
+    /**
+     * Creates a map of field names per declaring class.
+     *
+     * @param declarations classes, each followed by the names of the fields it declares
+     * @return the map
+     */
+    private static Map<Class<?>, Set<String>> fieldMap(final Object... declarations) {
+        final Map<Class<?>, Set<String>> map = new HashMap<>();
+        Set<String> names = null;
+        for (final Object declaration : declarations) {
+            if (declaration instanceof Class<?>) {
+                names = map.computeIfAbsent((Class<?>) declaration, c -> new HashSet<>());
+            } else {
+                names.add((String) declaration);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Checks whether a field is listed in a map of field names per declaring class.
+     *
+     * @param map the map
+     * @param field the field
+     * @return true if listed
+     */
+    private static boolean isListed(final Map<Class<?>, Set<String>> map, final Field field) {
+        final Set<String> names = map.get(field.getDeclaringClass());
+        return names != null && names.contains(field.getName());
+    }
+
+    /**
+     * Gets the instance fields of a class and its superclasses.
+     * <p>Nodes stop at SimpleNode whose members are handled explicitly.</p>
+     *
+     * @param clazz the class
+     * @return the fields
+     */
+    private static List<Field> instanceFields(final Class<?> clazz) {
+        final List<Field> fields = new ArrayList<>();
+        for (Class<?> c = clazz; c != null && c != Object.class && c != SimpleNode.class; c = c.getSuperclass()) {
+            for (final Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Gets the fields of a class that are neither archived nor runtime fields.
+     *
+     * @param clazz the class
+     * @return the unclassified fields, as declaring class and field names, empty if none
+     */
+    static List<String> unclassifiedFields(final Class<?> clazz) {
+        final List<String> unclassified = new ArrayList<>();
+        for (final Field field : instanceFields(clazz)) {
+            if (!isListed(ARCHIVED_FIELDS, field) && !isListed(RUNTIME_FIELDS, field)) {
+                unclassified.add(field.getDeclaringClass().getName() + "." + field.getName());
+            }
+        }
+        return unclassified;
+    }
+
+    /**
+     * Gets the serialized fields of a class.
+     *
+     * @param clazz the class
+     * @return the fields in a stable order, null if the class can not be archived
+     */
+    private static Field[] fields(final Class<?> clazz) {
+        return FIELDS.get(clazz);
+    }
+
+    /**
+     * Gets the field signature of a class, used to detect layout changes.
+     *
+     * @param clazz the class
+     * @return the field names and types, null if the class can not be archived
+     */
+    private static String signature(final Class<?> clazz) {
+        final Field[] fields = fields(clazz);
+        if (fields == null) {
+            return null;
+        }
+        final StringBuilder strb = new StringBuilder();
+        for (final Field field : fields) {
+            strb.append(field.getName()).append(':').append(field.getType().getName()).append(';');
+        }
+        return strb.toString();
+    }
+
+    /**
+     * Compares two feature sets ignoring their namespace predicates which are not serializable.
+     *
+     * @param lhs the left features
+     * @param rhs the right features
+     * @return true if flags and reserved names are equal
+     */
+    private static boolean sameFeatures(final JexlFeatures lhs, final JexlFeatures rhs) {
+        return lhs == rhs
+            || lhs != null && rhs != null
+               && lhs.getFlags() == rhs.getFlags()
+               && Objects.equals(lhs.getReservedNames(), rhs.getReservedNames());
+    }
+
+    /**
+     * Writes a string, length-prefixed UTF-8.
+     *
+     * @param out the output
+     * @param str the string, may be null
+     * @throws IOException if writing fails
+     */
+    private static void writeString(final DataOutputStream out, final String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+        } else {
+            final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Writes a node value if it is an info.
+     *
+     * @param out the output
+     * @param value the node value
+     * @throws IOException if writing fails
+     */
+    private static void writeInfo(final DataOutputStream out, final Object value) throws IOException {
+        if (value instanceof JexlInfo) {
+            final JexlInfo info = (JexlInfo) value;
+            out.writeBoolean(true);
+            writeString(out, info.getName());
+            out.writeInt(info.getLine());
+            out.writeInt(info.getColumn());
+        } else {
+            out.writeBoolean(false);
+        }
+    }
+
+    /**
+     * Reads an info.
+     *
+     * @param in the input
+     * @return the info or null
+     */
+    private static JexlInfo readInfo(final Input in) {
+        return in.readBoolean() ? new JexlInfo(in.readString(), in.readInt(), in.readInt()) : null;
+    }
+
+    /**
+     * Writes a set of features.
+     *
+     * @param out the output
+     * @param features the features
+     * @throws IOException if writing fails
+     */
+    private static void writeFeatures(final DataOutputStream out, final JexlFeatures features) throws IOException {
+        out.writeLong(features.getFlags());
+        final Set<String> reserved = features.getReservedNames();
+        out.writeInt(reserved.size());
+        for (final String name : reserved) {
+            writeString(out, name);
+        }
+    }
+
+    /**
+     * Writes an archive.
+     *
+     * @param path the archive file
+     * @param scripts the scripts keyed by name
+     * @throws IOException if writing fails
+     */
+    void write(final Path path, final Map<String, ? extends JexlScript> scripts) throws IOException {
+        try (OutputStream os = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            writeString(out, version);
+            writeString(out, SCHEMA);
+            writeFeatures(out, jexl.scriptFeatures);
+            writeFeatures(out, jexl.expressionFeatures);
+            out.writeInt(scripts.size());
+            for (final Map.Entry<String, ? extends JexlScript> entry : scripts.entrySet()) {
+                final byte[] bytes = writeEntry(entry.getValue());
+                writeString(out, entry.getKey());
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Serializes an archive entry.
+     *
+     * @param jscript the script
+     * @return the entry bytes
+     * @throws IOException if writing fails
+     */
+    private byte[] writeEntry(final JexlScript jscript) throws IOException {
+        if (!(jscript instanceof Script)) {
+            throw new NotSerializableException(jscript == null ? "null" : jscript.getClass().getName());
+        }
+        final Script script = (Script) jscript;
+        final ASTJexlScript tree = script.script;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(sameFeatures(tree.getFeatures(), jexl.expressionFeatures) ? EXPRESSION : SCRIPT);
+        writeString(out, script.getSourceText());
+        writeInfo(out, tree.jjtGetValue());
+        final String[] parms = script.getParameters();
+        out.writeInt(parms == null ? -1 : parms.length);
+        if (parms != null) {
+            for (final String parm : parms) {
+                writeString(out, parm);
+            }
+        }
+        // the tree, if it can be serialized
+        final ByteArrayOutputStream treeBytes = new ByteArrayOutputStream(1024);
+        if (!hasInterpolation(tree)) {
+            try {
+                final DataOutputStream treeOut = new DataOutputStream(treeBytes);
+                new Writer(treeOut).writeNode(tree);
+                treeOut.flush();
+            } catch (final NotSerializableException xnotser) {
+                treeBytes.reset();
+            }
+        }
+        out.writeBoolean(treeBytes.size() > 0);
+        treeBytes.writeTo(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Serializes a tree.
+     */
+    private final class Writer {
+        /** The output. */
+        private final DataOutputStream out;
+        /** The classes already described. */
+        private final Map<Class<?>, Integer> classes = new HashMap<>();
+        /** The objects already written, shared scopes must stay shared. */
+        private final Map<Object, Integer> handles = new IdentityHashMap<>();
+
+        Writer(final DataOutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * Writes a class reference, describing it upon first occurrence.
+         *
+         * @param clazz the class
+         * @throws IOException if writing fails
+         */
+        void writeClass(final Class<?> clazz) throws IOException {
+            final Integer index = classes.get(clazz);
+            if (index != null) {
+                out.writeInt(index);
+            } else {
+                final String signature = signature(clazz);
+                if (signature == null) {
+                    throw new NotSerializableException(clazz.getName());
+                }
+                classes.put(clazz, classes.size());
+                out.writeInt(-1);
+                writeString(out, clazz.getName());
+                writeString(out, signature);
+            }
+        }
+
+        /**
+         * Writes the fields of an object.
+         *
+         * @param object the object
+         * @throws IOException if writing fails
+         */
+        void writeFields(final Object object) throws IOException {
+            try {
+                for (final Field field : fields(object.getClass())) {
+                    final Class<?> type = field.getType();
+                    if (type == int.class) {
+                        out.writeInt(field.getInt(object));
+                    } else if (type == long.class) {
+                        out.writeLong(field.getLong(object));
+                    } else if (type == boolean.class) {
+                        out.writeBoolean(field.getBoolean(object));
+                    } else {
+                        writeValue(field.get(object));
+                    }
+                }
+            } catch (final IllegalAccessException xaccess) {
+                throw new NotSerializableException(object.getClass().getName());
+            }
+        }
+
+        /**
+         * Writes a node and its descendants.
+         *
+         * @param node the node
+         * @throws IOException if writing fails
+         */
+        void writeNode(final JexlNode node) throws IOException {
+            writeClass(node.getClass());
+            out.writeInt(node.getId());
+            writeFields(node);
+            // the value slot only carries the script info, other values are runtime caches
+            writeInfo(out, node.jjtGetValue());
+            final int count = node.jjtGetNumChildren();
+            out.writeInt(count);
+            for (int c = 0; c < count; ++c) {
+                writeNode(node.jjtGetChild(c));
+            }
+        }
+
+        /**
+         * Writes a value.
+         *
+         * @param value the value
+         * @throws IOException if writing fails or the value can not be serialized
+         */
+        void writeValue(final Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(T_NULL);
+            } else if (value instanceof String) {
+                out.writeByte(T_STRING);
+                writeString(out, (String) value);
+            } else if (value instanceof Integer) {
+                out.writeByte(T_INTEGER);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte(T_LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(T_DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Float) {
+                out.writeByte(T_FLOAT);
+                out.writeFloat((Float) value);
+            } else if (value instanceof Short) {
+                out.writeByte(T_SHORT);
+                out.writeShort((Short) value);
+            } else if (value instanceof Byte) {
+                out.writeByte(T_BYTE);
+                out.writeByte((Byte) value);
+            } else if (value instanceof BigInteger) {
+                out.writeByte(T_BIGINTEGER);
+                writeString(out, value.toString());
+            } else if (value instanceof BigDecimal) {
+                out.writeByte(T_BIGDECIMAL);
+                writeString(out, value.toString());
+            } else if (value instanceof Boolean) {
+                out.writeByte(T_BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof Character) {
+                out.writeByte(T_CHARACTER);
+                out.writeChar((Character) value);
+            } else if (value instanceof Pattern) {
+                out.writeByte(T_PATTERN);
+                writeString(out, ((Pattern) value).pattern());
+                out.writeInt(((Pattern) value).flags());
+            } else if (value instanceof Class<?>) {
+                out.writeByte(T_CLASS);
+                writeString(out, ((Class<?>) value).getName());
+            } else if (value instanceof BitSet) {
+                final long[] words = ((BitSet) value).toLongArray();
+                out.writeByte(T_BITSET);
+                out.writeInt(words.length);
+                for (final long word : words) {
+                    out.writeLong(word);
+                }
+            } else if (value instanceof JexlFeatures) {
+                out.writeByte(T_FEATURES);
+                if (sameFeatures((JexlFeatures) value, jexl.scriptFeatures)) {
+                    out.writeByte(SCRIPT);
+                } else if (sameFeatures((JexlFeatures) value, jexl.expressionFeatures)) {
+                    out.writeByte(EXPRESSION);
+                } else {
+                    throw new NotSerializableException("features");
+                }
+            } else if (value instanceof List<?>) {
+                final List<?> list = (List<?>) value;
+                out.writeByte(T_LIST);
+                out.writeInt(list.size());
+                for (final Object item : list) {
+                    writeValue(item);
+                }
+            } else if (value instanceof Set<?>) {
+                final Set<?> set = (Set<?>) value;
+                out.writeByte(T_SET);
+                out.writeInt(set.size());
+                for (final Object item : set) {
+                    writeValue(item);
+                }
+            } else if (value instanceof Map<?, ?>) {
+                final Map<?, ?> map = (Map<?, ?>) value;
+                out.writeByte(T_MAP);
+                out.writeInt(map.size());
+                for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else if (STRUCTS.contains(value.getClass())) {
+                final Integer handle = handles.get(value);
+                if (handle != null) {
+                    out.writeByte(T_HANDLE);
+                    out.writeInt(handle);
+                } else {
+                    handles.put(value, handles.size());
+                    out.writeByte(T_OBJECT);
+                    writeClass(value.getClass());
+                    writeFields(value);
+                }
+            } else {
+                throw new NotSerializableException(value.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * Reads an archive.
+     * <p>The file is memory-mapped; scripts that can not be restored are parsed from their source.</p>
+     *
+     * @param path the archive file
+     * @return the scripts keyed by name, in archive order
+     * @throws IOException if reading fails or the file is not an archive
+     */
+    Map<String, JexlScript> read(final Path path) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        final Input in = new Input(buffer);
+        if (in.readInt() != MAGIC) {
+            throw new StreamCorruptedException(path + ": not a script archive");
+        }
+        final int format = in.readInt();
+        final String archived = in.readString();
+        // the first format did not record the schema
+        final String schema = format > 1 ? in.readString() : null;
+        final boolean scriptf = readFeatures(in, jexl.scriptFeatures);
+        final boolean exprf = readFeatures(in, jexl.expressionFeatures);
+        // a mismatch, or an unknown version, means we can only trust sources
+        final boolean restore = format == FORMAT
+            && version != null && version.equals(archived)
+            && SCHEMA.equals(schema)
+            && scriptf && exprf;
+        final int count = in.readInt();
+        final Map<String, JexlScript> scripts = new LinkedHashMap<>(count + (count >> 1) + 1);
+        int parsed = 0;
+        for (int e = 0; e < count; ++e) {
+            final String name = in.readString();
+            final int length = in.readInt();
+            final int next = in.position() + length;
+            final byte kind = in.readByte();
+            final String source = in.readString();
+            final JexlInfo info = readInfo(in);
+            final int nparms = in.readInt();
+            final String[] parms = nparms < 0 ? null : new String[nparms];
+            for (int p = 0; p < nparms; ++p) {
+                parms[p] = in.readString();
+            }
+            Script script = null;
+            if (restore && in.readBoolean()) {
+                try {
+                    final ASTJexlScript tree = (ASTJexlScript) new Reader(in).readNode();
+                    script = new Script(jexl, source, tree);
+                    cache(kind == EXPRESSION ? jexl.expressionFeatures : jexl.scriptFeatures, parms, source, tree);
+                } catch (final IOException | ReflectiveOperationException | RuntimeException xany) {
+                    jexl.logger.debug(name + ": unable to restore from archive, parsing", xany);
+                }
+            }
+            if (script == null) {
+                script = kind == EXPRESSION
+                    ? jexl.createExpression(info, source)
+                    : jexl.createScript(null, info, source, parms);
+                parsed += 1;
+            }
+            scripts.put(name, script);
+            in.position(next);
+        }
+        if (jexl.logger.isDebugEnabled()) {
+            jexl.logger.debug(path + ": " + (count - parsed) + " scripts restored, " + parsed + " scripts parsed");
+        }
+        return scripts;
+    }
+
+    /**
+     * Puts a restored tree in the engine cache as if it was parsed.
+     * <p>The key is the one {@link Engine#parse} computes when creating the script.</p>
+     *
+     * @param features the parsing features
+     * @param parms the script parameters
+     * @param source the source
+     * @param tree the tree
+     */
+    private void cache(final JexlFeatures features, final String[] parms, final String source, final ASTJexlScript tree) {
+        final JexlCache<Source, Object> cache = jexl.cache;
+        if (cache != null && source.length() < jexl.cacheThreshold) {
+            final Scope scope = parms == null || parms.length == 0 ? null : new Scope(null, parms);
+            cache.put(new Source(features, Scope.getSymbolsMap(scope), source), tree);
+        }
+    }
+
+    /**
+     * Checks whether a tree contains interpolation strings (JXLT literals).
+     *
+     * @param node the node
+     * @return true if a node is a JxltHandle
+     */
+    private static boolean hasInterpolation(final JexlNode node) {
+        if (node instanceof JexlNode.JxltHandle) {
+            return true;
+        }
+        for (int c = 0; c < node.jjtGetNumChildren(); ++c) {
+            if (hasInterpolation(node.jjtGetChild(c))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads a set of features and compares it to an engine feature set.
+     *
+     * @param in the input
+     * @param features the engine features
+     * @return true if flags and reserved names are equal
+     */
+    private static boolean readFeatures(final Input in, final JexlFeatures features) {
+        final long flags = in.readLong();
+        final int count = in.readInt();
+        final Set<String> reserved = new LinkedHashSet<>();
+        for (int r = 0; r < count; ++r) {
+            reserved.add(in.readString());
+        }
+        return flags == features.getFlags() && reserved.equals(features.getReservedNames());
+    }
+
+    /**
+     * A sequential reader over a byte buffer.
+     */
+    private static final class Input {
+        /** The buffer. */
+        private final ByteBuffer buffer;
+
+        Input(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        int position() {
+            return buffer.position();
+        }
+
+        void position(final int position) {
+            buffer.position(position);
+        }
+
+        byte readByte() {
+            return buffer.get();
+        }
+
+        boolean readBoolean() {
+            return buffer.get() != 0;
+        }
+
+        char readChar() {
+            return buffer.getChar();
+        }
+
+        short readShort() {
+            return buffer.getShort();
+        }
+
+        int readInt() {
+            return buffer.getInt();
+        }
+
+        long readLong() {
+            return buffer.getLong();
+        }
+
+        float readFloat() {
+            return buffer.getFloat();
+        }
+
+        double readDouble() {
+            return buffer.getDouble();
+        }
+
+        String readString() {
+            final int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            final String str;
+            if (buffer.hasArray()) {
+                str = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                final byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                str = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return str;
+        }
+    }
+
+    /**
+     * Deserializes a tree.
+     */
+    private final class Reader {
+        /** The input. */
+        private final Input in;
+        /** The classes read so far. */
+        private final List<Class<?>> classes = new ArrayList<>();
+        /** The objects read so far. */
+        private final List<Object> handles = new ArrayList<>();
+
+        Reader(final Input in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads a class reference.
+         * <p>Only node classes and the known structures are accepted, the archive can not name
+         * arbitrary classes to instantiate.</p>
+         *
+         * @return the class
+         * @throws IOException if the class is not archivable or its layout changed
+         * @throws ClassNotFoundException if the class is not found
+         */
+        Class<?> readClass() throws IOException, ClassNotFoundException {
+            final int index = in.readInt();
+            if (index >= 0) {
+                return classes.get(index);
+            }
+            final String name = in.readString();
+            final String signature = in.readString();
+            final Class<?> clazz = Class.forName(name, false, ASTJexlScript.class.getClassLoader());
+            if (!JexlNode.class.isAssignableFrom(clazz) && !STRUCTS.contains(clazz)) {
+                throw new InvalidClassException(name, "not an archivable class");
+            }
+            final String layout = signature(clazz);
+            if (layout == null) {
+                throw new InvalidClassException(name, "unclassified fields");
+            }
+            if (!layout.equals(signature)) {
+                throw new StreamCorruptedException(name + ": class layout changed");
+            }
+            classes.add(clazz);
+            return clazz;
+        }
+
+        /**
+         * Reads the fields of an object.
+         *
+         * @param object the object
+         * @throws IOException if reading fails
+         * @throws ReflectiveOperationException if a field can not be set
+         */
+        void readFields(final Object object) throws IOException, ReflectiveOperationException {
+            for (final Field field : fields(object.getClass())) {
+                final Class<?> type = field.getType();
+                if (type == int.class) {
+                    field.setInt(object, in.readInt());
+                } else if (type == long.class) {
+                    field.setLong(object, in.readLong());
+                } else if (type == boolean.class) {
+                    field.setBoolean(object, in.readBoolean());
+                } else {
+                    field.set(object, readValue());
+                }
+            }
+        }
+
+        /**
+         * Reads a node and its descendants.
+         *
+         * @return the node
+         * @throws IOException if reading fails
+         * @throws ReflectiveOperationException if a node can not be created
+         */
+        JexlNode readNode() throws IOException, ReflectiveOperationException {
+            final Class<?> clazz = readClass();
+            if (!JexlNode.class.isAssignableFrom(clazz)) {
+                throw new InvalidClassException(clazz.getName(), "not a node class");
+            }
+            final int id = in.readInt();
+            final Constructor<?> ctor = clazz.getDeclaredConstructor(int.class);
+            ctor.setAccessible(true);
+            final JexlNode node = (JexlNode) ctor.newInstance(id);
+            readFields(node);
+            final JexlInfo info = readInfo(in);
+            if (info != null) {
+                node.jjtSetValue(info);
+            }
+            final int count = in.readInt();
+            for (int c = 0; c < count; ++c) {
+                final JexlNode child = readNode();
+                child.jjtSetParent(node);
+                node.jjtAddChild(child, c);
+            }
+            return node;
+        }
+
+        /**
+         * Creates an instance of a serialized object class.
+         *
+         * @param clazz the class
+         * @return the instance whose fields are to be read
+         * @throws ReflectiveOperationException if creation fails
+         */
+        Object newInstance(final Class<?> clazz) throws ReflectiveOperationException {
+            if (clazz == Scope.class) {
+                return new Scope(null, (String[]) null);
+            }
+            if (!STRUCTS.contains(clazz)) {
+                throw new InstantiationException(clazz.getName());
+            }
+            final Constructor<?> ctor = clazz.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            return ctor.newInstance();
+        }
+
+        /**
+         * Reads a value.
+         *
+         * @return the value
+         * @throws IOException if reading fails
+         * @throws ReflectiveOperationException if an object can not be created
+         */
+        Object readValue() throws IOException, ReflectiveOperationException {
+            final byte tag = in.readByte();
+            switch (tag) {
+                case T_NULL: return null;
+                case T_STRING: return in.readString();
+                case T_INTEGER: return in.readInt();
+                case T_LONG: return in.readLong();
+                case T_DOUBLE: return in.readDouble();
+                case T_FLOAT: return in.readFloat();
+                case T_SHORT: return in.readShort();
+                case T_BYTE: return in.readByte();
+                case T_BIGINTEGER: return new BigInteger(in.readString());
+                case T_BIGDECIMAL: return new BigDecimal(in.readString());
+                case T_BOOLEAN: return in.readBoolean();
+                case T_CHARACTER: return in.readChar();
+                case T_PATTERN: {
+                    final String pattern = in.readString();
+                    return Pattern.compile(pattern, in.readInt());
+                }
+                case T_CLASS: return Class.forName(in.readString(), false, ASTJexlScript.class.getClassLoader());
+                case T_BITSET: {
+                    final long[] words = new long[in.readInt()];
+                    for (int w = 0; w < words.length; ++w) {
+                        words[w] = in.readLong();
+                    }
+                    return BitSet.valueOf(words);
+                }
+                case T_FEATURES:
+                    return in.readByte() == EXPRESSION ? jexl.expressionFeatures : jexl.scriptFeatures;
+                case T_LIST: {
+                    final int size = in.readInt();
+                    final List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; ++i) {
+                        list.add(readValue());
+                    }
+                    return list;
+                }
+                case T_SET: {
+                    final int size = in.readInt();
+                    final Set<Object> set = new LinkedHashSet<>();
+                    for (int i = 0; i < size; ++i) {
+                        set.add(readValue());
+                    }
+                    return set;
+                }
+                case T_MAP: {
+                    final int size = in.readInt();
+                    final Map<Object, Object> map = new LinkedHashMap<>();
+                    for (int i = 0; i < size; ++i) {
+                        final Object key = readValue();
+                        map.put(key, readValue());
+                    }
+                    return map;
+                }
+                case T_HANDLE: return handles.get(in.readInt());
+                case T_OBJECT: {
+                    final Class<?> clazz = readClass();
+                    final Object object = newInstance(clazz);
+                    handles.add(object);
+                    readFields(object);
+                    return object;
+                }
+                default:
+                    throw new StreamCorruptedException("unknown tag " + tag);
+            }
+        }
+    }
+}
@@ -0,0 +1,1334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JexlOperator;
+import org.apache.commons.jexl3.parser.ASTAddNode;
+import org.apache.commons.jexl3.parser.ASTAndNode;
+import org.apache.commons.jexl3.parser.ASTArrayAccess;
+import org.apache.commons.jexl3.parser.ASTArrayLiteral;
+import org.apache.commons.jexl3.parser.ASTAssignment;
+import org.apache.commons.jexl3.parser.ASTBitwiseAndNode;
+import org.apache.commons.jexl3.parser.ASTBitwiseComplNode;
+import org.apache.commons.jexl3.parser.ASTBitwiseOrNode;
+import org.apache.commons.jexl3.parser.ASTBitwiseXorNode;
+import org.apache.commons.jexl3.parser.ASTBlock;
+import org.apache.commons.jexl3.parser.ASTDecrementGetNode;
+import org.apache.commons.jexl3.parser.ASTDefineVars;
+import org.apache.commons.jexl3.parser.ASTDivNode;
+import org.apache.commons.jexl3.parser.ASTDoWhileStatement;
+import org.apache.commons.jexl3.parser.ASTEQNode;
+import org.apache.commons.jexl3.parser.ASTEQSNode;
+import org.apache.commons.jexl3.parser.ASTERNode;
+import org.apache.commons.jexl3.parser.ASTEWNode;
+import org.apache.commons.jexl3.parser.ASTEmptyFunction;
+import org.apache.commons.jexl3.parser.ASTExtendedLiteral;
+import org.apache.commons.jexl3.parser.ASTFalseNode;
+import org.apache.commons.jexl3.parser.ASTForeachStatement;
+import org.apache.commons.jexl3.parser.ASTFunctionNode;
+import org.apache.commons.jexl3.parser.ASTGENode;
+import org.apache.commons.jexl3.parser.ASTGTNode;
+import org.apache.commons.jexl3.parser.ASTGetDecrementNode;
+import org.apache.commons.jexl3.parser.ASTGetIncrementNode;
+import org.apache.commons.jexl3.parser.ASTIdentifier;
+import org.apache.commons.jexl3.parser.ASTIdentifierAccess;
+import org.apache.commons.jexl3.parser.ASTIfStatement;
+import org.apache.commons.jexl3.parser.ASTIncrementGetNode;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.apache.commons.jexl3.parser.ASTLENode;
+import org.apache.commons.jexl3.parser.ASTLTNode;
+import org.apache.commons.jexl3.parser.ASTMapLiteral;
+import org.apache.commons.jexl3.parser.ASTMethodNode;
+import org.apache.commons.jexl3.parser.ASTModNode;
+import org.apache.commons.jexl3.parser.ASTMulNode;
+import org.apache.commons.jexl3.parser.ASTNENode;
+import org.apache.commons.jexl3.parser.ASTNESNode;
+import org.apache.commons.jexl3.parser.ASTNEWNode;
+import org.apache.commons.jexl3.parser.ASTNRNode;
+import org.apache.commons.jexl3.parser.ASTNSWNode;
+import org.apache.commons.jexl3.parser.ASTNotNode;
+import org.apache.commons.jexl3.parser.ASTNullLiteral;
+import org.apache.commons.jexl3.parser.ASTNumberLiteral;
+import org.apache.commons.jexl3.parser.ASTOrNode;
+import org.apache.commons.jexl3.parser.ASTRangeNode;
+import org.apache.commons.jexl3.parser.ASTReference;
+import org.apache.commons.jexl3.parser.ASTReferenceExpression;
+import org.apache.commons.jexl3.parser.ASTReturnStatement;
+import org.apache.commons.jexl3.parser.ASTSWNode;
+import org.apache.commons.jexl3.parser.ASTSetAddNode;
+import org.apache.commons.jexl3.parser.ASTSetAndNode;
+import org.apache.commons.jexl3.parser.ASTSetDivNode;
+import org.apache.commons.jexl3.parser.ASTSetLiteral;
+import org.apache.commons.jexl3.parser.ASTSetModNode;
+import org.apache.commons.jexl3.parser.ASTSetMultNode;
+import org.apache.commons.jexl3.parser.ASTSetOrNode;
+import org.apache.commons.jexl3.parser.ASTSetShiftLeftNode;
+import org.apache.commons.jexl3.parser.ASTSetShiftRightNode;
+import org.apache.commons.jexl3.parser.ASTSetShiftRightUnsignedNode;
+import org.apache.commons.jexl3.parser.ASTSetSubNode;
+import org.apache.commons.jexl3.parser.ASTSetXorNode;
+import org.apache.commons.jexl3.parser.ASTShiftLeftNode;
+import org.apache.commons.jexl3.parser.ASTShiftRightNode;
+import org.apache.commons.jexl3.parser.ASTShiftRightUnsignedNode;
+import org.apache.commons.jexl3.parser.ASTSizeFunction;
+import org.apache.commons.jexl3.parser.ASTStringLiteral;
+import org.apache.commons.jexl3.parser.ASTSubNode;
+import org.apache.commons.jexl3.parser.ASTTernaryNode;
+import org.apache.commons.jexl3.parser.ASTTrueNode;
+import org.apache.commons.jexl3.parser.ASTUnaryMinusNode;
+import org.apache.commons.jexl3.parser.ASTUnaryPlusNode;
+import org.apache.commons.jexl3.parser.ASTVar;
+import org.apache.commons.jexl3.parser.ASTWhileStatement;
+import org.apache.commons.jexl3.parser.JexlNode;
+
+/**
+ * Compiles scripts into trees of pre-bound evaluators, the compiled tier.
+ * <p>
+ * Each supported node is translated once into an {@link Evaluator} that holds its compiled children and
+ * its specialized operation; evaluation no longer goes through the visitor double dispatch nor the
+ * per-node child lookups. Evaluators run against the {@link Interpreter} of the current execution and
+ * delegate to its arithmetic, operators and uberspect so that semantics, cancellation and error
+ * reporting are those of the interpreter.
+ * </p>
+ * <p>
+ * Nodes the compiler does not specialize are evaluated by the interpreter; a script where no node can be
+ * specialized is not compiled at all. The interpreted nodes can be collected to report how much of a tree
+ * was specialized, see {@link #coverage(ASTJexlScript, List)}.
+ * </p>
+ */
+final class ScriptCompiler {
+    /**
+     * A compiled node.
+     */
+    @FunctionalInterface
+    interface Evaluator {
+        /**
+         * Evaluates the compiled node.
+         *
+         * @param interpreter the interpreter of the current execution
+         * @param data the data, as in a visitor call
+         * @return the node value
+         */
+        Object eval(Interpreter interpreter, Object data);
+    }
+
+    /**
+     * A binary arithmetic operation.
+     */
+    @FunctionalInterface
+    private interface Operation {
+        /**
+         * Applies the operation.
+         *
+         * @param arithmetic the arithmetic
+         * @param left the left operand
+         * @param right the right operand
+         * @return the result
+         */
+        Object apply(JexlArithmetic arithmetic, Object left, Object right);
+    }
+
+    /**
+     * A binary operator resolved through the operators uberspect, as in {@code =^} or {@code =~}.
+     */
+    @FunctionalInterface
+    private interface Match {
+        /**
+         * Applies the operator.
+         *
+         * @param operators the operators
+         * @param node the operator node
+         * @param left the left operand
+         * @param right the right operand
+         * @return the result
+         */
+        boolean apply(JexlOperator.Uberspect operators, JexlNode node, Object left, Object right);
+    }
+
+    /** The marker of scripts that are not compiled. */
+    static final Evaluator INTERPRETED = (interpreter, data) -> null;
+
+    /** The side effect operators of assignment nodes, the simple assignment excepted. */
+    private static final Map<Class<? extends JexlNode>, JexlOperator> SIDE_EFFECTS = new HashMap<>();
+
+    static {
+        SIDE_EFFECTS.put(ASTSetAddNode.class, JexlOperator.SELF_ADD);
+        SIDE_EFFECTS.put(ASTSetSubNode.class, JexlOperator.SELF_SUBTRACT);
+        SIDE_EFFECTS.put(ASTSetMultNode.class, JexlOperator.SELF_MULTIPLY);
+        SIDE_EFFECTS.put(ASTSetDivNode.class, JexlOperator.SELF_DIVIDE);
+        SIDE_EFFECTS.put(ASTSetModNode.class, JexlOperator.SELF_MOD);
+        SIDE_EFFECTS.put(ASTSetAndNode.class, JexlOperator.SELF_AND);
+        SIDE_EFFECTS.put(ASTSetOrNode.class, JexlOperator.SELF_OR);
+        SIDE_EFFECTS.put(ASTSetXorNode.class, JexlOperator.SELF_XOR);
+        SIDE_EFFECTS.put(ASTSetShiftLeftNode.class, JexlOperator.SELF_SHIFTLEFT);
+        SIDE_EFFECTS.put(ASTSetShiftRightNode.class, JexlOperator.SELF_SHIFTRIGHT);
+        SIDE_EFFECTS.put(ASTSetShiftRightUnsignedNode.class, JexlOperator.SELF_SHIFTRIGHTU);
+        SIDE_EFFECTS.put(ASTIncrementGetNode.class, JexlOperator.INCREMENT_AND_GET);
+        SIDE_EFFECTS.put(ASTDecrementGetNode.class, JexlOperator.DECREMENT_AND_GET);
+        SIDE_EFFECTS.put(ASTGetIncrementNode.class, JexlOperator.GET_AND_INCREMENT);
+        SIDE_EFFECTS.put(ASTGetDecrementNode.class, JexlOperator.GET_AND_DECREMENT);
+    }
+
+    /** The number of specialized nodes. */
+    private int specialized;
+
+    /** The nodes left to the interpreter. */
+    private final List<JexlNode> interpreted = new ArrayList<>();
+
+    private ScriptCompiler() {
+    }
+
+    /**
+     * Compiles a script.
+     *
+     * @param script the script
+     * @return the evaluator, null if the script is not worth compiling
+     */
+    static Evaluator compile(final ASTJexlScript script) {
+        return compile(script, null);
+    }
+
+    /**
+     * Compiles a script and collects the nodes left to the interpreter.
+     *
+     * @param script the script
+     * @param nodes the list receiving the interpreted nodes, may be null
+     * @return the evaluator, null if the script is not worth compiling
+     */
+    static Evaluator compile(final ASTJexlScript script, final List<JexlNode> nodes) {
+        if (script.getClass() != ASTJexlScript.class) {
+            return null;
+        }
+        final ScriptCompiler compiler = new ScriptCompiler();
+        final Evaluator code = compiler.script(script);
+        if (nodes != null) {
+            nodes.addAll(compiler.interpreted);
+        }
+        return compiler.specialized > 1 ? code : null;
+    }
+
+    /**
+     * Describes how much of a script the interpreter still evaluates.
+     *
+     * @param script the script
+     * @param nodes the interpreted nodes collected by {@link #compile(ASTJexlScript, List)}
+     * @return the number of interpreted nodes over the tree size and the interpreted node kinds
+     */
+    static String coverage(final ASTJexlScript script, final List<JexlNode> nodes) {
+        int count = 0;
+        final Set<String> kinds = new TreeSet<>();
+        for (final JexlNode node : nodes) {
+            count += size(node);
+            kinds.add(node.getClass().getSimpleName());
+        }
+        return count + "/" + size(script) + " nodes interpreted" + (kinds.isEmpty() ? "" : " " + kinds);
+    }
+
+    /**
+     * Counts the nodes of a tree.
+     *
+     * @param node the tree root
+     * @return the number of nodes
+     */
+    static int size(final JexlNode node) {
+        int size = 1;
+        for (int c = 0; c < node.jjtGetNumChildren(); ++c) {
+            size += size(node.jjtGetChild(c));
+        }
+        return size;
+    }
+
+    /**
+     * Compiles the top-level script, the counterpart of the interpreter visit of ASTJexlScript.
+     *
+     * @param script the script
+     * @return the evaluator
+     */
+    private Evaluator script(final ASTJexlScript script) {
+        final int count = script.jjtGetNumChildren();
+        final JexlNode[] nodes = new JexlNode[count];
+        final Evaluator[] statements = new Evaluator[count];
+        for (int i = 0; i < count; ++i) {
+            nodes[i] = script.jjtGetChild(i);
+            statements[i] = compile(nodes[i]);
+        }
+        specialized += 1;
+        return (interpreter, data) -> {
+            interpreter.block = new LexicalFrame(interpreter.frame, interpreter.block).defineArgs();
+            try {
+                Object result = null;
+                for (int i = 0; i < statements.length; ++i) {
+                    result = statements[i].eval(interpreter, data);
+                    if (result == Interpreter.ABRUPT) {
+                        break;
+                    }
+                    interpreter.cancelCheck(nodes[i]);
+                }
+                return result;
+            } finally {
+                interpreter.block = interpreter.block.pop();
+            }
+        };
+    }
+
+    /**
+     * Compiles a node.
+     *
+     * @param node the node
+     * @return the evaluator
+     */
+    private Evaluator compile(final JexlNode node) {
+        final Evaluator code = specialize(node);
+        if (code != null) {
+            specialized += 1;
+            return code;
+        }
+        // let the interpreter handle it
+        interpreted.add(node);
+        return (interpreter, data) -> node.jjtAccept(interpreter, data);
+    }
+
+    /**
+     * Specializes a node.
+     *
+     * @param node the node
+     * @return the evaluator or null if the node is not supported
+     */
+    private Evaluator specialize(final JexlNode node) {
+        if (node instanceof ASTNumberLiteral) {
+            final ASTNumberLiteral literal = (ASTNumberLiteral) node;
+            return literal.isInteger() ? literal(literal, literal.getLiteral()) : constant(literal.getLiteral());
+        }
+        if (node instanceof ASTStringLiteral) {
+            return literal(node, ((ASTStringLiteral) node).getLiteral());
+        }
+        if (node instanceof ASTTrueNode) {
+            return constant(Boolean.TRUE);
+        }
+        if (node instanceof ASTFalseNode) {
+            return constant(Boolean.FALSE);
+        }
+        if (node instanceof ASTNullLiteral) {
+            return constant(null);
+        }
+        if (node.getClass() == ASTIdentifier.class) {
+            return identifier((ASTIdentifier) node);
+        }
+        if (node instanceof ASTReference) {
+            return reference((ASTReference) node);
+        }
+        if (node instanceof ASTReferenceExpression) {
+            final Evaluator expr = compile(node.jjtGetChild(0));
+            return expr::eval;
+        }
+        if (node instanceof ASTAndNode) {
+            return shortCircuit(false, node);
+        }
+        if (node instanceof ASTOrNode) {
+            return shortCircuit(true, node);
+        }
+        if (node instanceof ASTNotNode) {
+            return not((ASTNotNode) node);
+        }
+        if (node instanceof ASTTernaryNode) {
+            return ternary((ASTTernaryNode) node);
+        }
+        if (node instanceof ASTBlock) {
+            return block((ASTBlock) node);
+        }
+        if (node instanceof ASTIfStatement) {
+            return ifStatement((ASTIfStatement) node);
+        }
+        if (node instanceof ASTWhileStatement) {
+            return whileStatement((ASTWhileStatement) node);
+        }
+        if (node instanceof ASTDoWhileStatement) {
+            return doWhileStatement((ASTDoWhileStatement) node);
+        }
+        if (node instanceof ASTReturnStatement) {
+            return returnStatement((ASTReturnStatement) node);
+        }
+        if (node instanceof ASTForeachStatement) {
+            return foreachStatement((ASTForeachStatement) node);
+        }
+        if (node instanceof ASTAssignment) {
+            return assignment(node, null);
+        }
+        final JexlOperator sideEffect = SIDE_EFFECTS.get(node.getClass());
+        if (sideEffect != null) {
+            return assignment(node, sideEffect);
+        }
+        if (node instanceof ASTVar) {
+            return var((ASTVar) node);
+        }
+        if (node instanceof ASTDefineVars) {
+            final Evaluator[] vars = children(node);
+            return (interpreter, data) -> {
+                Object result = null;
+                for (final Evaluator var : vars) {
+                    result = var.eval(interpreter, data);
+                }
+                return result;
+            };
+        }
+        if (node instanceof ASTFunctionNode) {
+            return function((ASTFunctionNode) node);
+        }
+        if (node instanceof ASTMethodNode) {
+            return method((ASTMethodNode) node);
+        }
+        if (node instanceof ASTArrayAccess) {
+            return arrayAccess((ASTArrayAccess) node);
+        }
+        if (node instanceof ASTArrayLiteral) {
+            return arrayLiteral((ASTArrayLiteral) node);
+        }
+        if (node instanceof ASTSetLiteral) {
+            return setLiteral((ASTSetLiteral) node);
+        }
+        if (node instanceof ASTMapLiteral) {
+            return mapLiteral((ASTMapLiteral) node);
+        }
+        if (node instanceof ASTRangeNode) {
+            final Evaluator lhs = compile(node.jjtGetChild(0));
+            final Evaluator rhs = compile(node.jjtGetChild(1));
+            return (interpreter, data) -> {
+                final Object left = lhs.eval(interpreter, data);
+                final Object right = rhs.eval(interpreter, data);
+                try {
+                    return interpreter.arithmetic.createRange(left, right);
+                } catch (final ArithmeticException xrt) {
+                    throw new JexlException(interpreter.findNullOperand(node, left, right), ".. error", xrt);
+                }
+            };
+        }
+        if (node instanceof ASTUnaryMinusNode) {
+            return negate((ASTUnaryMinusNode) node);
+        }
+        if (node instanceof ASTUnaryPlusNode) {
+            return positivize((ASTUnaryPlusNode) node);
+        }
+        if (node instanceof ASTBitwiseComplNode) {
+            return complement((ASTBitwiseComplNode) node);
+        }
+        if (node instanceof ASTEmptyFunction) {
+            final JexlNode arg = node.jjtGetChild(0);
+            final Evaluator operand = compile(arg);
+            return (interpreter, data) -> {
+                final Object value = interpreter.arithmetic.evaluate(interpreter.logger, () -> operand.eval(interpreter, data));
+                return value == JexlEngine.TRY_FAILED ? true : interpreter.operators.empty(node, value);
+            };
+        }
+        if (node instanceof ASTSizeFunction) {
+            final JexlNode arg = node.jjtGetChild(0);
+            final Evaluator operand = compile(arg);
+            return (interpreter, data) -> {
+                final Object value = interpreter.arithmetic.evaluate(interpreter.logger, () -> operand.eval(interpreter, data));
+                return value == JexlEngine.TRY_FAILED ? 0 : interpreter.operators.size(node, value);
+            };
+        }
+        if (node instanceof ASTNENode) {
+            return notBinary(node, JexlOperator.EQ, JexlArithmetic::equals, "!= error");
+        }
+        if (node instanceof ASTEQSNode) {
+            return binary(node, JexlOperator.EQSTRICT, JexlArithmetic::strictEquals, "=== error", false);
+        }
+        if (node instanceof ASTNESNode) {
+            return notBinary(node, JexlOperator.EQSTRICT, JexlArithmetic::strictEquals, "!== error");
+        }
+        // note the arguments inversion between 'in'/'matches' and 'contains'
+        if (node instanceof ASTERNode) {
+            return contains(node, JexlOperator.CONTAINS);
+        }
+        if (node instanceof ASTNRNode) {
+            return contains(node, JexlOperator.NOT_CONTAINS);
+        }
+        if (node instanceof ASTSWNode) {
+            return match(node, (ops, n, l, r) -> ops.startsWith(n, JexlOperator.STARTSWITH, l, r));
+        }
+        if (node instanceof ASTNSWNode) {
+            return match(node, (ops, n, l, r) -> ops.startsWith(n, JexlOperator.NOT_STARTSWITH, l, r));
+        }
+        if (node instanceof ASTEWNode) {
+            return match(node, (ops, n, l, r) -> ops.endsWith(n, JexlOperator.ENDSWITH, l, r));
+        }
+        if (node instanceof ASTNEWNode) {
+            return match(node, (ops, n, l, r) -> ops.endsWith(n, JexlOperator.NOT_ENDSWITH, l, r));
+        }
+        if (node instanceof ASTBitwiseAndNode) {
+            return binary(node, JexlOperator.AND, JexlArithmetic::and, "& error", false);
+        }
+        if (node instanceof ASTBitwiseOrNode) {
+            return binary(node, JexlOperator.OR, JexlArithmetic::or, "| error", false);
+        }
+        if (node instanceof ASTBitwiseXorNode) {
+            return binary(node, JexlOperator.XOR, JexlArithmetic::xor, "^ error", false);
+        }
+        if (node instanceof ASTShiftLeftNode) {
+            return binary(node, JexlOperator.SHIFTLEFT, JexlArithmetic::shiftLeft, "<< error", false);
+        }
+        if (node instanceof ASTShiftRightNode) {
+            return binary(node, JexlOperator.SHIFTRIGHT, JexlArithmetic::shiftRight, ">> error", false);
+        }
+        if (node instanceof ASTShiftRightUnsignedNode) {
+            return binary(node, JexlOperator.SHIFTRIGHTU, JexlArithmetic::shiftRightUnsigned, ">>> error", false);
+        }
+        if (node instanceof ASTAddNode) {
+            return binary(node, JexlOperator.ADD, JexlArithmetic::add, "+ error", false);
+        }
+        if (node instanceof ASTSubNode) {
+            return binary(node, JexlOperator.SUBTRACT, JexlArithmetic::subtract, "- error", false);
+        }
+        if (node instanceof ASTMulNode) {
+            return binary(node, JexlOperator.MULTIPLY, JexlArithmetic::multiply, "* error", false);
+        }
+        if (node instanceof ASTDivNode) {
+            return binary(node, JexlOperator.DIVIDE, JexlArithmetic::divide, "/ error", true);
+        }
+        if (node instanceof ASTModNode) {
+            return binary(node, JexlOperator.MOD, JexlArithmetic::mod, "% error", true);
+        }
+        if (node instanceof ASTEQNode) {
+            return binary(node, JexlOperator.EQ, JexlArithmetic::equals, "== error", false);
+        }
+        if (node instanceof ASTLTNode) {
+            return binary(node, JexlOperator.LT, JexlArithmetic::lessThan, "< error", false);
+        }
+        if (node instanceof ASTLENode) {
+            return binary(node, JexlOperator.LTE, JexlArithmetic::lessThanOrEqual, "<= error", false);
+        }
+        if (node instanceof ASTGTNode) {
+            return binary(node, JexlOperator.GT, JexlArithmetic::greaterThan, "> error", false);
+        }
+        if (node instanceof ASTGENode) {
+            return binary(node, JexlOperator.GTE, JexlArithmetic::greaterThanOrEqual, ">= error", false);
+        }
+        return null;
+    }
+
+    /**
+     * Creates a constant evaluator.
+     *
+     * @param value the constant
+     * @return the evaluator
+     */
+    private static Evaluator constant(final Object value) {
+        return (interpreter, data) -> value;
+    }
+
+    /**
+     * Creates a literal evaluator; the literal is a property name when data is not null.
+     *
+     * @param node the literal node
+     * @param value the literal value
+     * @return the evaluator
+     */
+    private static Evaluator literal(final JexlNode node, final Object value) {
+        return (interpreter, data) -> data != null ? interpreter.getAttribute(data, value, node) : value;
+    }
+
+    /**
+     * Compiles an identifier.
+     *
+     * @param identifier the identifier
+     * @return the evaluator
+     */
+    private static Evaluator identifier(final ASTIdentifier identifier) {
+        final String name = identifier.getName();
+        return (interpreter, data) -> {
+            interpreter.cancelCheck(identifier);
+            return data != null
+                ? interpreter.getAttribute(data, name, identifier)
+                : interpreter.getVariable(interpreter.frame, interpreter.block, identifier);
+        };
+    }
+
+    /**
+     * Compiles a reference made of an identifier followed by property accesses, method calls or array accesses,
+     * as in {@code a.b.c}, {@code a.b(c)} or {@code a[b].c}.
+     * <p>When the identifier value is null, the interpreter handles the reference (antish variables,
+     * safe navigation and errors).</p>
+     *
+     * @param node the reference
+     * @return the evaluator or null if the reference is not of that form
+     */
+    private Evaluator reference(final ASTReference node) {
+        final int count = node.jjtGetNumChildren();
+        if (count < 2 || node.jjtGetChild(0).getClass() != ASTIdentifier.class) {
+            return null;
+        }
+        final JexlNode[] nodes = new JexlNode[count - 1];
+        final Evaluator[] steps = new Evaluator[count - 1];
+        for (int c = 1; c < count; ++c) {
+            final JexlNode child = node.jjtGetChild(c);
+            final Evaluator step;
+            if (child.getClass() == ASTIdentifierAccess.class && !((ASTIdentifierAccess) child).isExpression()) {
+                final Object name = ((ASTIdentifierAccess) child).getIdentifier();
+                step = (interpreter, object) -> interpreter.getAttribute(object, name, child);
+                specialized += 1;
+            } else if (child instanceof ASTIdentifierAccess
+                       || child instanceof ASTMethodNode
+                       || child instanceof ASTArrayAccess) {
+                step = compile(child);
+            } else {
+                return null;
+            }
+            nodes[c - 1] = child;
+            steps[c - 1] = step;
+        }
+        final ASTIdentifier first = (ASTIdentifier) node.jjtGetChild(0);
+        return (interpreter, data) -> {
+            interpreter.cancelCheck(node);
+            interpreter.cancelCheck(first);
+            Object object = interpreter.getVariable(interpreter.frame, interpreter.block, first);
+            if (object == null) {
+                return node.jjtAccept(interpreter, data);
+            }
+            interpreter.cancelCheck(node);
+            final int last = steps.length - 1;
+            for (int s = 0; s <= last; ++s) {
+                object = steps[s].eval(interpreter, object);
+                interpreter.cancelCheck(node);
+                if (object == null) {
+                    if (s == last) {
+                        return null;
+                    }
+                    // only the last one may be null
+                    if (nodes[s].isSafeLhs(interpreter.isSafe())) {
+                        return null;
+                    }
+                    return interpreter.unsolvableProperty(node, interpreter.stringifyProperty(nodes[s]), true, null);
+                }
+            }
+            return object;
+        };
+    }
+
+    /**
+     * Compiles a variable declaration.
+     *
+     * @param node the variable
+     * @return the evaluator
+     */
+    private static Evaluator var(final ASTVar node) {
+        final int symbol = node.getSymbol();
+        return (interpreter, data) -> {
+            // if we have a var, we have a scope thus a frame
+            if (!interpreter.options.isLexical() && !node.isLexical()) {
+                if (interpreter.frame.has(symbol)) {
+                    return interpreter.frame.get(symbol);
+                }
+            } else if (!interpreter.defineVariable(node, interpreter.block)) {
+                return interpreter.redefinedVariable(node, node.getName());
+            }
+            interpreter.frame.set(symbol, null);
+            return null;
+        };
+    }
+
+    /**
+     * Compiles an assignment, simple or with a side effect operator.
+     * <p>The value expression is compiled; the interpreter resolves the assigned variable or property
+     * which is reported as interpreted when it is an object reference.</p>
+     *
+     * @param node the assignment node
+     * @param operator the side effect operator, null for a simple assignment
+     * @return the evaluator
+     */
+    private Evaluator assignment(final JexlNode node, final JexlOperator operator) {
+        final JexlNode left = node.jjtGetChild(0);
+        if (left.jjtGetNumChildren() > 0) {
+            interpreted.add(left);
+        }
+        final Evaluator value = node.jjtGetNumChildren() > 1 ? compile(node.jjtGetChild(1)) : null;
+        return (interpreter, data) -> interpreter.executeAssign(node, operator, value, data);
+    }
+
+    /**
+     * Evaluates compiled arguments, as the interpreter does, without data.
+     *
+     * @param interpreter the interpreter
+     * @param arguments the argument evaluators
+     * @return the argument values
+     */
+    private static Object[] argv(final Interpreter interpreter, final Evaluator[] arguments) {
+        final Object[] argv = new Object[arguments.length];
+        for (int i = 0; i < argv.length; ++i) {
+            argv[i] = arguments[i].eval(interpreter, null);
+        }
+        return argv;
+    }
+
+    /**
+     * Compiles a function call, as in {@code f(x)} or {@code ns:f(x)}.
+     *
+     * @param node the function node
+     * @return the evaluator
+     */
+    private Evaluator function(final ASTFunctionNode node) {
+        final ASTIdentifier functionNode = (ASTIdentifier) node.jjtGetChild(0);
+        final String nsid = functionNode.getNamespace();
+        final Evaluator[] args = children(node.jjtGetChild(1));
+        return (interpreter, data) -> {
+            final Object namespace = nsid != null ? interpreter.resolveNamespace(nsid, node) : interpreter.context;
+            interpreter.cancelCheck(node);
+            return interpreter.call(node, namespace, functionNode, argv(interpreter, args));
+        };
+    }
+
+    /**
+     * Compiles a method call on the data object, as in {@code .m(x)}, maybe followed by functor calls.
+     *
+     * @param node the method node
+     * @return the evaluator or null if the method is not named
+     */
+    private Evaluator method(final ASTMethodNode node) {
+        final JexlNode methodNode = node.jjtGetChild(0);
+        if (!(methodNode instanceof ASTIdentifierAccess)) {
+            return null;
+        }
+        final Evaluator[][] calls = new Evaluator[node.jjtGetNumChildren() - 1][];
+        for (int a = 0; a < calls.length; ++a) {
+            calls[a] = children(node.jjtGetChild(a + 1));
+        }
+        return (interpreter, data) -> {
+            if (data == null) {
+                // no object, we fail
+                return node.isSafeLhs(interpreter.isSafe())
+                    ? null
+                    : interpreter.unsolvableMethod(methodNode, "<null>.<?>(...)");
+            }
+            Object object = data;
+            Object result = methodNode;
+            for (final Evaluator[] args : calls) {
+                if (result == null) {
+                    return node.isSafeLhs(interpreter.isSafe())
+                        ? null
+                        : interpreter.unsolvableMethod(methodNode, "<?>.<null>(...)");
+                }
+                interpreter.cancelCheck(node);
+                result = interpreter.call(node, object, result, argv(interpreter, args));
+                object = result;
+            }
+            return result;
+        };
+    }
+
+    /**
+     * Compiles an array access on the data object, as in {@code [x][y]}.
+     *
+     * @param node the array access node
+     * @return the evaluator
+     */
+    private Evaluator arrayAccess(final ASTArrayAccess node) {
+        final Evaluator[] indices = children(node);
+        return (interpreter, data) -> {
+            Object object = data;
+            for (int i = 0; i < indices.length; i++) {
+                final JexlNode nindex = node.jjtGetChild(i);
+                if (object == null) {
+                    // safe navigation access
+                    return node.isSafeChild(i)
+                        ? null
+                        : interpreter.unsolvableProperty(nindex, interpreter.stringifyProperty(nindex), false, null);
+                }
+                final Object index = indices[i].eval(interpreter, null);
+                interpreter.cancelCheck(node);
+                object = interpreter.getAttribute(object, index, nindex);
+            }
+            return object;
+        };
+    }
+
+    /**
+     * Compiles the elements of a literal, the {@code ...} marker of extended literals being null.
+     *
+     * @param node the literal node
+     * @return the element evaluators
+     */
+    private Evaluator[] elements(final JexlNode node) {
+        final int count = node.jjtGetNumChildren();
+        final Evaluator[] elements = new Evaluator[count];
+        for (int c = 0; c < count; ++c) {
+            final JexlNode child = node.jjtGetChild(c);
+            if (!(child instanceof ASTExtendedLiteral)) {
+                elements[c] = compile(child);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Compiles an array literal; elements pre-computed by constant folding are copied.
+     *
+     * @param node the literal
+     * @return the evaluator
+     */
+    private Evaluator arrayLiteral(final ASTArrayLiteral node) {
+        final Object constant = node.jjtGetValue();
+        if (constant instanceof Object[]) {
+            final Object[] values = (Object[]) constant;
+            return (interpreter, data) -> {
+                final JexlArithmetic.ArrayBuilder ab = interpreter.arithmetic.arrayBuilder(values.length, false);
+                for (final Object value : values) {
+                    ab.add(value);
+                }
+                return ab.create(false);
+            };
+        }
+        final Evaluator[] elements = elements(node);
+        return (interpreter, data) -> {
+            final JexlArithmetic.ArrayBuilder ab = interpreter.arithmetic.arrayBuilder(elements.length, node.isExtended());
+            boolean extended = false;
+            for (final Evaluator element : elements) {
+                interpreter.cancelCheck(node);
+                if (element == null) {
+                    extended = true;
+                } else {
+                    ab.add(element.eval(interpreter, data));
+                }
+            }
+            return ab.create(extended);
+        };
+    }
+
+    /**
+     * Compiles a set literal; elements pre-computed by constant folding are copied.
+     *
+     * @param node the literal
+     * @return the evaluator
+     */
+    private Evaluator setLiteral(final ASTSetLiteral node) {
+        final Object constant = node.jjtGetValue();
+        if (constant instanceof Object[]) {
+            final Object[] values = (Object[]) constant;
+            return (interpreter, data) -> {
+                final JexlArithmetic.SetBuilder sb = interpreter.arithmetic.setBuilder(values.length, false);
+                for (final Object value : values) {
+                    sb.add(value);
+                }
+                return sb.create();
+            };
+        }
+        final Evaluator[] elements = elements(node);
+        return (interpreter, data) -> {
+            final JexlArithmetic.SetBuilder sb = interpreter.arithmetic.setBuilder(elements.length, node.isExtended());
+            for (final Evaluator element : elements) {
+                interpreter.cancelCheck(node);
+                if (element != null) {
+                    sb.add(element.eval(interpreter, data));
+                }
+            }
+            return sb.create();
+        };
+    }
+
+    /**
+     * Compiles a map literal, its entries as pairs of keys and values; entries pre-computed by constant folding
+     * are copied.
+     *
+     * @param node the literal
+     * @return the evaluator
+     */
+    private Evaluator mapLiteral(final ASTMapLiteral node) {
+        final Object constant = node.jjtGetValue();
+        if (constant instanceof Object[]) {
+            final Object[] entries = (Object[]) constant;
+            return (interpreter, data) -> {
+                final JexlArithmetic.MapBuilder mb = interpreter.arithmetic.mapBuilder(entries.length / 2, false);
+                for (int i = 0; i < entries.length; i += 2) {
+                    mb.put(entries[i], entries[i + 1]);
+                }
+                return mb.create();
+            };
+        }
+        final int count = node.jjtGetNumChildren();
+        final Evaluator[] keys = new Evaluator[count];
+        final Evaluator[] values = new Evaluator[count];
+        for (int c = 0; c < count; ++c) {
+            final JexlNode child = node.jjtGetChild(c);
+            if (!(child instanceof ASTExtendedLiteral)) {
+                keys[c] = compile(child.jjtGetChild(0));
+                values[c] = compile(child.jjtGetChild(1));
+                specialized += 1;
+            }
+        }
+        return (interpreter, data) -> {
+            final JexlArithmetic.MapBuilder mb = interpreter.arithmetic.mapBuilder(count, node.isExtended());
+            for (int i = 0; i < count; i++) {
+                interpreter.cancelCheck(node);
+                if (keys[i] != null) {
+                    mb.put(keys[i].eval(interpreter, data), values[i].eval(interpreter, data));
+                }
+            }
+            return mb.create();
+        };
+    }
+
+    /**
+     * Compiles a binary operator.
+     *
+     * @param node the operator node
+     * @param operator the operator
+     * @param operation the arithmetic operation
+     * @param error the error message
+     * @param lenient whether a non-strict arithmetic yields 0 on error
+     * @return the evaluator
+     */
+    private Evaluator binary(final JexlNode node, final JexlOperator operator, final Operation operation,
+                             final String error, final boolean lenient) {
+        final Evaluator lhs = compile(node.jjtGetChild(0));
+        final Evaluator rhs = compile(node.jjtGetChild(1));
+        return (interpreter, data) -> {
+            final Object left = lhs.eval(interpreter, data);
+            final Object right = rhs.eval(interpreter, data);
+            final JexlArithmetic arithmetic = interpreter.arithmetic;
+            try {
+                final Object result = interpreter.tryOverload(node, operator, left, right);
+                return result != JexlEngine.TRY_FAILED ? result : operation.apply(arithmetic, left, right);
+            } catch (final ArithmeticException xrt) {
+                if (lenient && !arithmetic.isStrict()) {
+                    return 0.0d;
+                }
+                throw new JexlException(interpreter.findNullOperand(node, left, right), error, xrt);
+            }
+        };
+    }
+
+    /**
+     * Compiles a negated binary operator, as in {@code !=}.
+     *
+     * @param node the operator node
+     * @param operator the operator
+     * @param operation the arithmetic operation
+     * @param error the error message
+     * @return the evaluator
+     */
+    private Evaluator notBinary(final JexlNode node, final JexlOperator operator, final Operation operation,
+                                final String error) {
+        final Evaluator lhs = compile(node.jjtGetChild(0));
+        final Evaluator rhs = compile(node.jjtGetChild(1));
+        return (interpreter, data) -> {
+            final Object left = lhs.eval(interpreter, data);
+            final Object right = rhs.eval(interpreter, data);
+            final JexlArithmetic arithmetic = interpreter.arithmetic;
+            try {
+                final Object result = interpreter.tryOverload(node, operator, left, right);
+                return result != JexlEngine.TRY_FAILED
+                       ? !arithmetic.toBoolean(result)
+                       : !arithmetic.toBoolean(operation.apply(arithmetic, left, right));
+            } catch (final ArithmeticException xrt) {
+                throw new JexlException(interpreter.findNullOperand(node, left, right), error, xrt);
+            }
+        };
+    }
+
+    /**
+     * Compiles an operator resolved through the operators uberspect.
+     *
+     * @param node the operator node
+     * @param match the operator
+     * @return the evaluator
+     */
+    private Evaluator match(final JexlNode node, final Match match) {
+        final Evaluator lhs = compile(node.jjtGetChild(0));
+        final Evaluator rhs = compile(node.jjtGetChild(1));
+        return (interpreter, data) -> {
+            final Object left = lhs.eval(interpreter, data);
+            final Object right = rhs.eval(interpreter, data);
+            return match.apply(interpreter.operators, node, left, right);
+        };
+    }
+
+    /**
+     * Compiles a '=~' or '!~' operator; a constant literal right operand uses the hashed elements
+     * the interpreter caches in the node.
+     *
+     * @param node the operator node
+     * @param operator CONTAINS or NOT_CONTAINS
+     * @return the evaluator
+     */
+    private Evaluator contains(final JexlNode node, final JexlOperator operator) {
+        final Evaluator lhs = compile(node.jjtGetChild(0));
+        final Evaluator rhs = compile(node.jjtGetChild(1));
+        final boolean expected = operator == JexlOperator.CONTAINS;
+        return (interpreter, data) -> {
+            final Object left = lhs.eval(interpreter, data);
+            final ConstantSet elements = interpreter.constantSet(node);
+            if (elements != null) {
+                return elements.contains(left) == expected;
+            }
+            final Object right = rhs.eval(interpreter, data);
+            return interpreter.operators.contains(node, operator, right, left);
+        };
+    }
+
+    /**
+     * Compiles a unary minus; the negation of a number literal is cached in the node, as the interpreter does.
+     *
+     * @param node the operator node
+     * @return the evaluator
+     */
+    private Evaluator negate(final ASTUnaryMinusNode node) {
+        final JexlNode valNode = node.jjtGetChild(0);
+        final Evaluator operand = compile(valNode);
+        return (interpreter, data) -> {
+            final Object value = node.jjtGetValue();
+            if (value instanceof Number) {
+                return value;
+            }
+            final Object val = operand.eval(interpreter, data);
+            final JexlArithmetic arithmetic = interpreter.arithmetic;
+            try {
+                final Object result = interpreter.tryOverload(node, JexlOperator.NEGATE, val);
+                if (result != JexlEngine.TRY_FAILED) {
+                    return result;
+                }
+                Object number = arithmetic.negate(val);
+                if (number instanceof Number && valNode instanceof ASTNumberLiteral) {
+                    number = arithmetic.narrowNumber((Number) number, ((ASTNumberLiteral) valNode).getLiteralClass());
+                    if (arithmetic.isNegateStable()) {
+                        node.jjtSetValue(number);
+                    }
+                }
+                return number;
+            } catch (final ArithmeticException xrt) {
+                throw new JexlException(valNode, "- error", xrt);
+            }
+        };
+    }
+
+    /**
+     * Compiles a unary plus; the result on a number literal is cached in the node, as the interpreter does.
+     *
+     * @param node the operator node
+     * @return the evaluator
+     */
+    private Evaluator positivize(final ASTUnaryPlusNode node) {
+        final JexlNode valNode = node.jjtGetChild(0);
+        final Evaluator operand = compile(valNode);
+        return (interpreter, data) -> {
+            final Object value = node.jjtGetValue();
+            if (value instanceof Number) {
+                return value;
+            }
+            final Object val = operand.eval(interpreter, data);
+            final JexlArithmetic arithmetic = interpreter.arithmetic;
+            try {
+                final Object result = interpreter.tryOverload(node, JexlOperator.POSITIVIZE, val);
+                if (result != JexlEngine.TRY_FAILED) {
+                    return result;
+                }
+                final Object number = arithmetic.positivize(val);
+                if (valNode instanceof ASTNumberLiteral
+                    && number instanceof Number
+                    && arithmetic.isPositivizeStable()) {
+                    node.jjtSetValue(number);
+                }
+                return number;
+            } catch (final ArithmeticException xrt) {
+                throw new JexlException(valNode, "+ error", xrt);
+            }
+        };
+    }
+
+    /**
+     * Compiles a bitwise complement.
+     *
+     * @param node the operator node
+     * @return the evaluator
+     */
+    private Evaluator complement(final ASTBitwiseComplNode node) {
+        final Evaluator operand = compile(node.jjtGetChild(0));
+        return (interpreter, data) -> {
+            final Object arg = operand.eval(interpreter, data);
+            try {
+                final Object result = interpreter.tryOverload(node, JexlOperator.COMPLEMENT, arg);
+                return result != JexlEngine.TRY_FAILED ? result : interpreter.arithmetic.complement(arg);
+            } catch (final ArithmeticException xrt) {
+                throw new JexlException(node, "~ error", xrt);
+            }
+        };
+    }
+
+    /**
+     * Compiles the children of a node.
+     *
+     * @param node the node
+     * @return the children evaluators
+     */
+    private Evaluator[] children(final JexlNode node) {
+        final int count = node.jjtGetNumChildren();
+        final Evaluator[] children = new Evaluator[count];
+        for (int c = 0; c < count; ++c) {
+            children[c] = compile(node.jjtGetChild(c));
+        }
+        return children;
+    }
+
+    /**
+     * Compiles a block.
+     *
+     * @param node the block
+     * @return the evaluator
+     */
+    private Evaluator block(final ASTBlock node) {
+        final Evaluator[] statements = children(node);
+        final boolean lexical = node.getSymbolCount() > 0;
+        return (interpreter, data) -> {
+            if (lexical) {
+                interpreter.block = new LexicalFrame(interpreter.frame, interpreter.block);
+            }
+            try {
+                Object result = null;
+                for (final Evaluator statement : statements) {
+                    interpreter.cancelCheck(node);
+                    result = statement.eval(interpreter, data);
+                    if (result == Interpreter.ABRUPT) {
+                        break;
+                    }
+                }
+                return result;
+            } finally {
+                if (lexical) {
+                    interpreter.block = interpreter.block.pop();
+                }
+            }
+        };
+    }
+
+    /**
+     * Compiles an if statement, its conditions and branches.
+     *
+     * @param node the statement
+     * @return the evaluator
+     */
+    private Evaluator ifStatement(final ASTIfStatement node) {
+        final Evaluator[] children = children(node);
+        final int count = children.length;
+        return (interpreter, data) -> {
+            try {
+                // pairs of { conditions , 'then' statement }
+                for (int ifElse = 0; ifElse < count - 1; ifElse += 2) {
+                    final Object condition = children[ifElse].eval(interpreter, null);
+                    if (interpreter.testPredicate(node.jjtGetChild(ifElse), condition)) {
+                        return children[ifElse + 1].eval(interpreter, null);
+                    }
+                }
+                // the else statement
+                return (count & 1) == 1 ? children[count - 1].eval(interpreter, null) : null;
+            } catch (final ArithmeticException xrt) {
+                throw new JexlException(node.jjtGetChild(0), "if error", xrt);
+            }
+        };
+    }
+
+    /**
+     * Compiles a while loop.
+     *
+     * @param node the statement
+     * @return the evaluator
+     */
+    private Evaluator whileStatement(final ASTWhileStatement node) {
+        final JexlNode conditionNode = node.jjtGetChild(0);
+        final Evaluator condition = compile(conditionNode);
+        final Evaluator body = node.jjtGetNumChildren() > 1 ? compile(node.jjtGetChild(1)) : null;
+        return (interpreter, data) -> {
+            Object result = null;
+            while (interpreter.testPredicate(conditionNode, condition.eval(interpreter, data))) {
+                interpreter.cancelCheck(node);
+                if (body != null) {
+                    try {
+                        final Object outcome = body.eval(interpreter, data);
+                        if (outcome != Interpreter.ABRUPT) {
+                            result = outcome;
+                        } else if (interpreter.exitLoop()) {
+                            break;
+                        }
+                    } catch (final JexlException.Break stmtBreak) {
+                        break;
+                    } catch (final JexlException.Continue stmtContinue) {
+                        //continue;
+                    }
+                }
+            }
+            return interpreter.completion != null ? Interpreter.ABRUPT : result;
+        };
+    }
+
+    /**
+     * Compiles a do-while loop.
+     *
+     * @param node the statement
+     * @return the evaluator
+     */
+    private Evaluator doWhileStatement(final ASTDoWhileStatement node) {
+        final int count = node.jjtGetNumChildren();
+        final JexlNode conditionNode = node.jjtGetChild(count - 1);
+        final Evaluator condition = compile(conditionNode);
+        final Evaluator body = count > 1 ? compile(node.jjtGetChild(0)) : null;
+        return (interpreter, data) -> {
+            Object result = null;
+            do {
+                interpreter.cancelCheck(node);
+                if (body != null) {
+                    try {
+                        final Object outcome = body.eval(interpreter, data);
+                        if (outcome != Interpreter.ABRUPT) {
+                            result = outcome;
+                        } else if (interpreter.exitLoop()) {
+                            break;
+                        }
+                    } catch (final JexlException.Break stmtBreak) {
+                        break;
+                    } catch (final JexlException.Continue stmtContinue) {
+                        //continue;
+                    }
+                }
+            } while (interpreter.testPredicate(conditionNode, condition.eval(interpreter, data)));
+            return interpreter.completion != null ? Interpreter.ABRUPT : result;
+        };
+    }
+
+    /**
+     * Compiles a foreach loop; the interpreter runs the loop over the compiled children.
+     *
+     * @param node the statement
+     * @return the evaluator
+     */
+    private Evaluator foreachStatement(final ASTForeachStatement node) {
+        final int count = node.jjtGetNumChildren();
+        final Evaluator[] code = new Evaluator[count];
+        // the loop variable of a 'for(x : ...)' is not evaluated
+        for (int c = node.getLoopForm() == 0 ? 1 : 0; c < count; ++c) {
+            code[c] = compile(node.jjtGetChild(c));
+        }
+        return (interpreter, data) -> interpreter.forEach(node, code, data);
+    }
+
+    /**
+     * Compiles a return statement.
+     *
+     * @param node the statement
+     * @return the evaluator
+     */
+    private Evaluator returnStatement(final ASTReturnStatement node) {
+        final Evaluator value = node.jjtGetNumChildren() == 1 ? compile(node.jjtGetChild(0)) : null;
+        final JexlNode parent = node.jjtGetParent();
+        // if return is last child of script, no need to complete abruptly
+        final boolean last = parent instanceof ASTJexlScript
+            && parent.jjtGetChild(parent.jjtGetNumChildren() - 1) == node;
+        return (interpreter, data) -> {
+            final Object val = value != null ? value.eval(interpreter, data) : null;
+            interpreter.cancelCheck(node);
+            if (last) {
+                return val;
+            }
+            return interpreter.complete(node, val);
+        };
+    }
+
+    /**
+     * Compiles a not operator.
+     *
+     * @param node the operator node
+     * @return the evaluator
+     */
+    private Evaluator not(final ASTNotNode node) {
+        final Evaluator operand = compile(node.jjtGetChild(0));
+        return (interpreter, data) -> {
+            final Object val = operand.eval(interpreter, data);
+            try {
+                final Object result = interpreter.tryOverload(node, JexlOperator.NOT, val);
+                return result != JexlEngine.TRY_FAILED ? result : interpreter.arithmetic.not(val);
+            } catch (final ArithmeticException xrt) {
+                throw new JexlException(node, "! error", xrt);
+            }
+        };
+    }
+
+    /**
+     * Compiles a short-circuit logical operator.
+     *
+     * @param check the fuse value that will stop evaluation, true for OR, false for AND
+     * @param node the operator node
+     * @return the evaluator
+     */
+    private Evaluator shortCircuit(final boolean check, final JexlNode node) {
+        final int count = node.jjtGetNumChildren();
+        final Evaluator[] operands = new Evaluator[count];
+        for (int c = 0; c < count; ++c) {
+            operands[c] = compile(node.jjtGetChild(c));
+        }
+        return (interpreter, data) -> {
+            Object argument = null;
+            boolean result = false;
+            for (final Evaluator operand : operands) {
+                argument = operand.eval(interpreter, data);
+                try {
+                    result = interpreter.arithmetic.toBoolean(argument);
+                    if (result == check) {
+                        break;
+                    }
+                } catch (final ArithmeticException xrt) {
+                    throw new JexlException(node.jjtGetChild(0), "boolean coercion error", xrt);
+                }
+            }
+            return interpreter.options.isBooleanLogical() ? result : argument;
+        };
+    }
+
+    /**
+     * Compiles a ternary or elvis operator.
+     *
+     * @param node the operator node
+     * @return the evaluator
+     */
+    private Evaluator ternary(final ASTTernaryNode node) {
+        final Evaluator predicate = compile(node.jjtGetChild(0));
+        final Evaluator first = compile(node.jjtGetChild(1));
+        final Evaluator second = node.jjtGetNumChildren() == 3 ? compile(node.jjtGetChild(2)) : null;
+        return (interpreter, data) -> {
+            Object condition;
+            try {
+                condition = predicate.eval(interpreter, data);
+            } catch (final JexlException xany) {
+                if (!(xany.getCause() instanceof JexlArithmetic.NullOperand)) {
+                    throw xany;
+                }
+                condition = null;
+            }
+            final boolean test = condition != null && interpreter.arithmetic.testPredicate(condition);
+            // ternary as in "x ? y : z"
+            if (second != null) {
+                return test ? first.eval(interpreter, data) : second.eval(interpreter, data);
+            }
+            // elvis as in "x ?: z"
+            return test ? condition : first.eval(interpreter, data);
+        };
+    }
+}
@@ -17,9 +17,13 @@
 package org.apache.commons.jexl3.internal;
 
 import java.lang.ref.SoftReference;
+import java.util.AbstractMap;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
 
 import org.apache.commons.jexl3.JexlCache;
 
@@ -39,6 +43,11 @@ import org.apache.commons.jexl3.JexlCache;
  *   to be several fold the cost of the cache handling; after some (synthetic) tests, measures indicate
  *   cache handling is a marginal latency factor.
  * </p>
+ * <p>
+ *   The cache collects statistics; when the GC reclaims the map, the loss is recorded as a collection
+ *   and notified to the eviction listener. Evictions are notified once the map lock is released, a listener
+ *   can not stall or deadlock other cache users.
+ * </p>
  *
  * @param <K> The cache key entry type
  * @param <V> The cache key value type
@@ -59,6 +68,19 @@ public class SoftCache<K, V> implements JexlCache<K, V> {
      * @param <V> value type
      */
     public static <K, V> Map<K, V> createSynchronizedLinkedHashMap(final int capacity) {
+        return createSynchronizedLinkedHashMap(capacity, null);
+    }
+
+    /**
+     * Creates a synchronized LinkedHashMap notifying evictions.
+     *
+     * @param capacity The map capacity
+     * @param onEviction The eviction callback, may be null
+     * @return The map instance
+     * @param <K> key type
+     * @param <V> value type
+     */
+    static <K, V> Map<K, V> createSynchronizedLinkedHashMap(final int capacity, final BiConsumer<K, V> onEviction) {
         return Collections.synchronizedMap(new java.util.LinkedHashMap<K, V>(capacity, LOAD_FACTOR, true) {
 
             /**
@@ -68,7 +90,13 @@ public class SoftCache<K, V> implements JexlCache<K, V> {
 
             @Override
             protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
-                return super.size() > capacity;
+                if (super.size() > capacity) {
+                    if (onEviction != null) {
+                        onEviction.accept(eldest.getKey(), eldest.getValue());
+                    }
+                    return true;
+                }
+                return false;
             }
         });
     }
@@ -83,6 +111,26 @@ public class SoftCache<K, V> implements JexlCache<K, V> {
      */
     protected volatile SoftReference<Map<K, V>> reference;
 
+    /**
+     * The statistics.
+     */
+    protected final CacheStatistics statistics = new CacheStatistics();
+
+    /**
+     * The eviction listener.
+     */
+    private volatile EvictionListener<? super K, ? super V> listener;
+
+    /**
+     * The map size as of the last put, used to estimate entries lost to the GC.
+     */
+    private volatile int lastSize;
+
+    /**
+     * The entries evicted under the map lock, pending notification.
+     */
+    private final Queue<Map.Entry<Object, Object>> pending = new ConcurrentLinkedQueue<>();
+
     /**
      * Creates a new instance of a soft cache.
      *
@@ -108,6 +156,7 @@ public class SoftCache<K, V> implements JexlCache<K, V> {
         final SoftReference<Map<K, V>> ref = reference;
         if (ref != null) {
             reference = null;
+            lastSize = 0;
             final Map<K, V> map = ref.get();
             if (map != null) {
                 map.clear();
@@ -124,7 +173,84 @@ public class SoftCache<K, V> implements JexlCache<K, V> {
      * @return A Map usable as a cache bounded to the given size
      */
     protected <KT, VT> Map<KT, VT> createMap(final int cacheSize) {
-        return createSynchronizedLinkedHashMap(cacheSize);
+        return createSynchronizedLinkedHashMap(cacheSize, this::deferEviction);
+    }
+
+    /**
+     * Records an entry evicted while the map lock is held; it is notified at the end of the put.
+     *
+     * @param key The evicted entry key
+     * @param value The evicted entry value
+     */
+    private void deferEviction(final Object key, final Object value) {
+        pending.add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+    }
+
+    /**
+     * Notifies the pending evictions.
+     */
+    private void notifyEvictions() {
+        Map.Entry<Object, Object> entry;
+        while ((entry = pending.poll()) != null) {
+            evicted(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Notifies an entry eviction.
+     * <p>Maps created by {@link #createMap(int)} should call this method when they evict an entry,
+     * outside of the map lock.</p>
+     *
+     * @param key The evicted entry key
+     * @param value The evicted entry value
+     */
+    @SuppressWarnings("unchecked")
+    protected void evicted(final Object key, final Object value) {
+        statistics.evicted();
+        final EvictionListener<? super K, ? super V> l = listener;
+        if (l != null) {
+            l.evicted((K) key, (V) value);
+        }
+    }
+
+    /**
+     * Gets the map if it was not reclaimed by the GC.
+     * <p>When the map was reclaimed, the collection is recorded and notified once.</p>
+     *
+     * @return The map or null
+     */
+    private Map<K, V> map() {
+        final SoftReference<Map<K, V>> ref = reference;
+        if (ref == null) {
+            return null;
+        }
+        final Map<K, V> map = ref.get();
+        if (map == null) {
+            collected(ref);
+        }
+        return map;
+    }
+
+    /**
+     * Records the GC reclaimed the map held by a reference.
+     *
+     * @param ref The cleared reference
+     */
+    private void collected(final SoftReference<Map<K, V>> ref) {
+        final int lost;
+        synchronized (this) {
+            if (reference != ref) {
+                return;
+            }
+            reference = null;
+            lost = lastSize;
+            lastSize = 0;
+        }
+        statistics.collected();
+        final EvictionListener<? super K, ? super V> l = listener;
+        if (l != null) {
+            l.collected(lost);
+        }
     }
 
     /**
@@ -132,8 +258,7 @@ public class SoftCache<K, V> implements JexlCache<K, V> {
      */
     @Override
     public Collection<Map.Entry<K, V>> entries() {
-        final SoftReference<Map<K, V>> ref = reference;
-        final Map<K, V> map = ref != null ? ref.get() : null;
+        final Map<K, V> map = map();
         return map == null? Collections.emptyList() : map.entrySet();
     }
 
@@ -142,9 +267,10 @@ public class SoftCache<K, V> implements JexlCache<K, V> {
      */
     @Override
     public V get(final K key) {
-        final SoftReference<Map<K, V>> ref = reference;
-        final Map<K, V> map = ref != null ? ref.get() : null;
-        return map != null ? map.get(key) : null;
+        final Map<K, V> map = map();
+        final V value = map != null ? map.get(key) : null;
+        statistics.lookup(value != null);
+        return value;
     }
 
     /**
@@ -152,19 +278,46 @@ public class SoftCache<K, V> implements JexlCache<K, V> {
      */
     @Override
     public V put(final K key, final V script) {
-        SoftReference<Map<K, V>> ref = reference;
-        Map<K, V> map = ref != null ? ref.get() : null;
+        Map<K, V> map = map();
         if (map == null) {
             synchronized (this) {
-                ref = reference;
-                map = ref != null ? ref.get() : null;
+                map = map();
                 if (map == null) {
                     map = createMap(capacity);
                     reference = new SoftReference<>(map);
                 }
             }
         }
-        return map.put(key, script);
+        final V previous = map.put(key, script);
+        lastSize = map.size();
+        // notify outside the lock
+        notifyEvictions();
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordLoad(final long nanos) {
+        statistics.loaded(nanos);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean setEvictionListener(final EvictionListener<? super K, ? super V> evictionListener) {
+        listener = evictionListener;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Statistics statistics() {
+        return statistics;
     }
 
     /**
@@ -172,8 +325,7 @@ public class SoftCache<K, V> implements JexlCache<K, V> {
      */
     @Override
     public int size() {
-        final SoftReference<Map<K, V>> ref = reference;
-        final Map<K, V> map = ref != null ? ref.get() : null;
+        final Map<K, V> map = map();
         return map != null ? map.size() : 0;
     }
 }
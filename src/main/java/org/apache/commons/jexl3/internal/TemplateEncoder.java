@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * The writer templates use to output bytes.
+ * <p>
+ * Characters are encoded through a buffer using the engine charset; template text encoded beforehand
+ * is written as bytes, skipping encoding altogether. Malformed or unmappable characters are replaced
+ * as an {@link java.io.OutputStreamWriter} would.
+ * </p>
+ * <p>This writer never closes the stream it writes to; {@link #finish()} ends the output.</p>
+ */
+final class TemplateEncoder extends Writer {
+    /** The buffers size. */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * An output stream writing into a byte buffer.
+     */
+    private static final class ByteBufferOutput extends OutputStream {
+        /** The buffer. */
+        private final ByteBuffer buffer;
+
+        /**
+         * Creates an output.
+         *
+         * @param target the buffer
+         */
+        ByteBufferOutput(final ByteBuffer target) {
+            buffer = target;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            buffer.put(b, off, len);
+        }
+
+        @Override
+        public void write(final int b) {
+            buffer.put((byte) b);
+        }
+    }
+
+    /**
+     * Creates an output stream writing into a byte buffer.
+     * <p>Writing past the buffer limit throws a {@link java.nio.BufferOverflowException}.</p>
+     *
+     * @param buffer the buffer
+     * @return the output stream
+     */
+    static OutputStream output(final ByteBuffer buffer) {
+        return new ByteBufferOutput(buffer);
+    }
+
+    /** The output. */
+    private final OutputStream out;
+
+    /** The charset. */
+    private final Charset charset;
+
+    /** The encoder. */
+    private final CharsetEncoder encoder;
+
+    /** The characters pending encoding. */
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+
+    /** The bytes pending output. */
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * Creates an encoder.
+     *
+     * @param output the output stream
+     * @param cs the charset
+     */
+    TemplateEncoder(final OutputStream output, final Charset cs) {
+        out = output;
+        charset = cs;
+        encoder = cs.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * @return the charset
+     */
+    Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Encodes the pending characters.
+     *
+     * @param endOfInput whether no more characters will follow
+     * @throws IOException if writing fails
+     */
+    private void encode(final boolean endOfInput) throws IOException {
+        chars.flip();
+        while (encoder.encode(chars, bytes, endOfInput).isOverflow()) {
+            flushBytes();
+        }
+        chars.compact();
+    }
+
+    /**
+     * Writes the pending bytes.
+     *
+     * @throws IOException if writing fails
+     */
+    private void flushBytes() throws IOException {
+        if (bytes.position() > 0) {
+            out.write(bytes.array(), 0, bytes.position());
+            bytes.clear();
+        }
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put((char) c);
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            final int n = Math.min(remaining, chars.remaining());
+            chars.put(cbuf, offset, n);
+            offset += n;
+            remaining -= n;
+        }
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            final int n = Math.min(remaining, chars.remaining());
+            str.getChars(offset, offset + n, chars.array(), chars.position());
+            chars.position(chars.position() + n);
+            offset += n;
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Encodes all the pending characters, ending the current input.
+     * <p>A pending high surrogate is replaced as a malformed input; the encoder is reset.</p>
+     *
+     * @throws IOException if writing fails
+     */
+    private void encodeAll() throws IOException {
+        encode(true);
+        while (encoder.flush(bytes).isOverflow()) {
+            flushBytes();
+        }
+        encoder.reset();
+    }
+
+    /**
+     * Writes bytes encoded with this writer charset.
+     * <p>The pending characters are all encoded first, a pending high surrogate can not pair with
+     * already encoded characters, so the output order is preserved.</p>
+     *
+     * @param encoded the bytes
+     * @throws IOException if writing fails
+     */
+    void write(final byte[] encoded) throws IOException {
+        if (chars.position() > 0) {
+            encodeAll();
+        }
+        if (encoded.length <= bytes.remaining()) {
+            bytes.put(encoded);
+        } else {
+            flushBytes();
+            out.write(encoded);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        encode(false);
+        flushBytes();
+        out.flush();
+    }
+
+    /**
+     * Ends the output, encoding and writing all pending characters.
+     * <p>The encoder is reset and the writer can be used again.</p>
+     *
+     * @throws IOException if writing fails
+     */
+    void finish() throws IOException {
+        encodeAll();
+        flushBytes();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
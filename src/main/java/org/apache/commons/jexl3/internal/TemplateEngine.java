@@ -227,6 +227,9 @@ public final class TemplateEngine extends JxltEngine {
         /** The constant held by this unified expression. */
         private final Object value;
 
+        /** The constant text encoded with the engine charset, null until encoded. */
+        private volatile byte[] encoded;
+
         /**
          * Creates a constant unified expression.
          *
@@ -249,6 +252,21 @@ public final class TemplateEngine extends JxltEngine {
             return strb;
         }
 
+        /**
+         * Gets the constant text encoded with the engine charset.
+         * <p>The encoding is performed once, the first time this method is called.</p>
+         *
+         * @return the bytes or null if the constant is not a string
+         */
+        byte[] getEncoded() {
+            byte[] bytes = encoded;
+            if (bytes == null && value instanceof String) {
+                bytes = ((String) value).getBytes(jexl.getCharset());
+                encoded = bytes;
+            }
+            return bytes;
+        }
+
         @Override
         protected Object evaluate(final Interpreter interpreter) {
             return value;
@@ -874,6 +892,9 @@ public final class TemplateEngine extends JxltEngine {
     /** Whether expressions can use JEXL script or only expressions (i.e., no for, var, etc). */
     final boolean noscript;
 
+    /** The printer used by templates. */
+    final TemplatePrinter printer;
+
     /**
      * Creates a new instance of {@link JxltEngine} creating a local cache.
      *
@@ -894,6 +915,7 @@ public final class TemplateEngine extends JxltEngine {
         immediateChar = immediate;
         deferredChar = deferred;
         noscript = noScript;
+        printer = new TemplatePrinter(jexl.getUberspect());
     }
 
     /**
@@ -906,6 +928,27 @@ public final class TemplateEngine extends JxltEngine {
         }
     }
 
+    @Override
+    public JexlCache.Statistics getCacheStatistics() {
+        return cache != null ? cache.statistics() : null;
+    }
+
+    @Override
+    public boolean setCacheEvictionListener(final JexlCache.EvictionListener<Object, Object> listener) {
+        return cache != null && cache.setEvictionListener(listener);
+    }
+
+    @Override
+    public JxltEngine.Formatter getFormatter() {
+        return printer.getFormatter();
+    }
+
+    @Override
+    public boolean setFormatter(final JxltEngine.Formatter formatter) {
+        printer.setFormatter(formatter);
+        return true;
+    }
+
     @Override
     public JxltEngine.Expression createExpression(final JexlInfo jexlInfo, final String expression) {
         return createExpression(jexlInfo, expression, null);
@@ -929,7 +972,9 @@ public final class TemplateEngine extends JxltEngine {
                 if (stmt != null) {
                     return stmt;
                 }
+                final long start = System.nanoTime();
                 stmt = parseExpression(info, expression, scope);
+                cache.recordLoad(System.nanoTime() - start);
                 cache.put(source, stmt);
             }
         } catch (final JexlException xjexl) {
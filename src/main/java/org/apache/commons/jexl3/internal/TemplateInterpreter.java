@@ -24,8 +24,6 @@ import org.apache.commons.jexl3.JexlInfo;
 import org.apache.commons.jexl3.JexlOptions;
 import org.apache.commons.jexl3.JxltEngine;
 import org.apache.commons.jexl3.internal.TemplateEngine.TemplateExpression;
-import org.apache.commons.jexl3.introspection.JexlMethod;
-import org.apache.commons.jexl3.introspection.JexlUberspect;
 import org.apache.commons.jexl3.parser.ASTArguments;
 import org.apache.commons.jexl3.parser.ASTFunctionNode;
 import org.apache.commons.jexl3.parser.ASTIdentifier;
@@ -62,6 +60,9 @@ public class TemplateInterpreter extends Interpreter {
         /** The writer. */
         Writer out;
 
+        /** The printer. */
+        TemplatePrinter printer;
+
         /**
          * Sole ctor.
          *
@@ -115,6 +116,17 @@ public class TemplateInterpreter extends Interpreter {
             return this;
         }
 
+        /**
+         * Sets the printer.
+         *
+         * @param p The printer
+         * @return {@code this} instance
+         */
+        Arguments printer(final TemplatePrinter p) {
+            this.printer = p;
+            return this;
+        }
+
         /**
          * Sets the writer.
          *
@@ -133,6 +145,15 @@ public class TemplateInterpreter extends Interpreter {
     /** The writer used to output. */
     final Writer writer;
 
+    /** The printer used to output values, null if there is no writer. */
+    final TemplatePrinter printer;
+
+    /** The writer as an encoder using the engine charset, null if the output is not encoded. */
+    private final TemplateEncoder encoder;
+
+    /** The buffer used to print integral numbers, created on first use. */
+    private char[] digits;
+
     /**
      * Creates a template interpreter instance.
      *
@@ -142,14 +163,20 @@ public class TemplateInterpreter extends Interpreter {
         super(args.jexl, args.options, args.jcontext, args.jframe);
         exprs = args.expressions;
         writer = args.out;
+        printer = args.printer != null || writer == null ? args.printer : new TemplatePrinter(uberspect);
+        encoder = writer instanceof TemplateEncoder && ((TemplateEncoder) writer).getCharset().equals(jexl.getCharset())
+            ? (TemplateEncoder) writer
+            : null;
         block = new LexicalFrame(frame, null);
     }
 
     /**
      * Prints to output.
      * <p>
-     * This will dynamically try to find the best suitable method in the writer through uberspection.
-     * Subclassing Writer by adding 'print' methods should be the preferred way to specialize output.
+     * This will try to find the best suitable method in the writer through uberspection, the
+     * method being cached per writer and value classes.
+     * Subclassing Writer by adding 'print' methods should be the preferred way to specialize output;
+     * setting a formatter on the template engine is the way to format values independently of the writer.
      * </p>
      *
      * @param info The source info
@@ -158,18 +185,10 @@ public class TemplateInterpreter extends Interpreter {
     private void doPrint(final JexlInfo info, final Object arg) {
         try {
             if (writer != null) {
-                if (arg instanceof CharSequence) {
-                    writer.write(arg.toString());
-                } else if (arg != null) {
-                    final Object[] value = {arg};
-                    final JexlUberspect uber = jexl.getUberspect();
-                    final JexlMethod method = uber.getMethod(writer, "print", value);
-                    if (method != null) {
-                        method.invoke(writer, value);
-                    } else {
-                        writer.write(arg.toString());
-                    }
+                if (digits == null) {
+                    digits = TemplatePrinter.digits();
                 }
+                printer.print(writer, arg, digits);
             }
         } catch (final java.io.IOException xio) {
             throw TemplateEngine.createException(info, "call print", null, xio);
@@ -205,11 +224,35 @@ public class TemplateInterpreter extends Interpreter {
         }
         if (expr instanceof TemplateEngine.CompositeExpression) {
             printComposite((TemplateEngine.CompositeExpression) expr);
-        } else {
+        } else if (!printEncoded(expr)) {
             doPrint(expr.getInfo(), expr.evaluate(this));
         }
     }
 
+    /**
+     * Prints a constant expression as bytes when the output is encoded.
+     * <p>The constant text is only encoded once; no formatter must be set since it could alter the text.</p>
+     *
+     * @param expr The expression
+     * @return true if the expression was printed, false otherwise
+     */
+    private boolean printEncoded(final TemplateExpression expr) {
+        if (encoder != null
+            && expr instanceof TemplateEngine.ConstantExpression
+            && printer.getFormatter() == null) {
+            final byte[] bytes = ((TemplateEngine.ConstantExpression) expr).getEncoded();
+            if (bytes != null) {
+                try {
+                    encoder.write(bytes);
+                } catch (final java.io.IOException xio) {
+                    throw TemplateEngine.createException(expr.getInfo(), "call print", null, xio);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Prints a composite expression.
      *
@@ -219,8 +262,10 @@ public class TemplateInterpreter extends Interpreter {
         final TemplateEngine.TemplateExpression[] composites = composite.exprs;
         Object value;
         for (final TemplateExpression expr : composites) {
-            value = expr.evaluate(this);
-            doPrint(expr.getInfo(), value);
+            if (!printEncoded(expr)) {
+                value = expr.evaluate(this);
+                doPrint(expr.getInfo(), value);
+            }
         }
     }
 
@@ -291,7 +336,8 @@ public class TemplateInterpreter extends Interpreter {
                         .options(options)
                         .frame(local)
                         .expressions(exprs)
-                        .writer(writer);
+                        .writer(writer)
+                        .printer(printer);
                     return jexl.createTemplateInterpreter(targs);
                 }
             };
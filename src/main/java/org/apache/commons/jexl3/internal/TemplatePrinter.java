@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import java.io.Writer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.jexl3.JxltEngine;
+import org.apache.commons.jexl3.introspection.JexlMethod;
+import org.apache.commons.jexl3.introspection.JexlUberspect;
+
+/**
+ * Prints the values templates output to their writer.
+ * <p>
+ * The 'print' method a writer class declares for a value class is resolved once through the uberspect
+ * and cached per writer and value classes. Values without such method are written as text directly;
+ * integral numbers and characters are written without creating an intermediate string.
+ * </p>
+ * <p>
+ * An optional formatter takes precedence over both. The cached methods are dropped when the uberspect
+ * class loader changes.
+ * </p>
+ */
+final class TemplatePrinter {
+    /** Marker for a value class that has no print method in a writer class. */
+    private static final Object NO_METHOD = new Object();
+
+    /** The maximum number of chars in a long decimal representation. */
+    private static final int LONG_DIGITS = 20;
+
+    /** The uberspect resolving print methods. */
+    private final JexlUberspect uberspect;
+
+    /** The print methods per writer class, per value class. */
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Object>> methods = new ConcurrentHashMap<>();
+
+    /** The uberspect version the cached methods were resolved with. */
+    private volatile int version;
+
+    /** The formatter, may be null. */
+    private volatile JxltEngine.Formatter formatter;
+
+    /**
+     * Creates a printer.
+     *
+     * @param uber the uberspect
+     */
+    TemplatePrinter(final JexlUberspect uber) {
+        uberspect = uber;
+        version = uber.getVersion();
+    }
+
+    /**
+     * @return the formatter, null if none
+     */
+    JxltEngine.Formatter getFormatter() {
+        return formatter;
+    }
+
+    /**
+     * Sets the formatter.
+     *
+     * @param f the formatter, null if none
+     */
+    void setFormatter(final JxltEngine.Formatter f) {
+        formatter = f;
+    }
+
+    /**
+     * Gets the print method of a writer for a value.
+     *
+     * @param writer the writer
+     * @param value the value, not null
+     * @return the method or null if the writer has no print method for the value
+     */
+    JexlMethod getMethod(final Writer writer, final Object value) {
+        final int uberVersion = uberspect.getVersion();
+        if (version != uberVersion) {
+            methods.clear();
+            version = uberVersion;
+        }
+        final Class<?> wclass = writer.getClass();
+        ConcurrentMap<Class<?>, Object> wmethods = methods.get(wclass);
+        if (wmethods == null) {
+            wmethods = new ConcurrentHashMap<>();
+            final ConcurrentMap<Class<?>, Object> previous = methods.putIfAbsent(wclass, wmethods);
+            if (previous != null) {
+                wmethods = previous;
+            }
+        }
+        final Class<?> vclass = value.getClass();
+        Object method = wmethods.get(vclass);
+        if (method == null) {
+            final JexlMethod jm = uberspect.getMethod(writer, "print", value);
+            method = jm != null ? jm : NO_METHOD;
+            wmethods.put(vclass, method);
+        }
+        return method != NO_METHOD ? (JexlMethod) method : null;
+    }
+
+    /**
+     * Prints a value.
+     *
+     * @param writer the writer
+     * @param value the value
+     * @param digits a buffer to format integral numbers, at least 20 chars long
+     * @throws Exception if writing or invoking a print method fails
+     */
+    void print(final Writer writer, final Object value, final char[] digits) throws Exception {
+        final JxltEngine.Formatter f = formatter;
+        if (f != null) {
+            final CharSequence text = f.format(value);
+            if (text != null) {
+                writer.append(text);
+                return;
+            }
+        }
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String) {
+            writer.write((String) value);
+            return;
+        }
+        if (value instanceof CharSequence) {
+            writer.append((CharSequence) value);
+            return;
+        }
+        final JexlMethod method = getMethod(writer, value);
+        if (method != null) {
+            method.invoke(writer, value);
+        } else if (value instanceof Integer || value instanceof Long
+                   || value instanceof Short || value instanceof Byte) {
+            writeLong(writer, ((Number) value).longValue(), digits);
+        } else if (value instanceof Character) {
+            writer.write((Character) value);
+        } else {
+            writer.write(value.toString());
+        }
+    }
+
+    /**
+     * Writes the decimal representation of a long.
+     *
+     * @param writer the writer
+     * @param value the value
+     * @param digits the buffer
+     * @throws java.io.IOException if writing fails
+     */
+    static void writeLong(final Writer writer, final long value, final char[] digits) throws java.io.IOException {
+        if (value == Long.MIN_VALUE) {
+            writer.write(Long.toString(value));
+            return;
+        }
+        long v = value < 0 ? -value : value;
+        int pos = LONG_DIGITS;
+        do {
+            digits[--pos] = (char) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        if (value < 0) {
+            digits[--pos] = '-';
+        }
+        writer.write(digits, pos, LONG_DIGITS - pos);
+    }
+
+    /**
+     * @return a buffer suitable for {@link #print(Writer, Object, char[])}
+     */
+    static char[] digits() {
+        return new char[LONG_DIGITS];
+    }
+}
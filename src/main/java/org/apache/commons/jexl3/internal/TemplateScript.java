@@ -16,8 +16,11 @@
  */
 package org.apache.commons.jexl3.internal;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +35,8 @@ import org.apache.commons.jexl3.JexlOptions;
 import org.apache.commons.jexl3.JxltEngine;
 import org.apache.commons.jexl3.internal.TemplateEngine.Block;
 import org.apache.commons.jexl3.internal.TemplateEngine.BlockType;
+import org.apache.commons.jexl3.internal.TemplateEngine.CompositeExpression;
+import org.apache.commons.jexl3.internal.TemplateEngine.ConstantExpression;
 import org.apache.commons.jexl3.internal.TemplateEngine.TemplateExpression;
 import org.apache.commons.jexl3.parser.ASTArguments;
 import org.apache.commons.jexl3.parser.ASTFunctionNode;
@@ -123,6 +128,21 @@ public final class TemplateScript implements JxltEngine.Template {
         return expressions;
     }
 
+    /**
+     * Encodes the constant text of expressions so it can be output as bytes.
+     *
+     * @param expressions The expressions
+     */
+    private static void encodeConstants(final TemplateExpression[] expressions) {
+        for (final TemplateExpression expr : expressions) {
+            if (expr instanceof ConstantExpression) {
+                ((ConstantExpression) expr).getEncoded();
+            } else if (expr instanceof CompositeExpression) {
+                encodeConstants(((CompositeExpression) expr).exprs);
+            }
+        }
+    }
+
     /**
      * Creates the script calling the list of blocks.
      * <p>This is used to create a script from a list of blocks
@@ -230,6 +250,7 @@ public final class TemplateScript implements JxltEngine.Template {
             collectPrintScope(callerScript.script(), callSites);
             // create the expressions from the blocks
             this.exprs = calleeScripts(scope, blocks, callSites);
+            encodeConstants(exprs);
             this.script = callerScript;
             this.source = blocks;
         } finally {
@@ -256,6 +277,7 @@ public final class TemplateScript implements JxltEngine.Template {
         source = theSource;
         script = theScript;
         exprs = theExprs;
+        encodeConstants(exprs);
     }
 
     @Override
@@ -289,11 +311,38 @@ public final class TemplateScript implements JxltEngine.Template {
                 .options(options)
                 .frame(frame)
                 .expressions(exprs)
-                .writer(writer);
+                .writer(writer)
+                .printer(jxlt.printer);
         final Interpreter interpreter = jexl.createTemplateInterpreter(targs);
         interpreter.interpret(script);
     }
 
+    @Override
+    public void evaluateBytes(final JexlContext context, final OutputStream out) {
+        evaluateBytes(context, out, (Object[]) null);
+    }
+
+    @Override
+    public void evaluateBytes(final JexlContext context, final OutputStream out, final Object... args) {
+        final TemplateEncoder encoder = new TemplateEncoder(out, jxlt.getEngine().getCharset());
+        evaluate(context, encoder, args);
+        try {
+            encoder.finish();
+        } catch (final IOException xio) {
+            throw TemplateEngine.createException(script.jexlInfo(), "flush", null, xio);
+        }
+    }
+
+    @Override
+    public void evaluateBytes(final JexlContext context, final ByteBuffer buffer) {
+        evaluateBytes(context, buffer, (Object[]) null);
+    }
+
+    @Override
+    public void evaluateBytes(final JexlContext context, final ByteBuffer buffer, final Object... args) {
+        evaluateBytes(context, TemplateEncoder.output(buffer), args);
+    }
+
     /**
      * @return exprs
      */
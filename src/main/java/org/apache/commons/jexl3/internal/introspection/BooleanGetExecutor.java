@@ -40,7 +40,7 @@ public final class BooleanGetExecutor extends AbstractExecutor.Get {
         if (property != null && !property.isEmpty()) {
             final java.lang.reflect.Method m = PropertyGetExecutor.discoverGet(is, "is", clazz, property);
             if (m != null && (m.getReturnType() == Boolean.TYPE || m.getReturnType() == Boolean.class)) {
-                return new BooleanGetExecutor(clazz, m, property);
+                return new BooleanGetExecutor(clazz, m, property, is.getInvoker(clazz, m));
             }
         }
         return null;
@@ -49,16 +49,22 @@ public final class BooleanGetExecutor extends AbstractExecutor.Get {
     /** The property. */
     private final String property;
 
+    /** The method handle invoker, null if the method is invoked through reflection. */
+    private final Invoker invoker;
+
     /**
      * Creates an instance by attempting discovery of the get method.
      *
      * @param clazz The class to introspect
      * @param method The method held by this executor
      * @param key The property to get
+     * @param theInvoker The method invoker, may be null
      */
-    private BooleanGetExecutor(final Class<?> clazz, final java.lang.reflect.Method method, final String key) {
+    private BooleanGetExecutor(final Class<?> clazz, final java.lang.reflect.Method method, final String key,
+                               final Invoker theInvoker) {
         super(clazz, method);
         property = key;
+        invoker = theInvoker;
     }
 
     @Override
@@ -68,7 +74,10 @@ public final class BooleanGetExecutor extends AbstractExecutor.Get {
 
     @Override
     public Object invoke(final Object obj) throws IllegalAccessException, InvocationTargetException {
-        return method == null ? null : method.invoke(obj, (Object[]) null);
+        if (method == null) {
+            return null;
+        }
+        return invoker != null ? invoker.get(obj) : method.invoke(obj, (Object[]) null);
     }
 
     @Override
@@ -78,7 +87,7 @@ public final class BooleanGetExecutor extends AbstractExecutor.Get {
             && property.equals(key)
             && objectClass.equals(obj.getClass())) {
             try {
-                return method.invoke(obj, (Object[]) null);
+                return invoke(obj);
             } catch (final IllegalAccessException xill) {
                 return TRY_FAILED; // fail
             } catch (final InvocationTargetException xinvoke) {
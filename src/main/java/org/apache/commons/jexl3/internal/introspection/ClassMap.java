@@ -17,6 +17,7 @@
 package org.apache.commons.jexl3.internal.introspection;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.AbstractMap;
@@ -24,10 +25,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 import org.apache.commons.jexl3.introspection.JexlPermissions;
 import org.apache.commons.logging.Log;
@@ -39,6 +43,10 @@ import org.apache.commons.logging.Log;
  * <p>
  * Originally taken from the Velocity tree so we can be self-sufficient.
  * </p>
+ * <p>
+ * A map is either eager, introspecting all the methods and fields of the class when created, or lazy,
+ * introspecting and checking permissions of methods and fields by name the first time they are requested.
+ * </p>
  *
  * @see MethodKey
  * @since 1.0
@@ -50,6 +58,11 @@ final class ClassMap {
      */
     static final Method CACHE_MISS = cacheMiss();
 
+    /**
+     * The cache miss marker field.
+     */
+    static final Field FIELD_MISS = fieldMiss();
+
     /**
      * Singleton for permissions non-allowed classes.
      */
@@ -70,6 +83,20 @@ final class ClassMap {
         }
     }
 
+    /**
+     * A field used as a marker for cache miss, allows the lazy field map to be strongly typed.
+     *
+     * @return the FIELD_MISS field
+     */
+    private static Field fieldMiss() {
+        try {
+            return ClassMap.class.getDeclaredField("FIELD_MISS");
+        } catch (final NoSuchFieldException xany) {
+            // this really can't make an error...
+            return null;
+        }
+    }
+
     /**
      * Populate the Map of direct hits. These are taken from all the public methods
      * that our class, its parents and their implemented interfaces provide.
@@ -80,23 +107,7 @@ final class ClassMap {
      * @param log            The Log
      */
     private static void create(final ClassMap cache, final JexlPermissions permissions, final Class<?> clazz, final Log log) {
-        //
-        // Build a list of all elements in the class hierarchy. This one is bottom-first; we start
-        // with the actual declaring class and its interfaces and then move up (superclass etc.) until we
-        // hit java.lang.Object. That is important because it will give us the methods of the declaring class
-        // which might in turn be abstract further up the tree.
-        //
-        // We also ignore all SecurityExceptions that might happen due to SecurityManager restrictions.
-        //
-        for (Class<?> superz = clazz; superz != null; superz = superz.getSuperclass()) {
-            if (Modifier.isPublic(superz.getModifiers()) && ClassTool.isExported(superz)) {
-                populateWithClass(clazz, cache, permissions, superz, log);
-            }
-            final Class<?>[] interfaces = superz.getInterfaces();
-            for (final Class<?> anInterface : interfaces) {
-                populateWithInterface(clazz, cache, permissions, anInterface, log);
-            }
-        }
+        walk(clazz, log, mi -> register(cache.byKey, permissions, clazz, mi, log));
         // now that we've got all methods keyed in, lets organize them by name
         if (!cache.byKey.isEmpty()) {
             final List<Method> lm = new ArrayList<>(cache.byKey.values());
@@ -121,6 +132,53 @@ final class ClassMap {
         }
     }
 
+    /**
+     * Visits the public methods that a class, its parents and their implemented interfaces provide.
+     * <p>
+     * The walk is bottom-first; we start with the actual declaring class and its interfaces and then move up
+     * (superclass etc.) until we hit java.lang.Object. That is important because it will give us the methods
+     * of the declaring class which might in turn be abstract further up the tree.
+     * </p>
+     * <p>We also ignore all SecurityExceptions that might happen due to SecurityManager restrictions.</p>
+     *
+     * @param clazz   The class to walk
+     * @param log     The Log
+     * @param visitor The method visitor
+     */
+    private static void walk(final Class<?> clazz, final Log log, final Consumer<Method> visitor) {
+        for (Class<?> superz = clazz; superz != null; superz = superz.getSuperclass()) {
+            if (Modifier.isPublic(superz.getModifiers()) && ClassTool.isExported(superz)) {
+                walkClass(superz, log, visitor);
+            }
+            final Class<?>[] interfaces = superz.getInterfaces();
+            for (final Class<?> anInterface : interfaces) {
+                walkInterface(anInterface, log, visitor);
+            }
+        }
+    }
+
+    /**
+     * Registers a method in a map keyed by method keys; does not override.
+     *
+     * @param byKey       The map to fill
+     * @param permissions The permissions to apply during introspection
+     * @param source      The introspected class
+     * @param mi          The method
+     * @param log         The Log
+     */
+    private static void register(final Map<MethodKey, Method> byKey,
+                                 final JexlPermissions permissions,
+                                 final Class<?> source,
+                                 final Method mi,
+                                 final Log log) {
+        final MethodKey key = new MethodKey(mi);
+        final Method pmi = byKey.putIfAbsent(key, permissions.allow(source, mi) ? mi : CACHE_MISS);
+        if (pmi != null && pmi != CACHE_MISS && log.isDebugEnabled() && !key.equals(new MethodKey(pmi))) {
+            // foo(int) and foo(Integer) have the same signature for JEXL
+            log.debug("Method " + pmi + " is already registered, key: " + key.debugString());
+        }
+    }
+
     /**
      * @return The empty classmap instance
      */
@@ -129,30 +187,19 @@ final class ClassMap {
     }
 
     /**
-     * Recurses up class hierarchy to get all super classes.
+     * Visits the public methods declared by a class.
      *
-     * @param cache       The cache to fill
-     * @param permissions The permissions to apply during introspection
-     * @param clazz       The class to populate the cache from
-     * @param log         The Log
+     * @param clazz   The class
+     * @param log     The Log
+     * @param visitor The method visitor
      */
-    private static void populateWithClass(final Class<?> source, final ClassMap cache,
-                                          final JexlPermissions permissions,
-                                          final Class<?> clazz,
-                                          final Log log) {
+    private static void walkClass(final Class<?> clazz, final Log log, final Consumer<Method> visitor) {
         try {
             final Method[] methods = clazz.getDeclaredMethods();
             for (final Method mi : methods) {
                 // method must be public
-                if (!Modifier.isPublic(mi.getModifiers())) {
-                    continue;
-                }
-                // add method to byKey cache; do not override
-                final MethodKey key = new MethodKey(mi);
-                final Method pmi = cache.byKey.putIfAbsent(key, permissions.allow(source, mi) ? mi : CACHE_MISS);
-                if (pmi != null && pmi != CACHE_MISS && log.isDebugEnabled() && !key.equals(new MethodKey(pmi))) {
-                    // foo(int) and foo(Integer) have the same signature for JEXL
-                    log.debug("Method " + pmi + " is already registered, key: " + key.debugString());
+                if (Modifier.isPublic(mi.getModifiers())) {
+                    visitor.accept(mi);
                 }
             }
         } catch (final SecurityException se) {
@@ -164,22 +211,18 @@ final class ClassMap {
     }
 
     /**
-     * Recurses up interface hierarchy to get all super interfaces.
+     * Recurses up interface hierarchy to visit all super interfaces methods.
      *
-     * @param cache       The cache to fill
-     * @param permissions The permissions to apply during introspection
-     * @param iface       The interface to populate the cache from
-     * @param log         The Log
+     * @param iface   The interface
+     * @param log     The Log
+     * @param visitor The method visitor
      */
-    private static void populateWithInterface(final Class<?> source, final ClassMap cache,
-                                              final JexlPermissions permissions,
-                                              final Class<?> iface,
-                                              final Log log) {
+    private static void walkInterface(final Class<?> iface, final Log log, final Consumer<Method> visitor) {
         if (Modifier.isPublic(iface.getModifiers())) {
-            populateWithClass(source, cache, permissions, iface, log);
+            walkClass(iface, log, visitor);
             final Class<?>[] supers = iface.getInterfaces();
             for (final Class<?> aSuper : supers) {
-                populateWithInterface(source, cache, permissions, aSuper, log);
+                walkInterface(aSuper, log, visitor);
             }
         }
     }
@@ -201,7 +244,7 @@ final class ClassMap {
     private final Map<MethodKey, Method> byKey ;
 
     /**
-     * Keep track of all methods with the same name; this is not modified after creation.
+     * Keep track of all methods with the same name; this is not modified after creation unless lazy.
      */
     private final Map<String, Method[]> byName;
 
@@ -210,6 +253,26 @@ final class ClassMap {
      */
     private final Map<String, Field> fieldCache;
 
+    /**
+     * The class whose members are introspected on demand; null when the map is eager.
+     */
+    private final Class<?> lazyClass;
+
+    /**
+     * The permissions applied to lazily introspected members.
+     */
+    private final JexlPermissions permissions;
+
+    /**
+     * The logger used when lazily introspecting members.
+     */
+    private final Log log;
+
+    /**
+     * Cache of invokers, populated on demand; null for the empty map.
+     */
+    private final Map<Member, Invoker> invokers;
+
     /**
      * Empty map.
      */
@@ -229,6 +292,10 @@ final class ClassMap {
         });
         this.byName = Collections.emptyMap();
         this.fieldCache = Collections.emptyMap();
+        this.invokers = null;
+        this.lazyClass = null;
+        this.permissions = null;
+        this.log = null;
     }
 
     /**
@@ -238,10 +305,34 @@ final class ClassMap {
      * @param permissions The permissions to apply during introspection
      * @param log         The logger.
      */
-    @SuppressWarnings("LeakingThisInConstructor")
     ClassMap(final Class<?> aClass, final JexlPermissions permissions, final Log log) {
+        this(aClass, permissions, log, false);
+    }
+
+    /**
+     * Creates an eager or lazy map.
+     *
+     * @param aClass      The class to deconstruct.
+     * @param permissions The permissions to apply during introspection
+     * @param log         The logger.
+     * @param lazy        Whether methods and fields are introspected by name on first request
+     */
+    @SuppressWarnings("LeakingThisInConstructor")
+    ClassMap(final Class<?> aClass, final JexlPermissions permissions, final Log log, final boolean lazy) {
         this.byKey = new ConcurrentHashMap<>();
+        this.invokers = new ConcurrentHashMap<>();
+        if (lazy) {
+            this.byName = new ConcurrentHashMap<>();
+            this.fieldCache = new ConcurrentHashMap<>();
+            this.lazyClass = aClass;
+            this.permissions = permissions;
+            this.log = log;
+            return;
+        }
         this.byName = new HashMap<>();
+        this.lazyClass = null;
+        this.permissions = null;
+        this.log = null;
         // eagerly cache methods
         create(this, permissions, aClass, log);
         // eagerly cache public fields
@@ -266,7 +357,44 @@ final class ClassMap {
      * @return A Field object representing the field to invoke or null.
      */
     Field getField(final String fieldName) {
-        return fieldCache.get(fieldName);
+        Field field = fieldCache.get(fieldName);
+        if (field == null && lazyClass != null) {
+            try {
+                field = lazyClass.getField(fieldName);
+                if (!permissions.allow(lazyClass, field)) {
+                    field = FIELD_MISS;
+                }
+            } catch (final NoSuchFieldException | SecurityException xany) {
+                field = FIELD_MISS;
+            }
+            fieldCache.put(fieldName, field);
+        }
+        return field == FIELD_MISS ? null : field;
+    }
+
+    /**
+     * Gets the invoker of a member of this map class.
+     * <p>The method handle is resolved once per member; members that can not be
+     * invoked through a handle are cached as {@link Invoker#NONE}.</p>
+     *
+     * @param member the method, constructor or field
+     * @return the invoker or null if the member must be invoked through reflection
+     */
+    Invoker getInvoker(final Member member) {
+        Invoker invoker;
+        if (invokers == null) {
+            invoker = Invoker.create(member);
+        } else {
+            invoker = invokers.get(member);
+            if (invoker == null) {
+                invoker = Invoker.create(member);
+                final Invoker previous = invokers.putIfAbsent(member, invoker);
+                if (previous != null) {
+                    invoker = previous;
+                }
+            }
+        }
+        return invoker == Invoker.NONE ? null : invoker;
     }
 
     /**
@@ -275,6 +403,15 @@ final class ClassMap {
      * @return The array of field names
      */
     String[] getFieldNames() {
+        if (lazyClass != null) {
+            final Set<String> names = new LinkedHashSet<>();
+            for (final Field field : lazyClass.getFields()) {
+                if (getField(field.getName()) != null) {
+                    names.add(field.getName());
+                }
+            }
+            return names.toArray(new String[0]);
+        }
         return fieldCache.keySet().toArray(new String[0]);
     }
 
@@ -302,6 +439,14 @@ final class ClassMap {
         if (cacheEntry == CACHE_MISS) {
             return null;
         }
+        if (cacheEntry == null && lazyClass != null && !byName.containsKey(methodKey.getMethod())) {
+            // introspect the methods of that name, the key might be one of them
+            resolve(methodKey.getMethod());
+            cacheEntry = byKey.get(methodKey);
+            if (cacheEntry == CACHE_MISS) {
+                return null;
+            }
+        }
         if (cacheEntry == null) {
             try {
                 // That one is expensive...
@@ -327,6 +472,12 @@ final class ClassMap {
      * @return The array of method names
      */
     String[] getMethodNames() {
+        if (lazyClass != null) {
+            final Set<String> names = new LinkedHashSet<>();
+            walk(lazyClass, log, mi -> names.add(mi.getName()));
+            names.removeIf(name -> getMethods(name) == null);
+            return names.toArray(new String[0]);
+        }
         return byName.keySet().toArray(new String[0]);
     }
 
@@ -337,10 +488,44 @@ final class ClassMap {
      * @return The array of methods (null or non-empty)
      */
     Method[] getMethods(final String methodName) {
-        final Method[] lm = byName.get(methodName);
+        if (methodName == null) {
+            return null;
+        }
+        Method[] lm = byName.get(methodName);
+        if (lm == null && lazyClass != null) {
+            lm = resolve(methodName);
+        }
         if (lm != null && lm.length > 0) {
             return lm.clone();
         }
         return null;
     }
+
+    /**
+     * Introspects the methods of a given name of a lazy map.
+     * <p>The methods are keyed the same way an eager map would; concurrent resolutions of a name
+     * register the same methods.</p>
+     *
+     * @param methodName The method name
+     * @return The allowed methods of that name, possibly empty
+     */
+    private Method[] resolve(final String methodName) {
+        final Map<MethodKey, Method> keyed = new LinkedHashMap<>();
+        walk(lazyClass, log, mi -> {
+            if (methodName.equals(mi.getName())) {
+                register(keyed, permissions, lazyClass, mi, log);
+            }
+        });
+        final List<Method> allowed = new ArrayList<>(keyed.size());
+        for (final Map.Entry<MethodKey, Method> entry : keyed.entrySet()) {
+            final Method mi = entry.getValue();
+            byKey.putIfAbsent(entry.getKey(), mi);
+            if (mi != CACHE_MISS) {
+                allowed.add(mi);
+            }
+        }
+        final Method[] lmn = allowed.toArray(new Method[0]);
+        final Method[] previous = byName.putIfAbsent(methodName, lmn);
+        return previous != null ? previous : lmn;
+    }
 }
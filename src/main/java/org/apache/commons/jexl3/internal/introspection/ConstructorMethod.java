@@ -49,7 +49,7 @@ public final class ConstructorMethod implements JexlMethod {
         }
         final Constructor<?> ctor = is.getConstructor(clazz, new MethodKey(className, args));
         if (ctor != null) {
-            return new ConstructorMethod(ctor);
+            return new ConstructorMethod(ctor, is.getInvoker(ctor.getDeclaringClass(), ctor));
         }
         return null;
     }
@@ -57,13 +57,32 @@ public final class ConstructorMethod implements JexlMethod {
     /** The wrapped constructor. */
     private final Constructor<?> ctor;
 
+    /** The method handle invoker, null if the constructor is invoked through reflection. */
+    private final Invoker invoker;
+
     /**
      * Creates a constructor method.
      *
      * @param theCtor The constructor to wrap
+     * @param theInvoker The constructor invoker, may be null
      */
-    ConstructorMethod(final Constructor<?> theCtor) {
+    ConstructorMethod(final Constructor<?> theCtor, final Invoker theInvoker) {
         this.ctor = theCtor;
+        this.invoker = theInvoker;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param params the constructor arguments
+     * @return the new instance
+     * @throws InstantiationException if the class is abstract
+     * @throws IllegalAccessException if the constructor is not accessible
+     * @throws InvocationTargetException if the constructor throws
+     */
+    private Object newInstance(final Object[] params)
+        throws InstantiationException, IllegalAccessException, InvocationTargetException {
+        return invoker != null ? invoker.invoke(null, params) : ctor.newInstance(params);
     }
 
     @Override
@@ -83,7 +102,7 @@ public final class ConstructorMethod implements JexlMethod {
             }
         }
         if (invoke) {
-                return ctor.newInstance(params);
+                return newInstance(params);
             }
         throw new IntrospectionException("constructor resolution error");
     }
@@ -114,7 +133,7 @@ public final class ConstructorMethod implements JexlMethod {
                 }
                 invoke &= name == null || ctorClass.getName().equals(name);
                 if (invoke) {
-                    return ctor.newInstance(args);
+                    return newInstance(args);
                 }
             } catch (InstantiationException | IllegalArgumentException | IllegalAccessException xinstance) {
                 return Uberspect.TRY_FAILED;
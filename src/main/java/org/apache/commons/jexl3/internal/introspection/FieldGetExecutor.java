@@ -21,6 +21,7 @@ import static java.lang.reflect.Modifier.isFinal;
 import static java.lang.reflect.Modifier.isStatic;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 
 import org.apache.commons.jexl3.introspection.JexlPropertyGet;
 
@@ -41,7 +42,7 @@ public final class FieldGetExecutor implements JexlPropertyGet {
         if (identifier != null) {
             final Field field = is.getField(clazz, identifier);
             if (field != null) {
-                return new FieldGetExecutor(field);
+                return new FieldGetExecutor(field, is.getInvoker(clazz, field));
             }
         }
         return null;
@@ -52,18 +53,25 @@ public final class FieldGetExecutor implements JexlPropertyGet {
      */
     private final Field field;
 
+    /**
+     * The method handle invoker, null if the field is read through reflection.
+     */
+    private final Invoker invoker;
+
     /**
      * Creates a new instance of FieldPropertyGet.
      *
      * @param theField The class public field
+     * @param theInvoker The field invoker, may be null
      */
-    private FieldGetExecutor(final Field theField) {
+    private FieldGetExecutor(final Field theField, final Invoker theInvoker) {
         field = theField;
+        invoker = theInvoker;
     }
 
     @Override
     public Object invoke(final Object obj) throws Exception {
-        return field.get(obj);
+        return invoker != null ? invoker.get(obj) : field.get(obj);
     }
 
     @Override
@@ -90,8 +98,8 @@ public final class FieldGetExecutor implements JexlPropertyGet {
     public Object tryInvoke(final Object obj, final Object key) {
         if (obj.getClass().equals(field.getDeclaringClass()) && key.equals(field.getName())) {
             try {
-                return field.get(obj);
-            } catch (final IllegalAccessException xill) {
+                return invoker != null ? invoker.get(obj) : field.get(obj);
+            } catch (final IllegalAccessException | InvocationTargetException xill) {
                 return Uberspect.TRY_FAILED;
             }
         }
@@ -18,14 +18,12 @@ package org.apache.commons.jexl3.internal.introspection;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.jexl3.introspection.JexlPermissions;
 import org.apache.commons.jexl3.introspection.JexlUberspect;
@@ -42,6 +40,10 @@ import org.apache.commons.logging.Log;
  * the method name and the array of parameters classes.
  * This mapping is performed for all the public methods of a class and stored.</p>
  *
+ * <p>Lookups do not lock. Each class map is built once, by the first thread that needs it; only the threads
+ * needing that same class wait for it to be built. The caches are replaced as a whole when the class loader
+ * changes.</p>
+ *
  * @since 1.0
  */
 public final class Introspector {
@@ -63,6 +65,103 @@ public final class Introspector {
      */
     private static final Constructor<?> CTOR_MISS = CacheMiss.class.getConstructors()[0];
 
+    /**
+     * A class map built on first use.
+     */
+    private final class ClassEntry {
+        /** The class. */
+        private final Class<?> clazz;
+        /** The class map, null until built. */
+        private volatile ClassMap classMap;
+
+        /**
+         * Creates an entry.
+         *
+         * @param c the class
+         */
+        ClassEntry(final Class<?> c) {
+            clazz = c;
+        }
+
+        /**
+         * Gets the class map, building it if needed.
+         *
+         * @return the class map
+         */
+        ClassMap get() {
+            ClassMap map = classMap;
+            if (map == null) {
+                synchronized (this) {
+                    map = classMap;
+                    if (map == null) {
+                        map = permissions.allow(clazz)
+                                ? new ClassMap(clazz, permissions, logger, lazy)
+                                : ClassMap.empty();
+                        classMap = map;
+                    }
+                }
+            }
+            return map;
+        }
+    }
+
+    /**
+     * The caches of an introspector and the class loader they were filled through.
+     */
+    private final class Caches {
+        /** The class loader used to solve constructors. */
+        private final ClassLoader loader;
+
+        /** Holds the method maps for the classes we know about, keyed by Class. */
+        private final Map<Class<?>, ClassEntry> classMethodMaps;
+
+        /** Holds the map of classes ctors we know about as well as unknown ones. */
+        private final Map<MethodKey, Constructor<?>> constructorsMap;
+
+        /** Holds the set of classes we have introspected. */
+        private final Map<String, Class<?>> constructibleClasses;
+
+        /**
+         * Creates empty caches.
+         *
+         * @param cloader the class loader
+         */
+        Caches(final ClassLoader cloader) {
+            loader = cloader;
+            classMethodMaps = new ConcurrentHashMap<>();
+            constructorsMap = new ConcurrentHashMap<>();
+            constructibleClasses = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Creates the caches for another class loader, keeping the entries not loaded by the previous one.
+         *
+         * @param previous the caches to copy
+         * @param cloader the class loader
+         */
+        Caches(final Caches previous, final ClassLoader cloader) {
+            this(cloader);
+            final ClassLoader ploader = previous.loader;
+            // keep constructor and class maps
+            constructibleClasses.putAll(previous.constructibleClasses);
+            for (final Map.Entry<MethodKey, Constructor<?>> entry : previous.constructorsMap.entrySet()) {
+                final Constructor<?> ctor = entry.getValue();
+                if (!isLoadedBy(ploader, ctor.getDeclaringClass())) {
+                    constructorsMap.put(entry.getKey(), ctor);
+                } else if (!CTOR_MISS.equals(ctor)) {
+                    // the method name is the name of the class
+                    constructibleClasses.remove(entry.getKey().getMethod());
+                }
+            }
+            // keep method maps
+            for (final Map.Entry<Class<?>, ClassEntry> entry : previous.classMethodMaps.entrySet()) {
+                if (!isLoadedBy(ploader, entry.getKey())) {
+                    classMethodMaps.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
     /**
      * Checks whether a class is loaded through a given class loader or one of its ascendants.
      *
@@ -94,31 +193,16 @@ public final class Introspector {
     private final JexlPermissions permissions;
 
     /**
-     * The read/write lock.
-     */
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
-
-    /**
-     * Holds the method maps for the classes we know about, keyed by Class.
-     */
-    private final Map<Class<?>, ClassMap> classMethodMaps = new HashMap<>();
-
-    /**
-     * Holds the map of classes ctors we know about as well as unknown ones.
-     */
-    private final Map<MethodKey, Constructor<?>> constructorsMap = new HashMap<>();
-
-    /**
-     * Holds the set of classes we have introspected.
+     * Whether class maps are lazy.
      */
-    private final Map<String, Class<?>> constructibleClasses = new HashMap<>();
+    private final boolean lazy;
 
     /**
-     * The class loader used to solve constructors if needed.
-     * <p>Cheap read-write lock pattern: exclusive lock for write, read visibility through volatile.</p>
+     * The caches and the class loader used to solve constructors if needed.
+     * <p>Replaced as a whole when the loader changes; lookups in progress complete against the previous caches.</p>
      */
     @SuppressWarnings("java:S3077")
-    private volatile ClassLoader loader;
+    private volatile Caches caches;
 
     /**
      * Create the introspector.
@@ -138,9 +222,23 @@ public final class Introspector {
      * @param perms The permissions
      */
     public Introspector(final Log log, final ClassLoader loader, final JexlPermissions perms) {
+        this(log, loader, perms, false);
+    }
+
+    /**
+     * Create the introspector.
+     *
+     * @param log     The logger to use
+     * @param loader The class loader
+     * @param perms The permissions
+     * @param lazy Whether class maps introspect methods and fields by name on first request
+     * @since 3.7.1
+     */
+    public Introspector(final Log log, final ClassLoader loader, final JexlPermissions perms, final boolean lazy) {
         this.logger = log;
-        this.loader = loader != null ? loader : JexlUberspect.class.getClassLoader();
+        this.caches = new Caches(loader != null ? loader : JexlUberspect.class.getClassLoader());
         this.permissions = perms == null ? JexlPermissions.RESTRICTED : perms;
+        this.lazy = lazy;
     }
 
     /**
@@ -151,7 +249,7 @@ public final class Introspector {
      */
     public Class<?> getClassByName(final String className) {
         try {
-            final ClassLoader classLoader = loader;
+            final ClassLoader classLoader = caches.loader;
             final Class<?> clazz = Class.forName(className, false, classLoader);
             return permissions.allow(clazz)? clazz : null;
         } catch (final ClassNotFoundException xignore) {
@@ -168,72 +266,51 @@ public final class Introspector {
      * or null if no unambiguous constructor could be found through introspection.
      */
     public Constructor<?> getConstructor(final Class<?> c, final MethodKey key) {
-        Constructor<?> ctor;
-        lock.readLock().lock();
-        try {
-            ctor = constructorsMap.get(key);
-            if (ctor != null) {
-                // miss or not?
-                return CTOR_MISS.equals(ctor) ? null : ctor;
-            }
-        } finally {
-            lock.readLock().unlock();
+        final Caches cache = caches;
+        Constructor<?> ctor = cache.constructorsMap.get(key);
+        if (ctor != null) {
+            // miss or not?
+            return CTOR_MISS.equals(ctor) ? null : ctor;
         }
-        // let's introspect...
-        lock.writeLock().lock();
+        // let's introspect; concurrent introspections of the same key yield the same result
+        final String constructorName = key.getMethod();
+        // do we know about this class?
+        Class<?> clazz = cache.constructibleClasses.get(constructorName);
         try {
-            // again for kicks
-            ctor = constructorsMap.get(key);
-            if (ctor != null) {
-                // miss or not?
-                return CTOR_MISS.equals(ctor) ? null : ctor;
-            }
-            final String constructorName = key.getMethod();
-            // do we know about this class?
-            Class<?> clazz = constructibleClasses.get(constructorName);
-            try {
-                // do find the most specific ctor
-                if (clazz == null) {
-                    if (c != null && c.getName().equals(key.getMethod())) {
-                        clazz = c;
-                    } else {
-                        // read under lock
-                        clazz = loader.loadClass(constructorName);
-                    }
-                    // add it to list of known loaded classes
-                    constructibleClasses.put(constructorName, clazz);
-                }
-                final List<Constructor<?>> constructors = new ArrayList<>();
-                for (final Constructor<?> ictor : clazz.getConstructors()) {
-                    if (permissions.allow(ictor)) {
-                        constructors.add(ictor);
-                    }
-                }
-                // try to find one
-                ctor = key.getMostSpecificConstructor(constructors.toArray(new Constructor<?>[0]));
-                if (ctor != null) {
-                    constructorsMap.put(key, ctor);
+            // do find the most specific ctor
+            if (clazz == null) {
+                if (c != null && c.getName().equals(key.getMethod())) {
+                    clazz = c;
                 } else {
-                    constructorsMap.put(key, CTOR_MISS);
+                    clazz = cache.loader.loadClass(constructorName);
                 }
-            } catch (final ClassNotFoundException xnotfound) {
-                if (logger != null && logger.isDebugEnabled()) {
-                    logger.debug("unable to find class: "
-                            + constructorName + "."
-                            + key.debugString(), xnotfound);
-                }
-            } catch (final MethodKey.AmbiguousException xambiguous) {
-                if (logger != null  && xambiguous.isSevere() &&  logger.isInfoEnabled()) {
-                    logger.info("ambiguous constructor invocation: "
-                            + constructorName + "."
-                            + key.debugString(), xambiguous);
+                // add it to list of known loaded classes
+                cache.constructibleClasses.put(constructorName, clazz);
+            }
+            final List<Constructor<?>> constructors = new ArrayList<>();
+            for (final Constructor<?> ictor : clazz.getConstructors()) {
+                if (permissions.allow(ictor)) {
+                    constructors.add(ictor);
                 }
-                ctor = null;
             }
-            return ctor;
-        } finally {
-            lock.writeLock().unlock();
+            // try to find one
+            ctor = key.getMostSpecificConstructor(constructors.toArray(new Constructor<?>[0]));
+            cache.constructorsMap.put(key, ctor != null ? ctor : CTOR_MISS);
+        } catch (final ClassNotFoundException xnotfound) {
+            if (logger != null && logger.isDebugEnabled()) {
+                logger.debug("unable to find class: "
+                        + constructorName + "."
+                        + key.debugString(), xnotfound);
+            }
+        } catch (final MethodKey.AmbiguousException xambiguous) {
+            if (logger != null  && xambiguous.isSevere() &&  logger.isInfoEnabled()) {
+                logger.info("ambiguous constructor invocation: "
+                        + constructorName + "."
+                        + key.debugString(), xambiguous);
+            }
+            ctor = null;
         }
+        return ctor;
     }
 
     /**
@@ -258,6 +335,17 @@ public final class Introspector {
         return getMap(c).getField(key);
     }
 
+    /**
+     * Gets the method handle based invoker of a member.
+     *
+     * @param c the class whose map caches the invoker
+     * @param member the method, constructor or field
+     * @return the invoker or null if the member must be invoked through reflection
+     */
+    Invoker getInvoker(final Class<?> c, final Member member) {
+        return getMap(c).getInvoker(member);
+    }
+
     /**
      * Gets the array of accessible field names known for a given class.
      *
@@ -278,7 +366,7 @@ public final class Introspector {
      * @return The class loader
      */
     public ClassLoader getLoader() {
-        return loader;
+        return caches.loader;
     }
 
     /**
@@ -288,30 +376,16 @@ public final class Introspector {
      * @return The class map
      */
     private ClassMap getMap(final Class<?> c) {
-        ClassMap classMap;
-        lock.readLock().lock();
-        try {
-            classMap = classMethodMaps.get(c);
-        } finally {
-            lock.readLock().unlock();
-        }
-        if (classMap == null) {
-            lock.writeLock().lock();
-            try {
-                // try again
-                classMap = classMethodMaps.get(c);
-                if (classMap == null) {
-                    classMap = permissions.allow(c)
-                            ? new ClassMap(c, permissions, logger)
-                            : ClassMap.empty();
-                    classMethodMaps.put(c, classMap);
-                }
-            } finally {
-                lock.writeLock().unlock();
+        final Map<Class<?>, ClassEntry> classMethodMaps = caches.classMethodMaps;
+        ClassEntry entry = classMethodMaps.get(c);
+        if (entry == null) {
+            final ClassEntry created = new ClassEntry(c);
+            entry = classMethodMaps.putIfAbsent(c, created);
+            if (entry == null) {
+                entry = created;
             }
-
         }
-        return classMap;
+        return entry.get();
     }
 
     /**
@@ -386,36 +460,12 @@ public final class Introspector {
      */
     public void setLoader(final ClassLoader classLoader) {
         final ClassLoader current = classLoader == null ? JexlUberspect.class.getClassLoader() : classLoader;
-        lock.writeLock().lock();
-        try {
-            final ClassLoader previous = loader;
-            if (!current.equals(previous)) {
+        synchronized (this) {
+            final Caches previous = caches;
+            if (!current.equals(previous.loader)) {
                 // clean up constructor and class maps
-                final Iterator<Map.Entry<MethodKey, Constructor<?>>> constructors = constructorsMap.entrySet().iterator();
-                while (constructors.hasNext()) {
-                    final Map.Entry<MethodKey, Constructor<?>> entry = constructors.next();
-                    final Class<?> clazz = entry.getValue().getDeclaringClass();
-                    if (isLoadedBy(previous, clazz)) {
-                        constructors.remove();
-                        if (!CTOR_MISS.equals(entry.getValue())) {
-                            // the method name is the name of the class
-                            constructibleClasses.remove(entry.getKey().getMethod());
-                        }
-                    }
-                }
-                // clean up method maps
-                final Iterator<Map.Entry<Class<?>, ClassMap>> methods = classMethodMaps.entrySet().iterator();
-                while (methods.hasNext()) {
-                    final Map.Entry<Class<?>, ClassMap> entry = methods.next();
-                    final Class<?> clazz = entry.getKey();
-                    if (isLoadedBy(previous, clazz)) {
-                        methods.remove();
-                    }
-                }
-                loader = current;
+                caches = new Caches(previous, current);
             }
-        } finally {
-            lock.writeLock().unlock();
         }
     }
 }
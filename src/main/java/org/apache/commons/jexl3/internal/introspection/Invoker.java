@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal.introspection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes a method, a constructor or reads a field through a method handle.
+ * <p>
+ * The handle is resolved once per member and cached in the {@link ClassMap}; it is adapted to a generic
+ * signature so that executors call it through {@code invokeExact}, which avoids the per-call access and
+ * argument checks of reflective invocation. Exceptions behave as with reflection: an exception thrown by
+ * the member is wrapped in an {@link InvocationTargetException}, a receiver or argument mismatch raises an
+ * {@link IllegalArgumentException} and a null receiver of an instance member raises a {@link NullPointerException}.
+ * </p>
+ * <p>
+ * Members that can not be accessed through the public lookup (caller-sensitive methods, members of
+ * non-exported packages...) have no invoker; executors then use reflection.
+ * </p>
+ */
+final class Invoker {
+    /** The marker for members that have no invoker. */
+    static final Invoker NONE = new Invoker(null, false, null, null);
+
+    /** The handle rethrowing the member exceptions as {@link InvocationTargetException}. */
+    private static final MethodHandle RETHROW;
+    static {
+        try {
+            RETHROW = MethodHandles.lookup().findStatic(Invoker.class, "rethrow",
+                MethodType.methodType(Object.class, Throwable.class));
+        } catch (final ReflectiveOperationException xany) {
+            throw new ExceptionInInitializerError(xany);
+        }
+    }
+
+    /**
+     * Creates the invoker of a member.
+     *
+     * @param member the method, constructor or field
+     * @return the invoker, {@link #NONE} if the member can not be accessed through a method handle
+     */
+    static Invoker create(final Member member) {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        final boolean ctor = member instanceof Constructor<?>;
+        if (ctor && Modifier.isAbstract(member.getDeclaringClass().getModifiers())) {
+            // reflection reports the instantiation error
+            return NONE;
+        }
+        final boolean instance = !ctor && !Modifier.isStatic(member.getModifiers());
+        MethodHandle target;
+        try {
+            if (member instanceof Method) {
+                target = lookup.unreflect((Method) member);
+            } else if (ctor) {
+                target = lookup.unreflectConstructor((Constructor<?>) member);
+            } else if (member instanceof Field) {
+                target = lookup.unreflectGetter((Field) member);
+            } else {
+                return NONE;
+            }
+        } catch (final IllegalAccessException | SecurityException xaccess) {
+            return NONE;
+        }
+        // varargs are assembled by the executors
+        target = target.asFixedArity();
+        final MethodType type = target.type();
+        // wrap exceptions thrown by the member, not those thrown by the argument conversions
+        final MethodHandle handler = MethodHandles.dropArguments(
+            RETHROW.asType(MethodType.methodType(type.returnType(), Throwable.class)), 1, type.parameterList());
+        target = MethodHandles.catchException(target, Throwable.class, handler);
+        target = target.asType(type.generic());
+        if (!instance) {
+            // the receiver is ignored
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+        final int arity = target.type().parameterCount() - 1;
+        return new Invoker(member, instance, target, target.asSpreader(Object[].class, arity));
+    }
+
+    /**
+     * Rethrows a member exception as reflection does.
+     *
+     * @param cause the exception thrown by the member
+     * @return never
+     * @throws InvocationTargetException always
+     */
+    @SuppressWarnings("unused") // through method handle
+    private static Object rethrow(final Throwable cause) throws InvocationTargetException {
+        throw new InvocationTargetException(cause);
+    }
+
+    /** The member. */
+    private final Member member;
+    /** Whether the member needs a receiver. */
+    private final boolean instance;
+    /** The handle, (Object receiver, Object... arguments)Object. */
+    private final MethodHandle handle;
+    /** The handle spreading an argument array, (Object, Object[])Object. */
+    private final MethodHandle spread;
+
+    /**
+     * Creates an invoker.
+     *
+     * @param member the member
+     * @param instance whether the member needs a receiver
+     * @param handle the generic handle
+     * @param spread the spreading handle
+     */
+    private Invoker(final Member member, final boolean instance, final MethodHandle handle, final MethodHandle spread) {
+        this.member = member;
+        this.instance = instance;
+        this.handle = handle;
+        this.spread = spread;
+    }
+
+    /**
+     * @return the member this invoker calls
+     */
+    Member getMember() {
+        return member;
+    }
+
+    /**
+     * Invokes the member.
+     *
+     * @param target the receiver, ignored for static members and constructors
+     * @param args the arguments
+     * @return the result, the new instance for constructors
+     * @throws InvocationTargetException if the member throws
+     */
+    Object invoke(final Object target, final Object[] args) throws InvocationTargetException {
+        checkTarget(target);
+        try {
+            return (Object) spread.invokeExact(target, args);
+        } catch (final Throwable xany) {
+            throw failure(xany);
+        }
+    }
+
+    /**
+     * Invokes a member that has no argument; a getter or a field.
+     *
+     * @param target the receiver
+     * @return the result
+     * @throws InvocationTargetException if the member throws
+     */
+    Object get(final Object target) throws InvocationTargetException {
+        if (handle.type().parameterCount() != 1) {
+            return invoke(target, new Object[0]);
+        }
+        checkTarget(target);
+        try {
+            return (Object) handle.invokeExact(target);
+        } catch (final Throwable xany) {
+            throw failure(xany);
+        }
+    }
+
+    /**
+     * Invokes a member that has one argument; a setter.
+     *
+     * @param target the receiver
+     * @param arg the argument
+     * @return the result
+     * @throws InvocationTargetException if the member throws
+     */
+    Object set(final Object target, final Object arg) throws InvocationTargetException {
+        if (handle.type().parameterCount() != 2) {
+            return invoke(target, new Object[]{arg});
+        }
+        checkTarget(target);
+        try {
+            return (Object) handle.invokeExact(target, arg);
+        } catch (final Throwable xany) {
+            throw failure(xany);
+        }
+    }
+
+    /**
+     * Checks the receiver of an instance member is not null.
+     *
+     * @param target the receiver
+     */
+    private void checkTarget(final Object target) {
+        if (instance && target == null) {
+            throw new NullPointerException("null receiver for " + member);
+        }
+    }
+
+    /**
+     * Maps an invocation failure to the exception reflection would throw.
+     *
+     * @param xany the failure
+     * @return the runtime exception to throw
+     * @throws InvocationTargetException if the failure stems from the member
+     */
+    private static RuntimeException failure(final Throwable xany) throws InvocationTargetException {
+        if (xany instanceof InvocationTargetException) {
+            throw (InvocationTargetException) xany;
+        }
+        if (xany instanceof IllegalArgumentException) {
+            return (IllegalArgumentException) xany;
+        }
+        if (xany instanceof ClassCastException
+            || xany instanceof NullPointerException
+            || xany instanceof WrongMethodTypeException) {
+            // receiver or argument conversion failed
+            return new IllegalArgumentException(xany.getMessage(), xany);
+        }
+        throw new InvocationTargetException(xany);
+    }
+
+    @Override
+    public String toString() {
+        return "invoker{" + member + "}";
+    }
+}
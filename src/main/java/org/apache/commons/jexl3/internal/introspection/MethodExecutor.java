@@ -49,15 +49,18 @@ public final class MethodExecutor extends AbstractExecutor.Method {
     public static MethodExecutor discover(final Introspector is, final Object obj, final String method, final Object[] args) {
         final Class<?> clazz = obj.getClass();
         final MethodKey key = new MethodKey(method, args);
-        java.lang.reflect.Method m = is.getMethod(clazz, key);
+        Class<?> mclass = clazz;
+        java.lang.reflect.Method m = is.getMethod(mclass, key);
         if (m == null && clazz.isArray()) {
             // check for support via our array->list wrapper
-            m = is.getMethod(ArrayListWrapper.class, key);
+            mclass = ArrayListWrapper.class;
+            m = is.getMethod(mclass, key);
         }
         if (m == null && obj instanceof Class<?>) {
-            m = is.getMethod((Class<?>) obj, key);
+            mclass = (Class<?>) obj;
+            m = is.getMethod(mclass, key);
         }
-        return m == null ? null : new MethodExecutor(clazz, m, key);
+        return m == null ? null : new MethodExecutor(clazz, m, key, is.getInvoker(mclass, m));
     }
 
     /** If this method is a vararg method, vaStart is the last argument index. */
@@ -66,15 +69,20 @@ public final class MethodExecutor extends AbstractExecutor.Method {
     /** If this method is a vararg method, vaClass is the component type of the vararg array. */
     private final Class<?> vaClass;
 
+    /** The method handle invoker, null if the method is invoked through reflection. */
+    private final Invoker invoker;
+
     /**
      * Creates a new instance.
      *
      * @param c The class this executor applies to
      * @param m The method
      * @param k The MethodKey
+     * @param i The method invoker, may be null
      */
-    private MethodExecutor(final Class<?> c, final java.lang.reflect.Method m, final MethodKey k) {
+    private MethodExecutor(final Class<?> c, final java.lang.reflect.Method m, final MethodKey k, final Invoker i) {
         super(c, m, k);
+        invoker = i;
         int vastart = -1;
         Class<?> vaclass = null;
         if (MethodKey.isVarArgs(method)) {
@@ -137,10 +145,10 @@ public final class MethodExecutor extends AbstractExecutor.Method {
         if (vaClass != null && args != null) {
             args = handleVarArg(args);
         }
-        if (method.getDeclaringClass() == ArrayListWrapper.class && o.getClass().isArray()) {
-            return method.invoke(new ArrayListWrapper(o), args);
-        }
-        return method.invoke(o, args);
+        final Object target = method.getDeclaringClass() == ArrayListWrapper.class && o.getClass().isArray()
+            ? new ArrayListWrapper(o)
+            : o;
+        return invoker != null ? invoker.invoke(target, args) : method.invoke(target, args);
     }
 
     @Override
@@ -28,6 +28,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
 
 import org.apache.commons.jexl3.annotations.NoJexl;
@@ -50,6 +51,8 @@ import org.apache.commons.jexl3.introspection.JexlPermissions;
  * </ul>
  * <p>It is possible to define permissions on external library classes used for which the source code
  * cannot be altered using an instance of permissions using {@link JexlPermissions#parse(String...)}.</p>
+ * <p>An instance is immutable once built and memoizes its decisions per class and per member;
+ * {@link #compose(String...)} creates a new instance that does not share them.</p>
  */
 public class Permissions implements JexlPermissions {
     /**
@@ -307,6 +310,34 @@ public class Permissions implements JexlPermissions {
      */
     static final Permissions UNRESTRICTED = new Permissions();
 
+    /**
+     * The memoized decisions about a class and its members.
+     * <p>Instances are held by the class itself through a {@link ClassValue}; they never refer to the
+     * permissions that computed them so that neither the permissions nor the class are pinned in memory.</p>
+     */
+    private static final class Decisions {
+        /** The class decision, null until computed. */
+        private volatile Boolean allowed;
+        /**
+         * The member decisions.
+         * <p>Holds the decisions on constructors, fields and methods declared by the class and the decisions
+         * on members inherited by the class from a super-class or an interface.</p>
+         */
+        private final Map<Object, Boolean> members = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The per-class decisions computed by this instance.
+     * <p>A permissions instance is immutable once built; composing permissions creates a new instance
+     * whose decisions start afresh.</p>
+     */
+    private final ClassValue<Decisions> decisions = new ClassValue<Decisions>() {
+        @Override
+        protected Decisions computeValue(final Class<?> type) {
+            return new Decisions();
+        }
+    };
+
     /**
      * The @NoJexl execution-time map.
      */
@@ -489,6 +520,45 @@ public class Permissions implements JexlPermissions {
         if (!validate(clazz)) {
             return false;
         }
+        final Decisions known = decisions.get(clazz);
+        Boolean allowed = known.allowed;
+        if (allowed == null) {
+            allowed = computeAllow(clazz);
+            known.allowed = allowed;
+        }
+        return allowed;
+    }
+
+    /**
+     * Gets the member decisions held by a class.
+     *
+     * @param clazz The class
+     * @return the member decisions
+     */
+    private Map<Object, Boolean> decisions(final Class<?> clazz) {
+        return decisions.get(clazz).members;
+    }
+
+    /**
+     * Memoizes a member decision.
+     *
+     * @param known The member decisions
+     * @param member The member
+     * @param decision The decision
+     * @return the decision
+     */
+    private static boolean remember(final Map<Object, Boolean> known, final Object member, final boolean decision) {
+        known.putIfAbsent(member, decision);
+        return decision;
+    }
+
+    /**
+     * Computes whether a class is allowed.
+     *
+     * @param clazz The class to check (not null)
+     * @return true if JEXL is allowed to introspect, false otherwise
+     */
+    private boolean computeAllow(final Class<?> clazz) {
         // proxy goes through
         if (Proxy.isProxyClass(clazz)) {
             return true;
@@ -560,8 +630,23 @@ public class Permissions implements JexlPermissions {
     @Override
     public boolean allow(final Constructor<?> ctor) {
         // method must be not null, public
+        if (!validate(ctor)) {
+            return false;
+        }
+        final Map<Object, Boolean> known = decisions(ctor.getDeclaringClass());
+        final Boolean allowed = known.get(ctor);
+        return allowed != null ? allowed : remember(known, ctor, computeAllow(ctor));
+    }
+
+    /**
+     * Computes whether a constructor is allowed.
+     *
+     * @param ctor The constructor to check (valid)
+     * @return true if JEXL is allowed to introspect, false otherwise
+     */
+    private boolean computeAllow(final Constructor<?> ctor) {
         // check declared restrictions
-        if (!validate(ctor) || deny(ctor)) {
+        if (deny(ctor)) {
             return false;
         }
         // class must agree
@@ -583,8 +668,23 @@ public class Permissions implements JexlPermissions {
     @Override
     public boolean allow(final Field field) {
         // field must be public
+        if (!validate(field)) {
+            return false;
+        }
+        final Map<Object, Boolean> known = decisions(field.getDeclaringClass());
+        final Boolean allowed = known.get(field);
+        return allowed != null ? allowed : remember(known, field, computeAllow(field));
+    }
+
+    /**
+     * Computes whether a field is allowed.
+     *
+     * @param field The field to check (valid)
+     * @return true if JEXL is allowed to introspect, false otherwise
+     */
+    private boolean computeAllow(final Field field) {
         // check declared restrictions
-        if (!validate(field) || deny(field)) {
+        if (deny(field)) {
             return false;
         }
         // class must agree
@@ -601,20 +701,35 @@ public class Permissions implements JexlPermissions {
         if (!validate(clazz) || !validate(method)) {
             return false;
         }
-        if ((method.getModifiers() & Modifier.STATIC) == 0) {
-            final Class<?> declaring = method.getDeclaringClass();
-            if (clazz != declaring) {
-                // just check this is an override of a method in clazz, if not, it is not allowed (obviously)
-                if (deny(clazz) || !declaring.isAssignableFrom(clazz)) {
-                    return false;
-                }
-                // an explicit permission on the concrete class can deny; otherwise fall through to
-                // allow(method) which honors carve-outs on the declaring class/interfaces (e.g. Object.getClass())
-                final NoJexlClass njc = getNoJexl(clazz, null);
-                if (njc != null && njc.deny(method)) {
-                    return false;
-                }
+        if ((method.getModifiers() & Modifier.STATIC) == 0 && clazz != method.getDeclaringClass()) {
+            // just check this is an override of a method in clazz, if not, it is not allowed (obviously)
+            if (!method.getDeclaringClass().isAssignableFrom(clazz)) {
+                return false;
             }
+            // the decision on an inherited method is held by the inheriting class
+            final Map<Object, Boolean> known = decisions(clazz);
+            final Boolean allowed = known.get(method);
+            return allowed != null ? allowed : remember(known, method, computeAllow(clazz, method));
+        }
+        return allow(method);
+    }
+
+    /**
+     * Computes whether an inherited method is allowed for a class.
+     *
+     * @param clazz The class (valid)
+     * @param method The non-static method (valid), inherited by the class
+     * @return true if JEXL is allowed to introspect, false otherwise
+     */
+    private boolean computeAllow(final Class<?> clazz, final Method method) {
+        if (deny(clazz)) {
+            return false;
+        }
+        // an explicit permission on the concrete class can deny; otherwise fall through to
+        // allow(method) which honors carve-outs on the declaring class/interfaces (e.g. Object.getClass())
+        final NoJexlClass njc = getNoJexl(clazz, null);
+        if (njc != null && njc.deny(method)) {
+            return false;
         }
         return allow(method);
     }
@@ -624,20 +739,35 @@ public class Permissions implements JexlPermissions {
         if (!validate(clazz) || !validate(field)) {
             return false;
         }
-        if ((field.getModifiers() & Modifier.STATIC) == 0) {
-            final Class<?> declaring = field.getDeclaringClass();
-            if (clazz != declaring) {
-                // just check this clazz extends/inherits from declaring, if not, it is not allowed (obviously)
-                if (deny(clazz) || !declaring.isAssignableFrom(clazz)) {
-                    return false;
-                }
-                // an explicit permission on the concrete class can deny; otherwise fall through to
-                // allow(field) which honors carve-outs on the declaring class
-                final NoJexlClass njc = getNoJexl(clazz, null);
-                if (njc != null && njc.deny(field)) {
-                    return false;
-                }
+        if ((field.getModifiers() & Modifier.STATIC) == 0 && clazz != field.getDeclaringClass()) {
+            // just check this clazz extends/inherits from declaring, if not, it is not allowed (obviously)
+            if (!field.getDeclaringClass().isAssignableFrom(clazz)) {
+                return false;
             }
+            // the decision on an inherited field is held by the inheriting class
+            final Map<Object, Boolean> known = decisions(clazz);
+            final Boolean allowed = known.get(field);
+            return allowed != null ? allowed : remember(known, field, computeAllow(clazz, field));
+        }
+        return allow(field);
+    }
+
+    /**
+     * Computes whether an inherited field is allowed for a class.
+     *
+     * @param clazz The class (valid)
+     * @param field The non-static field (valid), inherited by the class
+     * @return true if JEXL is allowed to introspect, false otherwise
+     */
+    private boolean computeAllow(final Class<?> clazz, final Field field) {
+        if (deny(clazz)) {
+            return false;
+        }
+        // an explicit permission on the concrete class can deny; otherwise fall through to
+        // allow(field) which honors carve-outs on the declaring class
+        final NoJexlClass njc = getNoJexl(clazz, null);
+        if (njc != null && njc.deny(field)) {
+            return false;
         }
         return allow(field);
     }
@@ -653,8 +783,23 @@ public class Permissions implements JexlPermissions {
     @Override
     public boolean allow(final Method method) {
         // method must be not null, public, not synthetic, not bridge
+        if (!validate(method)) {
+            return false;
+        }
+        final Map<Object, Boolean> known = decisions(method.getDeclaringClass());
+        final Boolean allowed = known.get(method);
+        return allowed != null ? allowed : remember(known, method, computeAllow(method));
+    }
+
+    /**
+     * Computes whether a method is allowed.
+     *
+     * @param method The method to check (valid)
+     * @return true if JEXL is allowed to introspect, false otherwise
+     */
+    private boolean computeAllow(final Method method) {
         // method must be allowed
-        if (!validate(method) || denyMethod(method)) {
+        if (denyMethod(method)) {
             return false;
         }
         Class<?> clazz = method.getDeclaringClass();
@@ -41,7 +41,7 @@ public final class PropertyGetExecutor extends AbstractExecutor.Get {
      */
     public static PropertyGetExecutor discover(final Introspector is, final Class<?> clazz, final String property) {
         final java.lang.reflect.Method method = discoverGet(is, "get", clazz, property);
-        return method == null ? null : new PropertyGetExecutor(clazz, method, property);
+        return method == null ? null : new PropertyGetExecutor(clazz, method, property, is.getInvoker(clazz, method));
     }
 
     /**
@@ -81,16 +81,22 @@ public final class PropertyGetExecutor extends AbstractExecutor.Get {
     /** The property. */
     private final String property;
 
+    /** The method handle invoker, null if the method is invoked through reflection. */
+    private final Invoker invoker;
+
     /**
      * Creates an instance.
      *
      * @param clazz he class the get method applies to
      * @param method The method held by this executor
      * @param identifier The property to get
+     * @param theInvoker The method invoker, may be null
      */
-    private PropertyGetExecutor(final Class<?> clazz, final java.lang.reflect.Method method, final String identifier) {
+    private PropertyGetExecutor(final Class<?> clazz, final java.lang.reflect.Method method, final String identifier,
+                                final Invoker theInvoker) {
         super(clazz, method);
         property = identifier;
+        invoker = theInvoker;
     }
 
     @Override
@@ -100,7 +106,10 @@ public final class PropertyGetExecutor extends AbstractExecutor.Get {
 
     @Override
     public Object invoke(final Object o) throws IllegalAccessException, InvocationTargetException {
-        return method == null ? null : method.invoke(o, (Object[]) null);
+        if (method == null) {
+            return null;
+        }
+        return invoker != null ? invoker.get(o) : method.invoke(o, (Object[]) null);
     }
 
     @Override
@@ -109,7 +118,7 @@ public final class PropertyGetExecutor extends AbstractExecutor.Get {
             && property.equals(castString(identifier))
             && objectClass.equals(o.getClass())) {
             try {
-                return method.invoke(o, (Object[]) null);
+                return invoke(o);
             } catch (IllegalAccessException | IllegalArgumentException xill) {
                 return TRY_FAILED; // fail
             } catch (final InvocationTargetException xinvoke) {
@@ -49,7 +49,7 @@ public class PropertySetExecutor extends AbstractExecutor.Set {
             return null;
         }
         final java.lang.reflect.Method method = discoverSet(is, clazz, property, value);
-        return method != null ? new PropertySetExecutor(clazz, method, property, value) : null;
+        return method != null ? new PropertySetExecutor(clazz, method, property, value, is.getInvoker(clazz, method)) : null;
     }
 
     /**
@@ -137,6 +137,9 @@ public class PropertySetExecutor extends AbstractExecutor.Set {
     /** The property value class. */
     protected final Class<?> valueClass;
 
+    /** The method handle invoker, null if the method is invoked through reflection. */
+    private final Invoker invoker;
+
     /**
      * Creates an instance.
      *
@@ -149,9 +152,27 @@ public class PropertySetExecutor extends AbstractExecutor.Set {
                                   final java.lang.reflect.Method method,
                                   final String key,
                                   final Object value) {
+        this(clazz, method, key, value, null);
+    }
+
+    /**
+     * Creates an instance.
+     *
+     * @param clazz  The class the set method applies to
+     * @param method The method called through this executor
+     * @param key    The key to use as 1st argument to the set method
+     * @param value    The value
+     * @param theInvoker The method invoker, may be null
+     */
+    private PropertySetExecutor(final Class<?> clazz,
+                                final java.lang.reflect.Method method,
+                                final String key,
+                                final Object value,
+                                final Invoker theInvoker) {
         super(clazz, method);
         property = key;
         valueClass = classOf(value);
+        invoker = theInvoker;
     }
 
     @Override
@@ -172,7 +193,11 @@ public class PropertySetExecutor extends AbstractExecutor.Set {
                     arg = Array.newInstance(componentType, 0);
                 }
             }
-            method.invoke(o, arg);
+            if (invoker != null) {
+                invoker.set(o, arg);
+            } else {
+                method.invoke(o, arg);
+            }
         }
         return arg;
     }
@@ -57,13 +57,13 @@ public final class SandboxUberspect implements JexlUberspect {
      * A constructor for JexlSandbox uberspect.
      *
      * @param theUberspect The JexlUberspect to sandbox
-     * @param theSandbox The sandbox which is copied to avoid changes at runtime
+     * @param theSandbox The sandbox whose snapshot is used to avoid changes at runtime
      */
     public SandboxUberspect(final JexlUberspect theUberspect, final JexlSandbox theSandbox) {
         Objects.requireNonNull(theSandbox, "theSandbox");
         Objects.requireNonNull(theUberspect, "theUberspect");
         this.uberspect = theUberspect;
-        this.sandbox = theSandbox.copy();
+        this.sandbox = theSandbox.snapshot();
     }
 
     @Override
@@ -66,6 +66,9 @@ public class Uberspect implements JexlUberspect {
     /** The permissions. */
     private final JexlPermissions permissions;
 
+    /** Whether the introspector class maps are lazy. */
+    private final boolean lazy;
+
     /** The introspector version. */
     private final AtomicInteger version;
 
@@ -101,6 +104,21 @@ public class Uberspect implements JexlUberspect {
      * @param perms The introspector permissions
      */
     public Uberspect(final Log runtimeLogger, final JexlUberspect.ResolverStrategy sty, final JexlPermissions perms) {
+        this(runtimeLogger, sty, perms, false);
+    }
+
+    /**
+     * Creates a new Uberspect.
+     *
+     * @param runtimeLogger The logger used for all logging needs
+     * @param sty The resolver strategy
+     * @param perms The introspector permissions
+     * @param lazy Whether classes are introspected member by member on first request
+     * @since 3.7.1
+     */
+    public Uberspect(final Log runtimeLogger, final JexlUberspect.ResolverStrategy sty, final JexlPermissions perms,
+                     final boolean lazy) {
+        this.lazy = lazy;
         final ClassLoader cl = getClass().getClassLoader();
         logger = runtimeLogger == null ? LogFactory.getLog(JexlEngine.class) : runtimeLogger;
         strategy = sty == null ? JexlUberspect.JEXL_STRATEGY : sty;
@@ -125,7 +143,7 @@ public class Uberspect implements JexlUberspect {
             synchronized (this) {
                 intro = ref.get();
                 if (intro == null) {
-                    intro = new Introspector(logger, loader.get(), permissions);
+                    intro = new Introspector(logger, loader.get(), permissions, lazy);
                     ref = new SoftReference<>(intro);
                     loader = new SoftReference<>(intro.getLoader());
                     version.incrementAndGet();
@@ -473,7 +491,7 @@ public class Uberspect implements JexlUberspect {
             if (intro != null) {
                 intro.setLoader(classLoader);
             } else {
-                intro = new Introspector(logger, classLoader, permissions);
+                intro = new Introspector(logger, classLoader, permissions, lazy);
                 ref = new SoftReference<>(intro);
             }
             this.loader = new SoftReference<>(intro.getLoader());
@@ -62,7 +62,9 @@ import java.util.concurrent.ConcurrentHashMap;
  * permissions only apply to their specified class.</p>
  *
  * <p>Note that a JexlUberspect always uses a <em>copy</em> of the JexlSandbox
- * used to built it preventing permission changes after its instantiation.</p>
+ * used to built it preventing permission changes after its instantiation.
+ * That copy is a {@link #snapshot() snapshot}, shared by all the uberspects built from the same
+ * unmodified sandbox, that resolves the permissions of a class once.</p>
  *
  * @since 3.0
  */
@@ -133,6 +135,18 @@ public final class JexlSandbox {
      */
     private final boolean allow;
 
+    /**
+     * The permissions resolved per class, only used by snapshots and null otherwise.
+     * <p>A snapshot never stores resolved permissions in its map so that it keeps describing the sandbox
+     * it was built from.</p>
+     */
+    private final ClassValue<Permissions> resolved;
+
+    /**
+     * The last snapshot of this sandbox.
+     */
+    private volatile JexlSandbox snapshot;
+
     /**
      * Creates a new default sandbox.
      * <p>In the absence of explicit permissions on a class, the
@@ -175,9 +189,27 @@ public final class JexlSandbox {
      * @since 3.2
      */
     private JexlSandbox(final boolean ab, final boolean inh, final Map<String, Permissions> map) {
+        this(ab, inh, map, false);
+    }
+
+    /**
+     * Creates a sandbox based on an existing permissions map.
+     *
+     * @param ab  whether this sandbox is allow (true) or block (false)
+     * @param inh whether permissions are inherited, default false
+     * @param map The permissions map
+     * @param frozen whether this sandbox is a snapshot
+     */
+    private JexlSandbox(final boolean ab, final boolean inh, final Map<String, Permissions> map, final boolean frozen) {
         allow = ab;
         inherit = inh;
         sandbox = map != null ? map : new HashMap<>();
+        resolved = frozen ? new ClassValue<Permissions>() {
+            @Override
+            protected Permissions computeValue(final Class<?> type) {
+                return compute(type, false);
+            }
+        } : null;
     }
 
     /**
@@ -222,12 +254,67 @@ public final class JexlSandbox {
      * @return A copy of this sandbox
      */
     public JexlSandbox copy() {
+        return new JexlSandbox(allow, inherit, copyMap());
+    }
+
+    /**
+     * Copies the permissions map.
+     *
+     * @return A copy of the permissions map
+     */
+    private Map<String, Permissions> copyMap() {
         // modified concurrently at runtime so...
         final Map<String, Permissions> map = new ConcurrentHashMap<>();
         for (final Map.Entry<String, Permissions> entry : sandbox.entrySet()) {
             map.put(entry.getKey(), entry.getValue().copy());
         }
-        return new JexlSandbox(allow, inherit, map);
+        return map;
+    }
+
+    /**
+     * Gets a snapshot of this sandbox.
+     * <p>A snapshot is a copy that resolves the permissions of a class - including the ones it inherits - once
+     * and keeps them in a per-class table. The same snapshot is returned as long as this sandbox is not
+     * modified; uberspects built from the same sandbox thus share their permission tables.</p>
+     * <p>A snapshot is not meant to be modified.</p>
+     *
+     * @return A snapshot of this sandbox
+     * @since 3.7.1
+     */
+    public JexlSandbox snapshot() {
+        if (resolved != null) {
+            return this;
+        }
+        JexlSandbox frozen = snapshot;
+        if (frozen == null || !frozen.describes(this)) {
+            synchronized (this) {
+                frozen = snapshot;
+                if (frozen == null || !frozen.describes(this)) {
+                    frozen = new JexlSandbox(allow, inherit, copyMap(), true);
+                    snapshot = frozen;
+                }
+            }
+        }
+        return frozen;
+    }
+
+    /**
+     * Checks whether this sandbox has the same permissions as another one.
+     *
+     * @param other The other sandbox
+     * @return true if both sandboxes grant the same permissions
+     */
+    private boolean describes(final JexlSandbox other) {
+        if (allow != other.allow || inherit != other.inherit || sandbox.size() != other.sandbox.size()) {
+            return false;
+        }
+        for (final Map.Entry<String, Permissions> entry : other.sandbox.entrySet()) {
+            final Permissions permissions = sandbox.get(entry.getKey());
+            if (permissions == null || !permissions.describes(entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -276,7 +363,7 @@ public final class JexlSandbox {
     public Permissions get(final Class<?> clazz) {
         // argument clazz cannot be null since permissions would be not null and block:
         // we only store the result for classes we actively seek permissions for.
-        return compute(clazz, true);
+        return resolved != null && clazz != null ? resolved.get(clazz) : compute(clazz, true);
     }
 
     private static Permissions inheritable(final Permissions p) {
@@ -430,6 +517,11 @@ public final class JexlSandbox {
             return copy;
         }
 
+        @Override
+        boolean describes(final Names other) {
+            return other != null && other.getClass() == getClass() && Objects.equals(names, ((AllowSet) other).names);
+        }
+
         @Override
         public String get(final String name) {
             if (names == null) {
@@ -474,6 +566,11 @@ public final class JexlSandbox {
             return copy;
         }
 
+        @Override
+        boolean describes(final Names other) {
+            return other != null && other.getClass() == getClass() && Objects.equals(names, ((BlockSet) other).names);
+        }
+
         @Override
         public String get(final String name) {
             // if name is null and contained in set, explicit null aka NULL
@@ -529,6 +626,16 @@ public final class JexlSandbox {
             return this;
         }
 
+        /**
+         * Checks whether these names control the same names as others.
+         *
+         * @param other The other names
+         * @return true if both are equivalent
+         */
+        boolean describes(final Names other) {
+            return this == other;
+        }
+
         /**
          * Gets whether a given name is allowed or not.
          *
@@ -602,6 +709,18 @@ public final class JexlSandbox {
             return new Permissions(inheritable, read.copy(), write.copy(), execute.copy());
         }
 
+        /**
+         * Checks whether these permissions are the same as others.
+         *
+         * @param other The other permissions
+         * @return true if both are equivalent
+         */
+        boolean describes(final Permissions other) {
+            return this == other
+                || inheritable == other.inheritable
+                   && read.describes(other.read) && write.describes(other.write) && execute.describes(other.execute);
+        }
+
         /**
          * Gets the set of method names in these permissions.
          *
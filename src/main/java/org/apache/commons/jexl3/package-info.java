@@ -448,7 +448,9 @@
  * the JEXL engine, {@link org.apache.commons.jexl3.JexlBuilder#cacheThreshold(int)} caps the size of cached
  * expressions, and {@link org.apache.commons.jexl3.JexlBuilder#cacheFactory(java.util.function.IntFunction)} lets you
  * supply an alternative {@link org.apache.commons.jexl3.JexlCache} implementation. JxltEngine allows defining the
- * cache size through its constructor.
+ * cache size through its constructor. Under heavy concurrency, {@code FrequencyCache::new} provides caches whose
+ * lookups do not lock and whose eviction favors frequently used expressions over one-off ones; these caches
+ * are not held through {@code SoftReference}.
  * </p>
  * <p>
  * {@link org.apache.commons.jexl3.JexlBuilder#debug(boolean)}
@@ -25,10 +25,50 @@ public final class ASTJexlLambda extends ASTJexlScript {
      */
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Checks whether a node evaluation may keep a reference to the frame it evaluates in.
+     *
+     * @param node the node
+     * @return true if any descendant creates a closure, evaluates an annotation or a template
+     */
+    private static boolean escapes(final JexlNode node) {
+        final int count = node.jjtGetNumChildren();
+        for (int c = 0; c < count; ++c) {
+            final JexlNode child = node.jjtGetChild(c);
+            if (child instanceof ASTJexlLambda
+                || child instanceof ASTAnnotatedStatement
+                || child instanceof ASTJxltLiteral
+                || child instanceof ASTIdentifierAccessJxlt
+                || escapes(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whether the frame escapes: 0 if not computed yet, 1 if it may, -1 if it does not. */
+    private transient volatile int escaping;
+
     ASTJexlLambda(final int id) {
         super(id);
     }
 
+    /**
+     * Checks whether calling this lambda may keep a reference to its frame after the call returns.
+     * <p>This is the case when it creates closures, which capture its variables, or evaluates
+     * annotations or templates. When it does not, calls that do not overlap may recycle frames.</p>
+     *
+     * @return true if the frame may escape, false otherwise
+     */
+    public boolean isFrameEscaping() {
+        int e = escaping;
+        if (e == 0) {
+            e = escapes(this) ? 1 : -1;
+            escaping = e;
+        }
+        return e > 0;
+    }
+
     @Override
     protected boolean isConstant(final boolean literal) {
         // a closure is constant if it does not capture any variables
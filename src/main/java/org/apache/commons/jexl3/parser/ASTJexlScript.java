@@ -39,6 +39,15 @@ public class ASTJexlScript extends JexlLexicalNode  {
     /** The script scope. */
     private transient Scope scope;
 
+    /** The pragmas as digested by the engine, computed once. */
+    private transient volatile Object pragmaDigest;
+
+    /** The number of executions before compilation, shared by all scripts using this tree; racy by design. */
+    private transient volatile int executions;
+
+    /** The compiled form of this script as produced by the engine, null until compiled. */
+    private transient volatile Object compiled;
+
     public ASTJexlScript(final int id) {
         super(id);
     }
@@ -111,6 +120,41 @@ public class ASTJexlScript extends JexlLexicalNode  {
         return scope != null ? scope.getParameters() : new String[0];
     }
 
+    /**
+     * Counts an execution of this script towards its compilation.
+     *
+     * @param threshold The number of executions before compilation
+     * @return true if this script was executed at least threshold times, false otherwise
+     */
+    public boolean countExecution(final int threshold) {
+        if (executions < threshold) {
+            executions += 1;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the engine compiled form of this script.
+     * <p>The compiled form is an opaque object the engine derives from this tree.</p>
+     *
+     * @return the compiled form or null if not compiled yet
+     */
+    public Object getCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Gets the engine digest of this script pragmas.
+     * <p>The digest is an opaque, immutable object the engine derives from the pragmas to
+     * avoid processing them on each evaluation.</p>
+     *
+     * @return the digest or null if not computed yet
+     */
+    public Object getPragmaDigest() {
+        return pragmaDigest;
+    }
+
     /**
      * @return this script pragmas.
      */
@@ -164,6 +208,15 @@ public class ASTJexlScript extends JexlLexicalNode  {
         return this;
     }
 
+    /**
+     * Sets the engine compiled form of this script.
+     *
+     * @param code The compiled form
+     */
+    public void setCompiled(final Object code) {
+        this.compiled = code;
+    }
+
     /**
      * Sets this script features.
      *
@@ -173,6 +226,15 @@ public class ASTJexlScript extends JexlLexicalNode  {
         this.features = theFeatures;
     }
 
+    /**
+     * Sets the engine digest of this script pragmas.
+     *
+     * @param digest The digest
+     */
+    public void setPragmaDigest(final Object digest) {
+        this.pragmaDigest = digest;
+    }
+
     /**
      * Sets this script pragmas.
      *
@@ -180,6 +242,7 @@ public class ASTJexlScript extends JexlLexicalNode  {
      */
     public void setPragmas(final Map<String, Object> thePragmas) {
         this.pragmas = thePragmas;
+        this.pragmaDigest = null;
     }
 
     /**
@@ -63,6 +63,15 @@ public final class ASTNumberLiteral extends JexlNode implements JexlNode.Constan
         nlp.assignNatural(s);
     }
 
+    /**
+     * Sets this node as a computed number.
+     *
+     * @param n The number
+     */
+    void setNumber(final Number n) {
+        nlp.assign(n);
+    }
+
     /**
      * Sets this node as a real literal.
      * Originally from OGNL.
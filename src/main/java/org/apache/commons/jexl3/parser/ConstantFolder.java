@@ -0,0 +1,517 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.parser;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlOperator;
+import org.apache.commons.jexl3.internal.ScriptVisitor;
+
+/**
+ * Folds the constant sub-expressions of a script.
+ * <p>
+ * This pass runs once a script has been parsed; arithmetic operations, comparisons and string
+ * concatenations whose operands are all literals are evaluated and replaced by a literal of their result.
+ * The elements of constant array, set and map literals are computed once and cached in their node; the
+ * collections themselves are still created by each evaluation since they are mutable.
+ * </p>
+ * <p>
+ * Folding must not change the evaluation result; operations are only folded when the arithmetic does not
+ * override nor overload the operator and when their outcome does not depend on evaluation options.
+ * Operands or results that depend on the math context (BigDecimal) or are not finite are left alone,
+ * as are operations that fail (division by zero) so that errors are still reported at runtime.
+ * </p>
+ *
+ * @since 3.7.1
+ */
+public final class ConstantFolder extends ScriptVisitor {
+    /** The arithmetic. */
+    private final JexlArithmetic arithmetic;
+
+    /** The names of the methods declared by the arithmetic class and its super-classes, JexlArithmetic excluded. */
+    private final Set<String> declared = new HashSet<>();
+
+    /**
+     * Creates a folder.
+     *
+     * @param arithmetic the arithmetic used to evaluate constant expressions
+     */
+    public ConstantFolder(final JexlArithmetic arithmetic) {
+        this.arithmetic = arithmetic;
+        for (Class<?> clazz = arithmetic.getClass(); clazz != JexlArithmetic.class; clazz = clazz.getSuperclass()) {
+            for (final Method method : clazz.getDeclaredMethods()) {
+                declared.add(method.getName());
+            }
+        }
+    }
+
+    /**
+     * Folds the constant sub-expressions of a tree.
+     *
+     * @param node the tree root
+     */
+    public void fold(final JexlNode node) {
+        node.jjtAccept(this, null);
+    }
+
+    /**
+     * Checks whether the arithmetic declares none of the given methods.
+     * <p>A method declared by a derived arithmetic may override or overload an operator.</p>
+     *
+     * @param names the method names
+     * @return true if the arithmetic behaves as the base one for these methods
+     */
+    private boolean isFoldable(final String... names) {
+        for (final String name : names) {
+            if (declared.contains(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an operator may be folded.
+     *
+     * @param operator the operator
+     * @return true if the arithmetic does not override nor overload it
+     */
+    private boolean isFoldable(final JexlOperator operator) {
+        return isFoldable(operator.getMethodName());
+    }
+
+    /**
+     * Checks whether a comparison operator may be folded.
+     *
+     * @param operator the operator
+     * @return true if the arithmetic does not override nor overload it nor the comparison
+     */
+    private boolean isComparable(final JexlOperator operator) {
+        return isFoldable(operator.getMethodName(), JexlOperator.COMPARE.getMethodName());
+    }
+
+    /**
+     * Checks whether both operands are numbers whose arithmetic does not depend on options.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return true if both are numbers but not BigDecimal
+     */
+    private static boolean isNumbers(final Object left, final Object right) {
+        return left instanceof Number && !(left instanceof BigDecimal)
+            && right instanceof Number && !(right instanceof BigDecimal);
+    }
+
+    /**
+     * Checks whether both operands are strings.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return true if both are strings
+     */
+    private static boolean isStrings(final Object left, final Object right) {
+        return left instanceof String && right instanceof String;
+    }
+
+    /**
+     * Checks whether both operands are booleans.
+     *
+     * @param left the left operand
+     * @param right the right operand
+     * @return true if both are booleans
+     */
+    private static boolean isBooleans(final Object left, final Object right) {
+        return left instanceof Boolean && right instanceof Boolean;
+    }
+
+    /**
+     * Checks whether a value can be the result of a fold.
+     *
+     * @param value the value
+     * @return true if a literal node can represent the value
+     */
+    private static boolean isLiteral(final Object value) {
+        if (value instanceof Number) {
+            if (value instanceof BigDecimal) {
+                return false;
+            }
+            if (value instanceof Double || value instanceof Float) {
+                final double d = ((Number) value).doubleValue();
+                return !Double.isNaN(d) && !Double.isInfinite(d);
+            }
+            return true;
+        }
+        return value instanceof String || value instanceof Boolean;
+    }
+
+    /**
+     * Creates a literal node.
+     *
+     * @param value the literal value
+     * @return the node
+     */
+    private static JexlNode createLiteral(final Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value
+                ? new ASTTrueNode(ParserTreeConstants.JJTTRUENODE)
+                : new ASTFalseNode(ParserTreeConstants.JJTFALSENODE);
+        }
+        if (value instanceof String) {
+            final ASTStringLiteral literal = new ASTStringLiteral(ParserTreeConstants.JJTSTRINGLITERAL);
+            literal.setLiteral((String) value);
+            return literal;
+        }
+        final ASTNumberLiteral literal = new ASTNumberLiteral(ParserTreeConstants.JJTNUMBERLITERAL);
+        literal.setNumber((Number) value);
+        return literal;
+    }
+
+    /**
+     * Gets the value of a literal child.
+     *
+     * @param node the parent node
+     * @param i the child index
+     * @return the literal value or null if the child is not a literal
+     */
+    private Object literal(final JexlNode node, final int i) {
+        final JexlNode child = node.jjtGetChild(i);
+        if (child instanceof ASTNumberLiteral
+            || child instanceof ASTStringLiteral
+            || child instanceof ASTTrueNode
+            || child instanceof ASTFalseNode) {
+            return child.jjtAccept(this, null);
+        }
+        return null;
+    }
+
+    /**
+     * Folds the children of a node, replacing the constant ones by literals.
+     *
+     * @param node the node
+     * @param data unused
+     * @return null
+     */
+    @Override
+    protected Object visitNode(final JexlNode node, final Object data) {
+        for (int i = 0; i < node.jjtGetNumChildren(); ++i) {
+            final JexlNode child = node.jjtGetChild(i);
+            final Object value = child.jjtAccept(this, data);
+            if (value != null && literal(node, i) == null) {
+                final JexlNode literal = createLiteral(value);
+                literal.jjtSetLocation(child);
+                literal.jjtSetParent(node);
+                node.jjtAddChild(literal, i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Folds a binary operation.
+     *
+     * @param node the operator node
+     * @param operator the operator
+     * @param data unused
+     * @return the folded value or null
+     */
+    private Object binary(final JexlNode node, final JexlOperator operator, final Object data) {
+        visitNode(node, data);
+        if (node.jjtGetNumChildren() != 2) {
+            return null;
+        }
+        final Object left = literal(node, 0);
+        final Object right = literal(node, 1);
+        if (left == null || right == null) {
+            return null;
+        }
+        Object result = null;
+        try {
+            switch (operator) {
+                case ADD:
+                    // a string and a number concatenate or add depending on the arithmetic strictness
+                    if (isFoldable(operator) && (isNumbers(left, right) || isStrings(left, right))) {
+                        result = arithmetic.add(left, right);
+                    }
+                    break;
+                case SUBTRACT:
+                    if (isFoldable(operator) && isNumbers(left, right)) {
+                        result = arithmetic.subtract(left, right);
+                    }
+                    break;
+                case MULTIPLY:
+                    if (isFoldable(operator) && isNumbers(left, right)) {
+                        result = arithmetic.multiply(left, right);
+                    }
+                    break;
+                case DIVIDE:
+                    if (isFoldable(operator) && isNumbers(left, right)) {
+                        result = arithmetic.divide(left, right);
+                    }
+                    break;
+                case MOD:
+                    if (isFoldable(operator) && isNumbers(left, right)) {
+                        result = arithmetic.mod(left, right);
+                    }
+                    break;
+                case EQ:
+                    if (isComparable(operator)
+                        && (isNumbers(left, right) || isStrings(left, right) || isBooleans(left, right))) {
+                        result = arithmetic.equals(left, right);
+                    }
+                    break;
+                case EQSTRICT:
+                    if (isFoldable(operator)) {
+                        result = arithmetic.strictEquals(left, right);
+                    }
+                    break;
+                case LT:
+                    if (isComparable(operator) && (isNumbers(left, right) || isStrings(left, right))) {
+                        result = arithmetic.lessThan(left, right);
+                    }
+                    break;
+                case LTE:
+                    if (isComparable(operator) && (isNumbers(left, right) || isStrings(left, right))) {
+                        result = arithmetic.lessThanOrEqual(left, right);
+                    }
+                    break;
+                case GT:
+                    if (isComparable(operator) && (isNumbers(left, right) || isStrings(left, right))) {
+                        result = arithmetic.greaterThan(left, right);
+                    }
+                    break;
+                case GTE:
+                    if (isComparable(operator) && (isNumbers(left, right) || isStrings(left, right))) {
+                        result = arithmetic.greaterThanOrEqual(left, right);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (final ArithmeticException xany) {
+            // let the evaluation report the error
+            return null;
+        }
+        return isLiteral(result) ? result : null;
+    }
+
+    /**
+     * Negates a folded boolean.
+     *
+     * @param value the value, maybe null
+     * @return the negated value or null
+     */
+    private static Object negate(final Object value) {
+        return value instanceof Boolean ? !(Boolean) value : null;
+    }
+
+    /**
+     * Computes the elements of a literal whose children are all literals.
+     *
+     * @param node the array or set literal node
+     * @return the elements or null if one is not a literal
+     */
+    private Object[] elements(final JexlNode node) {
+        final int count = node.jjtGetNumChildren();
+        final Object[] elements = new Object[count];
+        for (int i = 0; i < count; ++i) {
+            elements[i] = literal(node, i);
+            if (elements[i] == null) {
+                return null;
+            }
+        }
+        return elements;
+    }
+
+    @Override
+    protected Object visit(final ASTAddNode node, final Object data) {
+        return binary(node, JexlOperator.ADD, data);
+    }
+
+    @Override
+    protected Object visit(final ASTArrayLiteral node, final Object data) {
+        visitNode(node, data);
+        // folded children may have made this literal constant
+        node.jjtClose();
+        if (isFoldable("arrayBuilder")) {
+            node.jjtSetValue(elements(node));
+        }
+        return null;
+    }
+
+    @Override
+    protected Object visit(final ASTDivNode node, final Object data) {
+        return binary(node, JexlOperator.DIVIDE, data);
+    }
+
+    @Override
+    protected Object visit(final ASTEQNode node, final Object data) {
+        return binary(node, JexlOperator.EQ, data);
+    }
+
+    @Override
+    protected Object visit(final ASTEQSNode node, final Object data) {
+        return binary(node, JexlOperator.EQSTRICT, data);
+    }
+
+    @Override
+    protected Object visit(final ASTFalseNode node, final Object data) {
+        return Boolean.FALSE;
+    }
+
+    @Override
+    protected Object visit(final ASTGENode node, final Object data) {
+        return binary(node, JexlOperator.GTE, data);
+    }
+
+    @Override
+    protected Object visit(final ASTGTNode node, final Object data) {
+        return binary(node, JexlOperator.GT, data);
+    }
+
+    @Override
+    protected Object visit(final ASTLENode node, final Object data) {
+        return binary(node, JexlOperator.LTE, data);
+    }
+
+    @Override
+    protected Object visit(final ASTLTNode node, final Object data) {
+        return binary(node, JexlOperator.LT, data);
+    }
+
+    @Override
+    protected Object visit(final ASTMapLiteral node, final Object data) {
+        visitNode(node, data);
+        node.jjtClose();
+        if (isFoldable("mapBuilder")) {
+            final int count = node.jjtGetNumChildren();
+            final Object[] entries = new Object[2 * count];
+            for (int i = 0; i < count; ++i) {
+                final JexlNode entry = node.jjtGetChild(i);
+                if (!(entry instanceof ASTMapEntry)) {
+                    return null;
+                }
+                final Object key = literal(entry, 0);
+                final Object value = literal(entry, 1);
+                if (key == null || value == null) {
+                    return null;
+                }
+                entries[2 * i] = key;
+                entries[2 * i + 1] = value;
+            }
+            node.jjtSetValue(entries);
+        }
+        return null;
+    }
+
+    @Override
+    protected Object visit(final ASTModNode node, final Object data) {
+        return binary(node, JexlOperator.MOD, data);
+    }
+
+    @Override
+    protected Object visit(final ASTMulNode node, final Object data) {
+        return binary(node, JexlOperator.MULTIPLY, data);
+    }
+
+    @Override
+    protected Object visit(final ASTNENode node, final Object data) {
+        return negate(binary(node, JexlOperator.EQ, data));
+    }
+
+    @Override
+    protected Object visit(final ASTNESNode node, final Object data) {
+        return negate(binary(node, JexlOperator.EQSTRICT, data));
+    }
+
+    @Override
+    protected Object visit(final ASTNotNode node, final Object data) {
+        visitNode(node, data);
+        final Object value = literal(node, 0);
+        if (value instanceof Boolean && isFoldable(JexlOperator.NOT)) {
+            return negate(value);
+        }
+        return null;
+    }
+
+    @Override
+    protected Object visit(final ASTNumberLiteral node, final Object data) {
+        return node.getLiteral();
+    }
+
+    @Override
+    protected Object visit(final ASTReferenceExpression node, final Object data) {
+        visitNode(node, data);
+        // a parenthesized constant is a constant unless it is dereferenced
+        if (node.jjtGetNumChildren() == 1 && !(node.jjtGetParent() instanceof ASTReference)) {
+            return literal(node, 0);
+        }
+        return null;
+    }
+
+    @Override
+    protected Object visit(final ASTSetLiteral node, final Object data) {
+        visitNode(node, data);
+        node.jjtClose();
+        if (isFoldable("setBuilder")) {
+            node.jjtSetValue(elements(node));
+        }
+        return null;
+    }
+
+    @Override
+    protected Object visit(final ASTStringLiteral node, final Object data) {
+        return node.getLiteral();
+    }
+
+    @Override
+    protected Object visit(final ASTSubNode node, final Object data) {
+        return binary(node, JexlOperator.SUBTRACT, data);
+    }
+
+    @Override
+    protected Object visit(final ASTTrueNode node, final Object data) {
+        return Boolean.TRUE;
+    }
+
+    @Override
+    protected Object visit(final ASTUnaryMinusNode node, final Object data) {
+        visitNode(node, data);
+        final JexlNode child = node.jjtGetChild(0);
+        if (child instanceof ASTNumberLiteral
+            && isFoldable(JexlOperator.NEGATE)
+            && arithmetic.isNegateStable()) {
+            final ASTNumberLiteral literal = (ASTNumberLiteral) child;
+            if (!(literal.getLiteral() instanceof BigDecimal)) {
+                try {
+                    // as the interpreter does, coerce back to the literal class
+                    final Object number = arithmetic.negate(literal.getLiteral());
+                    if (number instanceof Number) {
+                        final Number result = arithmetic.narrowNumber((Number) number, literal.getLiteralClass());
+                        return isLiteral(result) ? result : null;
+                    }
+                } catch (final ArithmeticException xany) {
+                    // let the evaluation report the error
+                }
+            }
+        }
+        return null;
+    }
+}
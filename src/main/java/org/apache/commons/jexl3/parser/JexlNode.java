@@ -360,6 +360,16 @@ public abstract class JexlNode extends SimpleNode implements JexlCache.Reference
         this.lc = t.beginLine << 0xc | 0xfff & t.beginColumn;
     }
 
+    /**
+     * Sets this node location as the one of another node.
+     * <p>Used when this node replaces the other one in a tree.</p>
+     *
+     * @param node the node to copy the location from
+     */
+    void jjtSetLocation(final JexlNode node) {
+        this.lc = node.lc;
+    }
+
     public void jjtSetLastToken(final Token t) {
         // nothing
     }
@@ -65,6 +65,18 @@ public final class NumberParser implements Serializable {
     /** The expected class. */
     private Class<? extends Number> clazz;
 
+    /**
+     * Sets this node as a computed number.
+     *
+     * @param number the number
+     * @return this parser instance
+     */
+    NumberParser assign(final Number number) {
+        literal = number;
+        clazz = number.getClass();
+        return this;
+    }
+
     /**
      * Sets this node as a natural literal.
      * Originally from OGNL.
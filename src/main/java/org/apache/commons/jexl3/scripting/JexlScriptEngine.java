@@ -22,18 +22,24 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
 import java.util.Objects;
 
 import javax.script.AbstractScriptEngine;
 import javax.script.Bindings;
 import javax.script.Compilable;
 import javax.script.CompiledScript;
+import javax.script.Invocable;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
 import javax.script.ScriptException;
 import javax.script.SimpleBindings;
 
+import org.apache.commons.jexl3.JexlCache;
 import org.apache.commons.jexl3.JexlContext;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
@@ -56,13 +62,21 @@ import org.apache.commons.logging.LogFactory;
  * The implementation also creates the "JEXL" script object as an instance of the
  * class {@link JexlScriptObject} for access to utility methods and variables.
  * </p>
+ * <p>
+ * Scripts are compiled once per source and kept in a cache local to each engine instance, created by the
+ * JEXL engine cache factory; evaluating the same source again reuses the compiled script, whatever its length.
+ * </p>
+ * <p>
+ * Functions a script stores in a variable - as in {@code add = (x, y) -> x + y} - can be called
+ * through the {@link Invocable} interface without evaluating the script again.
+ * </p>
  * See
  * <a href="https://java.sun.com/javase/6/docs/api/javax/script/package-summary.html">Java Scripting API</a>
  * Javadoc.
  *
  * @since 2.0
  */
-public class JexlScriptEngine extends AbstractScriptEngine implements Compilable {
+public class JexlScriptEngine extends AbstractScriptEngine implements Compilable, Invocable {
     /**
      * A factory that shares the JexlEngine instance between all JexlScriptEngine instances it creates.
      * <p>All JexlScriptEngine instances created by this factory share the same JexlEngine instance and JexlUberspect instance.</p>
@@ -129,7 +143,7 @@ public class JexlScriptEngine extends AbstractScriptEngine implements Compilable
     /**
      * Wrapper to help convert a JEXL JexlScript into a JSR-223 CompiledScript.
      */
-    private final class JexlCompiledScript extends CompiledScript {
+    final class JexlCompiledScript extends CompiledScript {
 
         /** The underlying JEXL expression instance. */
         private final JexlScript script;
@@ -143,6 +157,13 @@ public class JexlScriptEngine extends AbstractScriptEngine implements Compilable
             script = theScript;
         }
 
+        /**
+         * @return the underlying JEXL script
+         */
+        JexlScript getScript() {
+            return script;
+        }
+
         @Override
         public Object eval(final ScriptContext context) throws ScriptException {
             // This is mandated by JSR-223 (end of section SCR.4.3.4.1.2 - JexlScript Execution)
@@ -168,13 +189,17 @@ public class JexlScriptEngine extends AbstractScriptEngine implements Compilable
 
     /**
      * Wrapper to help convert a JSR-223 ScriptContext into a JexlContext.
-     * <p>The current implementation only gives access to ENGINE_SCOPE binding.</p>
+     * <p>Variables are resolved in the ENGINE_SCOPE bindings first; other scopes are only walked
+     * when a variable is not found there.</p>
      */
     private final class JexlContextWrapper implements JexlContext {
 
         /** The wrapped script context. */
         final ScriptContext scriptContext;
 
+        /** The engine scope bindings. */
+        final Bindings engineBindings;
+
         /**
          * Creates a context wrapper.
          *
@@ -182,28 +207,37 @@ public class JexlScriptEngine extends AbstractScriptEngine implements Compilable
          */
         JexlContextWrapper (final ScriptContext theContext){
             scriptContext = theContext;
+            engineBindings = theContext.getBindings(ScriptContext.ENGINE_SCOPE);
         }
 
         @Override
         public Object get(final String name) {
-            final Object o = scriptContext.getAttribute(name);
             if (JEXL_OBJECT_KEY.equals(name)) {
-                if (o != null) {
+                if (scriptContext.getAttribute(name) != null) {
                     LOG.warn("JEXL is a reserved variable name, user-defined value is ignored");
                 }
                 return jexlObject;
             }
-            return o;
+            if (engineBindings != null) {
+                final Object o = engineBindings.get(name);
+                if (o != null || engineBindings.containsKey(name)) {
+                    return o;
+                }
+            }
+            return scriptContext.getAttribute(name);
         }
 
         @Override
         public boolean has(final String name) {
-            final Bindings bnd = scriptContext.getBindings(ScriptContext.ENGINE_SCOPE);
-            return bnd.containsKey(name);
+            return engineBindings != null && engineBindings.containsKey(name);
         }
 
         @Override
         public void set(final String name, final Object value) {
+            if (engineBindings != null && engineBindings.containsKey(name)) {
+                engineBindings.put(name, value);
+                return;
+            }
             int scope = scriptContext.getAttributesScope(name);
             if (scope == -1) { // not found, default to engine
                 scope = ScriptContext.ENGINE_SCOPE;
@@ -405,6 +439,9 @@ public class JexlScriptEngine extends AbstractScriptEngine implements Compilable
     /** The JEXL EL engine. */
     final JexlEngine jexlEngine;
 
+    /** The compiled scripts, keyed by source; null if the JEXL engine does not create caches. */
+    private final JexlCache<String, JexlScript> scripts;
+
     /**
      * Default constructor.
      *
@@ -434,6 +471,7 @@ public class JexlScriptEngine extends AbstractScriptEngine implements Compilable
         parentFactory = scriptEngineFactory;
         jexlEngine = scriptEngineFactory.getEngine();
         jexlObject = new JexlScriptObject();
+        scripts = jexlEngine.newCache(CACHE_SIZE);
     }
 
     @Override
@@ -448,13 +486,31 @@ public class JexlScriptEngine extends AbstractScriptEngine implements Compilable
         // This is mandated by JSR-223
         Objects.requireNonNull(script, SCRIPT);
         try {
-            final JexlScript jexlScript = jexlEngine.createScript(script);
+            final JexlScript jexlScript = createScript(script);
             return new JexlCompiledScript(jexlScript);
         } catch (final Exception e) {
             throw scriptException(e);
         }
     }
 
+    /**
+     * Creates a script, reusing the compiled version of the same source if any.
+     *
+     * @param source The script source
+     * @return The script
+     */
+    private JexlScript createScript(final String source) {
+        if (scripts == null) {
+            return jexlEngine.createScript(source);
+        }
+        JexlScript script = scripts.get(source);
+        if (script == null) {
+            script = jexlEngine.createScript(source);
+            scripts.put(source, script);
+        }
+        return script;
+    }
+
     @Override
     public Bindings createBindings() {
         return new SimpleBindings();
@@ -476,7 +532,7 @@ public class JexlScriptEngine extends AbstractScriptEngine implements Compilable
         // This is mandated by JSR-223 (end of section SCR.4.3.4.1.2 - JexlScript Execution)
         context.setAttribute(CONTEXT_KEY, context, ScriptContext.ENGINE_SCOPE);
         try {
-            final JexlScript jexlScript = jexlEngine.createScript(script);
+            final JexlScript jexlScript = createScript(script);
             final JexlContext ctxt = new JexlContextWrapper(context);
             return jexlScript.execute(ctxt);
         } catch (final Exception e) {
@@ -488,4 +544,167 @@ public class JexlScriptEngine extends AbstractScriptEngine implements Compilable
     public ScriptEngineFactory getFactory() {
         return parentFactory;
     }
+
+    /**
+     * Calls a function a script stored in this engine context.
+     * <p>The function is a script or a lambda the ENGINE_SCOPE or GLOBAL_SCOPE bindings hold
+     * under the function name.</p>
+     *
+     * @param name The function name
+     * @param args The function arguments
+     * @return The function returned value
+     * @throws ScriptException if the function fails
+     * @throws NoSuchMethodException if no such function exists
+     */
+    @Override
+    public Object invokeFunction(final String name, final Object... args) throws ScriptException, NoSuchMethodException {
+        Objects.requireNonNull(name, "name");
+        final JexlContext ctxt = new JexlContextWrapper(getContext());
+        final Object function = ctxt.get(name);
+        if (!(function instanceof JexlScript)) {
+            throw new NoSuchMethodException(name);
+        }
+        try {
+            return ((JexlScript) function).execute(ctxt, args);
+        } catch (final Exception e) {
+            throw scriptException(e);
+        }
+    }
+
+    @Override
+    public Object invokeMethod(final Object thiz, final String name, final Object... args)
+        throws ScriptException, NoSuchMethodException {
+        Objects.requireNonNull(name, "name");
+        if (thiz == null) {
+            throw new IllegalArgumentException("object is null");
+        }
+        final Object result;
+        try {
+            result = jexlEngine.invokeMethod(thiz, name, args);
+        } catch (final JexlException.Method xmethod) {
+            if (xmethod.getCause() != null) {
+                throw scriptException(xmethod);
+            }
+            final NoSuchMethodException xnsm = new NoSuchMethodException(name);
+            xnsm.initCause(xmethod);
+            throw xnsm;
+        } catch (final Exception e) {
+            throw scriptException(e);
+        }
+        // a silent engine logs the missing method and returns null
+        if (result == null && jexlEngine.isSilent() && jexlEngine.getUberspect().getMethod(thiz, name, args) == null) {
+            throw new NoSuchMethodException(name);
+        }
+        return result;
+    }
+
+    @Override
+    public <T> T getInterface(final Class<T> clasz) {
+        return getInterface(null, clasz);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Returns null when a method of the interface has no matching function in the engine context or,
+     * if an object is given, no public method of the same name and number of parameters.</p>
+     */
+    @Override
+    public <T> T getInterface(final Object thiz, final Class<T> clasz) {
+        if (clasz == null || !clasz.isInterface()) {
+            throw new IllegalArgumentException("interface expected");
+        }
+        if (!implementable(thiz, clasz)) {
+            return null;
+        }
+        final InvocationHandler handler = (proxy, method, args) -> {
+            // functions do not implement the Object methods an interface may redeclare, objects do
+            if (method.getDeclaringClass() == Object.class || thiz == null && isObjectMethod(method)) {
+                return objectMethod(proxy, method, args);
+            }
+            final Object[] argv = args != null ? args : new Object[0];
+            return thiz == null
+                ? invokeFunction(method.getName(), argv)
+                : invokeMethod(thiz, method.getName(), argv);
+        };
+        return clasz.cast(Proxy.newProxyInstance(clasz.getClassLoader(), new Class<?>[]{clasz}, handler));
+    }
+
+    /**
+     * Checks whether the abstract methods of an interface can be implemented by functions or object methods.
+     *
+     * @param thiz The object, null to use functions
+     * @param clasz The interface
+     * @return true if every abstract method has a target
+     */
+    private boolean implementable(final Object thiz, final Class<?> clasz) {
+        final JexlContext ctxt = thiz == null ? new JexlContextWrapper(getContext()) : null;
+        for (final Method method : clasz.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers()) || thiz == null && isObjectMethod(method)) {
+                continue;
+            }
+            if (thiz == null) {
+                if (!(ctxt.get(method.getName()) instanceof JexlScript)) {
+                    return false;
+                }
+            } else if (!hasMethod(thiz.getClass(), method)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a method is one of the Object methods a proxy dispatches, possibly redeclared
+     * by an interface as Comparator.equals is.
+     *
+     * @param method The method
+     * @return true if the method is equals, hashCode or toString
+     */
+    private static boolean isObjectMethod(final Method method) {
+        switch (method.getName()) {
+            case "equals":
+                return method.getParameterCount() == 1 && method.getParameterTypes()[0] == Object.class;
+            case "hashCode":
+            case "toString":
+                return method.getParameterCount() == 0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks whether a class has a public method with the same name and number of parameters as another.
+     *
+     * @param clazz The class
+     * @param method The method
+     * @return true if such a method exists
+     */
+    private static boolean hasMethod(final Class<?> clazz, final Method method) {
+        for (final Method candidate : clazz.getMethods()) {
+            if (candidate.getName().equals(method.getName())
+                && candidate.getParameterCount() == method.getParameterCount()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Implements the Object methods of interface proxies.
+     *
+     * @param proxy The proxy
+     * @param method The Object method
+     * @param args The arguments
+     * @return The method result
+     */
+    private static Object objectMethod(final Object proxy, final Method method, final Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return proxy.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+        }
+    }
 }
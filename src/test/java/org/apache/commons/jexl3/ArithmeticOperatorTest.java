@@ -21,6 +21,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -47,6 +49,7 @@ import java.util.TimeZone;
 import java.util.TreeSet;
 import java.util.regex.Pattern;
 
+import org.apache.commons.jexl3.internal.SoftCache;
 import org.apache.commons.jexl3.junit.Asserter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -468,6 +471,45 @@ class ArithmeticOperatorTest extends JexlTestCase {
         }
     }
 
+    public static class ContainsArithmetic extends JexlArithmetic {
+        public ContainsArithmetic(final boolean strict) {
+            super(strict);
+        }
+
+        @Override
+        public Boolean contains(final Object container, final Object value) {
+            return value instanceof String && "*".equals(value) || super.contains(container, value);
+        }
+    }
+
+    @Test
+    void testMatchConstantLiteral() throws Exception {
+        final Object[] values = {1, 2L, 3.0d, "A", "Z", 'B', null, true, new int[]{1, 3}, Arrays.asList(1, 4), "*"};
+        for (final boolean folding : new boolean[]{false, true}) {
+            final JexlEngine jexl = new JexlBuilder().constantFolding(folding).strict(true).create();
+            for (final String literal : new String[]{"[1, 2, 3, 'A', 'B', null]", "{1, 2, 3, 'A', 'B', null}",
+                                                     "[1, 2L, 3, 4]", "[1, 2, 3, 4, ...]", "[]"}) {
+                final JexlScript in = jexl.createScript("x =~ " + literal, "x");
+                final JexlScript out = jexl.createScript("x !~ " + literal, "x");
+                final JexlScript ref = jexl.createScript("x =~ y", "x", "y");
+                final Object container = jexl.createExpression(literal).evaluate(null);
+                for (int i = 0; i < 2; ++i) {
+                    for (final Object value : values) {
+                        final Object expected = ref.execute(null, value, container);
+                        assertEquals(expected, in.execute(null, value), literal + " " + value);
+                        assertEquals(!(Boolean) expected, out.execute(null, value), literal + " " + value);
+                    }
+                }
+            }
+        }
+        // an arithmetic overriding contains is still called
+        final JexlEngine jexl = new JexlBuilder().arithmetic(new ContainsArithmetic(true)).create();
+        final JexlScript in = jexl.createScript("x =~ ['A', 'B']", "x");
+        assertEquals(true, in.execute(null, "A"));
+        assertEquals(true, in.execute(null, "*"));
+        assertEquals(false, in.execute(null, "C"));
+    }
+
     @Test
     void testNotStartsEndsWith() throws Exception {
         asserter.setVariable("x", "foobar");
@@ -576,6 +618,47 @@ class ArithmeticOperatorTest extends JexlTestCase {
         asserter.assertExpression("'z' !~ ['a','b','c','d','e','f']", Boolean.TRUE);
     }
 
+    @Test
+    void testRegexpCache() throws Exception {
+        final JexlEngine jexl = new JexlBuilder().regexCache(8).create();
+        final JexlCache<String, Pattern> patterns = jexl.getArithmetic().getPatternCache();
+        assertNotNull(patterns);
+        assertEquals(8, patterns.capacity());
+        final JexlScript script = jexl.createScript("str =~ match", "str", "match");
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(true, script.execute(null, "abc456", "abc.*"));
+            assertEquals(false, script.execute(null, "abc456", ".*123"));
+            assertEquals(true, script.execute(null, "abc456", new StringBuilder(".*456")));
+        }
+        assertEquals(3, patterns.size());
+        assertEquals("abc.*", patterns.get("abc.*").pattern());
+        // options derived arithmetic share the cache
+        final JexlOptions options = new JexlOptions();
+        options.setStrictArithmetic(!jexl.getArithmetic().isStrict());
+        assertSame(patterns, jexl.getArithmetic().options(options).getPatternCache());
+        // an invalid expression still fails
+        assertThrows(JexlException.class, () -> script.execute(null, "abc456", "abc("));
+        // no cache
+        final JexlEngine nocache = new JexlBuilder().regexCache(0).create();
+        assertNull(nocache.getArithmetic().getPatternCache());
+        assertEquals(true, nocache.createScript("str =~ match", "str", "match").execute(null, "abc456", "abc.*"));
+        // a shared arithmetic keeps its cache
+        final JexlArithmetic shared = new JexlArithmetic(true);
+        final JexlEngine first = new JexlBuilder().arithmetic(shared).regexCache(8).create();
+        final JexlCache<String, Pattern> sharedPatterns = shared.getPatternCache();
+        assertNotNull(sharedPatterns);
+        new JexlBuilder().arithmetic(shared).regexCache(16).create();
+        assertSame(sharedPatterns, shared.getPatternCache());
+        new JexlBuilder().arithmetic(shared).regexCache(0).create();
+        assertSame(sharedPatterns, first.getArithmetic().getPatternCache());
+        // as does an arithmetic with a user cache
+        final JexlArithmetic custom = new JexlArithmetic(true);
+        final JexlCache<String, Pattern> userPatterns = new SoftCache<>(4);
+        custom.setPatternCache(userPatterns);
+        new JexlBuilder().arithmetic(custom).create();
+        assertSame(userPatterns, custom.getPatternCache());
+    }
+
     @Test
     void testRegexp2() throws Exception {
         asserter.setVariable("str", "abc456");
@@ -31,6 +31,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.apache.commons.jexl3.internal.FrequencyCache;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.jupiter.api.Test;
@@ -172,6 +173,13 @@ class CachePerformanceTest {
         runTest("testConcurrent", jexl);
     }
 
+    @Test
+    void testFrequency() throws Exception {
+        final JexlBuilder builder = new JexlBuilder().cacheFactory(FrequencyCache::new).cache(CACHED);
+        final JexlEngine jexl = builder.create();
+        runTest("testFrequency", jexl);
+    }
+
     @Test
     void testSpread() throws Exception {
         final JexlBuilder builder = new JexlBuilder().cacheFactory(SpreadCache::new).cache(CACHED);
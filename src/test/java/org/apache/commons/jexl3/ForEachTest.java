@@ -25,10 +25,14 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.StringTokenizer;
 
+import org.apache.commons.jexl3.internal.introspection.Uberspect;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -209,4 +213,66 @@ class ForEachTest extends JexlTestCase {
         final String resrc = toString(script);
         assertEquals(src, resrc);
     }
+
+    @Test
+    void testForEachIndexed() {
+        final JexlEngine jexl = new JexlBuilder().safe(false).strict(true).create();
+        final JexlScript sum = jexl.createScript("var s = 0; for (var x : xs) { s = s + x; } s", "xs");
+        assertEquals(10, sum.execute(null, (Object) new int[]{1, 2, 3, 4}));
+        assertEquals(10.5d, sum.execute(null, (Object) new double[]{1.5d, 2d, 3d, 4d}));
+        assertEquals(10, sum.execute(null, (Object) new Integer[]{1, 2, 3, 4}));
+        assertEquals(10, sum.execute(null, Arrays.asList(1, 2, 3, 4)));
+        assertEquals(10, sum.execute(null, new java.util.LinkedList<>(Arrays.asList(1, 2, 3, 4))));
+        assertEquals(0, sum.execute(null, (Object) new int[0]));
+        // arrays and ranges keep their order
+        final JexlScript order = jexl.createScript("var s = ''; for (var x : xs) { s = s + x; } s", "xs");
+        assertEquals("1234", order.execute(null, (Object) new long[]{1L, 2L, 3L, 4L}));
+        assertEquals("1234", order.execute(null, (Object) new short[]{1, 2, 3, 4}));
+        assertEquals("1234", order.execute(null, jexl.createExpression("1 .. 4").evaluate(null)));
+        assertEquals("4321", order.execute(null, jexl.createExpression("4 .. 1").evaluate(null)));
+        assertEquals("1234", order.execute(null, jexl.createExpression("1L .. 4L").evaluate(null)));
+        assertEquals("4321", order.execute(null, jexl.createExpression("4L .. 1L").evaluate(null)));
+    }
+
+    @Test
+    void testForEachConcurrentModification() {
+        final JexlEngine jexl = new JexlBuilder().permissions(JexlPermissions.UNRESTRICTED).safe(false).strict(true).create();
+        final JexlScript append = jexl.createScript("for (var x : xs) { xs.add(x); } xs.size()", "xs");
+        assertThrows(ConcurrentModificationException.class, () -> append.execute(null, new ArrayList<>(Arrays.asList(1, 2, 3))));
+        final JexlScript remove = jexl.createScript("for (var x : xs) { xs.remove(0); } xs.size()", "xs");
+        assertThrows(ConcurrentModificationException.class, () -> remove.execute(null, new ArrayList<>(Arrays.asList(1, 2, 3))));
+    }
+
+    @Test
+    void testForEachCustomUberspect() {
+        final List<Object> iterated = new ArrayList<>();
+        final Uberspect uberspect = new Uberspect(null, null, JexlPermissions.UNRESTRICTED) {
+            @Override
+            public Iterator<?> getIterator(final Object obj) {
+                iterated.add(obj);
+                return super.getIterator(obj);
+            }
+        };
+        final JexlEngine jexl = new JexlBuilder().uberspect(uberspect).safe(false).strict(true).create();
+        final JexlScript sum = jexl.createScript("var s = 0; for (var x : xs) { s = s + x; } s", "xs");
+        final int[] ints = {1, 2, 3, 4};
+        final Object range = jexl.createExpression("1 .. 4").evaluate(null);
+        final List<Integer> list = Arrays.asList(1, 2, 3, 4);
+        assertEquals(10, sum.execute(null, (Object) ints));
+        assertEquals(10, sum.execute(null, range));
+        assertEquals(10, sum.execute(null, list));
+        assertEquals(Arrays.asList(ints, range, list), iterated);
+    }
+
+    @Test
+    void testForEachLexicalRedefine() {
+        final JexlEngine jexl = new JexlBuilder().safe(false).strict(true).lexical(true).create();
+        final JexlScript script = jexl.createScript(
+            "for (let x : xs) { let y = x * 2; fs.add(() -> x + y); } fs", "xs", "fs");
+        final List<?> fs = (List<?>) script.execute(null, new int[]{1, 2, 3}, new ArrayList<>());
+        assertEquals(3, fs.size());
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(3 * (i + 1), ((JexlScript) fs.get(i)).execute(null));
+        }
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the slot indexed context.
+ */
+class IndexedContextTest extends JexlTestCase {
+
+    IndexedContextTest() {
+        super("IndexedContextTest");
+    }
+
+    @Test
+    void testContext() {
+        final IndexedContext.Layout layout = new IndexedContext.Layout("x", "y");
+        assertEquals(2, layout.size());
+        assertEquals(1, layout.find("y"));
+        assertEquals(-1, layout.find("z"));
+        final IndexedContext ctxt = new IndexedContext(layout);
+        assertFalse(ctxt.has("x"));
+        assertFalse(ctxt.has("z"));
+        ctxt.set("x", null);
+        assertTrue(ctxt.has("x"));
+        assertTrue(ctxt.has(0));
+        assertNull(ctxt.get("x"));
+        ctxt.set("z", 42);
+        assertEquals(2, layout.find("z"));
+        assertEquals("z", layout.getName(2));
+        assertEquals(42, ctxt.get(2));
+        // contexts sharing a layout see the same slots
+        final IndexedContext other = new IndexedContext(layout);
+        assertFalse(other.has("z"));
+        other.set(layout.slot("z"), 43);
+        assertEquals(43, other.get("z"));
+        ctxt.clear();
+        assertFalse(ctxt.has("x"));
+        assertFalse(ctxt.has("z"));
+    }
+
+    @Test
+    void testScript() {
+        final JexlEngine jexl = new JexlBuilder().create();
+        final JexlScript script = jexl.createScript("z = 0; for (i : items) { z += i * x; } y = z; z");
+        final IndexedContext.Layout layout = new IndexedContext.Layout();
+        for (int x = 1; x < 4; ++x) {
+            final IndexedContext ctxt = new IndexedContext(layout);
+            ctxt.set("x", x);
+            ctxt.set("items", Arrays.asList(1, 2, 3));
+            assertEquals(6 * x, script.execute(ctxt));
+            assertEquals(6 * x, ctxt.get("y"));
+            assertEquals(3, ctxt.get("i"));
+        }
+        // a different layout, names get different slots
+        final IndexedContext ctxt = new IndexedContext(new IndexedContext.Layout("a", "b", "items", "x"));
+        ctxt.set("x", 10);
+        ctxt.set("items", Arrays.asList(1, 2));
+        assertEquals(30, script.execute(ctxt));
+        assertEquals(30, ctxt.get("y"));
+        // name based context still works
+        final MapContext map = new MapContext();
+        map.set("x", 2);
+        map.set("items", Arrays.asList(1, 2));
+        assertEquals(6, script.execute(map));
+        assertEquals(6, map.get("y"));
+    }
+
+    @Test
+    void testReadDoesNotAllocate() {
+        final JexlEngine jexl = new JexlBuilder().strict(false).create();
+        final JexlScript script = jexl.createScript("a ?? b ?? c ?? 0");
+        final IndexedContext.Layout layout = new IndexedContext.Layout();
+        final IndexedContext ctxt = new IndexedContext(layout);
+        for (int i = 0; i < 2; ++i) {
+            assertEquals(0, script.execute(ctxt));
+        }
+        // reading undefined variables does not grow the layout
+        assertEquals(0, layout.size());
+        ctxt.set("b", 7);
+        assertEquals(7, script.execute(ctxt));
+        assertEquals(1, layout.size());
+        // assignments allocate
+        jexl.createScript("d = b + 1").execute(ctxt);
+        assertEquals(2, layout.size());
+        assertEquals(8, ctxt.get("d"));
+    }
+
+    @Test
+    void testUndefined() {
+        final JexlEngine jexl = new JexlBuilder().strict(true).create();
+        final JexlScript script = jexl.createScript("x + 1");
+        final IndexedContext ctxt = new IndexedContext();
+        assertThrows(JexlException.Variable.class, () -> script.execute(ctxt));
+        ctxt.set("x", null);
+        assertThrows(JexlException.class, () -> script.execute(ctxt));
+        ctxt.set("x", 41);
+        assertEquals(42, script.execute(ctxt));
+        // lexical shade requires the variable to be defined
+        final JexlEngine shade = new JexlBuilder().strict(true).lexicalShade(true).create();
+        final JexlScript assign = shade.createScript("y = 1");
+        assertThrows(JexlException.Variable.class, () -> assign.execute(ctxt));
+        ctxt.set("y", 0);
+        assertEquals(1, assign.execute(ctxt));
+        assertEquals(1, ctxt.get("y"));
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.commons.jexl3;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -26,11 +27,15 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.Method;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -1477,4 +1482,79 @@ class JXLTTest extends JexlTestCase {
         t.evaluate(context, writer, froboz);
         assertEquals("froboz{42}", writer.toString());
     }
+
+    @ParameterizedTest
+    @MethodSource("engines")
+    void testPrintValues(final JexlBuilder builder) {
+        init(builder);
+        final JxltEngine.Template t = JXLT.createTemplate("$$", new StringReader(
+            "$$ for (var x : values) {\n${x};\n$$ }\n"));
+        final Object[] values = {42, -7L, (short) 3, (byte) -128, Long.MIN_VALUE, 'c', 1.5d, true, null, "s"};
+        context.set("values", values);
+        StringWriter strw = new StringWriter();
+        t.evaluate(context, strw);
+        assertEquals("42;\n-7;\n3;\n-128;\n" + Long.MIN_VALUE + ";\nc;\n1.5;\ntrue;\n;\ns;\n", strw.toString());
+        // writer print methods take precedence
+        strw = new StringWriter();
+        context.set("values", new Object[]{new Froboz(1), 2, new Froboz(3)});
+        t.evaluate(context, new FrobozWriter(strw));
+        assertEquals("froboz{1};\n2;\nfroboz{3};\n", strw.toString());
+    }
+
+    @ParameterizedTest
+    @MethodSource("engines")
+    void testPrintFormatter(final JexlBuilder builder) {
+        init(builder);
+        assertNull(JXLT.getFormatter());
+        final JxltEngine.Formatter formatter = value -> value instanceof Number ? "#" + value : value == null ? "-" : null;
+        assertTrue(JXLT.setFormatter(formatter));
+        try {
+            assertSame(formatter, JXLT.getFormatter());
+            final JxltEngine.Template t = JXLT.createTemplate("$$", new StringReader(
+                "$$ for (var x : values) {\n${x} \n$$ }\n"));
+            context.set("values", new Object[]{1, "a", null, 2.5d});
+            final StringWriter strw = new StringWriter();
+            t.evaluate(context, strw);
+            assertEquals("#1 \na \n- \n#2.5 \n", strw.toString());
+        } finally {
+            JXLT.setFormatter(null);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("engines")
+    void testEvaluateBytes(final JexlBuilder builder) {
+        init(builder.charset(StandardCharsets.UTF_8));
+        final JxltEngine.Template t = JXLT.createTemplate("$$", new StringReader(
+            "<p>\u00e9t\u00e9 \ud83d\ude00</p>\n"
+            + "$$ for (var x : values) {\n"
+            + "<i>${x}</i> ${x + '\u20ac'}\n"
+            + "$$ }\n"), "values");
+        final Object[] values = {1, "\u00e0", 2.5d, null};
+        final StringWriter strw = new StringWriter();
+        t.evaluate(context, strw, (Object) values);
+        final byte[] expected = strw.toString().getBytes(StandardCharsets.UTF_8);
+        // stream
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        t.evaluateBytes(context, out, (Object) values);
+        assertArrayEquals(expected, out.toByteArray());
+        // buffer
+        final ByteBuffer buffer = ByteBuffer.allocate(expected.length + 8);
+        buffer.put((byte) '!');
+        t.evaluateBytes(context, buffer, (Object) values);
+        assertEquals(expected.length + 1, buffer.position());
+        final byte[] actual = new byte[expected.length];
+        buffer.flip();
+        buffer.get();
+        buffer.get(actual);
+        assertArrayEquals(expected, actual);
+        // too small
+        final ByteBuffer small = ByteBuffer.allocate(expected.length / 2);
+        assertThrows(BufferOverflowException.class, () -> t.evaluateBytes(context, small, (Object) values));
+        // a value ending with a lone high surrogate followed by encoded text keeps the output order
+        final JxltEngine.Template h = JXLT.createTemplate("$$", new StringReader("${x}abc\n"), "x");
+        final ByteArrayOutputStream hout = new ByteArrayOutputStream();
+        h.evaluateBytes(context, hout, "a\ud83d");
+        assertEquals("a?abc\n", new String(hout.toByteArray(), StandardCharsets.UTF_8));
+    }
 }
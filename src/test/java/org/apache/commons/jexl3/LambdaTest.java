@@ -23,10 +23,14 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.jexl3.internal.Closure;
 import org.apache.commons.jexl3.internal.Script;
@@ -494,6 +498,33 @@ class LambdaTest extends JexlTestCase {
         assertEquals(720, result);
     }
 
+    @Test void testRecycledFrames() throws Exception {
+        final JexlEngine jexl = createEngine();
+        // locals do not survive a call
+        JexlScript script = jexl.createScript("var f = (x)->{ var y; if (x > 0) y = x; y }; [f(1), f(0), f(2)]");
+        assertArrayEquals(new Object[]{ 1, null, 2 }, (Object[]) script.execute(null));
+        // nested calls of the same lambda
+        script = jexl.createScript("var g = (x)-> x + 1; var h = (x)-> g(g(x)) * g(x); h(1)");
+        assertEquals(6, script.execute(null));
+        // the same closure called concurrently
+        final JexlScript f = (JexlScript) jexl.createScript("var f = (x, y)->{ var z = x * y; z + x }; f").execute(null);
+        final JexlScript call = jexl.createScript("var s = 0; for (var i : 0..99) s += f(i, n); s", "f", "n");
+        final List<Callable<Object>> tasks = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            tasks.add(call.callable(null, f, t));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            final List<Future<Object>> futures = executor.invokeAll(tasks);
+            for (int t = 0; t < tasks.size(); ++t) {
+                // sum(i * t + i) = (t + 1) * 4950
+                assertEquals((t + 1) * 4950, futures.get(t).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test void testScriptArguments() {
         final JexlEngine jexl = createEngine();
         final JexlScript s = jexl.createScript(" x + x ", "x");
@@ -18,6 +18,9 @@ package org.apache.commons.jexl3;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -30,6 +33,7 @@ import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Function;
@@ -260,6 +264,51 @@ class ScriptTest extends JexlTestCase {
         assertEquals("OK", resultatJexl.getCode());
     }
 
+    @Test
+    void testSession() {
+        final JexlEngine jexl = new JexlBuilder().strict(true).silent(false).create();
+        final JexlScript script = jexl.createScript("x + y + z", "x", "y");
+        final JexlEvalContext context = new JexlEvalContext();
+        context.set("z", 3);
+        final JexlScript.Session session = script.session(context);
+        assertSame(script, session.getScript());
+        assertSame(context, session.getContext());
+        assertEquals(6, session.execute(1, 2));
+        assertEquals(33, session.execute(10, 20));
+        // options are bound when the session is created
+        context.getEngineOptions().setSilent(true);
+        context.set("z", null);
+        assertThrows(JexlException.class, () -> session.execute(1, 2));
+        assertNull(script.execute(context, 1, 2));
+        assertNull(script.session(context).execute(1, 2));
+        // closures keep their bound arguments
+        final JexlScript.Session cs = script.curry(100).session(context);
+        context.set("z", 3);
+        assertEquals(105, cs.execute(2));
+        assertEquals(106, cs.execute(3));
+    }
+
+    @Test
+    void testSessionPragmas() {
+        final JexlEngine jexl = new JexlBuilder().strict(true).silent(false).create();
+        final JexlScript script = jexl.createScript("#pragma jexl.options '+silent'\n x.y.z", "x");
+        final JexlScript.Session session = script.session(new JexlEvalContext());
+        assertNull(session.execute((Object) null));
+        assertNull(session.execute(Collections.emptyMap()));
+        // the pragmas apply to every evaluation
+        assertNull(script.execute(new JexlEvalContext(), (Object) null));
+        assertNull(script.session(new JexlEvalContext()).execute((Object) null));
+    }
+
+    @Test
+    void testSessionLambda() {
+        final JexlScript script = JEXL.createScript("var f = (x, y) -> { var s = 0; for (var i : x..y) s += i; s }; f");
+        final JexlScript lambda = (JexlScript) script.execute(null);
+        final JexlScript.Session session = lambda.session(null);
+        assertEquals(6, session.execute(1, 3));
+        assertEquals(55, session.execute(1, 10));
+    }
+
     /**
      * Test creating a script from a string.
      */
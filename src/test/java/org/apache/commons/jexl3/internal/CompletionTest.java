@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JexlFeatures;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.MapContext;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the abrupt completion of statements through break, continue and return.
+ */
+class CompletionTest {
+
+    /**
+     * A context that records the results of the annotated statements.
+     */
+    public static class RecordingContext extends MapContext implements JexlContext.AnnotationProcessor {
+        /** The statement results as seen by the processor. */
+        final List<Object> results = new ArrayList<>();
+
+        @Override
+        public Object processAnnotation(final String name, final Object[] args, final Callable<Object> statement) throws Exception {
+            final Object result = statement.call();
+            results.add(result);
+            return "swallow".equals(name) ? "swallowed" : result;
+        }
+    }
+
+    private static Object eval(final JexlEngine jexl, final String src, final Object... args) {
+        final JexlScript script = jexl.createScript(src, "x");
+        return script.execute(null, args);
+    }
+
+    @Test
+    void testLoops() {
+        final JexlEngine jexl = new JexlBuilder().create();
+        assertEquals(25, eval(jexl, "var s = 0; for (var i : 0..x) { if (i % 2 == 0) { continue; } if (i > 9) { break; } s += i; } s", 20));
+        assertEquals(7, eval(jexl, "for (var i : 0..x) { for (var j : 0..x) { if (i * j > 5) { return i + j; } } } -1", 10));
+        assertEquals(-1, eval(jexl, "for (var i : 0..x) { for (var j : 0..x) { if (i * j > 500) { return i + j; } } } -1", 10));
+        assertEquals(3, eval(jexl, "var i = 0; while (true) { i += 1; if (i < 3) continue; break; } i", 0));
+        assertEquals(4, eval(jexl, "var i = 0; do { i += 1; if (i == 4) return i; } while (i < x); -i", 10));
+        assertEquals(-2, eval(jexl, "var i = 0; do { i += 1; if (i == 4) return i; } while (i < x); -i", 2));
+        assertEquals(10, eval(jexl, "for (let i = 0; i < x; ++i) { if (i < 5) continue; if (i == 5) return i * 2; } 0", 10));
+        // the loop value is the last completed body value
+        assertEquals(12, eval(jexl, "var s = 0; for (var i : 0..x) { if (i == 3) break; s += 4 }", 10));
+        // a return in a lambda only returns from the lambda
+        assertEquals(12, eval(jexl, "var f = (v) -> { for (var i : 0..v) { if (i == 2) return i; } v }; f(x) + f(1) + 9", 5));
+    }
+
+    @Test
+    void testSwitch() {
+        final JexlEngine jexl = new JexlBuilder().create();
+        // a continue in a switch statement falls through the next case
+        final String stmt = "var s = ''; for (var i : 0..3) { switch (i) { case 0: s += 'a'; break; case 1: s += 'b'; continue; "
+            + "case 2: s += 'c'; default: s += 'd'; if (i == x) return s; } } s";
+        assertEquals("abcdcdd", eval(jexl, stmt, 0));
+        assertEquals("abcd", eval(jexl, stmt, 1));
+        final String expr = "var y = switch (x) { case 1 -> { return 'one' } default -> 'other' }; y + '!'";
+        assertEquals("one", eval(jexl, expr, 1));
+        assertEquals("other!", eval(jexl, expr, 2));
+    }
+
+    @Test
+    void testTry() {
+        final JexlEngine jexl = new JexlBuilder().create();
+        assertEquals(1, eval(jexl, "try { return 1 } finally { x = 2 } 3", 0));
+        assertEquals(2, eval(jexl, "try { return 1 } finally { return 2 } 3", 0));
+        assertEquals(2, eval(jexl, "try { throw 'no' } catch (var e) { return 2 } 3", 0));
+        assertEquals(3, eval(jexl, "for (var i : 0..9) { try { if (i == 3) return i } finally { continue } } 3", 0));
+        assertEquals(9, eval(jexl, "var r = 0; for (var i : 0..9) { try { r = i; return -1 } finally { if (i < 3) continue; break } } r * 3", 0));
+        assertEquals(5, eval(jexl, "for (var i : 0..9) { try { if (i == 5) break; } finally { x = i } } x", 0));
+    }
+
+    @Test
+    void testAnnotation() {
+        final JexlEngine jexl = new JexlBuilder().features(new JexlFeatures()).create();
+        final RecordingContext ctxt = new RecordingContext();
+        final JexlScript script = jexl.createScript("for (var i : 0..9) { @trace { if (i == 2) return i * 10; if (i < 1) continue; } } -1");
+        assertEquals(20, script.execute(ctxt));
+        assertEquals(3, ctxt.results.size());
+        assertInstanceOf(JexlException.Continue.class, ctxt.results.get(0));
+        assertNull(ctxt.results.get(1));
+        assertEquals(20, ((JexlException.Return) ctxt.results.get(2)).getValue());
+        // a processor may swallow the completion
+        ctxt.results.clear();
+        final JexlScript swallow = jexl.createScript("for (var i : 0..2) { @swallow { return i } } 42");
+        assertEquals(42, swallow.execute(ctxt));
+        assertEquals(3, ctxt.results.size());
+        // nested annotations propagate the completion
+        ctxt.results.clear();
+        final JexlScript nested = jexl.createScript("for (var i : 0..9) { @outer @inner { if (i == 2) break; } } 42");
+        assertEquals(42, nested.execute(ctxt));
+        assertEquals(6, ctxt.results.size());
+        assertInstanceOf(JexlException.Break.class, ctxt.results.get(5));
+    }
+}
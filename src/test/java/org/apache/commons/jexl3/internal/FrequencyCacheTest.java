@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlCache;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlScript;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the frequency-aware cache.
+ */
+public class FrequencyCacheTest {
+
+    @Test
+    void testBasics() {
+        final FrequencyCache<Integer, String> cache = new FrequencyCache<>(4);
+        assertEquals(4, cache.capacity());
+        assertNull(cache.put(1, "one"));
+        assertEquals("one", cache.put(1, "uno"));
+        assertEquals("uno", cache.get(1));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.entries().size());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    void testBounded() {
+        final FrequencyCache<Integer, String> cache = new FrequencyCache<>(8);
+        for (int i = 0; i < 100; ++i) {
+            cache.put(i, Integer.toString(i));
+            assertTrue(cache.size() <= 8);
+        }
+        assertEquals(8, cache.size());
+    }
+
+    @Test
+    void testScanResistance() {
+        final int capacity = 32;
+        final FrequencyCache<String, String> cache = new FrequencyCache<>(capacity);
+        // a hot working set, used repeatedly
+        for (int r = 0; r < 8; ++r) {
+            for (int h = 0; h < capacity; ++h) {
+                final String key = "hot" + h;
+                if (cache.get(key) == null) {
+                    cache.put(key, key);
+                }
+            }
+        }
+        assertEquals(capacity, cache.size());
+        // a burst of one-off keys
+        for (int s = 0; s < 5 * capacity; ++s) {
+            final String key = "scan" + s;
+            if (cache.get(key) == null) {
+                cache.put(key, key);
+            }
+        }
+        // the hot set survived, frequencies are estimates so allow a few misses
+        int hits = 0;
+        for (int h = 0; h < capacity; ++h) {
+            if (cache.get("hot" + h) != null) {
+                hits += 1;
+            }
+        }
+        assertTrue(hits >= capacity * 9 / 10, "hot set flushed: " + hits);
+    }
+
+    @Test
+    void testAdmission() {
+        final FrequencyCache<String, String> cache = new FrequencyCache<>(2);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.get("b");
+        // seen once, not admitted
+        cache.put("c", "C");
+        assertNull(cache.get("c"));
+        // requested repeatedly, eventually admitted
+        for (int i = 0; i < 4; ++i) {
+            cache.get("c");
+        }
+        cache.put("c", "C");
+        assertEquals("C", cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testEngine() throws Exception {
+        final JexlEngine jexl = new JexlBuilder().cacheFactory(FrequencyCache::new).cache(16).create();
+        final JexlCache<Source, Object> cache = ((Engine) jexl).getCache();
+        assertTrue(cache instanceof FrequencyCache);
+        final ExecutorService exec = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; ++t) {
+                futures.add(exec.submit(() -> {
+                    int count = 0;
+                    for (int i = 0; i < 1000; ++i) {
+                        final int v = i % 32;
+                        final JexlScript script = jexl.createScript(v + " + 1");
+                        assertNotNull(script);
+                        count += ((Number) script.execute(null)).intValue() == v + 1 ? 1 : 0;
+                    }
+                    return count;
+                }));
+            }
+            for (final Future<Integer> future : futures) {
+                assertEquals(1000, (int) future.get());
+            }
+        } finally {
+            exec.shutdown();
+        }
+        assertTrue(cache.size() <= 16);
+    }
+
+    @Test
+    void testStatistics() {
+        final FrequencyCache<String, String> cache = new FrequencyCache<>(2);
+        final List<String> evicted = new ArrayList<>();
+        assertTrue(cache.setEvictionListener((k, v) -> evicted.add(k)));
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertEquals("A", cache.get("a"));
+        assertEquals("B", cache.get("b"));
+        assertNull(cache.get("c"));
+        // c is not admitted, notified as evicted
+        cache.put("c", "C");
+        assertEquals(1, evicted.size());
+        assertEquals("c", evicted.get(0));
+        cache.recordLoad(1000);
+        final JexlCache.Statistics stats = cache.statistics();
+        assertEquals(2, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.evictionCount());
+        assertEquals(1, stats.loadCount());
+        assertEquals(1000.0, stats.averageLoadTime());
+    }
+}
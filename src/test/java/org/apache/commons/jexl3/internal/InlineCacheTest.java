@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.apache.commons.jexl3.parser.ASTIdentifierAccess;
+import org.apache.commons.jexl3.parser.ASTMethodNode;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the polymorphic inline caches of call sites.
+ */
+class InlineCacheTest {
+
+    public static class Item {
+        private final double price;
+
+        public Item(final double price) {
+            this.price = price;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(final double price) {
+            // immutable
+        }
+    }
+
+    public static class Money {
+        final int cents;
+
+        public Money(final int cents) {
+            this.cents = cents;
+        }
+    }
+
+    public static class Weight {
+        final int grams;
+
+        public Weight(final int grams) {
+            this.grams = grams;
+        }
+    }
+
+    public static class UnitArithmetic extends JexlArithmetic {
+        public UnitArithmetic(final boolean strict) {
+            super(strict);
+        }
+
+        public Money add(final Money lhs, final Money rhs) {
+            return new Money(lhs.cents + rhs.cents);
+        }
+
+        public Weight add(final Weight lhs, final Weight rhs) {
+            return new Weight(lhs.grams + rhs.grams);
+        }
+    }
+
+    private static InlineCache site(final JexlScript script) {
+        final Collection<InlineCache> caches = ((Script) script).getInlineCaches().values();
+        assertEquals(1, caches.size(), caches::toString);
+        return caches.iterator().next();
+    }
+
+    private static InlineCache site(final JexlScript script, final Class<? extends JexlNode> type) {
+        InlineCache site = null;
+        for (final Map.Entry<JexlNode, InlineCache> entry : ((Script) script).getInlineCaches().entrySet()) {
+            if (type.isInstance(entry.getKey())) {
+                assertNull(site);
+                site = entry.getValue();
+            }
+        }
+        assertNotNull(site);
+        return site;
+    }
+
+    private final JexlEngine jexl = new JexlBuilder()
+        .permissions(JexlPermissions.UNRESTRICTED)
+        .arithmetic(new UnitArithmetic(true))
+        .cache(32)
+        .create();
+
+    @Test
+    void testPolymorphicProperty() {
+        final JexlScript script = jexl.createScript("var t = 0; for (var item : items) { t += item.price } t", "items");
+        final Map<String, Object> map = new HashMap<>();
+        map.put("price", 5d);
+        final List<Object> items = Arrays.asList(new Item(10), map, new Item(20), map);
+        assertEquals(40d, script.execute(null, items));
+        final InlineCache cache = site(script, ASTIdentifierAccess.class);
+        assertEquals(InlineCache.State.POLYMORPHIC, cache.getState());
+        assertEquals(2, cache.size());
+        // no more resolution, the cache is not replaced
+        assertEquals(40d, script.execute(null, items));
+        assertSame(cache, site(script, ASTIdentifierAccess.class));
+    }
+
+    @Test
+    void testPolymorphicSetter() {
+        final JexlScript script = jexl.createScript("for (var item : items) { item.price = 1 }", "items");
+        final Map<String, Object> map = new HashMap<>();
+        script.execute(null, Arrays.asList(new Item(10), map, new Item(20)));
+        assertEquals(1, map.get("price"));
+        final InlineCache cache = site(script, ASTIdentifierAccess.class);
+        assertEquals(InlineCache.State.POLYMORPHIC, cache.getState());
+        script.execute(null, Arrays.asList(map, new Item(20)));
+        assertSame(cache, site(script, ASTIdentifierAccess.class));
+    }
+
+    @Test
+    void testMegamorphicMethod() {
+        final JexlScript script = jexl.createScript("var t = 0; for (var c : cs) { t += c.size() } t", "cs");
+        final List<Object> one = Arrays.asList(new ArrayList<>(Collections.singleton(1)), new LinkedList<>(Collections.singleton(2)));
+        assertEquals(2, script.execute(null, one));
+        assertEquals(InlineCache.State.POLYMORPHIC, site(script, ASTMethodNode.class).getState());
+        final List<Object> many = new ArrayList<>(one);
+        many.add(new LinkedHashSet<>(Collections.singleton(3)));
+        many.add(new TreeSet<>(Collections.singleton(4)));
+        many.add(Collections.singletonMap(5, 5));
+        assertEquals(5, script.execute(null, many));
+        assertEquals(InlineCache.State.MEGAMORPHIC, site(script, ASTMethodNode.class).getState());
+        assertEquals(InlineCache.SIZE, site(script, ASTMethodNode.class).size());
+        // still evaluates, keeping the most recent entries
+        assertEquals(5, script.execute(null, many));
+        assertEquals(InlineCache.State.MEGAMORPHIC, site(script, ASTMethodNode.class).getState());
+        // once the type mix settles, the site caches again
+        assertEquals(2, script.execute(null, one));
+        final InlineCache cache = site(script, ASTMethodNode.class);
+        assertEquals(2, script.execute(null, one));
+        assertSame(cache, site(script, ASTMethodNode.class));
+        // clearing the cache resets the site
+        ((Script) script).script.clearCache();
+        assertEquals(2, script.execute(null, one));
+        assertEquals(InlineCache.State.POLYMORPHIC, site(script, ASTMethodNode.class).getState());
+    }
+
+    @Test
+    void testPolymorphicOperator() {
+        final JexlScript script = jexl.createScript("x + y", "x", "y");
+        assertEquals(3, ((Money) script.execute(null, new Money(1), new Money(2))).cents);
+        assertEquals(InlineCache.State.MONOMORPHIC, site(script).getState());
+        assertEquals(5, ((Weight) script.execute(null, new Weight(2), new Weight(3))).grams);
+        // no overload for integers, cached as such
+        assertEquals(7, script.execute(null, 3, 4));
+        final InlineCache cache = site(script);
+        assertEquals(InlineCache.State.POLYMORPHIC, cache.getState());
+        assertEquals(3, cache.size());
+        assertTrue(cache.toString().contains("none"), cache::toString);
+        assertEquals(3, ((Money) script.execute(null, new Money(1), new Money(2))).cents);
+        assertEquals(9, script.execute(null, 4, 5));
+        assertSame(cache, site(script));
+    }
+
+    @Test
+    void testUninitialized() {
+        final JexlScript script = jexl.createScript("x ? item.price : 0", "x", "item");
+        assertEquals(0, script.execute(null, false, null));
+        assertTrue(((Script) script).getInlineCaches().isEmpty());
+        final MapContext ctxt = new MapContext();
+        ctxt.set("item", new Item(3));
+        assertEquals(3d, jexl.createScript("item.price").execute(ctxt));
+    }
+}
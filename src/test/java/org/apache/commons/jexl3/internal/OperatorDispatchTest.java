@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JexlOperator;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the operator dispatch with and without overloads.
+ */
+class OperatorDispatchTest {
+
+    public static class CompareArithmetic extends JexlArithmetic {
+        public CompareArithmetic(final boolean astrict) {
+            super(astrict);
+        }
+
+        public int compare(final String lhs, final Number rhs) {
+            return lhs.compareTo(rhs.toString());
+        }
+
+        public Object negate(final String str) {
+            return new StringBuilder(str).reverse().toString();
+        }
+    }
+
+    private static Operator operator(final JexlEngine jexl, final JexlArithmetic arithmetic) {
+        return (Operator) ((Engine) jexl).getUberspect().getOperator(arithmetic);
+    }
+
+    @Test
+    void testNoOverload() {
+        final JexlArithmetic arithmetic = new JexlArithmetic(true);
+        final JexlEngine jexl = new JexlBuilder().arithmetic(arithmetic).cache(16).create();
+        final Operator operator = operator(jexl, arithmetic);
+        for (final JexlOperator op : JexlOperator.values()) {
+            assertFalse(operator.isOverloaded(op), op::toString);
+        }
+        assertEquals(7, jexl.createScript("x + y", "x", "y").execute(null, 3, 4));
+        assertEquals(true, jexl.createScript("x == null", "x").execute(null, (Object) null));
+        // strict arithmetic still controls null operands
+        final JexlScript add = jexl.createScript("x + 1", "x");
+        final JexlException xjexl = assertThrows(JexlException.class, () -> add.execute(null, (Object) null));
+        assertTrue(xjexl.getMessage().contains("null"), xjexl::getMessage);
+    }
+
+    @Test
+    void testOverloads() {
+        final JexlArithmetic arithmetic = new CompareArithmetic(true);
+        final JexlEngine jexl = new JexlBuilder()
+            .arithmetic(arithmetic)
+            .permissions(JexlPermissions.UNRESTRICTED)
+            .cache(16)
+            .create();
+        final Operator operator = operator(jexl, arithmetic);
+        assertTrue(operator.isOverloaded(JexlOperator.NEGATE));
+        assertTrue(operator.isOverloaded(JexlOperator.COMPARE));
+        // comparisons may use compare
+        assertTrue(operator.isOverloaded(JexlOperator.LT));
+        assertTrue(operator.isOverloaded(JexlOperator.EQ));
+        assertFalse(operator.isOverloaded(JexlOperator.ADD));
+        assertEquals("cba", jexl.createScript("-'abc'").execute(null));
+        assertEquals(-2, jexl.createScript("-2").execute(null));
+        assertEquals(true, jexl.createScript("'1.1' > 0").execute(null));
+        assertEquals(5, jexl.createScript("2 + 3").execute(null));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.parser.JexlScriptParser;
+import org.apache.commons.jexl3.parser.Parser;
+import org.apache.commons.jexl3.parser.StringProvider;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the parser pool.
+ */
+public class ParserPoolTest {
+
+    @Test
+    void testReuse() {
+        final AtomicInteger created = new AtomicInteger();
+        final ParserPool pool = new ParserPool(() -> {
+            created.incrementAndGet();
+            return new Parser(new StringProvider(";"));
+        }, 2);
+        final JexlScriptParser p0 = pool.acquire();
+        final JexlScriptParser p1 = pool.acquire();
+        assertNotSame(p0, p1);
+        assertEquals(2, created.get());
+        pool.release(p0);
+        pool.release(p1);
+        assertEquals(2, pool.idle());
+        // full pool drops the parser
+        pool.release(new Parser(new StringProvider(";")));
+        assertEquals(2, pool.idle());
+        final JexlScriptParser p2 = pool.acquire();
+        assertTrue(p2 == p0 || p2 == p1);
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void testNoPool() {
+        final AtomicInteger created = new AtomicInteger();
+        final ParserPool pool = new ParserPool(() -> {
+            created.incrementAndGet();
+            return new Parser(new StringProvider(";"));
+        }, 0);
+        final JexlScriptParser p0 = pool.acquire();
+        pool.release(p0);
+        assertEquals(0, pool.idle());
+        assertNotSame(p0, pool.acquire());
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void testSameThread() {
+        final ParserPool pool = new ParserPool(() -> new Parser(new StringProvider(";")), 4);
+        final JexlScriptParser p0 = pool.acquire();
+        pool.release(p0);
+        assertSame(p0, pool.acquire());
+    }
+
+    @Test
+    void testEngineConcurrentParse() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        final int threads = 8;
+        final Engine jexl = (Engine) new JexlBuilder()
+            .parserFactory(() -> {
+                created.incrementAndGet();
+                return new Parser(new StringProvider(";"));
+            })
+            .parserPool(threads)
+            .cache(0)
+            .create();
+        assertEquals(threads, jexl.parsers.size());
+        final ExecutorService exec = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; ++t) {
+                final int base = t;
+                futures.add(exec.submit(() -> {
+                    int count = 0;
+                    for (int i = 0; i < 200; ++i) {
+                        final JexlScript script = jexl.createScript("x + " + (base * 1000 + i), "x");
+                        if (((Number) script.execute(null, 1)).intValue() == base * 1000 + i + 1) {
+                            count += 1;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            for (final Future<Integer> future : futures) {
+                assertEquals(200, (int) future.get());
+            }
+        } finally {
+            exec.shutdown();
+        }
+        // parsers were reused, not created per parse; a few may be created when racing with releases
+        assertTrue(created.get() <= 4 * threads, "created " + created.get());
+    }
+}
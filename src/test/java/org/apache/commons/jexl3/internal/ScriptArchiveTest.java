@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlFeatures;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.parser.ASTIdentifier;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the script archive.
+ */
+public class ScriptArchiveTest {
+
+    /** The engine version of the test archives; the tests do not run from a released package. */
+    private static final String VERSION = "test";
+
+    /** A class an archive could try to instantiate. */
+    public static class Trap {
+        static volatile boolean created;
+
+        public Trap(final int id) {
+            created = true;
+        }
+    }
+
+    /** A node class declaring a field the archive does not know about. */
+    public static class Extended extends ASTIdentifier {
+        int extra;
+
+        public Extended(final int id) {
+            super(id);
+        }
+    }
+
+    private static JexlBuilder builder() {
+        return new JexlBuilder().cache(32).features(JexlFeatures.createDefault().pragma(true));
+    }
+
+    private static void write(final JexlEngine jexl, final Path file, final Map<String, JexlScript> scripts) throws IOException {
+        new ScriptArchive((Engine) jexl, VERSION).write(file, scripts);
+    }
+
+    private static Map<String, JexlScript> read(final JexlEngine jexl, final Path file) throws IOException {
+        return new ScriptArchive((Engine) jexl, VERSION).read(file);
+    }
+
+    private static Map<String, JexlScript> scripts(final JexlEngine jexl) {
+        final Map<String, JexlScript> scripts = new LinkedHashMap<>();
+        scripts.put("sum", jexl.createScript("var s = 0; for (var i : x) { s += i; } s", "x"));
+        scripts.put("lambda", jexl.createScript("var f = (a, b) -> { a * b + 1.5 }; f(x, 2)", "x"));
+        scripts.put("regex", jexl.createScript("x =~ ['abc', 'def'] ? 'yes' : x =~ '^[0-9]+$'", "x"));
+        scripts.put("pragma", jexl.createScript("#pragma jexl.options '+strict'\n{ 'k' : x, 'n' : 42B }", "x"));
+        scripts.put("jxlt", jexl.createScript("let y = x; `value ${y}`", "x"));
+        scripts.put("expr", (JexlScript) jexl.createExpression("x.size() + 1"));
+        return scripts;
+    }
+
+    private static void check(final Map<String, JexlScript> scripts) {
+        final MapContext ctxt = new MapContext();
+        assertEquals(6, scripts.get("sum").execute(ctxt, Arrays.asList(1, 2, 3)));
+        assertEquals(9.5, scripts.get("lambda").execute(ctxt, 4));
+        assertEquals("yes", scripts.get("regex").execute(ctxt, "def"));
+        assertEquals(true, scripts.get("regex").execute(ctxt, "123"));
+        final Map<?, ?> map = (Map<?, ?>) scripts.get("pragma").execute(ctxt, "v");
+        assertEquals("v", map.get("k"));
+        assertEquals("value 7", scripts.get("jxlt").execute(ctxt, 7));
+        ctxt.set("x", Arrays.asList(1, 2));
+        assertEquals(3, scripts.get("expr").execute(ctxt));
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        final JexlEngine jexl = builder().create();
+        final Map<String, JexlScript> scripts = scripts(jexl);
+        final Path file = Files.createTempFile("jexl-archive", ".jxar");
+        try {
+            write(jexl, file, scripts);
+            final JexlEngine loader = builder().create();
+            final Map<String, JexlScript> loaded = read(loader, file);
+            assertEquals(scripts.keySet(), loaded.keySet());
+            // only the script with an interpolation was parsed, as well as its interpolation
+            assertEquals(2, loader.getCacheStatistics().loadCount());
+            for (final Map.Entry<String, JexlScript> entry : scripts.entrySet()) {
+                final JexlScript script = loaded.get(entry.getKey());
+                assertEquals(entry.getValue().getSourceText(), script.getSourceText());
+                assertEquals(entry.getValue().getParsedText(), script.getParsedText());
+                assertEquals(Arrays.asList(entry.getValue().getParameters()), Arrays.asList(script.getParameters()));
+            }
+            check(loaded);
+            // restored scripts are cached
+            loader.createScript("var s = 0; for (var i : x) { s += i; } s", "x");
+            assertEquals(2, loader.getCacheStatistics().loadCount());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testFeaturesMismatch() throws IOException {
+        final JexlEngine jexl = builder().create();
+        final Path file = Files.createTempFile("jexl-archive", ".jxar");
+        try {
+            write(jexl, file, scripts(jexl));
+            final JexlFeatures features = JexlFeatures.createDefault().pragma(true).reservedNames(Arrays.asList("foo"));
+            final JexlEngine loader = builder().features(features).create();
+            final Map<String, JexlScript> loaded = read(loader, file);
+            // everything was parsed, the interpolation as well
+            assertEquals(7, loader.getCacheStatistics().loadCount());
+            check(loaded);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testCorrupted() throws IOException {
+        final JexlEngine jexl = builder().create();
+        final Path file = Files.createTempFile("jexl-archive", ".jxar");
+        try {
+            write(jexl, file, scripts(jexl));
+            // damage the first node class name; the entry falls back to its source
+            final byte[] bytes = Files.readAllBytes(file);
+            final byte[] name = ASTJexlScript.class.getName().getBytes(StandardCharsets.UTF_8);
+            final int at = indexOf(bytes, name);
+            assertTrue(at > 0);
+            bytes[at + name.length - 1] = 'X';
+            Files.write(file, bytes);
+            final JexlEngine loader = builder().create();
+            final Map<String, JexlScript> loaded = read(loader, file);
+            // the damaged entry, the script with an interpolation and its interpolation were parsed
+            assertEquals(3, loader.getCacheStatistics().loadCount());
+            check(loaded);
+            // not an archive
+            Files.write(file, "not an archive".getBytes(StandardCharsets.UTF_8));
+            assertThrows(IOException.class, () -> read(loader, file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testExecutedPragmas() throws IOException {
+        final JexlEngine jexl = builder().create();
+        final Map<String, JexlScript> scripts = new LinkedHashMap<>();
+        final JexlScript pragma = jexl.createScript("#pragma jexl.options '+strict'\n{ 'k' : x }", "x");
+        scripts.put("pragma", pragma);
+        // executing digests the pragmas, a runtime cache that is not archived
+        assertEquals("v", ((Map<?, ?>) pragma.execute(null, "v")).get("k"));
+        final Path file = Files.createTempFile("jexl-archive", ".jxar");
+        try {
+            write(jexl, file, scripts);
+            final JexlEngine loader = builder().create();
+            final Map<String, JexlScript> loaded = read(loader, file);
+            // restored, not parsed
+            assertEquals(0, loader.getCacheStatistics().loadCount());
+            assertEquals("w", ((Map<?, ?>) loaded.get("pragma").execute(null, "w")).get("k"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testForeignClass() throws IOException {
+        final JexlEngine jexl = builder().create();
+        final Map<String, JexlScript> scripts = new LinkedHashMap<>();
+        scripts.put("s", jexl.createScript("x + 1", "x"));
+        final Path file = Files.createTempFile("jexl-archive", ".jxar");
+        try {
+            write(jexl, file, scripts);
+            // replace the root node class by a foreign class, with a matching signature
+            final byte[] bytes = Files.readAllBytes(file);
+            final byte[] name = ASTJexlScript.class.getName().getBytes(StandardCharsets.UTF_8);
+            final int at = indexOf(bytes, name);
+            assertTrue(at > 0);
+            final int signatureLength = ByteBuffer.wrap(bytes, at + name.length, 4).getInt();
+            final int tail = at + name.length + 4 + signatureLength;
+            final byte[] trap = Trap.class.getName().getBytes(StandardCharsets.UTF_8);
+            final int delta = trap.length - name.length - signatureLength;
+            final ByteBuffer crafted = ByteBuffer.allocate(bytes.length + delta);
+            crafted.put(bytes, 0, at - 4).putInt(trap.length).put(trap).putInt(0);
+            crafted.put(bytes, tail, bytes.length - tail);
+            // fix the entry length, following its name
+            final int entry = indexOf(bytes, new byte[]{0, 0, 0, 1, 's'}) + 5;
+            crafted.putInt(entry, ByteBuffer.wrap(bytes, entry, 4).getInt() + delta);
+            Files.write(file, crafted.array());
+            final JexlEngine loader = builder().create();
+            final Map<String, JexlScript> loaded = read(loader, file);
+            assertFalse(Trap.created);
+            // the entry was parsed from its source
+            assertEquals(1, loader.getCacheStatistics().loadCount());
+            assertEquals(2, loaded.get("s").execute(null, 1));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testEngineArchive() throws IOException {
+        final JexlEngine jexl = builder().create();
+        final Map<String, JexlScript> scripts = scripts(jexl);
+        final Path file = Files.createTempFile("jexl-archive", ".jxar");
+        try {
+            jexl.writeArchive(file, scripts);
+            final JexlEngine loader = builder().create();
+            final Map<String, JexlScript> loaded = loader.readArchive(file);
+            assertEquals(scripts.keySet(), loaded.keySet());
+            check(loaded);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testUnknownVersion() throws IOException {
+        final JexlEngine jexl = builder().create();
+        final Path file = Files.createTempFile("jexl-archive", ".jxar");
+        try {
+            new ScriptArchive((Engine) jexl, null).write(file, scripts(jexl));
+            final JexlEngine loader = builder().create();
+            final Map<String, JexlScript> loaded = new ScriptArchive((Engine) loader, null).read(file);
+            // an unknown version never matches, everything was parsed
+            assertEquals(7, loader.getCacheStatistics().loadCount());
+            check(loaded);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testSchemaMismatch() throws IOException {
+        final JexlEngine jexl = builder().create();
+        final Path file = Files.createTempFile("jexl-archive", ".jxar");
+        try {
+            write(jexl, file, scripts(jexl));
+            // the schema fingerprint follows the version in the header
+            final byte[] bytes = Files.readAllBytes(file);
+            final int at = indexOf(bytes, VERSION.getBytes(StandardCharsets.UTF_8)) + VERSION.length() + 4;
+            bytes[at] = (byte) (bytes[at] == '0' ? '1' : '0');
+            Files.write(file, bytes);
+            final JexlEngine loader = builder().create();
+            final Map<String, JexlScript> loaded = read(loader, file);
+            // a tree written with another layout is never restored
+            assertEquals(7, loader.getCacheStatistics().loadCount());
+            check(loaded);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testClassifiedFields() {
+        final List<Class<?>> classes = ScriptArchive.archivedClasses();
+        assertTrue(classes.contains(ASTJexlScript.class));
+        assertTrue(classes.contains(Scope.class));
+        // every field of a node or structure is either archived or a runtime field
+        for (final Class<?> clazz : classes) {
+            assertEquals(Collections.emptyList(), ScriptArchive.unclassifiedFields(clazz), clazz.getName());
+        }
+        assertEquals(Collections.singletonList(Extended.class.getName() + ".extra"),
+            ScriptArchive.unclassifiedFields(Extended.class));
+    }
+
+    private static int indexOf(final byte[] bytes, final byte[] pattern) {
+        outer:
+        for (int i = 0; i <= bytes.length - pattern.length; ++i) {
+            for (int j = 0; j < pattern.length; ++j) {
+                if (bytes[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
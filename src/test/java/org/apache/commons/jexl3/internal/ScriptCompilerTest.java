@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the compiled tier.
+ */
+public class ScriptCompilerTest {
+
+    public static class Item {
+        private final double price;
+
+        public Item(final double price) {
+            this.price = price;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+    }
+
+    private static final String[] SCRIPTS = {
+        "x + y * 2 - 1",
+        "x < y && (y >= 3 || x != 0) ? 'yes' : 'no'",
+        "item.price > 10 ? item.price * 0.9 : item.price",
+        "!(x == y) ?: 42",
+        "var z = x % 3; z / 2",
+        "map.a.b",
+        "if (x > y) { x - y } else { y - x }",
+        "var z = x; do { z = z - 1 } while (z > 5); z",
+        "var i = 0; var t = 0; while (i < 3) { i += 1; if (i == 2) { continue } t += i } t",
+        "if (x > 5) { return 'big' } 'small'",
+        "-x + +y ^ ~x << 2 | y >> 1 & x >>> 1",
+        "'abc' =^ 'a' && 'abc' !$ 'b' && x =~ [7, 8] && x !~ [1] && 'abc' =$ 'c' && 'abc' !^ 'b'",
+        "empty(map) || size(map) == 1",
+        "x === 7 && x !== '7'",
+        "var t = 0; for (var i : list) { t += i } t",
+        "var t = 0; for (var i : 1 .. x) { t += i } t",
+        "var r = {:}; for (var i = 0; i < 3; ++i) { r[i] = i * x } r",
+        "var m = { 'a' : x, 'b' : [x, y], 'c' : {x, y} }; m.b[1] + size(m.c) + m.a",
+        "map.a.get('b') + list[1] + list.size() + item.getPrice()",
+        "var f = (a) -> a * 2; f(x)",
+        "var a, b = x; a = b << 1"
+    };
+
+    private static JexlContext context() {
+        final Map<String, Object> b = new HashMap<>();
+        b.put("b", "B");
+        final JexlContext ctxt = new MapContext();
+        ctxt.set("x", 7);
+        ctxt.set("y", 4);
+        ctxt.set("item", new Item(20));
+        ctxt.set("map", Collections.singletonMap("a", b));
+        ctxt.set("list", Arrays.asList(1, 2, 3));
+        return ctxt;
+    }
+
+    @Test
+    void testSameResults() {
+        final JexlEngine interpreted = new JexlBuilder().permissions(JexlPermissions.UNRESTRICTED).compileThreshold(-1).create();
+        final JexlEngine compiled = new JexlBuilder().permissions(JexlPermissions.UNRESTRICTED).compileThreshold(2).create();
+        final JexlContext ctxt = context();
+        for (final String src : SCRIPTS) {
+            final JexlScript expected = interpreted.createScript(src);
+            final JexlScript script = compiled.createScript(src);
+            for (int i = 0; i < 4; ++i) {
+                assertEquals(expected.execute(ctxt), script.execute(ctxt), src);
+            }
+        }
+        assertEquals(SCRIPTS.length, compiled.getCompiledScripts().size());
+        assertTrue(interpreted.getCompiledScripts().isEmpty());
+    }
+
+    @Test
+    void testThreshold() {
+        final JexlEngine jexl = new JexlBuilder().compileThreshold(3).create();
+        final JexlScript script = jexl.createScript("x + 1", "x");
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(i + 1, script.execute(null, i));
+            assertTrue(jexl.getCompiledScripts().isEmpty());
+        }
+        assertEquals(4, script.execute(null, 3));
+        assertEquals(Collections.singletonList(script), jexl.getCompiledScripts());
+    }
+
+    @Test
+    void testThresholdSharedByTree() {
+        final JexlEngine jexl = new JexlBuilder().cache(16).compileThreshold(2).create();
+        // the usual pattern: each call creates a script, the tree comes from the engine cache
+        for (int i = 0; i < 2; ++i) {
+            assertEquals(i + 1, jexl.createScript("x + 1", "x").execute(null, i));
+            assertTrue(jexl.getCompiledScripts().isEmpty());
+        }
+        final JexlScript script = jexl.createScript("x + 1", "x");
+        assertEquals(3, script.execute(null, 2));
+        assertEquals(Collections.singletonList(script), jexl.getCompiledScripts());
+        // same source, distinct trees: both are reported
+        final JexlEngine nocache = new JexlBuilder().cache(0).compileThreshold(0).create();
+        final JexlScript s0 = nocache.createScript("x + 1", "x");
+        final JexlScript s1 = nocache.createScript("x + 1", "x");
+        assertEquals(2, s0.execute(null, 1));
+        assertEquals(2, s1.execute(null, 1));
+        assertEquals(2, nocache.getCompiledScripts().size());
+    }
+
+    @Test
+    void testNotCompiled() {
+        final JexlEngine jexl = new JexlBuilder().compileThreshold(0).create();
+        // nothing to specialize, the interpreter runs it
+        final JexlScript script = jexl.createScript("try { x.size() } catch (e) { -1 }", "x");
+        assertEquals(2, script.execute(null, Collections.nCopies(2, 0)));
+        assertTrue(jexl.getCompiledScripts().isEmpty());
+        // partly compiled, the try statement is interpreted
+        final JexlScript call = jexl.createScript("var n = 1; try { n = n + x.size() } catch (e) { n = -1 } n", "x");
+        assertEquals(3, call.execute(null, Collections.nCopies(2, 0)));
+        assertNotNull(jexl.getCompiledScripts().get(0));
+    }
+
+    @Test
+    void testCoverage() {
+        final JexlEngine jexl = new JexlBuilder().create();
+        final String[] sources = {
+            "var t = 0; for (var i : list) { t += i } t",
+            "var r = []; for (var i = 0; i < 3; ++i) { r.add(i * x) } r",
+            "var m = { 'a' : x, 'b' : [x, y, ...], 'c' : {x, y} }; m.b[1] + size(m.c) + m.a",
+            "map.a.get('b')[0] + list[1] + list.size() + foo(x, y)",
+            "var a, b = x; a <<= b--; a = b++ + -a"
+        };
+        for (final String src : sources) {
+            final ASTJexlScript tree = ((Script) jexl.createScript(src, "x", "y", "list", "map")).script;
+            final List<JexlNode> interpreted = new ArrayList<>();
+            assertNotNull(ScriptCompiler.compile(tree, interpreted), src);
+            assertEquals("0/" + ScriptCompiler.size(tree) + " nodes interpreted",
+                ScriptCompiler.coverage(tree, interpreted), src);
+        }
+        // the try statement and the assigned property are left to the interpreter
+        final ASTJexlScript tree = ((Script) jexl.createScript("try { x.y = 1 } catch (e) { } x.z = 2", "x")).script;
+        final List<JexlNode> interpreted = new ArrayList<>();
+        assertNotNull(ScriptCompiler.compile(tree, interpreted));
+        assertEquals(2, interpreted.size());
+        assertTrue(ScriptCompiler.coverage(tree, interpreted).endsWith("[ASTReference, ASTTryStatement]"));
+    }
+
+    private static String outcome(final JexlScript script, final JexlContext ctxt, final Object... args) {
+        try {
+            return String.valueOf(script.execute(ctxt, args));
+        } catch (final JexlException xjexl) {
+            return xjexl.getClass().getSimpleName() + ": " + xjexl.getMessage();
+        }
+    }
+
+    @Test
+    void testErrors() {
+        final JexlBuilder builder = new JexlBuilder().strict(true).silent(false).permissions(JexlPermissions.UNRESTRICTED);
+        final JexlEngine interpreted = builder.compileThreshold(-1).create();
+        final JexlEngine compiled = builder.compileThreshold(0).create();
+        final JexlContext ctxt = context();
+        final String[] sources = { "x + z", "map.c.d", "map.a.c.d", "x * y", "item.cost > 1", "x / 0", "w.v",
+            "-z", "~y", "y << 1", "x != z", "x - z == 1" };
+        for (final String src : sources) {
+            final String expected = outcome(interpreted.createScript(src, "x", "y"), ctxt, 1, null);
+            final String actual = outcome(compiled.createScript(src, "x", "y"), ctxt, 1, null);
+            assertEquals(expected, actual, src);
+        }
+        assertEquals(sources.length, compiled.getCompiledScripts().size());
+    }
+}
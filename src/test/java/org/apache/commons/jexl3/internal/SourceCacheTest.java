@@ -23,7 +23,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.jexl3.ConcurrentCache;
@@ -32,6 +34,7 @@ import org.apache.commons.jexl3.JexlCache;
 import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlFeatures;
 import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.JxltEngine;
 import org.junit.jupiter.api.Test;
 
 public class SourceCacheTest {
@@ -157,4 +160,111 @@ public class SourceCacheTest {
         // the caches should have been removed from the metacache
         assertEquals(0, mc.size(), "metacache should have no more cache references");
     }
+
+    @Test
+    void testSoftCacheStatistics() {
+        final SoftCache<Integer, String> cache = new SoftCache<>(2);
+        final List<Integer> evicted = new ArrayList<>();
+        assertTrue(cache.setEvictionListener((k, v) -> evicted.add(k)));
+        assertNull(cache.get(1));
+        cache.put(1, "one");
+        cache.put(2, "two");
+        assertEquals("one", cache.get(1));
+        cache.put(3, "three");
+        // 2 was the least recently used
+        assertEquals(1, evicted.size());
+        assertEquals(2, (int) evicted.get(0));
+        final JexlCache.Statistics stats = cache.statistics();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.evictionCount());
+        assertEquals(0.5, stats.hitRate());
+        cache.clear();
+        // clearing is not an eviction
+        assertEquals(1, stats.evictionCount());
+        assertEquals(1, evicted.size());
+    }
+
+    @Test
+    void testSoftCacheEvictionOutsideLock() {
+        final SoftCache<Integer, String> cache = new SoftCache<>(1);
+        final List<String> evicted = new ArrayList<>();
+        cache.setEvictionListener((k, v) -> {
+            // another thread using the cache would block if the map lock was held
+            final Thread user = new Thread(() -> evicted.add(cache.get(2)));
+            user.start();
+            try {
+                user.join(10_000L);
+            } catch (final InterruptedException xint) {
+                Thread.currentThread().interrupt();
+            }
+            assertFalse(user.isAlive());
+        });
+        cache.put(1, "one");
+        cache.put(2, "two");
+        assertEquals(1, evicted.size());
+        assertEquals("two", evicted.get(0));
+        assertEquals(1, cache.statistics().evictionCount());
+    }
+
+    @Test
+    void testSoftCacheCollected() {
+        final SoftCache<Integer, String> cache = new SoftCache<>(4);
+        final int[] collected = {-1};
+        cache.setEvictionListener(new JexlCache.EvictionListener<Integer, String>() {
+            @Override
+            public void evicted(final Integer key, final String value) {
+                // not expected
+            }
+
+            @Override
+            public void collected(final int count) {
+                collected[0] = count;
+            }
+        });
+        cache.put(1, "one");
+        cache.put(2, "two");
+        // simulate the GC reclaiming the map
+        cache.reference.clear();
+        assertNull(cache.get(1));
+        assertEquals(2, collected[0]);
+        assertEquals(1, cache.statistics().collectionCount());
+        // only notified once
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.statistics().collectionCount());
+        // and refilled
+        cache.put(1, "one");
+        assertEquals("one", cache.get(1));
+    }
+
+    @Test
+    void testEngineCacheStatistics() {
+        final JexlEngine jexl = new JexlBuilder().cache(2).create();
+        final List<Object> evicted = new ArrayList<>();
+        assertTrue(jexl.setCacheEvictionListener((k, v) -> evicted.add(k.toString())));
+        for (int i = 0; i < 2; ++i) {
+            assertNotNull(jexl.createScript("x + 1"));
+            assertNotNull(jexl.createScript("x + 2"));
+        }
+        JexlCache.Statistics stats = jexl.getCacheStatistics();
+        assertEquals(2, stats.hitCount());
+        assertEquals(2, stats.missCount());
+        assertEquals(2, stats.loadCount());
+        assertTrue(stats.loadTime() > 0);
+        assertNotNull(jexl.createScript("x + 3"));
+        assertEquals(1, stats.evictionCount());
+        assertEquals(1, evicted.size());
+        // template engine with its own cache
+        final JxltEngine jxlt = jexl.createJxltEngine(false, 4, '$', '#');
+        assertNotNull(jxlt.createExpression("${x + 1}"));
+        assertNotNull(jxlt.createExpression("${x + 1}"));
+        stats = jxlt.getCacheStatistics();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.loadCount());
+        // no cache, no statistics
+        final JexlEngine nocache = new JexlBuilder().cache(0).create();
+        assertNull(nocache.getCacheStatistics());
+        assertFalse(nocache.setCacheEvictionListener((k, v) -> { }));
+    }
 }
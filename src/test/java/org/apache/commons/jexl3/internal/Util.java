@@ -80,7 +80,7 @@ public class Util {
             return;
         }
         final Engine jdbg = new Engine();
-        final JexlScriptParser jexlp = jdbg.parser;
+        final JexlScriptParser jexlp = jdbg.parserFactory.get();
         if (!(jexlp instanceof Parser)) {
             // jexl-438 escape
             return;
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal.introspection;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the concurrent behavior of the introspector caches.
+ */
+@SuppressWarnings("unused")
+class IntrospectorTest {
+    public static class Slow {
+        public int slow() {
+            return 0;
+        }
+    }
+
+    public static class Fast {
+        public int fast() {
+            return 1;
+        }
+    }
+
+    /**
+     * Permissions that hold the introspection of the Slow class until released.
+     */
+    static class SlowPermissions extends JexlPermissions.Delegate {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        SlowPermissions() {
+            super(JexlPermissions.UNRESTRICTED);
+        }
+
+        @Override
+        public boolean allow(final Class<?> clazz) {
+            if (clazz == Slow.class) {
+                entered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (final InterruptedException xint) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.allow(clazz);
+        }
+    }
+
+    @Test
+    void testSlowClassDoesNotBlockOthers() throws Exception {
+        final SlowPermissions permissions = new SlowPermissions();
+        final Introspector introspector = new Introspector(LogFactory.getLog(IntrospectorTest.class), null, permissions);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final Future<Method> slow = executor.submit(() -> introspector.getMethod(Slow.class, "slow"));
+            assertTrue(permissions.entered.await(10, TimeUnit.SECONDS));
+            // the slow class map is being built, other classes resolve
+            final Future<Method> fast = executor.submit(() -> introspector.getMethod(Fast.class, "fast"));
+            assertEquals("fast", fast.get(10, TimeUnit.SECONDS).getName());
+            final Constructor<?> ctor = introspector.getConstructor(new MethodKey(Fast.class.getName(), new Object[0]));
+            assertNotNull(ctor);
+            // a second request for the slow class waits for the first build
+            final Future<Method> slow2 = executor.submit(() -> introspector.getMethod(Slow.class, "slow"));
+            permissions.release.countDown();
+            assertEquals("slow", slow.get(10, TimeUnit.SECONDS).getName());
+            assertSame(slow.get(), slow2.get(10, TimeUnit.SECONDS));
+        } finally {
+            permissions.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testConcurrentLookups() throws Exception {
+        final Introspector introspector = new Introspector(LogFactory.getLog(IntrospectorTest.class), null, JexlPermissions.UNRESTRICTED);
+        final Class<?>[] classes = { String.class, ArrayList.class, StringBuilder.class, Integer.class, Fast.class, Slow.class };
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Method>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; ++i) {
+                final Class<?> clazz = classes[i % classes.length];
+                futures.add(executor.submit(() -> introspector.getMethod(clazz, "toString")));
+            }
+            for (int i = 0; i < futures.size(); ++i) {
+                final Method method = futures.get(i).get(10, TimeUnit.SECONDS);
+                assertSame(introspector.getMethod(classes[i % classes.length], "toString"), method);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSetLoader() {
+        final ClassLoader parent = IntrospectorTest.class.getClassLoader();
+        final ClassLoader child = new ClassLoader(parent) { };
+        final Introspector introspector = new Introspector(LogFactory.getLog(IntrospectorTest.class), child, JexlPermissions.UNRESTRICTED);
+        final MethodKey key = new MethodKey(ArrayList.class.getName(), new Object[0]);
+        final Constructor<?> ctor = introspector.getConstructor(key);
+        final Method method = introspector.getMethod(Fast.class, "fast");
+        assertNotNull(ctor);
+        introspector.setLoader(parent);
+        assertSame(parent, introspector.getLoader());
+        // classes not loaded by the previous loader are kept
+        assertSame(ctor, introspector.getConstructor(key));
+        assertSame(method, introspector.getMethod(Fast.class, "fast"));
+    }
+
+    /**
+     * Permissions that count the method checks.
+     */
+    static class CountingPermissions extends JexlPermissions.Delegate {
+        final AtomicInteger checks = new AtomicInteger();
+
+        CountingPermissions() {
+            super(JexlPermissions.RESTRICTED);
+        }
+
+        @Override
+        public boolean allow(final Class<?> clazz, final Method method) {
+            checks.incrementAndGet();
+            return super.allow(clazz, method);
+        }
+    }
+
+    private static Set<String> names(final String[] names) {
+        final Set<String> set = new HashSet<>(Arrays.asList(names));
+        // the eager map registers denied methods under the marker name
+        set.remove(ClassMap.CACHE_MISS.getName());
+        return set;
+    }
+
+    @Test
+    void testLazyIntrospection() {
+        final Introspector eager = new Introspector(LogFactory.getLog(IntrospectorTest.class), null, JexlPermissions.RESTRICTED);
+        final Introspector lazy = new Introspector(LogFactory.getLog(IntrospectorTest.class), null, JexlPermissions.RESTRICTED, true);
+        final Class<?>[] classes = { String.class, HashMap.class, ArrayList.class, BigDecimal.class, Point.class, Fast.class, Class.class };
+        for (final Class<?> clazz : classes) {
+            final Set<String> methodNames = names(eager.getMethodNames(clazz));
+            for (final String name : methodNames) {
+                final Method[] expected = eager.getMethods(clazz, name);
+                final Method[] actual = lazy.getMethods(clazz, name);
+                assertEquals(new HashSet<>(Arrays.asList(expected)), new HashSet<>(Arrays.asList(actual)), name);
+                for (final Method method : expected) {
+                    final MethodKey key = new MethodKey(method);
+                    assertEquals(eager.getMethod(clazz, key), lazy.getMethod(clazz, key), key::debugString);
+                }
+            }
+            assertEquals(methodNames, names(lazy.getMethodNames(clazz)), clazz::getName);
+            final String[] fieldNames = eager.getFieldNames(clazz);
+            assertEquals(new HashSet<>(Arrays.asList(fieldNames)), new HashSet<>(Arrays.asList(lazy.getFieldNames(clazz))));
+            for (final String name : fieldNames) {
+                assertEquals(eager.getField(clazz, name), lazy.getField(clazz, name), name);
+            }
+            assertEquals(eager.getField(clazz, "noSuchField"), lazy.getField(clazz, "noSuchField"));
+            assertEquals(eager.getMethod(clazz, "noSuchMethod"), lazy.getMethod(clazz, "noSuchMethod"));
+        }
+        // a method resolved through argument conversion
+        assertEquals(eager.getMethod(String.class, "indexOf", "x", 1), lazy.getMethod(String.class, "indexOf", "x", 1));
+        // denied methods stay denied
+        assertEquals(null, lazy.getMethod(Class.class, "forName", "java.lang.String"));
+    }
+
+    @Test
+    void testLazyChecks() {
+        final CountingPermissions eagerPermissions = new CountingPermissions();
+        final Introspector eager = new Introspector(LogFactory.getLog(IntrospectorTest.class), null, eagerPermissions);
+        final CountingPermissions lazyPermissions = new CountingPermissions();
+        final Introspector lazy = new Introspector(LogFactory.getLog(IntrospectorTest.class), null, lazyPermissions, true);
+        final Method length = eager.getMethod(String.class, "length");
+        assertEquals(length, lazy.getMethod(String.class, "length"));
+        // only the methods named length are checked, in String and CharSequence
+        assertEquals(2, lazyPermissions.checks.get());
+        assertTrue(eagerPermissions.checks.get() > 50, () -> Integer.toString(eagerPermissions.checks.get()));
+        // resolved once
+        assertSame(lazy.getMethod(String.class, "length"), lazy.getMethod(String.class, "length"));
+        assertArrayEquals(new Method[]{ length }, lazy.getMethods(String.class, "length"));
+        assertEquals(2, lazyPermissions.checks.get());
+        final Field x = lazy.getField(Point.class, "x");
+        assertEquals(eager.getField(Point.class, "x"), x);
+        assertSame(x, lazy.getField(Point.class, "x"));
+    }
+}
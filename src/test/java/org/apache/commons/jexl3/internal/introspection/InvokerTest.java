@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.internal.introspection;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JexlFeatures;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.introspection.JexlMethod;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.apache.commons.jexl3.introspection.JexlPropertyGet;
+import org.apache.commons.jexl3.introspection.JexlPropertySet;
+import org.apache.commons.jexl3.introspection.JexlUberspect;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the method handle based invocation of executors.
+ */
+@SuppressWarnings("unused")
+class InvokerTest {
+    public static class Bean {
+        public int count;
+        private int value;
+        private boolean flag;
+
+        public Bean() {
+            this(0);
+        }
+
+        public Bean(final int v) {
+            if (v < 0) {
+                throw new IllegalStateException("negative");
+            }
+            value = v;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(final int v) {
+            value = v;
+        }
+
+        public boolean isFlag() {
+            return flag;
+        }
+
+        public void setFlag(final boolean f) {
+            flag = f;
+        }
+
+        public int add(final int x, final int y) {
+            return x + y;
+        }
+
+        public String join(final String sep, final String... strs) {
+            return String.join(sep, strs);
+        }
+
+        public Object fail(final String msg) {
+            throw new UnsupportedOperationException(msg);
+        }
+
+        public static int twice(final int x) {
+            return 2 * x;
+        }
+    }
+
+    private final Introspector introspector = new Introspector(LogFactory.getLog(JexlEngine.class), null,
+        JexlPermissions.UNRESTRICTED);
+
+    private final JexlUberspect uberspect = new Uberspect(null, null, JexlPermissions.UNRESTRICTED);
+
+    @Test
+    void testResolvedOnce() throws Exception {
+        final Method add = Bean.class.getMethod("add", int.class, int.class);
+        final Invoker invoker = introspector.getInvoker(Bean.class, add);
+        assertNotNull(invoker);
+        assertSame(invoker, introspector.getInvoker(Bean.class, add));
+        assertSame(add, invoker.getMember());
+        assertEquals(5, invoker.invoke(new Bean(), new Object[]{2, 3}));
+    }
+
+    @Test
+    void testReflectionFallback() throws Exception {
+        // caller-sensitive methods can not be accessed through the public lookup
+        final Method forName = Class.class.getMethod("forName", String.class);
+        assertNull(introspector.getInvoker(Class.class, forName));
+        final JexlEngine jexl = new JexlBuilder().permissions(JexlPermissions.UNRESTRICTED).create();
+        final Object result = jexl.createScript("c.forName('java.lang.String')", "c").execute(null, Class.class);
+        assertSame(String.class, result);
+    }
+
+    @Test
+    void testReflectionSemantics() throws Exception {
+        final Invoker add = introspector.getInvoker(Bean.class, Bean.class.getMethod("add", int.class, int.class));
+        assertThrows(NullPointerException.class, () -> add.invoke(null, new Object[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> add.invoke("bean", new Object[]{1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> add.invoke(new Bean(), new Object[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> add.invoke(new Bean(), new Object[]{1, null}));
+        assertThrows(IllegalArgumentException.class, () -> add.invoke(new Bean(), new Object[]{1, "2"}));
+        final Invoker fail = introspector.getInvoker(Bean.class, Bean.class.getMethod("fail", String.class));
+        final InvocationTargetException xinvoke = assertThrows(InvocationTargetException.class,
+            () -> fail.set(new Bean(), "failed"));
+        assertInstanceOf(UnsupportedOperationException.class, xinvoke.getCause());
+        // static method, the receiver is ignored
+        final Invoker twice = introspector.getInvoker(Bean.class, Bean.class.getMethod("twice", int.class));
+        assertEquals(42, twice.set(null, 21));
+        assertEquals(42, twice.invoke("ignored", new Object[]{21}));
+    }
+
+    @Test
+    void testExecutors() throws Exception {
+        final Bean bean = new Bean(1);
+        final JexlPropertyGet get = uberspect.getPropertyGet(bean, "value");
+        assertEquals(1, get.invoke(bean));
+        final JexlPropertySet set = uberspect.getPropertySet(bean, "value", 42);
+        set.invoke(bean, 42);
+        assertEquals(42, get.tryInvoke(bean, "value"));
+        assertEquals(JexlEngine.TRY_FAILED, get.tryInvoke("bean", "value"));
+        final JexlPropertyGet flag = uberspect.getPropertyGet(bean, "flag");
+        assertEquals(false, flag.invoke(bean));
+        uberspect.getPropertySet(bean, "flag", true).invoke(bean, true);
+        assertEquals(true, flag.tryInvoke(bean, "flag"));
+        bean.count = 7;
+        final JexlPropertyGet field = uberspect.getPropertyGet(bean, "count");
+        assertEquals(7, field.invoke(bean));
+        assertEquals(7, field.tryInvoke(bean, "count"));
+        final JexlMethod join = uberspect.getMethod(bean, "join", "-", "a", "b", "c");
+        assertEquals("a-b-c", join.invoke(bean, "-", "a", "b", "c"));
+        final JexlMethod fail = uberspect.getMethod(bean, "fail", "failed");
+        assertThrows(JexlException.TryFailed.class, () -> fail.tryInvoke("fail", bean, "failed"));
+        final JexlMethod ctor = uberspect.getConstructor(Bean.class, 3);
+        assertEquals(3, ((Bean) ctor.invoke(Bean.class, 3)).getValue());
+        assertThrows(InvocationTargetException.class, () -> ctor.invoke(Bean.class, -1));
+        final JexlMethod size = uberspect.getMethod(new int[]{1, 2, 3}, "size");
+        assertEquals(3, size.invoke(new int[]{1, 2, 3}));
+    }
+
+    @Test
+    void testScripts() {
+        final JexlEngine jexl = new JexlBuilder()
+            .features(new JexlFeatures().newInstance(true))
+            .permissions(JexlPermissions.UNRESTRICTED)
+            .strict(true)
+            .create();
+        final MapContext ctxt = new MapContext();
+        ctxt.set("Bean", Bean.class);
+        ctxt.set("ints", new int[]{1, 2, 3});
+        final Object[] results = (Object[]) jexl.createScript(
+            "var b = new(Bean, 20); b.value = b.value + 1; b.flag = true; b.count = 3;"
+            + "[b.value, b.flag, b.count, b.join(',', 'x', 'y'), b.join(','), Bean.twice(b.value), ints.size(), ints.contains(2)]")
+            .execute(ctxt);
+        assertArrayEquals(new Object[]{21, true, 3, "x,y", "", 42, 3, true}, results);
+        final JexlException xjexl = assertThrows(JexlException.class,
+            () -> jexl.createScript("new(Bean, 0).fail('failed')").execute(ctxt));
+        assertInstanceOf(UnsupportedOperationException.class, xjexl.getCause());
+    }
+}
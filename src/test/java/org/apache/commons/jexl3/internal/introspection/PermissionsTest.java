@@ -782,4 +782,34 @@ class PermissionsTest {
             }
         }
     }
+
+    @Test
+    void testMemoizedDecisions() throws Exception {
+        final Method get = HashMap.class.getMethod("get", Object.class);
+        final Method size = Map.class.getMethod("size");
+        final Field i = A.class.getField("i");
+        final JexlPermissions p0 = RESTRICTED.compose("org.apache.commons.jexl3.internal.introspection.*");
+        // decisions are stable when repeated
+        for (int r = 0; r < 3; ++r) {
+            assertTrue(p0.allow(HashMap.class));
+            assertTrue(p0.allow(get));
+            assertTrue(p0.allow(HashMap.class, size));
+            assertTrue(p0.allow(A0.class, i));
+            assertFalse(p0.allow(FileWriter.class.getConstructor(String.class)));
+        }
+        // composing does not reuse the decisions of the composed permissions
+        final JexlPermissions p1 = p0.compose("java.util { HashMap {} }",
+            "org.apache.commons.jexl3.internal.introspection { PermissionsTest$A { i; } }");
+        for (int r = 0; r < 3; ++r) {
+            assertFalse(p1.allow(HashMap.class));
+            assertFalse(p1.allow(get));
+            assertFalse(p1.allow(HashMap.class, size));
+            assertFalse(p1.allow(A0.class, i));
+            // the composed permissions are unchanged
+            assertTrue(p0.allow(HashMap.class));
+            assertTrue(p0.allow(get));
+            assertTrue(p0.allow(HashMap.class, size));
+            assertTrue(p0.allow(A0.class, i));
+        }
+    }
 }
@@ -18,6 +18,9 @@ package org.apache.commons.jexl3.introspection;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -633,4 +636,38 @@ class SandboxTest extends JexlTestCase {
         assertEquals("bar", x.get("foo"));
     }
 
+    @Test
+    void testSnapshot() {
+        final JexlSandbox sandbox = new JexlSandbox(false, true);
+        sandbox.allow(List.class.getName()).execute("size");
+        final JexlSandbox s0 = sandbox.snapshot();
+        // an unmodified sandbox shares its snapshot
+        assertSame(s0, sandbox.snapshot());
+        assertSame(s0, s0.snapshot());
+        assertSame(s0.get(ArrayList.class), s0.get(ArrayList.class));
+        assertEquals("size", s0.execute(ArrayList.class, "size"));
+        assertNull(s0.execute(ArrayList.class, "add"));
+        assertNull(s0.read(Map.class, "foo"));
+        // modifying the sandbox creates a new snapshot, the previous one is unchanged
+        sandbox.get(List.class).execute("add");
+        final JexlSandbox s1 = sandbox.snapshot();
+        assertNotSame(s0, s1);
+        assertEquals("add", s1.execute(ArrayList.class, "add"));
+        assertNull(s0.execute(ArrayList.class, "add"));
+        sandbox.allow(Map.class.getName());
+        final JexlSandbox s2 = sandbox.snapshot();
+        assertNotSame(s1, s2);
+        assertEquals("foo", s2.read(LinkedHashMap.class, "foo"));
+        assertNull(s1.read(LinkedHashMap.class, "foo"));
+        // engines built from the same sandbox behave alike
+        final JexlEngine e0 = new JexlBuilder().sandbox(sandbox).safe(false).strict(true).create();
+        final JexlEngine e1 = new JexlBuilder().sandbox(sandbox).safe(false).strict(true).create();
+        final List<String> foo = new ArrayList<>();
+        for (final JexlEngine engine : Arrays.asList(e0, e1)) {
+            assertEquals(true, engine.createScript("foo.add(y)", "foo", "y").execute(null, foo, "42"));
+            assertThrows(JexlException.class, () -> engine.createScript("foo.clear()", "foo").execute(null, foo));
+        }
+        assertEquals(2, foo.size());
+    }
+
 }
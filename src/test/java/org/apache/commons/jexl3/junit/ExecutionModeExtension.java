@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.junit;
+
+import org.apache.commons.jexl3.JexlBuilder;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Sets the execution mode of the engines the tests create.
+ * <p>This extension is registered through the service loader. When the {@value #COMPILE_THRESHOLD}
+ * configuration parameter or system property is set, it becomes the default compile threshold of builders;
+ * running the tests with {@code -Djexl.compileThreshold=0} runs them all in the compiled execution mode.</p>
+ */
+public class ExecutionModeExtension implements BeforeAllCallback {
+    /** The configuration parameter name. */
+    public static final String COMPILE_THRESHOLD = "jexl.compileThreshold";
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        context.getConfigurationParameter(COMPILE_THRESHOLD, Integer::valueOf)
+            .ifPresent(JexlBuilder::setDefaultCompileThreshold);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.jexl3.parser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.commons.jexl3.introspection.JexlPermissions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the constant folding pass.
+ */
+class ConstantFolderTest {
+
+    /**
+     * An arithmetic that overloads addition.
+     */
+    public static class PlusArithmetic extends JexlArithmetic {
+        public PlusArithmetic(final boolean strict) {
+            super(strict);
+        }
+
+        public Object add(final Integer left, final Integer right) {
+            return left * 10 + right;
+        }
+    }
+
+    private static final String[] SCRIPTS = {
+        "1 + 2 * 3",
+        "(1 + 2) * 3 - -4",
+        "7 / 2 + 7 % 2 + 0.5",
+        "'a' + 'b' + 'c'",
+        "'1' + 2",
+        "2 + '1'",
+        "1.5b + 1",
+        "2 > 1 && 'a' < 'b' && !(3 <= 2)",
+        "1 == 1.0 && 1 != 2 && true == !false",
+        "1 === 1.0 || 1 !== 1",
+        "x + 2 * 3",
+        "1 / 0",
+        "[1, 2 + 3, 'a' + 'b']",
+        "{ 'a' + 'b' : 1 + 1, 'c' : true }",
+        "{ 1, 2, 3 - 1 }",
+        "[1, 2, ...]",
+        "var t = 0; for (var i : 1 .. 3) { t += i * (2 + 2) } t"
+    };
+
+    private static JexlEngine createEngine(final boolean folding, final boolean strict) {
+        return new JexlBuilder().constantFolding(folding).strict(strict).cache(0).create();
+    }
+
+    private static Object evaluate(final JexlEngine jexl, final String src) {
+        final JexlContext ctxt = new MapContext();
+        ctxt.set("x", 1);
+        try {
+            final Object result = jexl.createScript(src).execute(ctxt);
+            return result != null && result.getClass().isArray() ? Arrays.asList((Object[]) result) : result;
+        } catch (final JexlException xjexl) {
+            return xjexl.getClass();
+        }
+    }
+
+    @Test
+    void testFolded() {
+        final JexlEngine jexl = createEngine(true, false);
+        assertEquals("7", jexl.createScript("1 + 2 * 3").getParsedText());
+        assertEquals("13", jexl.createScript("(1 + 2) * 3 - -4").getParsedText());
+        assertEquals("'abc'", jexl.createScript("'a' + 'b' + 'c'").getParsedText());
+        assertEquals("true && x", jexl.createScript("3 > 2 && x").getParsedText());
+        assertEquals("x + 6", jexl.createScript("x + 2 * 3").getParsedText());
+        // option or context dependent, not folded
+        assertEquals("'1' + 2", jexl.createScript("'1' + 2").getParsedText());
+        assertEquals("1 / 0", jexl.createScript("1 / 0").getParsedText());
+    }
+
+    @Test
+    void testSameResults() {
+        for (final boolean strict : new boolean[]{false, true}) {
+            final JexlEngine folding = createEngine(true, strict);
+            final JexlEngine plain = createEngine(false, strict);
+            for (final String src : SCRIPTS) {
+                assertEquals(evaluate(plain, src), evaluate(folding, src), src);
+            }
+        }
+    }
+
+    @Test
+    void testOverloadNotFolded() {
+        final JexlEngine jexl = new JexlBuilder()
+            .constantFolding(true)
+            .arithmetic(new PlusArithmetic(true))
+            .permissions(JexlPermissions.UNRESTRICTED)
+            .create();
+        final JexlScript script = jexl.createScript("1 + 2 * 3");
+        assertEquals("1 + 6", script.getParsedText());
+        assertEquals(16, script.execute(null));
+    }
+
+    @Test
+    void testFreshCollections() {
+        final JexlEngine jexl = createEngine(true, true);
+        final JexlScript script = jexl.createScript("[1, 2, 3]");
+        final Object first = script.execute(null);
+        final Object second = script.execute(null);
+        assertInstanceOf(int[].class, first);
+        assertNotSame(first, second);
+        final JexlScript map = jexl.createScript("{ 'a' : 1 }");
+        assertNotSame(map.execute(null), map.execute(null));
+    }
+
+    @Test
+    void testErrorsAtRuntime() {
+        final JexlScript script = createEngine(true, true).createScript("x + 1 / 0");
+        assertThrows(JexlException.class, () -> script.execute(null));
+    }
+}
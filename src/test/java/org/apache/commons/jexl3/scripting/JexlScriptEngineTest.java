@@ -21,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -35,7 +36,9 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -45,7 +48,10 @@ import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
 
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
+import org.apache.commons.jexl3.internal.SoftCache;
 import org.apache.commons.jexl3.introspection.JexlPermissions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -160,6 +166,108 @@ class JexlScriptEngineTest {
         assertInstanceOf(IllegalArgumentException.class, assertThrows(ScriptException.class, script1::eval).getCause());
     }
 
+    public interface Adder {
+        int add(int x, int y);
+    }
+
+    @Test
+    void testInvocable() throws Exception {
+        final ScriptEngineManager manager = new ScriptEngineManager();
+        final JexlScriptEngine engine = (JexlScriptEngine) manager.getEngineByName("JEXL");
+        engine.eval("var k = 2; add = (x, y) -> k * x + y; sub = function(x, y) { x - y }");
+        assertEquals(24, engine.invokeFunction("add", 10, 4));
+        assertEquals(6, engine.invokeFunction("sub", 10, 4));
+        // reusing the script context, not the script
+        engine.put("k", 100);
+        assertEquals(24, engine.invokeFunction("add", 10, 4));
+        assertThrows(NoSuchMethodException.class, () -> engine.invokeFunction("mul", 10, 4));
+        assertThrows(NoSuchMethodException.class, () -> engine.invokeFunction("k", 10, 4));
+        final Adder adder = engine.getInterface(Adder.class);
+        assertEquals(44, adder.add(20, 4));
+        assertEquals(adder, adder);
+        // methods
+        assertEquals("ABC", engine.invokeMethod("abc", "toUpperCase"));
+        assertThrows(NoSuchMethodException.class, () -> engine.invokeMethod("abc", "toUpperCamelCase"));
+        assertThrows(IllegalArgumentException.class, () -> engine.invokeMethod(null, "toUpperCase"));
+        final CharSequence chars = engine.getInterface("abc", CharSequence.class);
+        assertEquals(3, chars.length());
+        assertEquals('b', chars.charAt(1));
+        assertThrows(IllegalArgumentException.class, () -> engine.getInterface(String.class));
+        // no function or method to implement the interface
+        assertNull(engine.getInterface(Runnable.class));
+        assertNull(engine.getInterface("abc", Runnable.class));
+    }
+
+    @Test
+    void testInvokeMethodSilent() throws Exception {
+        final JexlEngine jexl = new JexlBuilder().silent(true).permissions(JexlPermissions.UNRESTRICTED).create();
+        final JexlScriptEngine engine = new JexlScriptEngine(new JexlScriptEngineFactory() {
+            @Override
+            protected JexlEngine getEngine() {
+                return jexl;
+            }
+        });
+        assertEquals("ABC", engine.invokeMethod("abc", "toUpperCase"));
+        // the silent engine returns null, not an existing method
+        assertThrows(NoSuchMethodException.class, () -> engine.invokeMethod("abc", "toUpperCamelCase"));
+        // an existing method returning null
+        assertNull(engine.invokeMethod(new HashMap<>(), "get", "abc"));
+    }
+
+    @Test
+    void testCachedScripts() throws Exception {
+        final ScriptEngineManager manager = new ScriptEngineManager();
+        final JexlScriptEngine engine = (JexlScriptEngine) manager.getEngineByName("JEXL");
+        final StringBuilder strb = new StringBuilder("x = 0;");
+        for (int i = 0; i < 100; ++i) {
+            strb.append(" x = x + ").append(i).append(';');
+        }
+        final String src = strb.toString();
+        assertEquals(4950, engine.eval(src));
+        assertEquals(4950, engine.eval(new StringReader(src)));
+        final CompiledScript script = engine.compile(src);
+        assertEquals(src, script.toString());
+        assertEquals(4950, script.eval());
+        // the long source is compiled once
+        assertSame(((JexlScriptEngine.JexlCompiledScript) script).getScript(),
+            ((JexlScriptEngine.JexlCompiledScript) engine.compile(src)).getScript());
+        // engine scope comes first, global scope is still visible
+        manager.put("y", 1);
+        engine.put("z", 2);
+        assertEquals(3, engine.eval("y + z"));
+        manager.put("z", 40);
+        assertEquals(3, engine.eval("y + z"));
+    }
+
+    @Test
+    void testCacheFactory() throws Exception {
+        final List<Integer> capacities = new ArrayList<>();
+        final JexlEngine jexl = new JexlBuilder().cache(0).cacheFactory(capacity -> {
+            capacities.add(capacity);
+            return new SoftCache<>(capacity);
+        }).create();
+        final JexlScriptEngineFactory factory = new JexlScriptEngineFactory() {
+            @Override
+            protected JexlEngine getEngine() {
+                return jexl;
+            }
+        };
+        final JexlScriptEngine engine = new JexlScriptEngine(factory);
+        assertTrue(capacities.contains(JexlScriptEngine.CACHE_SIZE), capacities::toString);
+        assertEquals(3, engine.eval("1 + 2"));
+        assertSame(((JexlScriptEngine.JexlCompiledScript) engine.compile("1 + 2")).getScript(),
+            ((JexlScriptEngine.JexlCompiledScript) engine.compile("1 + 2")).getScript());
+        // no cache
+        final JexlEngine nocache = new JexlBuilder().cache(0).cacheFactory(capacity -> null).create();
+        final JexlScriptEngine uncached = new JexlScriptEngine(new JexlScriptEngineFactory() {
+            @Override
+            protected JexlEngine getEngine() {
+                return nocache;
+            }
+        });
+        assertEquals(3, uncached.eval("1 + 2"));
+    }
+
     @Test
     void testNulls() {
         final ScriptEngineManager manager = new ScriptEngineManager();